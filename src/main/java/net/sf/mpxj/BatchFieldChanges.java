@@ -0,0 +1,119 @@
+/*
+ * file:       BatchFieldChanges.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.sf.mpxj.listener.FieldListener;
+
+/**
+ * Records the field changes made to tasks, resources and resource
+ * assignments during a batch of updates, and passes them to the
+ * field listeners when the batch ends. Changes may be recorded
+ * from multiple threads when derived fields are calculated in parallel.
+ */
+final class BatchFieldChanges
+{
+   /**
+    * Record a field change. Only the value held before the first
+    * change to each field is retained.
+    *
+    * @param container entity which has changed
+    * @param listeners the entity's field listeners
+    * @param field field changed
+    * @param oldValue old field value
+    */
+   public synchronized void record(FieldContainer container, List<FieldListener> listeners, FieldType field, Object oldValue)
+   {
+      ContainerChanges changes = m_index.get(container);
+      if (changes == null)
+      {
+         changes = new ContainerChanges(container, listeners);
+         m_index.put(container, changes);
+         m_changes.add(changes);
+      }
+
+      if (!changes.m_fields.containsKey(field))
+      {
+         changes.m_fields.put(field, oldValue);
+      }
+   }
+
+   /**
+    * Pass the recorded changes to the field listeners. Each listener
+    * receives one event for each changed field, in the order in which
+    * the entities were first changed. Fields which have been restored
+    * to their original value are not reported.
+    */
+   public void fireFieldChangeEvents()
+   {
+      for (ContainerChanges changes : m_changes)
+      {
+         FieldContainer container = changes.m_container;
+         for (Map.Entry<FieldType, Object> entry : changes.m_fields.entrySet())
+         {
+            FieldType field = entry.getKey();
+            Object oldValue = entry.getValue();
+            Object newValue = container.getCachedValue(field);
+            if (!Objects.equals(oldValue, newValue))
+            {
+               for (FieldListener listener : changes.m_listeners)
+               {
+                  listener.fieldChange(container, field, oldValue, newValue);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * The changes recorded for a single entity.
+    */
+   private static final class ContainerChanges
+   {
+      /**
+       * Constructor.
+       *
+       * @param container entity which has changed
+       * @param listeners the entity's field listeners
+       */
+      public ContainerChanges(FieldContainer container, List<FieldListener> listeners)
+      {
+         m_container = container;
+         m_listeners = listeners;
+      }
+
+      final FieldContainer m_container;
+      final List<FieldListener> m_listeners;
+      final Map<FieldType, Object> m_fields = new LinkedHashMap<>();
+   }
+
+   private final Map<FieldContainer, ContainerChanges> m_index = new IdentityHashMap<>();
+   private final List<ContainerChanges> m_changes = new ArrayList<>();
+}
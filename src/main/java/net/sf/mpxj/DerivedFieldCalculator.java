@@ -0,0 +1,171 @@
+/*
+ * file:       DerivedFieldCalculator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       13/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import net.sf.mpxj.common.ParallelHelper;
+
+/**
+ * Calculates the derived fields for all of the tasks in a project: the
+ * variances, slack, critical flag and complete through date. Each task
+ * caches these values once they have been calculated, and discards
+ * them when the fields they are based on change, so calculating them
+ * up front means that exporters and other code reading these fields
+ * repeatedly for every task will find the values already present.
+ *
+ * Tasks are processed in parallel using a fork-join pool. Calendars
+ * cache the results of date calculations and are not safe to use from
+ * multiple threads, so the fields which require a calendar are
+ * calculated for all of the tasks sharing the same base calendar on a
+ * single thread. Field listeners attached to tasks are notified of the
+ * calculated values on the calling thread once all of the values have
+ * been calculated. The project should not be modified while the
+ * derived fields are being calculated.
+ */
+public final class DerivedFieldCalculator
+{
+   /**
+    * Constructor. Tasks are processed using the common fork-join pool.
+    */
+   public DerivedFieldCalculator()
+   {
+      this(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param pool fork-join pool used to process tasks
+    */
+   public DerivedFieldCalculator(ForkJoinPool pool)
+   {
+      m_pool = pool;
+   }
+
+   /**
+    * Calculate the derived fields for all tasks in a project.
+    *
+    * @param file parent project
+    */
+   public void computeDerivedFields(ProjectFile file)
+   {
+      List<Task> tasks = file.getTasks();
+      if (tasks.isEmpty())
+      {
+         return;
+      }
+
+      List<List<Task>> groups = getCalendarGroups(tasks);
+
+      file.beginBatchUpdate();
+      try
+      {
+         ParallelHelper.forEach(m_pool, tasks.size(), ROWS_PER_TASK, index -> computeFields(tasks.get(index)));
+         ParallelHelper.forEach(m_pool, groups.size(), 1, index -> computeCalendarFields(groups.get(index)));
+      }
+
+      finally
+      {
+         file.endBatchUpdate();
+      }
+   }
+
+   /**
+    * Divide the tasks into groups, where all of the tasks in a group
+    * share the same base calendar. Retrieving the effective calendar
+    * for each task here also ensures that the project's default calendar
+    * is created, if necessary, before the tasks are processed in parallel.
+    *
+    * @param tasks tasks to process
+    * @return groups of tasks
+    */
+   private List<List<Task>> getCalendarGroups(List<Task> tasks)
+   {
+      Map<ProjectCalendar, List<Task>> map = new IdentityHashMap<>();
+      List<Task> noCalendar = new ArrayList<>();
+
+      for (Task task : tasks)
+      {
+         ProjectCalendar calendar = task.getEffectiveCalendar();
+         if (calendar == null)
+         {
+            noCalendar.add(task);
+            continue;
+         }
+
+         while (calendar.getParent() != null)
+         {
+            calendar = calendar.getParent();
+         }
+         map.computeIfAbsent(calendar, k -> new ArrayList<>()).add(task);
+      }
+
+      List<List<Task>> result = new ArrayList<>(map.values());
+      if (!noCalendar.isEmpty())
+      {
+         result.add(noCalendar);
+      }
+      return result;
+   }
+
+   /**
+    * Calculate the derived fields which do not require a calendar.
+    *
+    * @param task task to process
+    */
+   private void computeFields(Task task)
+   {
+      task.getCostVariance();
+      task.getDurationVariance();
+      task.getWorkVariance();
+      task.getCV();
+      task.getSV();
+   }
+
+   /**
+    * Calculate the derived fields which require a calendar for
+    * a group of tasks sharing the same base calendar.
+    *
+    * @param tasks tasks to process
+    */
+   private void computeCalendarFields(List<Task> tasks)
+   {
+      for (Task task : tasks)
+      {
+         task.getStartVariance();
+         task.getFinishVariance();
+         task.getCritical();
+         task.getCompleteThrough();
+      }
+   }
+
+   private final ForkJoinPool m_pool;
+
+   private static final int ROWS_PER_TASK = 256;
+}
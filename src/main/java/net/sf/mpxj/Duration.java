@@ -304,7 +304,14 @@ public final class Duration implements Comparable<Duration>
       }
       else
       {
-         result = new Duration(duration, type);
+         if (duration > 0 && duration <= MAX_CACHED_DURATION && duration == (int) duration)
+         {
+            result = getCachedInstance((int) duration, type);
+         }
+         else
+         {
+            result = new Duration(duration, type);
+         }
       }
       return (result);
    }
@@ -326,11 +333,48 @@ public final class Duration implements Comparable<Duration>
       }
       else
       {
-         result = new Duration(duration, type);
+         if (duration > 0 && duration <= MAX_CACHED_DURATION)
+         {
+            result = getCachedInstance(duration, type);
+         }
+         else
+         {
+            result = new Duration(duration, type);
+         }
       }
       return (result);
    }
 
+   /**
+    * Retrieve a shared instance representing a small whole number
+    * duration. Schedules typically use a handful of these values
+    * (1d, 5d, 8h and so on) many times over. The shared instances
+    * are created on demand. As Duration instances are immutable,
+    * if two threads race to create the same value, either result
+    * can safely be used.
+    *
+    * @param duration duration value
+    * @param type duration type
+    * @return Duration instance
+    */
+   private static Duration getCachedInstance(int duration, TimeUnit type)
+   {
+      Duration[] durations = CACHED_DURATIONS[type.getValue()];
+      if (durations == null)
+      {
+         durations = new Duration[MAX_CACHED_DURATION + 1];
+         CACHED_DURATIONS[type.getValue()] = durations;
+      }
+
+      Duration result = durations[duration];
+      if (result == null)
+      {
+         result = new Duration(duration, type);
+         durations[duration] = result;
+      }
+      return result;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -436,12 +480,12 @@ public final class Duration implements Comparable<Duration>
    /**
     * Duration amount.
     */
-   private double m_duration;
+   private final double m_duration;
 
    /**
     * Duration type.
     */
-   private TimeUnit m_units;
+   private final TimeUnit m_units;
 
    private static final Duration[] ZERO_DURATIONS =
    {
@@ -460,4 +504,8 @@ public final class Duration implements Comparable<Duration>
       new Duration(0, TimeUnit.ELAPSED_YEARS),
       new Duration(0, TimeUnit.ELAPSED_PERCENT)
    };
+
+   private static final int MAX_CACHED_DURATION = 1000;
+
+   private static final Duration[][] CACHED_DURATIONS = new Duration[TimeUnit.values().length][];
 }
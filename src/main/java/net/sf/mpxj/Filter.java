@@ -25,6 +25,7 @@ package net.sf.mpxj;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * This class represents a filter which may be applied to a
@@ -188,6 +189,60 @@ public final class Filter
       return (result);
    }
 
+   /**
+    * Compile the filter into a predicate which gives the same results as
+    * the evaluate method. The predicate can be reused for many rows.
+    * Reading a field from a task or resource may cause it to calculate and
+    * cache the value, which is not thread safe, so the predicate should not
+    * be tested against tasks or resources from multiple threads, for
+    * example as part of a parallel stream. To test rows in parallel,
+    * evaluate the predicate against a snapshot of the field values read
+    * on a single thread, as FilterGroupEvaluator does.
+    *
+    * @param promptValues response to prompts
+    * @return predicate
+    */
+   public Predicate<FieldContainer> compile(Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      if (m_criteria == null)
+      {
+         return c -> true;
+      }
+
+      Predicate<FieldContainer> criteria = m_criteria.compile(promptValues);
+      if (!m_showRelatedSummaryRows)
+      {
+         return criteria;
+      }
+
+      return new Predicate<FieldContainer>()
+      {
+         @Override public boolean test(FieldContainer container)
+         {
+            //
+            // If this row has failed, but it is a summary row, then we need
+            // to recursively test its children
+            //
+            if (criteria.test(container))
+            {
+               return true;
+            }
+
+            if (container instanceof Task)
+            {
+               for (Task task : ((Task) container).getChildTasks())
+               {
+                  if (test(task))
+                  {
+                     return true;
+                  }
+               }
+            }
+            return false;
+         }
+      };
+   }
+
    /**
     * Sets the prompts to supply the parameters required by this filter.
     *
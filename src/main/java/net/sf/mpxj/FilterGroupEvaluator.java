@@ -0,0 +1,632 @@
+/*
+ * file:       FilterGroupEvaluator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       05/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.ParallelHelper;
+import net.sf.mpxj.listener.FieldListener;
+
+/**
+ * Applies filters and groups to all of the tasks or resources in a project.
+ *
+ * Rows are identified by their position in the list returned by
+ * ProjectFile.getTasks() or ProjectFile.getResources(). The values of the
+ * fields used by a filter or group are first read from each row. Reading
+ * values may cause tasks and resources to calculate and cache values, and
+ * this is not safe to do from multiple threads, so this step is sequential.
+ * The filter criteria are then compiled, and the criteria are tested and
+ * group values calculated for each row in parallel using a fork-join pool.
+ * The project should not be modified while a filter or group is being applied.
+ */
+public final class FilterGroupEvaluator
+{
+   /**
+    * Constructor. Rows are processed using the common fork-join pool.
+    *
+    * @param file parent project
+    */
+   public FilterGroupEvaluator(ProjectFile file)
+   {
+      this(file, ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param file parent project
+    * @param pool fork-join pool used to process rows
+    */
+   public FilterGroupEvaluator(ProjectFile file, ForkJoinPool pool)
+   {
+      m_file = file;
+      m_pool = pool;
+   }
+
+   /**
+    * Apply a filter to all tasks.
+    *
+    * @param name filter name
+    * @param promptValues responses to prompts
+    * @return set of matching task positions, or null if the filter is not found
+    */
+   public BitSet applyTaskFilter(String name, Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      Filter filter = m_file.getFilters().getFilterByName(name);
+      return filter == null ? null : applyFilter(filter, m_file.getTasks(), promptValues);
+   }
+
+   /**
+    * Apply a filter to all resources.
+    *
+    * @param name filter name
+    * @param promptValues responses to prompts
+    * @return set of matching resource positions, or null if the filter is not found
+    */
+   public BitSet applyResourceFilter(String name, Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      Filter filter = m_file.getFilters().getFilterByName(name);
+      return filter == null ? null : applyFilter(filter, m_file.getResources(), promptValues);
+   }
+
+   /**
+    * Apply a filter to a list of rows. The result is the same as calling
+    * Filter.evaluate for each row. Where the filter shows related summary
+    * rows, the parent tasks of matching tasks are included if they are
+    * also present in the list.
+    *
+    * @param filter filter to apply
+    * @param rows tasks or resources
+    * @param promptValues responses to prompts
+    * @return set of matching row positions
+    */
+   public BitSet applyFilter(Filter filter, List<? extends FieldContainer> rows, Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      int count = rows.size();
+      BitSet result = new BitSet(count);
+      GenericCriteria criteria = filter.getCriteria();
+      if (criteria == null)
+      {
+         result.set(0, count);
+         return result;
+      }
+
+      Set<FieldType> currentFields = new LinkedHashSet<>();
+      Set<FieldType> cachedFields = new LinkedHashSet<>();
+      addFields(criteria, currentFields, cachedFields);
+      RowValues values = new RowValues(rows, currentFields, cachedFields);
+
+      Predicate<FieldContainer> predicate = criteria.compile(promptValues);
+      boolean[] matches = new boolean[count];
+      forEachRow(count, row -> matches[row] = predicate.test(values.getRow(row)));
+
+      for (int row = 0; row < count; row++)
+      {
+         if (matches[row])
+         {
+            result.set(row);
+         }
+      }
+
+      if (filter.getShowRelatedSummaryRows())
+      {
+         addSummaryRows(rows, result);
+      }
+
+      return result;
+   }
+
+   /**
+    * Apply a group to tasks.
+    *
+    * @param name group name
+    * @param selection positions of the tasks to group, or null for all tasks
+    * @return grouped tasks, or null if the group is not found
+    */
+   public GroupedRows applyTaskGroup(String name, BitSet selection)
+   {
+      Group group = m_file.getGroups().getByName(name);
+      return group == null ? null : applyGroup(group, m_file.getTasks(), selection);
+   }
+
+   /**
+    * Apply a group to resources.
+    *
+    * @param name group name
+    * @param selection positions of the resources to group, or null for all resources
+    * @return grouped resources, or null if the group is not found
+    */
+   public GroupedRows applyResourceGroup(String name, BitSet selection)
+   {
+      Group group = m_file.getGroups().getByName(name);
+      return group == null ? null : applyGroup(group, m_file.getResources(), selection);
+   }
+
+   /**
+    * Apply a group to a list of rows.
+    *
+    * Each group clause contributes one value to the key identifying a
+    * group. Where a clause has a non-zero group on value and a positive
+    * group interval, numeric values are placed in intervals of that size
+    * measured from the start at value, durations in intervals measured in
+    * the project's default duration units, and dates in intervals of that
+    * number of days. Otherwise each distinct value forms its own group,
+    * with dates grouped by day and durations converted to the project's
+    * default duration units. Rows without a value are placed in groups
+    * which sort after all other groups.
+    *
+    * @param group group to apply
+    * @param rows tasks or resources
+    * @param selection positions of the rows to group, or null for all rows
+    * @return grouped rows
+    */
+   public GroupedRows applyGroup(Group group, List<? extends FieldContainer> rows, BitSet selection)
+   {
+      int count = rows.size();
+      List<GroupClause> clauses = group.getGroupClauses();
+      Set<FieldType> fields = new LinkedHashSet<>();
+      for (GroupClause clause : clauses)
+      {
+         fields.add(clause.getField());
+      }
+
+      RowValues values = new RowValues(rows, fields, new LinkedHashSet<>());
+      ProjectProperties properties = m_file.getProjectProperties();
+      Object[][] rowKeys = new Object[count][];
+      forEachRow(count, row -> {
+         if (selection == null || selection.get(row))
+         {
+            FieldContainer container = values.getRow(row);
+            Object[] key = new Object[clauses.size()];
+            for (int index = 0; index < key.length; index++)
+            {
+               GroupClause clause = clauses.get(index);
+               key[index] = getGroupValue(clause, container.getCurrentValue(clause.getField()), properties);
+            }
+            rowKeys[row] = key;
+         }
+      });
+
+      //
+      // Collect the rows for each group, then sort the groups
+      //
+      Map<List<Object>, List<Integer>> map = new LinkedHashMap<>();
+      for (int row = 0; row < count; row++)
+      {
+         if (rowKeys[row] != null)
+         {
+            map.computeIfAbsent(Arrays.asList(rowKeys[row]), k -> new ArrayList<>()).add(Integer.valueOf(row));
+         }
+      }
+
+      List<List<Object>> keys = new ArrayList<>(map.keySet());
+      keys.sort((key1, key2) -> compareKeys(clauses, key1, key2));
+
+      Object[][] groupKeys = new Object[keys.size()][];
+      int[][] groupRows = new int[keys.size()][];
+      int[] rowGroups = new int[count];
+      Arrays.fill(rowGroups, -1);
+
+      for (int groupIndex = 0; groupIndex < groupKeys.length; groupIndex++)
+      {
+         List<Object> key = keys.get(groupIndex);
+         List<Integer> list = map.get(key);
+         groupKeys[groupIndex] = key.toArray();
+         groupRows[groupIndex] = new int[list.size()];
+         for (int index = 0; index < groupRows[groupIndex].length; index++)
+         {
+            int row = list.get(index).intValue();
+            groupRows[groupIndex][index] = row;
+            rowGroups[row] = groupIndex;
+         }
+      }
+
+      return new GroupedRows(groupKeys, groupRows, rowGroups);
+   }
+
+   /**
+    * Collect the fields referenced by a criteria tree. Fields on the left
+    * hand side of a test are read using getCurrentValue, fields on the
+    * right hand side are read using getCachedValue.
+    *
+    * @param criteria criteria tree
+    * @param currentFields fields read using getCurrentValue
+    * @param cachedFields fields read using getCachedValue
+    */
+   private void addFields(GenericCriteria criteria, Set<FieldType> currentFields, Set<FieldType> cachedFields)
+   {
+      if (criteria.getLeftValue() != null)
+      {
+         currentFields.add(criteria.getLeftValue());
+      }
+
+      for (int index = 0; index < 2; index++)
+      {
+         Object value = criteria.getValue(index);
+         if (value instanceof FieldType)
+         {
+            cachedFields.add((FieldType) value);
+         }
+      }
+
+      for (GenericCriteria child : criteria.getCriteriaList())
+      {
+         addFields(child, currentFields, cachedFields);
+      }
+   }
+
+   /**
+    * Add the parent tasks of each matching task to the result.
+    *
+    * @param rows tasks or resources
+    * @param result matching rows
+    */
+   private void addSummaryRows(List<? extends FieldContainer> rows, BitSet result)
+   {
+      Map<Task, Integer> ordinals = new HashMap<>();
+      for (int row = 0; row < rows.size(); row++)
+      {
+         FieldContainer container = rows.get(row);
+         if (container instanceof Task)
+         {
+            ordinals.put((Task) container, Integer.valueOf(row));
+         }
+      }
+
+      if (ordinals.isEmpty())
+      {
+         return;
+      }
+
+      BitSet matches = (BitSet) result.clone();
+      BitSet visited = new BitSet(rows.size());
+      for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1))
+      {
+         if (!(rows.get(row) instanceof Task))
+         {
+            continue;
+         }
+
+         Task parent = ((Task) rows.get(row)).getParentTask();
+         while (parent != null)
+         {
+            Integer ordinal = ordinals.get(parent);
+            if (ordinal == null || visited.get(ordinal.intValue()))
+            {
+               break;
+            }
+            visited.set(ordinal.intValue());
+            result.set(ordinal.intValue());
+            parent = parent.getParentTask();
+         }
+      }
+   }
+
+   /**
+    * Calculate the value used to group a row.
+    *
+    * @param clause group clause
+    * @param value field value
+    * @param properties project properties
+    * @return group value
+    */
+   static Object getGroupValue(GroupClause clause, Object value, ProjectProperties properties)
+   {
+      if (value == null)
+      {
+         return null;
+      }
+
+      Object interval = clause.getGroupInterval();
+      double size = clause.getGroupOn() != 0 && interval instanceof Number ? ((Number) interval).doubleValue() : 0;
+      Object startAt = clause.getStartAt();
+
+      switch (clause.getField().getDataType())
+      {
+         case DATE:
+         {
+            Date day = DateHelper.getDayStartDate((Date) value);
+            if (size < 1 || !(startAt instanceof Date))
+            {
+               return day;
+            }
+
+            //
+            // Count whole days, allowing for days which are not
+            // 24 hours long due to daylight saving time
+            //
+            Date start = DateHelper.getDayStartDate((Date) startAt);
+            long days = Math.floorDiv(day.getTime() - start.getTime() + (DateHelper.MS_PER_DAY / 2), DateHelper.MS_PER_DAY);
+            int intervalSize = (int) size;
+            Calendar cal = DateHelper.popCalendar(start);
+            cal.add(Calendar.DAY_OF_YEAR, (int) (Math.floorDiv(days, intervalSize) * intervalSize));
+            Date result = cal.getTime();
+            DateHelper.pushCalendar(cal);
+            return result;
+         }
+
+         case DURATION:
+         {
+            TimeUnit units = properties.getDefaultDurationUnits();
+            Duration duration = (Duration) value;
+            if (duration.getUnits() != units)
+            {
+               duration = duration.convertUnits(units, properties);
+            }
+
+            if (size <= 0)
+            {
+               return duration;
+            }
+            return Duration.getInstance(getIntervalStart(duration.getDuration(), startAt, size), units);
+         }
+
+         default:
+         {
+            if (size <= 0 || !(value instanceof Number))
+            {
+               return value;
+            }
+            return Double.valueOf(getIntervalStart(((Number) value).doubleValue(), startAt, size));
+         }
+      }
+   }
+
+   /**
+    * Calculate the start of the interval containing a value.
+    *
+    * @param value value
+    * @param startAt start of the first interval
+    * @param size interval size
+    * @return interval start
+    */
+   private static double getIntervalStart(double value, Object startAt, double size)
+   {
+      double start = startAt instanceof Number ? ((Number) startAt).doubleValue() : 0;
+      return start + Math.floor((value - start) / size) * size;
+   }
+
+   /**
+    * Compare two group keys.
+    *
+    * @param clauses group clauses
+    * @param key1 first key
+    * @param key2 second key
+    * @return comparison result
+    */
+   private static int compareKeys(List<GroupClause> clauses, List<Object> key1, List<Object> key2)
+   {
+      for (int index = 0; index < clauses.size(); index++)
+      {
+         Object value1 = key1.get(index);
+         Object value2 = key2.get(index);
+         int result;
+
+         if (value1 == null || value2 == null)
+         {
+            //
+            // Rows without a value always sort last
+            //
+            result = value1 == value2 ? 0 : value1 == null ? 1 : -1;
+         }
+         else
+         {
+            result = compareValues(value1, value2);
+            if (!clauses.get(index).getAscending())
+            {
+               result = -result;
+            }
+         }
+
+         if (result != 0)
+         {
+            return result;
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * Compare two non-null values.
+    *
+    * @param value1 first value
+    * @param value2 second value
+    * @return comparison result
+    */
+   @SuppressWarnings(
+   {
+      "unchecked",
+      "rawtypes"
+   }) private static int compareValues(Object value1, Object value2)
+   {
+      if (value1 instanceof Comparable && value1.getClass() == value2.getClass())
+      {
+         return ((Comparable) value1).compareTo(value2);
+      }
+      return value1.toString().compareTo(value2.toString());
+   }
+
+   /**
+    * Process each row, in parallel where possible.
+    *
+    * @param count number of rows
+    * @param action action to perform for each row
+    */
+   private void forEachRow(int count, IntConsumer action)
+   {
+      ParallelHelper.forEach(m_pool, count, ROWS_PER_TASK, action);
+   }
+
+   /**
+    * Holds the values of selected fields, read from each row in a list.
+    */
+   private static final class RowValues
+   {
+      /**
+       * Constructor.
+       *
+       * @param rows tasks or resources
+       * @param currentFields fields read using getCurrentValue
+       * @param cachedFields fields read using getCachedValue
+       */
+      public RowValues(List<? extends FieldContainer> rows, Set<FieldType> currentFields, Set<FieldType> cachedFields)
+      {
+         m_currentIndex = getIndex(currentFields);
+         m_cachedIndex = getIndex(cachedFields);
+         m_currentValues = new Object[currentFields.size()][rows.size()];
+         m_cachedValues = new Object[cachedFields.size()][rows.size()];
+
+         int row = 0;
+         for (FieldContainer container : rows)
+         {
+            int index = 0;
+            for (FieldType field : currentFields)
+            {
+               m_currentValues[index++][row] = container.getCurrentValue(field);
+            }
+
+            index = 0;
+            for (FieldType field : cachedFields)
+            {
+               m_cachedValues[index++][row] = container.getCachedValue(field);
+            }
+            ++row;
+         }
+      }
+
+      /**
+       * Retrieve a view of the values read from a row.
+       *
+       * @param row row position
+       * @return field container
+       */
+      public FieldContainer getRow(int row)
+      {
+         return new Row(this, row);
+      }
+
+      /**
+       * Map each field to its position in the set.
+       *
+       * @param fields set of fields
+       * @return map of field to position
+       */
+      private static Map<FieldType, Integer> getIndex(Set<FieldType> fields)
+      {
+         Map<FieldType, Integer> index = new HashMap<>();
+         for (FieldType field : fields)
+         {
+            index.put(field, Integer.valueOf(index.size()));
+         }
+         return index;
+      }
+
+      final Map<FieldType, Integer> m_currentIndex;
+      final Map<FieldType, Integer> m_cachedIndex;
+      final Object[][] m_currentValues;
+      final Object[][] m_cachedValues;
+   }
+
+   /**
+    * Read-only view of the values read from a single row.
+    */
+   private static final class Row implements FieldContainer
+   {
+      /**
+       * Constructor.
+       *
+       * @param values values read from all rows
+       * @param row row position
+       */
+      public Row(RowValues values, int row)
+      {
+         m_values = values;
+         m_row = row;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public void set(FieldType field, Object value)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public Object getCachedValue(FieldType field)
+      {
+         Integer index = m_values.m_cachedIndex.get(field);
+         return index == null ? null : m_values.m_cachedValues[index.intValue()][m_row];
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public Object getCurrentValue(FieldType field)
+      {
+         Integer index = m_values.m_currentIndex.get(field);
+         return index == null ? null : m_values.m_currentValues[index.intValue()][m_row];
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public void addFieldListener(FieldListener listener)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public void removeFieldListener(FieldListener listener)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      private final RowValues m_values;
+      private final int m_row;
+   }
+
+   private final ProjectFile m_file;
+   private final ForkJoinPool m_pool;
+
+   private static final int ROWS_PER_TASK = 1024;
+}
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import net.sf.mpxj.common.DateHelper;
 
@@ -96,7 +97,7 @@ public class GenericCriteria
    {
       m_definedRightValues[index] = value;
 
-      if (value instanceof FieldType)
+      if (value instanceof FieldType || value instanceof GenericCriteriaPrompt)
       {
          m_symbolicValues = true;
       }
@@ -221,6 +222,23 @@ public class GenericCriteria
       return result;
    }
 
+   /**
+    * Compile the criteria into a predicate which gives the same results
+    * as the evaluate method. The predicate can be reused for many rows.
+    * The predicate itself holds no mutable state, but reading a field from
+    * a task or resource may calculate and cache the value, so it should
+    * only be used from multiple threads against snapshots of the field
+    * values, as FilterGroupEvaluator does. The criteria should not be
+    * modified once they have been compiled.
+    *
+    * @param promptValues responses to prompts
+    * @return predicate
+    */
+   public Predicate<FieldContainer> compile(Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      return GenericCriteriaCompiler.compile(this, promptValues);
+   }
+
    /**
     * Evalutes AND and OR operators.
     *
@@ -291,13 +309,16 @@ public class GenericCriteria
 
                case DURATION:
                {
-                  if (value != null && ((Duration) value).getUnits() != TimeUnit.HOURS)
+                  if (value == null)
                   {
-                     value = ((Duration) value).convertUnits(TimeUnit.HOURS, m_properties);
+                     value = Duration.getInstance(0, TimeUnit.HOURS);
                   }
                   else
                   {
-                     value = Duration.getInstance(0, TimeUnit.HOURS);
+                     if (((Duration) value).getUnits() != TimeUnit.HOURS)
+                     {
+                        value = ((Duration) value).convertUnits(TimeUnit.HOURS, m_properties);
+                     }
                   }
                   break;
                }
@@ -327,6 +348,28 @@ public class GenericCriteria
       return (newValues);
    }
 
+   /**
+    * Retrieve a right hand side value, after any constant
+    * conversion has been applied.
+    *
+    * @param index position in the list
+    * @return value
+    */
+   Object getWorkingValue(int index)
+   {
+      return m_workingRightValues[index];
+   }
+
+   /**
+    * Retrieve the project properties used to convert durations.
+    *
+    * @return project properties
+    */
+   ProjectProperties getProperties()
+   {
+      return m_properties;
+   }
+
    /**
     * Retrieves the list of child criteria associated with the current criteria.
     *
@@ -0,0 +1,883 @@
+/*
+ * file:       GenericCriteriaCompiler.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       04/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import net.sf.mpxj.common.DateHelper;
+
+/**
+ * Converts a tree of GenericCriteria instances into a tree of predicates.
+ *
+ * Everything which does not depend on the row being tested is resolved
+ * once, when the criteria are compiled: prompt responses are substituted,
+ * constant values are converted and the operator is used to select a
+ * predicate implementation. Comparisons of dates and durations with
+ * constant values are carried out on primitive values, and the children
+ * of AND and OR criteria are ordered so that the cheapest tests are
+ * evaluated first. The resulting predicates hold no mutable state, so
+ * they can be used concurrently from multiple threads.
+ */
+final class GenericCriteriaCompiler
+{
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private GenericCriteriaCompiler()
+   {
+
+   }
+
+   /**
+    * Compile a criteria tree.
+    *
+    * @param criteria root of the criteria tree
+    * @param promptValues responses to prompts
+    * @return predicate
+    */
+   public static Predicate<FieldContainer> compile(GenericCriteria criteria, Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      return compileCriteria(criteria, promptValues).m_predicate;
+   }
+
+   /**
+    * Compile a single criteria node.
+    *
+    * @param criteria criteria node
+    * @param promptValues responses to prompts
+    * @return compiled criteria
+    */
+   private static CompiledCriteria compileCriteria(GenericCriteria criteria, Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      TestOperator operator = criteria.getOperator();
+      switch (operator)
+      {
+         case AND:
+         case OR:
+         {
+            return compileLogicalOperator(criteria, promptValues);
+         }
+
+         case IS_ANY_VALUE:
+         {
+            return new CompiledCriteria(c -> true, 0);
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+
+      //
+      // Substitute prompt responses and determine if any of the
+      // right hand side values depend on the row being tested.
+      //
+      FieldType field = criteria.getLeftValue();
+      ProjectProperties properties = criteria.getProperties();
+      Object[] values = new Object[2];
+      boolean symbolic = false;
+      for (int index = 0; index < values.length; index++)
+      {
+         Object value = criteria.getWorkingValue(index);
+         if (value instanceof GenericCriteriaPrompt && promptValues != null)
+         {
+            value = promptValues.get(value);
+         }
+         symbolic |= value instanceof FieldType;
+         values[index] = value;
+      }
+
+      if (symbolic)
+      {
+         return new CompiledCriteria(new GenericPredicate(field, properties, operator, values), 3);
+      }
+
+      if (field != null)
+      {
+         switch (field.getDataType())
+         {
+            case DATE:
+            {
+               if (isType(values, Date.class) && DatePredicate.supports(operator))
+               {
+                  return new CompiledCriteria(new DatePredicate(field, operator, values), 1);
+               }
+               break;
+            }
+
+            case DURATION:
+            {
+               if (isDuration(values) && DurationPredicate.supports(operator))
+               {
+                  return new CompiledCriteria(new DurationPredicate(field, properties, operator, values), 1);
+               }
+               break;
+            }
+
+            case STRING:
+            {
+               if (values[0] instanceof String && StringPredicate.supports(operator))
+               {
+                  return new CompiledCriteria(new StringPredicate(field, operator, values), 2);
+               }
+               break;
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+      }
+
+      return new CompiledCriteria(new GenericPredicate(field, properties, operator, values), 2);
+   }
+
+   /**
+    * Compile AND and OR criteria. Evaluation of the criteria has no side
+    * effects, so the child criteria can be evaluated in any order. They
+    * are sorted so that the cheapest are evaluated first.
+    *
+    * @param criteria criteria node
+    * @param promptValues responses to prompts
+    * @return compiled criteria
+    */
+   private static CompiledCriteria compileLogicalOperator(GenericCriteria criteria, Map<GenericCriteriaPrompt, Object> promptValues)
+   {
+      List<CompiledCriteria> list = new ArrayList<>();
+      int cost = 0;
+      for (GenericCriteria child : criteria.getCriteriaList())
+      {
+         CompiledCriteria compiled = compileCriteria(child, promptValues);
+         list.add(compiled);
+         cost += compiled.m_cost;
+      }
+
+      if (list.isEmpty())
+      {
+         return new CompiledCriteria(c -> true, 0);
+      }
+
+      if (list.size() == 1)
+      {
+         return list.get(0);
+      }
+
+      list.sort(Comparator.comparingInt(c -> c.m_cost));
+
+      @SuppressWarnings("unchecked")
+      Predicate<FieldContainer>[] predicates = new Predicate[list.size()];
+      for (int index = 0; index < predicates.length; index++)
+      {
+         predicates[index] = list.get(index).m_predicate;
+      }
+
+      Predicate<FieldContainer> predicate = criteria.getOperator() == TestOperator.AND ? new AndPredicate(predicates) : new OrPredicate(predicates);
+      return new CompiledCriteria(predicate, cost);
+   }
+
+   /**
+    * Determine if all non-null values are of the expected type.
+    *
+    * @param values values to test
+    * @param type expected type
+    * @return true if the values are of the expected type
+    */
+   private static boolean isType(Object[] values, Class<?> type)
+   {
+      for (Object value : values)
+      {
+         if (value != null && !type.isInstance(value))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Determine if all non-null values are durations expressed in hours.
+    *
+    * @param values values to test
+    * @return true if the values are durations in hours
+    */
+   private static boolean isDuration(Object[] values)
+   {
+      for (Object value : values)
+      {
+         if (value != null && !(value instanceof Duration && ((Duration) value).getUnits() == TimeUnit.HOURS))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Retrieve the left hand side value, converted as described
+    * by GenericCriteria.evaluate.
+    *
+    * @param container field container
+    * @param field field to retrieve
+    * @param properties project properties
+    * @return converted value
+    */
+   static Object getLeftValue(FieldContainer container, FieldType field, ProjectProperties properties)
+   {
+      if (field == null)
+      {
+         return null;
+      }
+      return convertValue(field, container.getCurrentValue(field), properties);
+   }
+
+   /**
+    * Convert a field value so that it can be compared. Dates are
+    * converted to the start of the day, durations are converted to hours
+    * and null strings are converted to empty strings.
+    *
+    * @param field field type
+    * @param value field value
+    * @param properties project properties
+    * @return converted value
+    */
+   static Object convertValue(FieldType field, Object value, ProjectProperties properties)
+   {
+      switch (field.getDataType())
+      {
+         case DATE:
+         {
+            if (value != null)
+            {
+               value = DateHelper.getDayStartDate((Date) value);
+            }
+            break;
+         }
+
+         case DURATION:
+         {
+            if (value == null)
+            {
+               value = Duration.getInstance(0, TimeUnit.HOURS);
+            }
+            else
+            {
+               if (((Duration) value).getUnits() != TimeUnit.HOURS)
+               {
+                  value = ((Duration) value).convertUnits(TimeUnit.HOURS, properties);
+               }
+            }
+            break;
+         }
+
+         case STRING:
+         {
+            value = value == null ? "" : value;
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+      return value;
+   }
+
+   /**
+    * Implements the null handling used by TestOperator to compare values.
+    *
+    * @param lhsNull true if the left hand side is null
+    * @param rhsNull true if the right hand side is null
+    * @return comparison result
+    */
+   static int compareNull(boolean lhsNull, boolean rhsNull)
+   {
+      return lhsNull == rhsNull ? 0 : lhsNull ? 1 : -1;
+   }
+
+   /**
+    * A compiled predicate and an estimate of the cost of evaluating it.
+    */
+   private static final class CompiledCriteria
+   {
+      /**
+       * Constructor.
+       *
+       * @param predicate predicate
+       * @param cost evaluation cost
+       */
+      public CompiledCriteria(Predicate<FieldContainer> predicate, int cost)
+      {
+         m_predicate = predicate;
+         m_cost = cost;
+      }
+
+      final Predicate<FieldContainer> m_predicate;
+      final int m_cost;
+   }
+
+   /**
+    * Returns true if all child predicates return true.
+    */
+   private static final class AndPredicate implements Predicate<FieldContainer>
+   {
+      /**
+       * Constructor.
+       *
+       * @param predicates child predicates
+       */
+      public AndPredicate(Predicate<FieldContainer>[] predicates)
+      {
+         m_predicates = predicates;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean test(FieldContainer container)
+      {
+         for (Predicate<FieldContainer> predicate : m_predicates)
+         {
+            if (!predicate.test(container))
+            {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      private final Predicate<FieldContainer>[] m_predicates;
+   }
+
+   /**
+    * Returns true if any child predicate returns true.
+    */
+   private static final class OrPredicate implements Predicate<FieldContainer>
+   {
+      /**
+       * Constructor.
+       *
+       * @param predicates child predicates
+       */
+      public OrPredicate(Predicate<FieldContainer>[] predicates)
+      {
+         m_predicates = predicates;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean test(FieldContainer container)
+      {
+         for (Predicate<FieldContainer> predicate : m_predicates)
+         {
+            if (predicate.test(container))
+            {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      private final Predicate<FieldContainer>[] m_predicates;
+   }
+
+   /**
+    * Compares a date field with constant dates.
+    *
+    * The date taken from each row is converted to the start of its day
+    * before being compared. Rather than converting each date, the
+    * constant dates are used to calculate the earliest date whose day
+    * start is greater than or equal to the constant, and the earliest date
+    * whose day start is greater than the constant. Each row can then be
+    * tested by comparing its date directly with these limits.
+    */
+   private static final class DatePredicate implements Predicate<FieldContainer>
+   {
+      /**
+       * Constructor.
+       *
+       * @param field field to test
+       * @param operator test operator
+       * @param values constant values
+       */
+      public DatePredicate(FieldType field, TestOperator operator, Object[] values)
+      {
+         m_field = field;
+         m_operator = operator;
+
+         m_value1Null = values[0] == null;
+         m_greaterThanOrEqual1 = m_value1Null ? 0 : getDayStartOnOrAfter(((Date) values[0]).getTime());
+         m_greaterThan1 = m_value1Null ? 0 : getDayStartOnOrAfter(((Date) values[0]).getTime() + 1);
+         m_value2Null = values[1] == null;
+         m_greaterThanOrEqual2 = m_value2Null ? 0 : getDayStartOnOrAfter(((Date) values[1]).getTime());
+         m_greaterThan2 = m_value2Null ? 0 : getDayStartOnOrAfter(((Date) values[1]).getTime() + 1);
+      }
+
+      /**
+       * Determine if an operator is supported by this predicate.
+       *
+       * @param operator test operator
+       * @return true if the operator is supported
+       */
+      public static boolean supports(TestOperator operator)
+      {
+         return operator.getValue() <= TestOperator.DOES_NOT_EQUAL.getValue() || operator == TestOperator.IS_NOT_WITHIN;
+      }
+
+      /**
+       * Retrieve the earliest day start on or after the supplied date.
+       *
+       * @param date date
+       * @return day start
+       */
+      private static long getDayStartOnOrAfter(long date)
+      {
+         Date value = new Date(date);
+         long dayStart = DateHelper.getDayStartDate(value).getTime();
+         return dayStart == date ? date : DateHelper.getDayEndDate(value).getTime() + 1;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean test(FieldContainer container)
+      {
+         Date date = (Date) container.getCurrentValue(m_field);
+         boolean lhsNull = date == null;
+         long lhs = lhsNull ? 0 : date.getTime();
+
+         switch (m_operator)
+         {
+            case IS_WITHIN:
+            {
+               return within(lhsNull, lhs);
+            }
+
+            case IS_NOT_WITHIN:
+            {
+               return !within(lhsNull, lhs);
+            }
+
+            case IS_GREATER_THAN:
+            {
+               return lhsNull || m_value1Null ? compareNull(lhsNull, m_value1Null) > 0 : lhs >= m_greaterThan1;
+            }
+
+            case IS_LESS_THAN:
+            {
+               return lhsNull || m_value1Null ? compareNull(lhsNull, m_value1Null) < 0 : lhs < m_greaterThanOrEqual1;
+            }
+
+            case IS_GREATER_THAN_OR_EQUAL_TO:
+            {
+               return lhsNull || m_value1Null ? compareNull(lhsNull, m_value1Null) >= 0 : lhs >= m_greaterThanOrEqual1;
+            }
+
+            case IS_LESS_THAN_OR_EQUAL_TO:
+            {
+               return lhsNull || m_value1Null ? compareNull(lhsNull, m_value1Null) <= 0 : lhs < m_greaterThan1;
+            }
+
+            case EQUALS:
+            {
+               return equal(lhsNull, lhs);
+            }
+
+            case DOES_NOT_EQUAL:
+            {
+               return !equal(lhsNull, lhs);
+            }
+
+            default:
+            {
+               throw new UnsupportedOperationException();
+            }
+         }
+      }
+
+      /**
+       * Equality test.
+       *
+       * @param lhsNull true if the date is null
+       * @param lhs date value
+       * @return true if equal
+       */
+      private boolean equal(boolean lhsNull, long lhs)
+      {
+         return lhsNull ? m_value1Null : !m_value1Null && lhs >= m_greaterThanOrEqual1 && lhs < m_greaterThan1;
+      }
+
+      /**
+       * Range test.
+       *
+       * @param lhsNull true if the date is null
+       * @param lhs date value
+       * @return true if the date is within the range
+       */
+      private boolean within(boolean lhsNull, long lhs)
+      {
+         if (lhsNull)
+         {
+            return m_value1Null || m_value2Null;
+         }
+
+         if (m_value1Null || m_value2Null)
+         {
+            return false;
+         }
+
+         return (lhs >= m_greaterThanOrEqual1 && lhs < m_greaterThan2) || (lhs < m_greaterThan1 && lhs >= m_greaterThanOrEqual2);
+      }
+
+      private final FieldType m_field;
+      private final TestOperator m_operator;
+      private final boolean m_value1Null;
+      private final long m_greaterThanOrEqual1;
+      private final long m_greaterThan1;
+      private final boolean m_value2Null;
+      private final long m_greaterThanOrEqual2;
+      private final long m_greaterThan2;
+   }
+
+   /**
+    * Compares a duration field with constant durations.
+    */
+   private static final class DurationPredicate implements Predicate<FieldContainer>
+   {
+      /**
+       * Constructor.
+       *
+       * @param field field to test
+       * @param properties project properties
+       * @param operator test operator
+       * @param values constant values, expressed in hours
+       */
+      public DurationPredicate(FieldType field, ProjectProperties properties, TestOperator operator, Object[] values)
+      {
+         m_field = field;
+         m_properties = properties;
+         m_operator = operator;
+         m_value1Null = values[0] == null;
+         m_value1 = m_value1Null ? 0 : ((Duration) values[0]).getDuration();
+         m_value2Null = values[1] == null;
+         m_value2 = m_value2Null ? 0 : ((Duration) values[1]).getDuration();
+      }
+
+      /**
+       * Determine if an operator is supported by this predicate.
+       *
+       * @param operator test operator
+       * @return true if the operator is supported
+       */
+      public static boolean supports(TestOperator operator)
+      {
+         return DatePredicate.supports(operator);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean test(FieldContainer container)
+      {
+         //
+         // A null duration is treated as zero, so the left hand
+         // side is never null
+         //
+         Duration duration = (Duration) container.getCurrentValue(m_field);
+         double lhs;
+         if (duration == null)
+         {
+            lhs = 0;
+         }
+         else
+         {
+            if (duration.getUnits() != TimeUnit.HOURS)
+            {
+               duration = duration.convertUnits(TimeUnit.HOURS, m_properties);
+            }
+            lhs = duration.getDuration();
+         }
+
+         switch (m_operator)
+         {
+            case IS_WITHIN:
+            {
+               return within(lhs);
+            }
+
+            case IS_NOT_WITHIN:
+            {
+               return !within(lhs);
+            }
+
+            case IS_GREATER_THAN:
+            {
+               return compare(lhs, m_value1Null, m_value1) > 0;
+            }
+
+            case IS_LESS_THAN:
+            {
+               return compare(lhs, m_value1Null, m_value1) < 0;
+            }
+
+            case IS_GREATER_THAN_OR_EQUAL_TO:
+            {
+               return compare(lhs, m_value1Null, m_value1) >= 0;
+            }
+
+            case IS_LESS_THAN_OR_EQUAL_TO:
+            {
+               return compare(lhs, m_value1Null, m_value1) <= 0;
+            }
+
+            case EQUALS:
+            {
+               return !m_value1Null && Duration.durationValueEquals(lhs, m_value1);
+            }
+
+            case DOES_NOT_EQUAL:
+            {
+               return m_value1Null || !Duration.durationValueEquals(lhs, m_value1);
+            }
+
+            default:
+            {
+               throw new UnsupportedOperationException();
+            }
+         }
+      }
+
+      /**
+       * Comparison, matching Duration.compareTo.
+       *
+       * @param lhs duration in hours
+       * @param rhsNull true if the right hand side is null
+       * @param rhs duration in hours
+       * @return comparison result
+       */
+      private int compare(double lhs, boolean rhsNull, double rhs)
+      {
+         if (rhsNull)
+         {
+            return -1;
+         }
+         return Duration.durationValueEquals(lhs, rhs) ? 0 : lhs < rhs ? -1 : 1;
+      }
+
+      /**
+       * Range test.
+       *
+       * @param lhs duration in hours
+       * @return true if the duration is within the range
+       */
+      private boolean within(double lhs)
+      {
+         if (m_value1Null || m_value2Null)
+         {
+            return false;
+         }
+
+         int compare1 = compare(lhs, false, m_value1);
+         int compare2 = compare(lhs, false, m_value2);
+         return (compare1 >= 0 && compare2 <= 0) || (compare1 <= 0 && compare2 >= 0);
+      }
+
+      private final FieldType m_field;
+      private final ProjectProperties m_properties;
+      private final TestOperator m_operator;
+      private final boolean m_value1Null;
+      private final double m_value1;
+      private final boolean m_value2Null;
+      private final double m_value2;
+   }
+
+   /**
+    * Compares a string field with a constant string.
+    */
+   private static final class StringPredicate implements Predicate<FieldContainer>
+   {
+      /**
+       * Constructor.
+       *
+       * @param field field to test
+       * @param operator test operator
+       * @param values constant values
+       */
+      public StringPredicate(FieldType field, TestOperator operator, Object[] values)
+      {
+         m_field = field;
+         m_operator = operator;
+         m_values = values;
+         m_value = (String) values[0];
+         m_upperCaseValue = m_value.toUpperCase();
+      }
+
+      /**
+       * Determine if an operator is supported by this predicate.
+       *
+       * @param operator test operator
+       * @return true if the operator is supported
+       */
+      public static boolean supports(TestOperator operator)
+      {
+         switch (operator)
+         {
+            case EQUALS:
+            case DOES_NOT_EQUAL:
+            case CONTAINS:
+            case DOES_NOT_CONTAIN:
+            case CONTAINS_EXACTLY:
+            {
+               return true;
+            }
+
+            default:
+            {
+               return false;
+            }
+         }
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean test(FieldContainer container)
+      {
+         Object value = container.getCurrentValue(m_field);
+         if (value == null)
+         {
+            value = "";
+         }
+
+         if (!(value instanceof String))
+         {
+            return m_operator.evaluate(value, m_values);
+         }
+
+         String lhs = (String) value;
+         switch (m_operator)
+         {
+            case EQUALS:
+            {
+               return lhs.equals(m_value);
+            }
+
+            case DOES_NOT_EQUAL:
+            {
+               return !lhs.equals(m_value);
+            }
+
+            case CONTAINS:
+            {
+               return lhs.toUpperCase().contains(m_upperCaseValue);
+            }
+
+            case DOES_NOT_CONTAIN:
+            {
+               return !lhs.toUpperCase().contains(m_upperCaseValue);
+            }
+
+            case CONTAINS_EXACTLY:
+            {
+               return lhs.contains(m_value);
+            }
+
+            default:
+            {
+               throw new UnsupportedOperationException();
+            }
+         }
+      }
+
+      private final FieldType m_field;
+      private final TestOperator m_operator;
+      private final Object[] m_values;
+      private final String m_value;
+      private final String m_upperCaseValue;
+   }
+
+   /**
+    * Evaluates any other criteria using the TestOperator implementation,
+    * resolving values taken from other fields for each row tested.
+    */
+   private static final class GenericPredicate implements Predicate<FieldContainer>
+   {
+      /**
+       * Constructor.
+       *
+       * @param field field to test
+       * @param properties project properties
+       * @param operator test operator
+       * @param values right hand side values
+       */
+      public GenericPredicate(FieldType field, ProjectProperties properties, TestOperator operator, Object[] values)
+      {
+         m_field = field;
+         m_properties = properties;
+         m_operator = operator;
+         m_values = values;
+         m_symbolic = values[0] instanceof FieldType || values[1] instanceof FieldType;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean test(FieldContainer container)
+      {
+         Object lhs = getLeftValue(container, m_field, m_properties);
+         Object[] rhs = m_values;
+
+         if (m_symbolic)
+         {
+            rhs = new Object[rhs.length];
+            for (int index = 0; index < rhs.length; index++)
+            {
+               Object value = m_values[index];
+               if (value instanceof FieldType)
+               {
+                  FieldType type = (FieldType) value;
+                  value = convertValue(type, container.getCachedValue(type), m_properties);
+               }
+               rhs[index] = value;
+            }
+         }
+
+         return m_operator.evaluate(lhs, rhs);
+      }
+
+      private final FieldType m_field;
+      private final ProjectProperties m_properties;
+      private final TestOperator m_operator;
+      private final Object[] m_values;
+      private final boolean m_symbolic;
+   }
+}
@@ -0,0 +1,100 @@
+/*
+ * file:       GroupedRows.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       05/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of applying a Group to a set of rows using the
+ * FilterGroupEvaluator class. Rows are identified by their position in the
+ * list of tasks or resources. Groups are presented in the order defined by
+ * the group clauses.
+ */
+public final class GroupedRows
+{
+   /**
+    * Constructor.
+    *
+    * @param keys key values for each group
+    * @param rows rows in each group
+    * @param rowGroups group for each row, or -1 if the row is not grouped
+    */
+   GroupedRows(Object[][] keys, int[][] rows, int[] rowGroups)
+   {
+      m_keys = keys;
+      m_rows = rows;
+      m_rowGroups = rowGroups;
+   }
+
+   /**
+    * Retrieve the number of groups.
+    *
+    * @return group count
+    */
+   public int getGroupCount()
+   {
+      return m_keys.length;
+   }
+
+   /**
+    * Retrieve the values which identify a group, one for each group clause.
+    * Where a clause groups values into intervals, the value is the start
+    * of the interval.
+    *
+    * @param group group index
+    * @return group key values
+    */
+   public List<Object> getGroupKey(int group)
+   {
+      return Collections.unmodifiableList(Arrays.asList(m_keys[group]));
+   }
+
+   /**
+    * Retrieve the rows which belong to a group, in their original order.
+    *
+    * @param group group index
+    * @return row ordinals
+    */
+   public int[] getGroupRows(int group)
+   {
+      return m_rows[group].clone();
+   }
+
+   /**
+    * Retrieve the group to which a row belongs.
+    *
+    * @param row row ordinal
+    * @return group index, or -1 if the row was not grouped
+    */
+   public int getGroup(int row)
+   {
+      return m_rowGroups[row];
+   }
+
+   private final Object[][] m_keys;
+   private final int[][] m_rows;
+   private final int[] m_rowGroups;
+}
@@ -25,7 +25,10 @@ package net.sf.mpxj;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Class implementing a list interface, backed by an ArrayList instance with callbacks
@@ -66,6 +69,20 @@ public abstract class ListWithCallbacks<T> extends AbstractList<T>
       // Optional implementation supplied by subclass
    }
 
+   /**
+    * Called to notify subclasses of the removal of a group of items.
+    * By default this calls removed() for each item.
+    *
+    * @param elements removed items
+    */
+   protected void removedAll(List<T> elements)
+   {
+      for (T element : elements)
+      {
+         removed(element);
+      }
+   }
+
    /**
     * Clear the list, but don't explicitly "remove" the contents.
     */
@@ -111,5 +128,27 @@ public abstract class ListWithCallbacks<T> extends AbstractList<T>
       return removed;
    }
 
+   /**
+    * Removes all items present in the supplied collection in a single pass
+    * over the list, rather than removing each item individually.
+    * Subclasses are notified via removedAll() once all items have been removed.
+    *
+    * @param c items to remove
+    * @return true if the list was modified
+    */
+   @Override public boolean removeAll(Collection<?> c)
+   {
+      Set<?> set = c instanceof Set ? (Set<?>) c : new HashSet<>(c);
+      List<T> removed = new ArrayList<>();
+      m_list.removeIf(element -> set.contains(element) && removed.add(element));
+      if (removed.isEmpty())
+      {
+         return false;
+      }
+
+      removedAll(removed);
+      return true;
+   }
+
    private final List<T> m_list = new ArrayList<>();
 }
@@ -186,7 +186,6 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    {
       ProjectCalendarException bce = new ProjectCalendarException(fromDate, toDate);
       m_exceptions.add(bce);
-      m_expandedExceptions.clear();
       m_exceptionsSorted = false;
       clearWorkingDateCache();
       return bce;
@@ -198,7 +197,6 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    public void clearCalendarExceptions()
    {
       m_exceptions.clear();
-      m_expandedExceptions.clear();
       m_exceptionsSorted = false;
       clearWorkingDateCache();
    }
@@ -1079,50 +1077,57 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     */
    public ProjectCalendarException getException(Date date)
    {
-      ProjectCalendarException exception = null;
+      return getExceptionIndex().getException(date.getTime());
+   }
 
-      // We're working with expanded exceptions, which includes any recurring exceptions
-      // expanded into individual entries.
-      populateExpandedExceptions();
-      if (!m_expandedExceptions.isEmpty())
+   /**
+    * Retrieve the index of exceptions which apply to this calendar,
+    * including those inherited from base calendars. The index is built
+    * on demand and discarded when the exceptions for this calendar or any
+    * of its base calendars change. A derived calendar which has no
+    * exceptions of its own uses its base calendar's index.
+    *
+    * @return exception index
+    */
+   private ProjectCalendarExceptionIndex getExceptionIndex()
+   {
+      ProjectCalendarExceptionIndex index = m_exceptionIndex;
+      if (index == null)
       {
-         sortExceptions();
-
-         int low = 0;
-         int high = m_expandedExceptions.size() - 1;
-         long targetDate = date.getTime();
-
-         while (low <= high)
+         //
+         // Recurring exceptions are held separately, and are not
+         // expanded into an exception for each occurrence
+         //
+         List<ProjectCalendarException> exceptions = new ArrayList<>();
+         List<ProjectCalendarException> recurring = new ArrayList<>();
+         for (ProjectCalendarException exception : getCalendarExceptions())
          {
-            int mid = (low + high) >>> 1;
-            ProjectCalendarException midVal = m_expandedExceptions.get(mid);
-            int cmp = 0 - DateHelper.compare(midVal.getFromDate(), midVal.getToDate(), targetDate);
-
-            if (cmp < 0)
+            if (exception.getRecurring() == null)
             {
-               low = mid + 1;
+               exceptions.add(exception);
             }
             else
             {
-               if (cmp > 0)
-               {
-                  high = mid - 1;
-               }
-               else
-               {
-                  exception = midVal;
-                  break;
-               }
+               recurring.add(exception);
             }
          }
-      }
 
-      if (exception == null && getParent() != null)
-      {
-         // Check base calendar as well for an exception.
-         exception = getParent().getException(date);
+         ProjectCalendar parent = getParent();
+         if (parent == null)
+         {
+            index = new ProjectCalendarExceptionIndex(exceptions, recurring, null);
+         }
+         else
+         {
+            //
+            // A derived calendar with no exceptions of its own
+            // shares its base calendar's index
+            //
+            index = m_exceptions.isEmpty() ? parent.getExceptionIndex() : new ProjectCalendarExceptionIndex(exceptions, recurring, parent.getExceptionIndex());
+         }
+         m_exceptionIndex = index;
       }
-      return (exception);
+      return index;
    }
 
    /**
@@ -1175,6 +1180,18 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       return (week);
    }
 
+   /**
+    * Retrieves the working hours on a given date, taking into account
+    * calendar exceptions, work weeks and any base calendar.
+    *
+    * @param date target date
+    * @return working hours
+    */
+   public ProjectCalendarDateRanges getHours(Date date)
+   {
+      return getRanges(date, null, null);
+   }
+
    /**
     * Retrieves the amount of work on a given day, and
     * returns it in the specified format.
@@ -1810,8 +1827,8 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       // For now just combine the exceptions. Probably overkill (although would be more accurate) to also merge the exceptions.
       m_exceptions.addAll(taskCalendar.getCalendarExceptions());
       m_exceptions.addAll(resourceCalendar.getCalendarExceptions());
-      m_expandedExceptions.clear();
       m_exceptionsSorted = false;
+      m_exceptionIndex = null;
 
       m_workWeeks.addAll(taskCalendar.getWorkWeeks());
       m_workWeeks.addAll(resourceCalendar.getWorkWeeks());
@@ -1858,6 +1875,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       m_workingDateCache.clear();
       m_startTimeCache.clear();
       m_getDateLastResult = null;
+      m_exceptionIndex = null;
       for (ProjectCalendar calendar : m_derivedCalendars)
       {
          calendar.clearWorkingDateCache();
@@ -1910,42 +1928,6 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       }
    }
 
-   /**
-    * Populate the expanded exceptions list based on the main exceptions list.
-    * Where we find recurring exception definitions, we generate individual
-    * exceptions for each recurrence to ensure that we account for them correctly.
-    */
-   private void populateExpandedExceptions()
-   {
-      if (!m_exceptions.isEmpty() && m_expandedExceptions.isEmpty())
-      {
-         for (ProjectCalendarException exception : m_exceptions)
-         {
-            RecurringData recurring = exception.getRecurring();
-            if (recurring == null)
-            {
-               m_expandedExceptions.add(exception);
-            }
-            else
-            {
-               for (Date date : recurring.getDates())
-               {
-                  Date startDate = DateHelper.getDayStartDate(date);
-                  Date endDate = DateHelper.getDayEndDate(date);
-                  ProjectCalendarException newException = new ProjectCalendarException(startDate, endDate);
-                  int rangeCount = exception.getRangeCount();
-                  for (int rangeIndex = 0; rangeIndex < rangeCount; rangeIndex++)
-                  {
-                     newException.addRange(exception.getRange(rangeIndex));
-                  }
-                  m_expandedExceptions.add(newException);
-               }
-            }
-         }
-         Collections.sort(m_expandedExceptions);
-      }
-   }
-
    /**
     * Ensure work weeks are sorted.
     */
@@ -1984,9 +1966,9 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    private List<ProjectCalendarException> m_exceptions = new ArrayList<>();
 
    /**
-    * List of exceptions, including expansion of recurring exceptions.
+    * Index of exceptions, including those inherited from base calendars.
     */
-   private List<ProjectCalendarException> m_expandedExceptions = new ArrayList<>();
+   private volatile ProjectCalendarExceptionIndex m_exceptionIndex;
 
    /**
     * Flag indicating if the list of exceptions is sorted.
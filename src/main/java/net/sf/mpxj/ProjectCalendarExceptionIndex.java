@@ -0,0 +1,278 @@
+/*
+ * file:       ProjectCalendarExceptionIndex.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       06/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.mpxj.common.DateHelper;
+
+/**
+ * An immutable index of the exceptions which apply to a calendar,
+ * including those inherited from its base calendars.
+ *
+ * The index holds a sorted list of non-overlapping date ranges, each
+ * mapped to the exception which applies to it. Where an exception in a
+ * derived calendar overlaps an exception in its base calendar, the base
+ * calendar exception is split so that only the parts not covered by
+ * the derived calendar remain. Finding the exception for a date is then
+ * a single binary search, regardless of the depth of the calendar
+ * hierarchy.
+ *
+ * Recurring exceptions are not expanded into individual occurrences.
+ * Instead each recurrence is tested for the day being looked up, and
+ * an exception representing that occurrence is created if it matches.
+ * Each range and recurrence records the level of the calendar it was
+ * defined in, zero being the calendar itself, so that an exception
+ * in a derived calendar takes precedence over one in a base calendar.
+ * Within a calendar, a non-recurring exception takes precedence over
+ * a recurring exception.
+ */
+final class ProjectCalendarExceptionIndex
+{
+   /**
+    * Constructor.
+    *
+    * @param exceptions non-recurring exceptions for the calendar, sorted by start date
+    * @param recurring recurring exceptions for the calendar
+    * @param parent index for the base calendar, or null
+    */
+   public ProjectCalendarExceptionIndex(List<ProjectCalendarException> exceptions, List<ProjectCalendarException> recurring, ProjectCalendarExceptionIndex parent)
+   {
+      //
+      // Own recurring exceptions are tested before those inherited from the parent
+      //
+      int parentRecurringCount = parent == null ? 0 : parent.m_recurring.length;
+      m_recurring = new ProjectCalendarException[recurring.size() + parentRecurringCount];
+      m_recurringLevel = new int[m_recurring.length];
+      recurring.toArray(m_recurring);
+      for (int index = 0; index < parentRecurringCount; index++)
+      {
+         m_recurring[recurring.size() + index] = parent.m_recurring[index];
+         m_recurringLevel[recurring.size() + index] = parent.m_recurringLevel[index] + 1;
+      }
+
+      //
+      // Remove any overlaps between the calendar's own exceptions
+      //
+      int ownCount = 0;
+      long[] ownFrom = new long[exceptions.size()];
+      long[] ownTo = new long[exceptions.size()];
+      ProjectCalendarException[] ownExceptions = new ProjectCalendarException[exceptions.size()];
+      long lastTo = Long.MIN_VALUE;
+      for (ProjectCalendarException exception : exceptions)
+      {
+         long from = exception.getFromDate().getTime();
+         long to = exception.getToDate().getTime();
+         if (ownCount != 0 && from <= lastTo)
+         {
+            from = lastTo + 1;
+         }
+
+         if (from <= to)
+         {
+            ownFrom[ownCount] = from;
+            ownTo[ownCount] = to;
+            ownExceptions[ownCount] = exception;
+            ++ownCount;
+            lastTo = to;
+         }
+      }
+
+      if (parent == null || parent.m_count == 0)
+      {
+         m_count = ownCount;
+         m_from = ownFrom;
+         m_to = ownTo;
+         m_exceptions = ownExceptions;
+         m_level = new int[ownCount];
+         return;
+      }
+
+      //
+      // Merge the calendar's own exceptions with the parts of the
+      // parent's exceptions which they do not cover
+      //
+      int capacity = ownCount + (parent.m_count * 2);
+      m_from = new long[capacity];
+      m_to = new long[capacity];
+      m_exceptions = new ProjectCalendarException[capacity];
+      m_level = new int[capacity];
+
+      int count = 0;
+      int own = 0;
+      for (int index = 0; index < parent.m_count; index++)
+      {
+         long from = parent.m_from[index];
+         long to = parent.m_to[index];
+         ProjectCalendarException exception = parent.m_exceptions[index];
+         int level = parent.m_level[index] + 1;
+
+         while (own < ownCount && ownFrom[own] <= to)
+         {
+            if (ownTo[own] < from)
+            {
+               count = add(count, ownFrom[own], ownTo[own], ownExceptions[own], 0);
+               ++own;
+               continue;
+            }
+
+            if (ownFrom[own] > from)
+            {
+               count = add(count, from, ownFrom[own] - 1, exception, level);
+            }
+
+            from = ownTo[own] + 1;
+            if (ownTo[own] > to)
+            {
+               break;
+            }
+
+            count = add(count, ownFrom[own], ownTo[own], ownExceptions[own], 0);
+            ++own;
+         }
+
+         if (from <= to)
+         {
+            count = add(count, from, to, exception, level);
+         }
+      }
+
+      while (own < ownCount)
+      {
+         count = add(count, ownFrom[own], ownTo[own], ownExceptions[own], 0);
+         ++own;
+      }
+
+      m_count = count;
+   }
+
+   /**
+    * Retrieve the exception which applies to a date.
+    *
+    * @param date target date
+    * @return calendar exception, or null if none match this date
+    */
+   public ProjectCalendarException getException(long date)
+   {
+      ProjectCalendarException result = null;
+      int level = Integer.MAX_VALUE;
+
+      int index = Arrays.binarySearch(m_from, 0, m_count, date);
+      if (index < 0)
+      {
+         index = -index - 2;
+      }
+
+      if (index >= 0 && date <= m_to[index])
+      {
+         result = m_exceptions[index];
+         level = m_level[index];
+      }
+
+      if (m_recurring.length != 0)
+      {
+         long epochDay = DateHelper.getEpochDay(date);
+         for (int recurringIndex = 0; recurringIndex < m_recurring.length && m_recurringLevel[recurringIndex] < level; recurringIndex++)
+         {
+            ProjectCalendarException exception = m_recurring[recurringIndex];
+            if (exception.getRecurring().iterator().contains(epochDay))
+            {
+               return getOccurrence(exception, epochDay);
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Create an exception representing a single occurrence
+    * of a recurring exception.
+    *
+    * @param exception recurring exception
+    * @param epochDay day of the occurrence
+    * @return exception covering the day of the occurrence
+    */
+   private ProjectCalendarException getOccurrence(ProjectCalendarException exception, long epochDay)
+   {
+      Calendar cal = DateHelper.popCalendar();
+      RecurrenceIterator.setDay(cal, epochDay);
+      cal.set(Calendar.HOUR_OF_DAY, 0);
+      cal.set(Calendar.MINUTE, 0);
+      cal.set(Calendar.SECOND, 0);
+      cal.set(Calendar.MILLISECOND, 0);
+      Date startDate = cal.getTime();
+      cal.set(Calendar.HOUR_OF_DAY, 23);
+      cal.set(Calendar.MINUTE, 59);
+      cal.set(Calendar.SECOND, 59);
+      cal.set(Calendar.MILLISECOND, 999);
+      Date endDate = cal.getTime();
+      DateHelper.pushCalendar(cal);
+
+      ProjectCalendarException result = new ProjectCalendarException(startDate, endDate);
+      int rangeCount = exception.getRangeCount();
+      for (int rangeIndex = 0; rangeIndex < rangeCount; rangeIndex++)
+      {
+         result.addRange(exception.getRange(rangeIndex));
+      }
+      return result;
+   }
+
+   /**
+    * Append a range to the index, unless it is a continuation of
+    * the previous range.
+    *
+    * @param count current number of ranges
+    * @param from range start
+    * @param to range end
+    * @param exception exception which applies to the range
+    * @param level level of the calendar defining the exception
+    * @return new number of ranges
+    */
+   private int add(int count, long from, long to, ProjectCalendarException exception, int level)
+   {
+      if (count != 0 && m_exceptions[count - 1] == exception && m_to[count - 1] + 1 == from)
+      {
+         m_to[count - 1] = to;
+         return count;
+      }
+
+      m_from[count] = from;
+      m_to[count] = to;
+      m_exceptions[count] = exception;
+      m_level[count] = level;
+      return count + 1;
+   }
+
+   private final int m_count;
+   private final long[] m_from;
+   private final long[] m_to;
+   private final ProjectCalendarException[] m_exceptions;
+   private final int[] m_level;
+   private final ProjectCalendarException[] m_recurring;
+   private final int[] m_recurringLevel;
+}
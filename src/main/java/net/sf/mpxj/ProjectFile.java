@@ -28,6 +28,7 @@ import java.util.Date;
 import java.util.List;
 
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.listener.FieldListener;
 
 /**
  * This class represents a project plan.
@@ -100,6 +101,32 @@ public final class ProjectFile implements ChildTaskContainer
       return m_tasks;
    }
 
+   /**
+    * Retrieve an index of the relations between the tasks in this project.
+    * The index is built when first requested, and is discarded when tasks
+    * or relations are subsequently added or removed.
+    *
+    * @return relation index
+    */
+   public RelationIndex getRelationIndex()
+   {
+      RelationIndex index = m_relationIndex;
+      if (index == null)
+      {
+         index = new RelationIndex(this);
+         m_relationIndex = index;
+      }
+      return index;
+   }
+
+   /**
+    * Discard the current relation index, if any.
+    */
+   void invalidateRelationIndex()
+   {
+      m_relationIndex = null;
+   }
+
    /**
     * This method is used to add a new calendar to the file.
     *
@@ -490,6 +517,78 @@ public final class ProjectFile implements ChildTaskContainer
       return m_dataLinks;
    }
 
+   /**
+    * Start a batch of updates to tasks, resources and resource assignments.
+    * Until the matching call to endBatchUpdate, field listeners are not
+    * notified as fields are changed. Instead, the changes are recorded,
+    * and when the batch ends each listener receives a single event for
+    * each changed field, with the value held before the batch started
+    * and the final value. Fields which end the batch with their original
+    * value are not reported.
+    *
+    * A batch only merges the events sent to field listeners, it does not
+    * reduce the work done as fields are changed. Calculated values affected
+    * by a change are still reset immediately, exactly as they are outside
+    * a batch, so values read during the batch are up to date. Listeners
+    * receive one event per changed field rather than one per entity.
+    *
+    * Batches may be nested, the events are sent when the
+    * outermost batch ends. Callers should use try/finally to ensure
+    * that endBatchUpdate is always called.
+    */
+   public void beginBatchUpdate()
+   {
+      if (m_batchUpdateDepth++ == 0)
+      {
+         m_batchFieldChanges = new BatchFieldChanges();
+      }
+   }
+
+   /**
+    * End a batch of updates started by beginBatchUpdate. When the
+    * outermost batch ends, the recorded changes are passed to the
+    * field listeners. The recorded changes are discarded before the
+    * listeners are called, so if a listener throws an exception the
+    * remaining events are not sent, but the next batch starts cleanly.
+    */
+   public void endBatchUpdate()
+   {
+      if (m_batchUpdateDepth == 0 || --m_batchUpdateDepth != 0)
+      {
+         return;
+      }
+
+      BatchFieldChanges changes = m_batchFieldChanges;
+      m_batchFieldChanges = null;
+      changes.fireFieldChangeEvents();
+   }
+
+   /**
+    * Determine if a batch of updates is in progress.
+    *
+    * @return true if a batch of updates is in progress
+    */
+   public boolean isBatchUpdate()
+   {
+      return m_batchUpdateDepth != 0;
+   }
+
+   /**
+    * Called by an entity when one of its fields is changed during a
+    * batch of updates. The change is passed to the entity's listeners
+    * when the batch ends. This may be called from multiple threads
+    * when derived fields are calculated in parallel.
+    *
+    * @param container entity which has changed
+    * @param listeners the entity's field listeners
+    * @param field field changed
+    * @param oldValue old field value
+    */
+   void recordBatchFieldChange(FieldContainer container, List<FieldListener> listeners, FieldType field, Object oldValue)
+   {
+      m_batchFieldChanges.record(container, listeners, field, oldValue);
+   }
+
    /**
     * Retrieves the default calendar for this project based on the calendar name
     * given in the project properties. If a calendar of this name cannot be found, then
@@ -565,4 +664,7 @@ public final class ProjectFile implements ChildTaskContainer
    private final CustomFieldContainer m_customFields = new CustomFieldContainer();
    private final ActivityCodeContainer m_activityCodes = new ActivityCodeContainer();
    private final DataLinkContainer m_dataLinks = new DataLinkContainer();
+   private volatile RelationIndex m_relationIndex;
+   private int m_batchUpdateDepth;
+   private BatchFieldChanges m_batchFieldChanges;
 }
@@ -66,6 +66,68 @@ public final class Rate
       m_units = time;
    }
 
+   /**
+    * Retrieve a Rate instance. Use shared objects to
+    * represent common values for memory efficiency.
+    *
+    * @param amount currency amount, null is treated as zero
+    * @param time time units
+    * @return Rate instance
+    */
+   public static Rate getInstance(Number amount, TimeUnit time)
+   {
+      return getInstance(amount == null ? 0 : amount.doubleValue(), time);
+   }
+
+   /**
+    * Retrieve a Rate instance. Use shared objects to
+    * represent common values for memory efficiency.
+    *
+    * @param amount currency amount
+    * @param time time units
+    * @return Rate instance
+    */
+   public static Rate getInstance(double amount, TimeUnit time)
+   {
+      Rate result;
+      if (time != null && amount >= 0 && amount <= MAX_CACHED_AMOUNT && amount == (int) amount)
+      {
+         result = getCachedInstance((int) amount, time);
+      }
+      else
+      {
+         result = new Rate(amount, time);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve a shared instance representing a small whole number
+    * rate. As Rate instances are immutable, if two threads race to
+    * create the same value, either result can safely be used.
+    *
+    * @param amount currency amount
+    * @param time time units
+    * @return Rate instance
+    */
+   private static Rate getCachedInstance(int amount, TimeUnit time)
+   {
+      Rate[] rates = CACHED_RATES[time.getValue()];
+      if (rates == null)
+      {
+         rates = new Rate[MAX_CACHED_AMOUNT + 1];
+         CACHED_RATES[time.getValue()] = rates;
+      }
+
+      Rate result = rates[amount];
+      if (result == null)
+      {
+         result = new Rate(amount, time);
+         rates[amount] = result;
+      }
+      return result;
+   }
+
    /**
     * Accessor method to retrieve the currency amount.
     *
@@ -131,10 +193,14 @@ public final class Rate
    /**
     * Rate amount.
     */
-   private double m_amount;
+   private final double m_amount;
 
    /**
     * Time type.
     */
-   private TimeUnit m_units;
+   private final TimeUnit m_units;
+
+   private static final int MAX_CACHED_AMOUNT = 1000;
+
+   private static final Rate[][] CACHED_RATES = new Rate[TimeUnit.values().length][];
 }
@@ -0,0 +1,560 @@
+/*
+ * file:       RecurrenceIterator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       07/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.NumberHelper;
+
+/**
+ * Iterates through the dates generated by a RecurringData instance without
+ * materialising the complete list of dates. Dates are represented as epoch
+ * days: the number of days since 01/01/1970 in the default time zone.
+ *
+ * The recurrence is divided into periods (a day, a week, a month or a year
+ * depending on the recurrence type) which can be located arithmetically,
+ * allowing the iterator to skip directly to a target date rather than
+ * stepping through each occurrence in turn.
+ *
+ * The iterator takes a snapshot of the recurrence definition when it is
+ * created, so subsequent changes to the RecurringData instance are not
+ * reflected in an existing iterator.
+ */
+public final class RecurrenceIterator
+{
+   /**
+    * Constructor.
+    *
+    * @param data recurrence definition
+    */
+   RecurrenceIterator(RecurringData data)
+   {
+      m_timeZone = TimeZone.getDefault();
+      m_type = data.getRecurrenceType();
+      m_relative = data.getRelative();
+
+      Date startDate = data.getStartDate();
+      if (startDate == null || m_type == null)
+      {
+         m_done = true;
+         m_dayOfWeek = 0;
+         m_weekOffsets = NO_OFFSETS;
+         return;
+      }
+
+      int frequency = NumberHelper.getInt(data.getFrequency());
+      m_frequency = frequency < 1 ? 1 : frequency;
+      m_dayNumber = NumberHelper.getInt(data.getDayNumber());
+      Day dayOfWeek = data.getDayOfWeek();
+      m_dayOfWeek = dayOfWeek == null ? 0 : dayOfWeek.getValue();
+
+      m_startDay = getEpochDay(startDate);
+      m_startTime = getTimeOfDay(startDate);
+
+      Date finishDate = data.getFinishDate();
+      if (finishDate == null)
+      {
+         int occurrences = NumberHelper.getInt(data.getOccurrences());
+         m_occurrences = occurrences < 1 ? 1 : occurrences;
+         m_finishDay = Long.MAX_VALUE;
+      }
+      else
+      {
+         // Occurrences inherit the time of day from the start date
+         m_occurrences = -1;
+         m_finishDay = getEpochDay(finishDate) - (m_startTime > getTimeOfDay(finishDate) ? 1 : 0);
+      }
+
+      int[] weekOffsets = NO_OFFSETS;
+      long startMonth = getMonthIndex(m_startDay);
+
+      switch (m_type)
+      {
+         case WEEKLY:
+         {
+            int count = 0;
+            int[] offsets = new int[7];
+            int startDayOfWeek = getDayOfWeek(m_startDay);
+            for (int offset = 0; offset < 7; offset++)
+            {
+               if (data.getWeeklyDay(Day.getInstance(((startDayOfWeek - 1 + offset) % 7) + 1)))
+               {
+                  offsets[count++] = offset;
+               }
+            }
+
+            weekOffsets = new int[count];
+            System.arraycopy(offsets, 0, weekOffsets, 0, count);
+            m_done = count == 0;
+            break;
+         }
+
+         case MONTHLY:
+         {
+            m_baseMonth = startMonth;
+            if (!m_relative && m_dayNumber < getDayOfMonth(m_startDay))
+            {
+               ++m_baseMonth;
+            }
+            break;
+         }
+
+         case YEARLY:
+         {
+            m_frequency = 1;
+            m_baseMonth = (Math.floorDiv(startMonth, 12) * 12) + NumberHelper.getInt(data.getMonthNumber()) - 1;
+            if (!m_relative)
+            {
+               // The first occurrence moves to the following year if it falls before the start date
+               long firstDay = getFirstDayOfMonth(m_baseMonth);
+               int dayNumber = Math.min(m_dayNumber, getDaysInMonth(m_baseMonth));
+               long day = firstDay + dayNumber - 1;
+               if (day < m_startDay)
+               {
+                  m_baseMonth += 12;
+                  day = getFirstDayOfMonth(m_baseMonth) + Math.min(dayNumber, getDaysInMonth(m_baseMonth)) - 1;
+               }
+               m_firstDay = day;
+               m_firstCheckDay = firstDay;
+            }
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+
+      m_weekOffsets = weekOffsets;
+
+      if (m_relative && m_dayOfWeek == 0 && (m_type == RecurrenceType.MONTHLY || m_type == RecurrenceType.YEARLY))
+      {
+         m_done = true;
+      }
+
+      if (!m_done)
+      {
+         m_skipFirstPeriod = m_relative && (m_type == RecurrenceType.MONTHLY || m_type == RecurrenceType.YEARLY) && getOccurrence(0, 0) <= m_startDay;
+         findNext();
+      }
+   }
+
+   /**
+    * Returns true if there are further occurrences.
+    *
+    * @return true if there are further occurrences
+    */
+   public boolean hasNext()
+   {
+      return m_hasNext;
+   }
+
+   /**
+    * Retrieve the next occurrence.
+    *
+    * @return epoch day of the next occurrence
+    */
+   public long next()
+   {
+      if (!m_hasNext)
+      {
+         throw new NoSuchElementException();
+      }
+      long result = m_next;
+      findNext();
+      return result;
+   }
+
+   /**
+    * Retrieve the next occurrence without advancing the iterator.
+    *
+    * @return epoch day of the next occurrence
+    */
+   public long peek()
+   {
+      if (!m_hasNext)
+      {
+         throw new NoSuchElementException();
+      }
+      return m_next;
+   }
+
+   /**
+    * Advance the iterator so that the next occurrence returned falls on
+    * or after the target day. If the iterator is already positioned
+    * beyond the target day, this method has no effect.
+    *
+    * @param epochDay target epoch day
+    */
+   public void skipTo(long epochDay)
+   {
+      if (!m_hasNext || m_next >= epochDay)
+      {
+         return;
+      }
+
+      //
+      // Locate a period at or just before the one containing the target
+      //
+      long period;
+      switch (m_type)
+      {
+         case DAILY:
+         {
+            period = Math.floorDiv(epochDay - m_startDay, m_frequency);
+            break;
+         }
+
+         case WEEKLY:
+         {
+            period = Math.floorDiv(epochDay - m_startDay, 7L * m_frequency);
+            break;
+         }
+
+         default:
+         {
+            period = Math.floorDiv(getMonthIndex(epochDay) - m_baseMonth, m_type == RecurrenceType.YEARLY ? 12 : m_frequency) - 1;
+            break;
+         }
+      }
+
+      if (period > m_period)
+      {
+         m_period = period;
+         m_slot = 0;
+         m_ordinal = getOrdinal(period, 0);
+         findNext();
+      }
+
+      while (m_hasNext && m_next < epochDay)
+      {
+         findNext();
+      }
+   }
+
+   /**
+    * Determine if the recurrence includes the target day. The iterator
+    * is advanced to the target day, so for a sequence of targets in
+    * ascending order each check is performed in constant time.
+    *
+    * @param epochDay target epoch day
+    * @return true if the recurrence includes the target day
+    */
+   public boolean contains(long epochDay)
+   {
+      skipTo(epochDay);
+      return m_hasNext && m_next == epochDay;
+   }
+
+   /**
+    * Retrieve a date representing an epoch day, with the time of day
+    * taken from the recurrence start date.
+    *
+    * @param epochDay epoch day
+    * @return Date instance
+    */
+   public Date getDate(long epochDay)
+   {
+      int time = (int) m_startTime;
+      Calendar calendar = DateHelper.popCalendar();
+      setDay(calendar, epochDay);
+      calendar.set(Calendar.HOUR_OF_DAY, time / 3600000);
+      calendar.set(Calendar.MINUTE, (time / 60000) % 60);
+      calendar.set(Calendar.SECOND, (time / 1000) % 60);
+      calendar.set(Calendar.MILLISECOND, time % 1000);
+      Date result = calendar.getTime();
+      DateHelper.pushCalendar(calendar);
+      return result;
+   }
+
+   /**
+    * Convert a date to an epoch day in the default time zone.
+    *
+    * @param date date to convert
+    * @return epoch day
+    */
+   public static long getEpochDay(Date date)
+   {
+      return DateHelper.getEpochDay(date.getTime());
+   }
+
+   /**
+    * Set the date of a calendar to an epoch day, leaving the time of day unchanged.
+    *
+    * @param calendar calendar to update
+    * @param epochDay epoch day
+    */
+   static void setDay(Calendar calendar, long epochDay)
+   {
+      long monthIndex = getMonthIndex(epochDay);
+      calendar.set((int) Math.floorDiv(monthIndex, 12), (int) Math.floorMod(monthIndex, 12), (int) (epochDay - getFirstDayOfMonth(monthIndex) + 1));
+   }
+
+   /**
+    * Retrieve the next occurrence from the current position, and move the
+    * current position on to the following occurrence.
+    */
+   private void findNext()
+   {
+      m_hasNext = false;
+      while (!m_done)
+      {
+         long occurrence = getOccurrence(m_period, m_slot);
+         boolean skip = m_period == 0 && m_skipFirstPeriod;
+
+         if (m_occurrences == -1 ? m_checkDay > m_finishDay : m_ordinal >= m_occurrences)
+         {
+            m_done = true;
+            break;
+         }
+
+         if (++m_slot >= Math.max(1, m_weekOffsets.length))
+         {
+            m_slot = 0;
+            ++m_period;
+         }
+
+         if (!skip)
+         {
+            ++m_ordinal;
+            m_next = occurrence;
+            m_hasNext = true;
+            break;
+         }
+      }
+   }
+
+   /**
+    * Calculate an occurrence. The day against which the finish date is
+    * tested is stored in m_checkDay. For monthly and yearly recurrences this
+    * is the first day of the month rather than the occurrence itself.
+    *
+    * @param period period number
+    * @param slot occurrence within a weekly period
+    * @return epoch day
+    */
+   private long getOccurrence(long period, int slot)
+   {
+      long result;
+
+      switch (m_type)
+      {
+         case DAILY:
+         {
+            result = m_startDay + (period * m_frequency);
+            m_checkDay = result;
+            break;
+         }
+
+         case WEEKLY:
+         {
+            result = m_startDay + (period * 7 * m_frequency) + m_weekOffsets[slot];
+            m_checkDay = result;
+            break;
+         }
+
+         default:
+         {
+            if (m_type == RecurrenceType.YEARLY && !m_relative && period == 0)
+            {
+               result = m_firstDay;
+               m_checkDay = m_firstCheckDay;
+               break;
+            }
+
+            long month = m_baseMonth + (period * m_frequency * (m_type == RecurrenceType.YEARLY ? 12 : 1));
+            long firstDay = getFirstDayOfMonth(month);
+            m_checkDay = firstDay;
+
+            if (m_relative)
+            {
+               if (m_dayNumber > 4)
+               {
+                  long lastDay = firstDay + getDaysInMonth(month) - 1;
+                  result = lastDay - ((getDayOfWeek(lastDay) - m_dayOfWeek + 7) % 7);
+               }
+               else
+               {
+                  result = firstDay + ((m_dayOfWeek - getDayOfWeek(firstDay) + 7) % 7);
+                  if (m_dayNumber > 1)
+                  {
+                     result += 7 * (m_dayNumber - 1);
+                  }
+               }
+            }
+            else
+            {
+               result = firstDay + Math.min(m_dayNumber, getDaysInMonth(month)) - 1;
+            }
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Calculate the number of occurrences preceding a position in the recurrence.
+    *
+    * @param period period number
+    * @param slot occurrence within a weekly period
+    * @return ordinal
+    */
+   private long getOrdinal(long period, int slot)
+   {
+      long result;
+      if (m_type == RecurrenceType.WEEKLY)
+      {
+         result = (period * m_weekOffsets.length) + slot;
+      }
+      else
+      {
+         result = period;
+         if (m_skipFirstPeriod && period > 0)
+         {
+            --result;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the time of day in milliseconds.
+    *
+    * @param date date
+    * @return milliseconds since midnight
+    */
+   private long getTimeOfDay(Date date)
+   {
+      long time = date.getTime();
+      return Math.floorMod(time + m_timeZone.getOffset(time), DateHelper.MS_PER_DAY);
+   }
+
+   /**
+    * Retrieve the day of the week for an epoch day, using the
+    * values defined by the Day class.
+    *
+    * @param epochDay epoch day
+    * @return day of the week
+    */
+   private static int getDayOfWeek(long epochDay)
+   {
+      // 01/01/1970 was a Thursday
+      return (int) Math.floorMod(epochDay + 4, 7) + 1;
+   }
+
+   /**
+    * Retrieve the day of the month for an epoch day.
+    *
+    * @param epochDay epoch day
+    * @return day of month
+    */
+   private static int getDayOfMonth(long epochDay)
+   {
+      return (int) (epochDay - getFirstDayOfMonth(getMonthIndex(epochDay)) + 1);
+   }
+
+   /**
+    * Retrieve the month containing an epoch day, expressed as
+    * year * 12 + zero based month.
+    *
+    * @param epochDay epoch day
+    * @return month index
+    */
+   private static long getMonthIndex(long epochDay)
+   {
+      long day = epochDay + 719468;
+      long era = Math.floorDiv(day, 146097);
+      long dayOfEra = day - (era * 146097);
+      long yearOfEra = (dayOfEra - (dayOfEra / 1460) + (dayOfEra / 36524) - (dayOfEra / 146096)) / 365;
+      long dayOfYear = dayOfEra - ((365 * yearOfEra) + (yearOfEra / 4) - (yearOfEra / 100));
+      long shiftedMonth = ((5 * dayOfYear) + 2) / 153;
+      long month = shiftedMonth < 10 ? shiftedMonth + 2 : shiftedMonth - 10;
+      long year = yearOfEra + (era * 400) + (month < 2 ? 1 : 0);
+      return (year * 12) + month;
+   }
+
+   /**
+    * Retrieve the epoch day for the first day of a month.
+    *
+    * @param monthIndex year * 12 + zero based month
+    * @return epoch day
+    */
+   private static long getFirstDayOfMonth(long monthIndex)
+   {
+      long year = Math.floorDiv(monthIndex, 12);
+      long month = Math.floorMod(monthIndex, 12);
+      if (month < 2)
+      {
+         --year;
+      }
+      long era = Math.floorDiv(year, 400);
+      long yearOfEra = year - (era * 400);
+      long dayOfYear = ((153 * (month < 2 ? month + 10 : month - 2)) + 2) / 5;
+      long dayOfEra = (yearOfEra * 365) + (yearOfEra / 4) - (yearOfEra / 100) + dayOfYear;
+      return (era * 146097) + dayOfEra - 719468;
+   }
+
+   /**
+    * Retrieve the number of days in a month.
+    *
+    * @param monthIndex year * 12 + zero based month
+    * @return number of days
+    */
+   private static int getDaysInMonth(long monthIndex)
+   {
+      return (int) (getFirstDayOfMonth(monthIndex + 1) - getFirstDayOfMonth(monthIndex));
+   }
+
+   private final TimeZone m_timeZone;
+   private final RecurrenceType m_type;
+   private final boolean m_relative;
+   private final int m_dayOfWeek;
+   private final int[] m_weekOffsets;
+   private int m_frequency;
+   private int m_dayNumber;
+   private long m_startDay;
+   private long m_startTime;
+   private long m_finishDay;
+   private long m_occurrences;
+   private long m_baseMonth;
+   private long m_firstDay;
+   private long m_firstCheckDay;
+   private boolean m_skipFirstPeriod;
+
+   private long m_period;
+   private int m_slot;
+   private long m_ordinal;
+   private long m_checkDay;
+   private long m_next;
+   private boolean m_hasNext;
+   private boolean m_done;
+
+   private static final int[] NO_OFFSETS = new int[0];
+}
@@ -33,7 +33,6 @@ import java.util.EnumSet;
 import java.util.List;
 
 import net.sf.mpxj.common.DateHelper;
-import net.sf.mpxj.common.NumberHelper;
 
 /**
  * This class provides a description of a recurring event.
@@ -321,378 +320,51 @@ public class RecurringData
     */
    public Date[] getDates()
    {
-      int frequency = NumberHelper.getInt(m_frequency);
-      if (frequency < 1)
-      {
-         frequency = 1;
-      }
-
-      Calendar calendar = DateHelper.popCalendar(m_startDate);
+      RecurrenceIterator iter = iterator();
       List<Date> dates = new ArrayList<>();
-
-      switch (m_recurrenceType)
+      while (iter.hasNext())
       {
-         case DAILY:
-         {
-            getDailyDates(calendar, frequency, dates);
-            break;
-         }
-
-         case WEEKLY:
-         {
-            getWeeklyDates(calendar, frequency, dates);
-            break;
-         }
-
-         case MONTHLY:
-         {
-            getMonthlyDates(calendar, frequency, dates);
-            break;
-         }
-
-         case YEARLY:
-         {
-            getYearlyDates(calendar, dates);
-            break;
-         }
+         dates.add(iter.getDate(iter.next()));
       }
-
-      DateHelper.pushCalendar(calendar);
-
       return dates.toArray(new Date[dates.size()]);
    }
 
    /**
-    * Determines if we need to calculate more dates.
-    * If we do not have a finish date, this method falls back on using the
-    * occurrences attribute. If we have a finish date, we'll use that instead.
-    * We're assuming that the recurring data has one or other of those values.
-    *
-    * @param calendar current date
-    * @param dates dates generated so far
-    * @return true if we should calculate another date
-    */
-   private boolean moreDates(Calendar calendar, List<Date> dates)
-   {
-      boolean result;
-      if (m_finishDate == null)
-      {
-         int occurrences = NumberHelper.getInt(m_occurrences);
-         if (occurrences < 1)
-         {
-            occurrences = 1;
-         }
-         result = dates.size() < occurrences;
-      }
-      else
-      {
-         result = calendar.getTimeInMillis() <= m_finishDate.getTime();
-      }
-      return result;
-   }
-
-   /**
-    * Calculate start dates for a daily recurrence.
-    *
-    * @param calendar current date
-    * @param frequency frequency
-    * @param dates array of start dates
-    */
-   private void getDailyDates(Calendar calendar, int frequency, List<Date> dates)
-   {
-      while (moreDates(calendar, dates))
-      {
-         dates.add(calendar.getTime());
-         calendar.add(Calendar.DAY_OF_YEAR, frequency);
-      }
-   }
-
-   /**
-    * Calculate start dates for a weekly recurrence.
-    *
-    * @param calendar current date
-    * @param frequency frequency
-    * @param dates array of start dates
-    */
-   private void getWeeklyDates(Calendar calendar, int frequency, List<Date> dates)
-   {
-      int currentDay = calendar.get(Calendar.DAY_OF_WEEK);
-
-      while (moreDates(calendar, dates))
-      {
-         int offset = 0;
-         for (int dayIndex = 0; dayIndex < 7; dayIndex++)
-         {
-            if (getWeeklyDay(Day.getInstance(currentDay)))
-            {
-               if (offset != 0)
-               {
-                  calendar.add(Calendar.DAY_OF_YEAR, offset);
-                  offset = 0;
-               }
-               if (!moreDates(calendar, dates))
-               {
-                  break;
-               }
-               dates.add(calendar.getTime());
-            }
-
-            ++offset;
-            ++currentDay;
-
-            if (currentDay > 7)
-            {
-               currentDay = 1;
-            }
-         }
-
-         if (frequency > 1)
-         {
-            offset += (7 * (frequency - 1));
-         }
-         calendar.add(Calendar.DAY_OF_YEAR, offset);
-      }
-   }
-
-   /**
-    * Calculate start dates for a monthly recurrence.
-    *
-    * @param calendar current date
-    * @param frequency frequency
-    * @param dates array of start dates
-    */
-   private void getMonthlyDates(Calendar calendar, int frequency, List<Date> dates)
-   {
-      if (m_relative)
-      {
-         getMonthlyRelativeDates(calendar, frequency, dates);
-      }
-      else
-      {
-         getMonthlyAbsoluteDates(calendar, frequency, dates);
-      }
-   }
-
-   /**
-    * Calculate start dates for a monthly relative recurrence.
-    *
-    * @param calendar current date
-    * @param frequency frequency
-    * @param dates array of start dates
-    */
-   private void getMonthlyRelativeDates(Calendar calendar, int frequency, List<Date> dates)
-   {
-      long startDate = calendar.getTimeInMillis();
-      calendar.set(Calendar.DAY_OF_MONTH, 1);
-      int dayNumber = NumberHelper.getInt(m_dayNumber);
-
-      while (moreDates(calendar, dates))
-      {
-         if (dayNumber > 4)
-         {
-            setCalendarToLastRelativeDay(calendar);
-         }
-         else
-         {
-            setCalendarToOrdinalRelativeDay(calendar, dayNumber);
-         }
-
-         if (calendar.getTimeInMillis() > startDate)
-         {
-            dates.add(calendar.getTime());
-            if (!moreDates(calendar, dates))
-            {
-               break;
-            }
-         }
-         calendar.set(Calendar.DAY_OF_MONTH, 1);
-         calendar.add(Calendar.MONTH, frequency);
-      }
-   }
-
-   /**
-    * Calculate start dates for a monthly absolute recurrence.
-    *
-    * @param calendar current date
-    * @param frequency frequency
-    * @param dates array of start dates
-    */
-   private void getMonthlyAbsoluteDates(Calendar calendar, int frequency, List<Date> dates)
-   {
-      int currentDayNumber = calendar.get(Calendar.DAY_OF_MONTH);
-      calendar.set(Calendar.DAY_OF_MONTH, 1);
-      int requiredDayNumber = NumberHelper.getInt(m_dayNumber);
-      if (requiredDayNumber < currentDayNumber)
-      {
-         calendar.add(Calendar.MONTH, 1);
-      }
-
-      while (moreDates(calendar, dates))
-      {
-         int useDayNumber = requiredDayNumber;
-         int maxDayNumber = calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-         if (useDayNumber > maxDayNumber)
-         {
-            useDayNumber = maxDayNumber;
-         }
-         calendar.set(Calendar.DAY_OF_MONTH, useDayNumber);
-         dates.add(calendar.getTime());
-         calendar.set(Calendar.DAY_OF_MONTH, 1);
-         calendar.add(Calendar.MONTH, frequency);
-      }
-   }
-
-   /**
-    * Calculate start dates for a yearly recurrence.
-    *
-    * @param calendar current date
-    * @param dates array of start dates
-    */
-   private void getYearlyDates(Calendar calendar, List<Date> dates)
-   {
-      if (m_relative)
-      {
-         getYearlyRelativeDates(calendar, dates);
-      }
-      else
-      {
-         getYearlyAbsoluteDates(calendar, dates);
-      }
-   }
-
-   /**
-    * Calculate start dates for a yearly relative recurrence.
-    *
-    * @param calendar current date
-    * @param dates array of start dates
-    */
-   private void getYearlyRelativeDates(Calendar calendar, List<Date> dates)
-   {
-      long startDate = calendar.getTimeInMillis();
-      calendar.set(Calendar.DAY_OF_MONTH, 1);
-      calendar.set(Calendar.MONTH, NumberHelper.getInt(m_monthNumber) - 1);
-
-      int dayNumber = NumberHelper.getInt(m_dayNumber);
-      while (moreDates(calendar, dates))
-      {
-         if (dayNumber > 4)
-         {
-            setCalendarToLastRelativeDay(calendar);
-         }
-         else
-         {
-            setCalendarToOrdinalRelativeDay(calendar, dayNumber);
-         }
-
-         if (calendar.getTimeInMillis() > startDate)
-         {
-            dates.add(calendar.getTime());
-            if (!moreDates(calendar, dates))
-            {
-               break;
-            }
-         }
-         calendar.set(Calendar.DAY_OF_MONTH, 1);
-         calendar.add(Calendar.YEAR, 1);
-      }
-   }
-
-   /**
-    * Calculate start dates for a yearly absolute recurrence.
+    * Retrieve an iterator over the dates represented by this recurrence data.
+    * Dates are represented as epoch days, and the iterator can skip directly
+    * to a target date without generating the intervening dates.
     *
-    * @param calendar current date
-    * @param dates array of start dates
+    * @return recurrence iterator
     */
-   private void getYearlyAbsoluteDates(Calendar calendar, List<Date> dates)
+   public RecurrenceIterator iterator()
    {
-      long startDate = calendar.getTimeInMillis();
-      calendar.set(Calendar.DAY_OF_MONTH, 1);
-      calendar.set(Calendar.MONTH, NumberHelper.getInt(m_monthNumber) - 1);
-      int requiredDayNumber = NumberHelper.getInt(m_dayNumber);
-
-      while (moreDates(calendar, dates))
-      {
-         int useDayNumber = requiredDayNumber;
-         int maxDayNumber = calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-         if (useDayNumber > maxDayNumber)
-         {
-            useDayNumber = maxDayNumber;
-         }
-
-         calendar.set(Calendar.DAY_OF_MONTH, useDayNumber);
-         if (calendar.getTimeInMillis() < startDate)
-         {
-            calendar.add(Calendar.YEAR, 1);
-         }
-
-         dates.add(calendar.getTime());
-         calendar.set(Calendar.DAY_OF_MONTH, 1);
-         calendar.add(Calendar.YEAR, 1);
-      }
+      return new RecurrenceIterator(this);
    }
 
    /**
-    * Moves a calendar to the nth named day of the month.
+    * Determine if this recurrence includes the day represented by the
+    * supplied date.
     *
-    * @param calendar current date
-    * @param dayNumber nth day
+    * @param date target date
+    * @return true if the recurrence includes this day
     */
-   private void setCalendarToOrdinalRelativeDay(Calendar calendar, int dayNumber)
+   public boolean contains(Date date)
    {
-      int currentDayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-      int requiredDayOfWeek = getDayOfWeek().getValue();
-      int dayOfWeekOffset = 0;
-      if (requiredDayOfWeek > currentDayOfWeek)
-      {
-         dayOfWeekOffset = requiredDayOfWeek - currentDayOfWeek;
-      }
-      else
-      {
-         if (requiredDayOfWeek < currentDayOfWeek)
-         {
-            dayOfWeekOffset = 7 - (currentDayOfWeek - requiredDayOfWeek);
-         }
-      }
-
-      if (dayOfWeekOffset != 0)
-      {
-         calendar.add(Calendar.DAY_OF_YEAR, dayOfWeekOffset);
-      }
-
-      if (dayNumber > 1)
-      {
-         calendar.add(Calendar.DAY_OF_YEAR, (7 * (dayNumber - 1)));
-      }
+      return iterator().contains(RecurrenceIterator.getEpochDay(date));
    }
 
    /**
-    * Moves a calendar to the last named day of the month.
+    * Retrieve the first date represented by this recurrence data which falls
+    * on or after the day represented by the supplied date.
     *
-    * @param calendar current date
+    * @param date target date
+    * @return next date, or null if the recurrence has finished
     */
-   private void setCalendarToLastRelativeDay(Calendar calendar)
+   public Date getNextDate(Date date)
    {
-      calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-      int currentDayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-      int requiredDayOfWeek = getDayOfWeek().getValue();
-      int dayOfWeekOffset = 0;
-
-      if (currentDayOfWeek > requiredDayOfWeek)
-      {
-         dayOfWeekOffset = requiredDayOfWeek - currentDayOfWeek;
-      }
-      else
-      {
-         if (currentDayOfWeek < requiredDayOfWeek)
-         {
-            dayOfWeekOffset = -7 + (requiredDayOfWeek - currentDayOfWeek);
-         }
-      }
-
-      if (dayOfWeekOffset != 0)
-      {
-         calendar.add(Calendar.DAY_OF_YEAR, dayOfWeekOffset);
-      }
+      RecurrenceIterator iter = iterator();
+      iter.skipTo(RecurrenceIterator.getEpochDay(date));
+      return iter.hasNext() ? iter.getDate(iter.next()) : null;
    }
 
    /**
@@ -0,0 +1,579 @@
+/*
+ * file:       RelationIndex.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       02/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the relations between the tasks in a project.
+ *
+ * Each task is identified by an ordinal, being its position in the
+ * project's task list when the index was built. The relations are held in
+ * arrays of primitive values, grouped by successor task, with a second
+ * set of offsets grouping the same relations by predecessor task. This
+ * allows the predecessors and successors of a task, and their number, to be
+ * retrieved without traversing lists of Relation instances.
+ *
+ * Instances are retrieved using ProjectFile.getRelationIndex(). An index is
+ * a snapshot of the project: when tasks or relations are added or removed
+ * the project discards its index, and a new one is built when next requested.
+ */
+public final class RelationIndex
+{
+   /**
+    * Constructor.
+    *
+    * @param file parent project
+    */
+   RelationIndex(ProjectFile file)
+   {
+      m_tasks = file.getTasks().toArray(new Task[0]);
+      int count = m_tasks.length;
+      for (int ordinal = 0; ordinal < count; ordinal++)
+      {
+         m_ordinals.put(m_tasks[ordinal], Integer.valueOf(ordinal));
+      }
+
+      //
+      // Group the relations by successor
+      //
+      List<Relation> relations = new ArrayList<>();
+      List<Integer> predecessors = new ArrayList<>();
+      m_predecessorOffset = new int[count + 1];
+      for (int ordinal = 0; ordinal < count; ordinal++)
+      {
+         m_predecessorOffset[ordinal] = relations.size();
+         for (Relation relation : m_tasks[ordinal].getPredecessors())
+         {
+            Integer predecessor = m_ordinals.get(relation.getTargetTask());
+            if (predecessor != null)
+            {
+               relations.add(relation);
+               predecessors.add(predecessor);
+            }
+         }
+      }
+      m_predecessorOffset[count] = relations.size();
+
+      int relationCount = relations.size();
+      m_relations = relations.toArray(new Relation[relationCount]);
+      m_relationPredecessor = new int[relationCount];
+      m_relationSuccessor = new int[relationCount];
+      m_relationType = new RelationType[relationCount];
+      m_relationLag = new double[relationCount];
+      m_relationLagUnits = new TimeUnit[relationCount];
+
+      for (int ordinal = 0; ordinal < count; ordinal++)
+      {
+         for (int relation = m_predecessorOffset[ordinal]; relation < m_predecessorOffset[ordinal + 1]; relation++)
+         {
+            Duration lag = m_relations[relation].getLag();
+            m_relationPredecessor[relation] = predecessors.get(relation).intValue();
+            m_relationSuccessor[relation] = ordinal;
+            m_relationType[relation] = m_relations[relation].getType();
+            m_relationLag[relation] = lag == null ? 0 : lag.getDuration();
+            m_relationLagUnits[relation] = lag == null ? TimeUnit.DAYS : lag.getUnits();
+         }
+      }
+
+      //
+      // Group the same relations by predecessor
+      //
+      m_successorOffset = new int[count + 1];
+      for (int relation = 0; relation < relationCount; relation++)
+      {
+         ++m_successorOffset[m_relationPredecessor[relation] + 1];
+      }
+      for (int ordinal = 0; ordinal < count; ordinal++)
+      {
+         m_successorOffset[ordinal + 1] += m_successorOffset[ordinal];
+      }
+
+      int[] position = Arrays.copyOf(m_successorOffset, count);
+      m_successorRelation = new int[relationCount];
+      for (int relation = 0; relation < relationCount; relation++)
+      {
+         m_successorRelation[position[m_relationPredecessor[relation]]++] = relation;
+      }
+
+      sortTasks();
+   }
+
+   /**
+    * Retrieve the number of tasks in the index.
+    *
+    * @return task count
+    */
+   public int getTaskCount()
+   {
+      return m_tasks.length;
+   }
+
+   /**
+    * Retrieve a task by ordinal.
+    *
+    * @param ordinal task ordinal
+    * @return task
+    */
+   public Task getTask(int ordinal)
+   {
+      return m_tasks[ordinal];
+   }
+
+   /**
+    * Retrieve the ordinal for a task.
+    *
+    * @param task task
+    * @return task ordinal, or -1 if the task is not in the index
+    */
+   public int getOrdinal(Task task)
+   {
+      Integer ordinal = m_ordinals.get(task);
+      return ordinal == null ? -1 : ordinal.intValue();
+   }
+
+   /**
+    * Retrieve the number of relations in the index.
+    *
+    * @return relation count
+    */
+   public int getRelationCount()
+   {
+      return m_relations.length;
+   }
+
+   /**
+    * Retrieve the number of predecessors of a task.
+    *
+    * @param ordinal task ordinal
+    * @return predecessor count
+    */
+   public int getPredecessorCount(int ordinal)
+   {
+      return m_predecessorOffset[ordinal + 1] - m_predecessorOffset[ordinal];
+   }
+
+   /**
+    * Retrieve the number of successors of a task.
+    *
+    * @param ordinal task ordinal
+    * @return successor count
+    */
+   public int getSuccessorCount(int ordinal)
+   {
+      return m_successorOffset[ordinal + 1] - m_successorOffset[ordinal];
+   }
+
+   /**
+    * Retrieve the relation representing one of a task's predecessors.
+    *
+    * @param ordinal task ordinal
+    * @param index predecessor index, from zero to getPredecessorCount() - 1
+    * @return relation number
+    */
+   public int getPredecessorRelation(int ordinal, int index)
+   {
+      return m_predecessorOffset[ordinal] + index;
+   }
+
+   /**
+    * Retrieve the relation representing one of a task's successors.
+    *
+    * @param ordinal task ordinal
+    * @param index successor index, from zero to getSuccessorCount() - 1
+    * @return relation number
+    */
+   public int getSuccessorRelation(int ordinal, int index)
+   {
+      return m_successorRelation[m_successorOffset[ordinal] + index];
+   }
+
+   /**
+    * Retrieve the ordinal of one of a task's predecessors.
+    *
+    * @param ordinal task ordinal
+    * @param index predecessor index, from zero to getPredecessorCount() - 1
+    * @return predecessor ordinal
+    */
+   public int getPredecessor(int ordinal, int index)
+   {
+      return m_relationPredecessor[m_predecessorOffset[ordinal] + index];
+   }
+
+   /**
+    * Retrieve the ordinal of one of a task's successors.
+    *
+    * @param ordinal task ordinal
+    * @param index successor index, from zero to getSuccessorCount() - 1
+    * @return successor ordinal
+    */
+   public int getSuccessor(int ordinal, int index)
+   {
+      return m_relationSuccessor[m_successorRelation[m_successorOffset[ordinal] + index]];
+   }
+
+   /**
+    * Retrieve a relation.
+    *
+    * @param relation relation number
+    * @return Relation instance
+    */
+   public Relation getRelation(int relation)
+   {
+      return m_relations[relation];
+   }
+
+   /**
+    * Retrieve the ordinal of the predecessor task in a relation.
+    *
+    * @param relation relation number
+    * @return predecessor ordinal
+    */
+   public int getRelationPredecessor(int relation)
+   {
+      return m_relationPredecessor[relation];
+   }
+
+   /**
+    * Retrieve the ordinal of the successor task in a relation.
+    *
+    * @param relation relation number
+    * @return successor ordinal
+    */
+   public int getRelationSuccessor(int relation)
+   {
+      return m_relationSuccessor[relation];
+   }
+
+   /**
+    * Retrieve the type of a relation.
+    *
+    * @param relation relation number
+    * @return relation type
+    */
+   public RelationType getRelationType(int relation)
+   {
+      return m_relationType[relation];
+   }
+
+   /**
+    * Retrieve the lag value of a relation.
+    *
+    * @param relation relation number
+    * @return lag, expressed in the units returned by getRelationLagUnits
+    */
+   public double getRelationLag(int relation)
+   {
+      return m_relationLag[relation];
+   }
+
+   /**
+    * Retrieve the units of a relation's lag.
+    *
+    * @param relation relation number
+    * @return lag units
+    */
+   public TimeUnit getRelationLagUnits(int relation)
+   {
+      return m_relationLagUnits[relation];
+   }
+
+   /**
+    * Determine if the relations between tasks contain a cycle.
+    *
+    * @return true if a cycle is present
+    */
+   public boolean hasCycle()
+   {
+      return m_order == null;
+   }
+
+   /**
+    * Retrieve the task ordinals arranged so that every task appears
+    * after all of its predecessors.
+    *
+    * @return task ordinals, or null if the relations contain a cycle
+    */
+   public int[] getTopologicalOrder()
+   {
+      return m_order == null ? null : m_order.clone();
+   }
+
+   /**
+    * Retrieve the tasks forming one of the cycles in the relations
+    * between tasks. Each task in the list is a predecessor of the next,
+    * and the last task is a predecessor of the first.
+    *
+    * @return list of tasks, empty if there are no cycles
+    */
+   public List<Task> getCycle()
+   {
+      if (m_order != null)
+      {
+         return Collections.emptyList();
+      }
+
+      //
+      // Tasks which could not be sorted each have at least one predecessor
+      // which could not be sorted, so walking back through these
+      // predecessors must eventually revisit a task.
+      //
+      int[] predecessorCount = getUnsortedPredecessorCount();
+      int[] visitPosition = new int[m_tasks.length];
+      Arrays.fill(visitPosition, -1);
+      List<Integer> path = new ArrayList<>();
+
+      int ordinal = 0;
+      while (predecessorCount[ordinal] == 0)
+      {
+         ++ordinal;
+      }
+
+      while (visitPosition[ordinal] == -1)
+      {
+         visitPosition[ordinal] = path.size();
+         path.add(Integer.valueOf(ordinal));
+
+         int next = -1;
+         for (int relation = m_predecessorOffset[ordinal]; relation < m_predecessorOffset[ordinal + 1]; relation++)
+         {
+            if (predecessorCount[m_relationPredecessor[relation]] != 0)
+            {
+               next = m_relationPredecessor[relation];
+               break;
+            }
+         }
+         ordinal = next;
+      }
+
+      List<Task> result = new ArrayList<>();
+      for (int index = path.size() - 1; index >= visitPosition[ordinal]; index--)
+      {
+         result.add(m_tasks[path.get(index).intValue()]);
+      }
+      return result;
+   }
+
+   /**
+    * Determine if one task can be reached from another by following
+    * successor relations. A task is considered to be reachable from itself.
+    *
+    * @param from task ordinal to start from
+    * @param to target task ordinal
+    * @return true if the target task is reachable
+    */
+   public boolean isReachable(int from, int to)
+   {
+      if (from == to)
+      {
+         return true;
+      }
+
+      //
+      // In an acyclic network every task reachable from a given task
+      // appears after it in the topological order.
+      //
+      if (m_order != null && m_rank[from] > m_rank[to])
+      {
+         return false;
+      }
+
+      BitSet visited = new BitSet(m_tasks.length);
+      int[] stack = new int[16];
+      int stackSize = 0;
+      stack[stackSize++] = from;
+      visited.set(from);
+
+      while (stackSize != 0)
+      {
+         int ordinal = stack[--stackSize];
+         for (int index = m_successorOffset[ordinal]; index < m_successorOffset[ordinal + 1]; index++)
+         {
+            int successor = m_relationSuccessor[m_successorRelation[index]];
+            if (successor == to)
+            {
+               return true;
+            }
+
+            if (visited.get(successor) || (m_order != null && m_rank[successor] > m_rank[to]))
+            {
+               continue;
+            }
+
+            visited.set(successor);
+            if (stackSize == stack.length)
+            {
+               stack = Arrays.copyOf(stack, stackSize * 2);
+            }
+            stack[stackSize++] = successor;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * Determine if one task can be reached from another by following
+    * successor relations. A task is considered to be reachable from itself.
+    *
+    * @param from task to start from
+    * @param to target task
+    * @return true if the target task is reachable
+    */
+   public boolean isReachable(Task from, Task to)
+   {
+      int fromOrdinal = getOrdinal(from);
+      int toOrdinal = getOrdinal(to);
+      return fromOrdinal != -1 && toOrdinal != -1 && isReachable(fromOrdinal, toOrdinal);
+   }
+
+   /**
+    * Retrieve the ordinals of all tasks which can be reached from a task
+    * by following successor relations. The task itself is only included
+    * if it forms part of a cycle.
+    *
+    * @param ordinal task ordinal
+    * @return set of task ordinals
+    */
+   public BitSet getReachable(int ordinal)
+   {
+      BitSet result = new BitSet(m_tasks.length);
+      int[] stack = new int[16];
+      int stackSize = 0;
+      stack[stackSize++] = ordinal;
+
+      while (stackSize != 0)
+      {
+         int current = stack[--stackSize];
+         for (int index = m_successorOffset[current]; index < m_successorOffset[current + 1]; index++)
+         {
+            int successor = m_relationSuccessor[m_successorRelation[index]];
+            if (!result.get(successor))
+            {
+               result.set(successor);
+               if (stackSize == stack.length)
+               {
+                  stack = Arrays.copyOf(stack, stackSize * 2);
+               }
+               stack[stackSize++] = successor;
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Sort the tasks into topological order, recording the position of
+    * each task in that order.
+    */
+   private void sortTasks()
+   {
+      int count = m_tasks.length;
+      int[] order = new int[count];
+      if (sortTasks(new int[count], order) == count)
+      {
+         m_order = order;
+         m_rank = new int[count];
+         for (int rank = 0; rank < count; rank++)
+         {
+            m_rank[order[rank]] = rank;
+         }
+      }
+   }
+
+   /**
+    * Retrieve the number of predecessors of each task which could not be
+    * placed in topological order. This is zero for every task unless the
+    * relations contain a cycle.
+    *
+    * @return predecessor counts
+    */
+   private int[] getUnsortedPredecessorCount()
+   {
+      int count = m_tasks.length;
+      int[] predecessorCount = new int[count];
+      sortTasks(predecessorCount, new int[count]);
+      return predecessorCount;
+   }
+
+   /**
+    * Use Kahn's algorithm to sort as many tasks as possible into
+    * topological order. On return the predecessor count array holds the
+    * number of predecessors of each task which could not be sorted.
+    *
+    * @param predecessorCount array to receive predecessor counts
+    * @param order array to receive sorted task ordinals
+    * @return number of tasks sorted
+    */
+   private int sortTasks(int[] predecessorCount, int[] order)
+   {
+      int count = m_tasks.length;
+      int tail = 0;
+
+      for (int ordinal = 0; ordinal < count; ordinal++)
+      {
+         predecessorCount[ordinal] = getPredecessorCount(ordinal);
+         if (predecessorCount[ordinal] == 0)
+         {
+            order[tail++] = ordinal;
+         }
+      }
+
+      for (int head = 0; head < tail; head++)
+      {
+         int ordinal = order[head];
+         for (int index = m_successorOffset[ordinal]; index < m_successorOffset[ordinal + 1]; index++)
+         {
+            int successor = m_relationSuccessor[m_successorRelation[index]];
+            if (--predecessorCount[successor] == 0)
+            {
+               order[tail++] = successor;
+            }
+         }
+      }
+
+      return tail;
+   }
+
+   private final Task[] m_tasks;
+   private final Map<Task, Integer> m_ordinals = new HashMap<>();
+   private final int[] m_predecessorOffset;
+   private final int[] m_successorOffset;
+   private final int[] m_successorRelation;
+   private final Relation[] m_relations;
+   private final int[] m_relationPredecessor;
+   private final int[] m_relationSuccessor;
+   private final RelationType[] m_relationType;
+   private final double[] m_relationLag;
+   private final TimeUnit[] m_relationLagUnits;
+   private int[] m_order;
+   private int[] m_rank;
+}
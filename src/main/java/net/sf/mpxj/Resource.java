@@ -27,6 +27,7 @@ package net.sf.mpxj;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import net.sf.mpxj.common.BooleanHelper;
@@ -1066,6 +1067,18 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       set(ResourceField.NOTES, notes);
    }
 
+   /**
+    * Sets the notes for this resource as RTF. The RTF is converted
+    * to plain text when the notes are first retrieved, rather than
+    * when they are set.
+    *
+    * @param notes notes as RTF
+    */
+   public void setRtfNotes(String notes)
+   {
+      set(ResourceField.NOTES, RtfNotes.valueOf(notes));
+   }
+
    /**
     * Retrieves the notes text for this resource.
     *
@@ -1948,6 +1961,17 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       m_assignments.remove(assignment);
    }
 
+   /**
+    * Internal method used as part of the process of removing a group
+    * of resource assignments.
+    *
+    * @param assignments resource assignments to be removed
+    */
+   void removeResourceAssignments(Set<ResourceAssignment> assignments)
+   {
+      m_assignments.removeAll(assignments);
+   }
+
    /**
     * Retrieve a list of tasks assigned to this resource. Note that if this
     * project data has been read from an MPX file which declared some or all of
@@ -2284,7 +2308,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : RtfNotes.getValue(m_array[field.getValue()]));
    }
 
    /**
@@ -2332,7 +2356,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
 
             default:
             {
-               result = m_array[field.getValue()];
+               result = RtfNotes.getValue(m_array[field.getValue()]);
                break;
             }
          }
@@ -2438,9 +2462,22 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       //
       if (m_listeners != null)
       {
-         for (FieldListener listener : m_listeners)
+         //
+         // Listeners receive plain text for notes set as RTF
+         //
+         Object oldFieldValue = RtfNotes.getValue(oldValue);
+         ProjectFile file = getParentFile();
+         if (file.isBatchUpdate())
          {
-            listener.fieldChange(this, field, oldValue, newValue);
+            file.recordBatchFieldChange(this, m_listeners, field, oldFieldValue);
+         }
+         else
+         {
+            Object newFieldValue = RtfNotes.getValue(newValue);
+            for (FieldListener listener : m_listeners)
+            {
+               listener.fieldChange(this, field, oldFieldValue, newFieldValue);
+            }
          }
       }
    }
@@ -2220,6 +2220,18 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       set(AssignmentField.NOTES, notes);
    }
 
+   /**
+    * Sets the notes for this resource assignment as RTF. The RTF is converted
+    * to plain text when the notes are first retrieved, rather than
+    * when they are set.
+    *
+    * @param notes notes as RTF
+    */
+   public void setRtfNotes(String notes)
+   {
+      set(AssignmentField.NOTES, RtfNotes.valueOf(notes));
+   }
+
    /**
     * The Notes field contains notes that you can enter about a task.
     * You can use task notes to help maintain a history for a task.
@@ -2793,9 +2805,22 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       //
       if (m_listeners != null)
       {
-         for (FieldListener listener : m_listeners)
+         //
+         // Listeners receive plain text for notes set as RTF
+         //
+         Object oldFieldValue = RtfNotes.getValue(oldValue);
+         ProjectFile file = getParentFile();
+         if (file.isBatchUpdate())
+         {
+            file.recordBatchFieldChange(this, m_listeners, field, oldFieldValue);
+         }
+         else
          {
-            listener.fieldChange(this, field, oldValue, newValue);
+            Object newFieldValue = RtfNotes.getValue(newValue);
+            for (FieldListener listener : m_listeners)
+            {
+               listener.fieldChange(this, field, oldFieldValue, newFieldValue);
+            }
          }
       }
    }
@@ -2828,7 +2853,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : RtfNotes.getValue(m_array[field.getValue()]));
    }
 
    /**
@@ -2842,7 +2867,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       {
          int fieldValue = field.getValue();
 
-         result = m_array[fieldValue];
+         result = RtfNotes.getValue(m_array[fieldValue]);
       }
 
       return (result);
@@ -23,6 +23,12 @@
 
 package net.sf.mpxj;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Manages the collection of resource assignments belonging to a project.
  */
@@ -40,11 +46,47 @@ public class ResourceAssignmentContainer extends ProjectEntityContainer<Resource
 
    @Override public void removed(ResourceAssignment assignment)
    {
-      assignment.getTask().removeResourceAssignment(assignment);
+      Task task = assignment.getTask();
+      if (task != null)
+      {
+         task.removeResourceAssignment(assignment);
+      }
+
       Resource resource = assignment.getResource();
       if (resource != null)
       {
          resource.removeResourceAssignment(assignment);
       }
    }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected void removedAll(List<ResourceAssignment> assignments)
+   {
+      //
+      // A resource may have a large number of assignments, so we
+      // remove all of the assignments for each resource together.
+      //
+      Map<Resource, Set<ResourceAssignment>> resourceAssignments = new HashMap<>();
+      for (ResourceAssignment assignment : assignments)
+      {
+         Task task = assignment.getTask();
+         if (task != null)
+         {
+            task.removeResourceAssignment(assignment);
+         }
+
+         Resource resource = assignment.getResource();
+         if (resource != null)
+         {
+            resourceAssignments.computeIfAbsent(resource, k -> new HashSet<>()).add(assignment);
+         }
+      }
+
+      for (Map.Entry<Resource, Set<ResourceAssignment>> entry : resourceAssignments.entrySet())
+      {
+         entry.getKey().removeResourceAssignments(entry.getValue());
+      }
+   }
 }
@@ -0,0 +1,86 @@
+/*
+ * file:       RtfNotes.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import net.sf.mpxj.common.RtfHelper;
+
+/**
+ * Holds notes which have been read as RTF, in place of the plain text
+ * notes value. The RTF is converted to plain text the first time the
+ * value is retrieved.
+ */
+final class RtfNotes
+{
+   /**
+    * Constructor.
+    *
+    * @param rtf notes as RTF
+    */
+   private RtfNotes(String rtf)
+   {
+      m_rtf = rtf;
+   }
+
+   /**
+    * Create the value to store for notes set as RTF.
+    *
+    * @param rtf notes as RTF
+    * @return value to store
+    */
+   public static Object valueOf(String rtf)
+   {
+      return rtf == null || rtf.isEmpty() ? rtf : new RtfNotes(rtf);
+   }
+
+   /**
+    * If a stored value holds notes set as RTF, retrieve the plain text.
+    * Any other value is returned unchanged.
+    *
+    * @param value stored value
+    * @return field value
+    */
+   public static Object getValue(Object value)
+   {
+      return value instanceof RtfNotes ? ((RtfNotes) value).getText() : value;
+   }
+
+   /**
+    * Retrieve the notes as plain text, converting the RTF on first use.
+    *
+    * @return plain text notes
+    */
+   private String getText()
+   {
+      String text = m_text;
+      if (text == null)
+      {
+         text = RtfHelper.strip(m_rtf);
+         m_text = text;
+      }
+      return text;
+   }
+
+   private final String m_rtf;
+   private volatile String m_text;
+}
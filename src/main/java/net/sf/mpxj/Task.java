@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import net.sf.mpxj.common.BooleanHelper;
@@ -201,6 +202,18 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       set(TaskField.NOTES, notes);
    }
 
+   /**
+    * Sets the notes for this task as RTF. The RTF is converted
+    * to plain text when the notes are first retrieved, rather than
+    * when they are set.
+    *
+    * @param notes notes as RTF
+    */
+   public void setRtfNotes(String notes)
+   {
+      set(TaskField.NOTES, RtfNotes.valueOf(notes));
+   }
+
    /**
     * This method allows nested tasks to be added, with the WBS being
     * completed automatically.
@@ -310,6 +323,24 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       setSummary(!m_children.isEmpty());
    }
 
+   /**
+    * Removes a group of child tasks.
+    *
+    * @param children child task instances
+    */
+   void removeChildTasks(Set<Task> children)
+   {
+      for (Task child : m_children)
+      {
+         if (children.contains(child))
+         {
+            child.m_parent = null;
+         }
+      }
+      m_children.removeAll(children);
+      setSummary(!m_children.isEmpty());
+   }
+
    /**
     * This method allows the list of child tasks to be cleared in preparation
     * for the hierarchical task structure to be built.
@@ -523,6 +554,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       {
          predecessorRelation = new Relation(this, targetTask, type, lag);
          predecessorList.add(predecessorRelation);
+         getParentFile().invalidateRelationIndex();
       }
 
       //
@@ -4634,6 +4666,8 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
          //
          if (matchFound)
          {
+            getParentFile().invalidateRelationIndex();
+
             //
             // Retrieve the list of successors
             //
@@ -4699,7 +4733,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : RtfNotes.getValue(m_array[field.getValue()]));
    }
 
    /**
@@ -4793,7 +4827,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
 
             default:
             {
-               result = m_array[field.getValue()];
+               result = RtfNotes.getValue(m_array[field.getValue()]);
                break;
             }
          }
@@ -4944,9 +4978,22 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       //
       if (m_listeners != null)
       {
-         for (FieldListener listener : m_listeners)
+         //
+         // Listeners receive plain text for notes set as RTF
+         //
+         Object oldFieldValue = RtfNotes.getValue(oldValue);
+         ProjectFile file = getParentFile();
+         if (file.isBatchUpdate())
+         {
+            file.recordBatchFieldChange(this, m_listeners, field, oldFieldValue);
+         }
+         else
          {
-            listener.fieldChange(this, field, oldValue, newValue);
+            Object newFieldValue = RtfNotes.getValue(newValue);
+            for (FieldListener listener : m_listeners)
+            {
+               listener.fieldChange(this, field, oldFieldValue, newFieldValue);
+            }
          }
       }
    }
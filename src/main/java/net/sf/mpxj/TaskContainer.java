@@ -23,9 +23,14 @@
 
 package net.sf.mpxj;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.sf.mpxj.common.NumberHelper;
 
@@ -57,57 +62,133 @@ public class TaskContainer extends ProjectEntityWithIDContainer<Task>
       return task;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected void added(Task task)
+   {
+      m_projectFile.invalidateRelationIndex();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected void replaced(Task oldTask, Task newTask)
+   {
+      m_projectFile.invalidateRelationIndex();
+   }
+
    /**
     * {@inheritDoc}
     */
    @Override public void removed(Task task)
    {
+      removedAll(Collections.singletonList(task));
+
       //
-      // Remove the task from the file and its parent task
+      // Remove any child tasks
       //
-      m_uniqueIDMap.remove(task.getUniqueID());
-      m_idMap.remove(task.getID());
-
-      Task parentTask = task.getParentTask();
-      if (parentTask != null)
+      if (!task.getChildTasks().isEmpty())
       {
-         parentTask.removeChildTask(task);
+         Set<Task> descendants = new HashSet<>();
+         for (Task child : task.getChildTasks())
+         {
+            addSubtree(descendants, child);
+         }
+         super.removeAll(descendants);
       }
-      else
+   }
+
+   /**
+    * Removes the supplied tasks, and all of their child tasks, from the
+    * project. Unlike removing each task individually, this requires a
+    * single pass through the list of tasks regardless of the number of
+    * tasks removed.
+    *
+    * @param tasks tasks to remove
+    * @return true if any tasks were removed
+    */
+   @Override public boolean removeAll(Collection<?> tasks)
+   {
+      Set<Task> subtrees = new HashSet<>();
+      for (Object task : tasks)
       {
-         m_projectFile.getChildTasks().remove(task);
+         if (task instanceof Task)
+         {
+            addSubtree(subtrees, (Task) task);
+         }
       }
+      return super.removeAll(subtrees);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected void removedAll(List<Task> tasks)
+   {
+      m_projectFile.invalidateRelationIndex();
 
       //
-      // Remove all resource assignments
+      // Remove all resource assignments. This is done before the tasks
+      // are unmapped as the assignments may need to look up their tasks.
       //
-      Iterator<ResourceAssignment> iter = m_projectFile.getResourceAssignments().iterator();
-      while (iter.hasNext() == true)
+      List<ResourceAssignment> assignments = new ArrayList<>();
+      for (Task task : tasks)
       {
-         ResourceAssignment assignment = iter.next();
-         if (assignment.getTask() == task)
-         {
-            Resource resource = assignment.getResource();
-            if (resource != null)
-            {
-               resource.removeResourceAssignment(assignment);
-            }
-            iter.remove();
-         }
+         assignments.addAll(task.getResourceAssignments());
+      }
+
+      if (!assignments.isEmpty())
+      {
+         m_projectFile.getResourceAssignments().removeAll(assignments);
       }
 
       //
-      // Recursively remove any child tasks
+      // Remove the tasks from the file and their parent tasks
       //
-      while (true)
+      Set<Task> rootTasks = new HashSet<>();
+      Map<Task, Set<Task>> childTasks = new HashMap<>();
+      for (Task task : tasks)
       {
-         List<Task> childTaskList = task.getChildTasks();
-         if (childTaskList.isEmpty() == true)
+         m_uniqueIDMap.remove(task.getUniqueID());
+         m_idMap.remove(task.getID());
+
+         Task parentTask = task.getParentTask();
+         if (parentTask == null)
          {
-            break;
+            rootTasks.add(task);
          }
+         else
+         {
+            childTasks.computeIfAbsent(parentTask, k -> new HashSet<>()).add(task);
+         }
+      }
 
-         remove(childTaskList.get(0));
+      if (!rootTasks.isEmpty())
+      {
+         m_projectFile.getChildTasks().removeAll(rootTasks);
+      }
+
+      for (Map.Entry<Task, Set<Task>> entry : childTasks.entrySet())
+      {
+         entry.getKey().removeChildTasks(entry.getValue());
+      }
+   }
+
+   /**
+    * Add a task and all of its descendants to a set.
+    *
+    * @param set target set
+    * @param task parent task
+    */
+   private void addSubtree(Set<Task> set, Task task)
+   {
+      if (set.add(task))
+      {
+         for (Task child : task.getChildTasks())
+         {
+            addSubtree(set, child);
+         }
       }
    }
 
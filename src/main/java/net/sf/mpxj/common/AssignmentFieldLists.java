@@ -540,4 +540,12 @@ public final class AssignmentFieldLists
       AssignmentField.ENTERPRISE_RESOURCE_OUTLINE_CODE28,
       AssignmentField.ENTERPRISE_RESOURCE_OUTLINE_CODE29
    };
+
+   public static final AssignmentField[] HYPERLINKS =
+   {
+      AssignmentField.HYPERLINK,
+      AssignmentField.HYPERLINK_ADDRESS,
+      AssignmentField.HYPERLINK_SUBADDRESS,
+      AssignmentField.HYPERLINK_SCREEN_TIP
+   };
 }
@@ -0,0 +1,374 @@
+/*
+ * file:       BytePatternMatcher.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       22/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Locates occurrences of a set of byte patterns in a single pass over a
+ * buffer using the Aho-Corasick algorithm. Readers for binary formats
+ * which identify blocks by fingerprint can use this class rather than
+ * testing every pattern at every offset in the file.
+ *
+ * Matches are reported in ascending order of their start offset. Where more
+ * than one pattern matches at the same offset, only the pattern which appears
+ * first in the list supplied to the constructor is reported, which mirrors
+ * the behaviour of testing each pattern in turn at each offset.
+ *
+ * Instances are immutable once constructed, and can be shared between threads.
+ */
+public final class BytePatternMatcher
+{
+   /**
+    * Callback used to receive matches.
+    */
+   @FunctionalInterface public interface MatchHandler
+   {
+      /**
+       * Called for each match found.
+       *
+       * @param index offset in the buffer at which the pattern starts
+       * @param patternIndex index of the matching pattern
+       * @return true to continue searching, false to stop
+       */
+      boolean match(int index, int patternIndex);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param patterns patterns to match
+    */
+   public BytePatternMatcher(byte[]... patterns)
+   {
+      m_patternLengths = new int[patterns.length];
+
+      int maxStates = 1;
+      int maxLength = 0;
+      for (int index = 0; index < patterns.length; index++)
+      {
+         int length = patterns[index].length;
+         if (length == 0)
+         {
+            throw new IllegalArgumentException("Empty pattern");
+         }
+         m_patternLengths[index] = length;
+         maxStates += length;
+         maxLength = Math.max(maxLength, length);
+      }
+      m_maxPatternLength = maxLength;
+
+      int[] transitions = new int[maxStates * ALPHABET_SIZE];
+      Arrays.fill(transitions, -1);
+      int[] output = new int[maxStates];
+      Arrays.fill(output, -1);
+      int stateCount = 1;
+
+      //
+      // Build the trie. Each state records the first pattern (in the
+      // caller's order) which ends at that state.
+      //
+      for (int patternIndex = 0; patternIndex < patterns.length; patternIndex++)
+      {
+         int state = 0;
+         for (byte b : patterns[patternIndex])
+         {
+            int slot = state * ALPHABET_SIZE + (b & 0xFF);
+            if (transitions[slot] == -1)
+            {
+               transitions[slot] = stateCount++;
+            }
+            state = transitions[slot];
+         }
+
+         if (output[state] == -1)
+         {
+            output[state] = patternIndex;
+         }
+      }
+
+      //
+      // Add failure transitions breadth first to turn the trie into
+      // a deterministic automaton. The dictionary link for each state
+      // points at the longest proper suffix state which ends a pattern.
+      //
+      int[] failure = new int[stateCount];
+      int[] dictionary = new int[stateCount];
+      Arrays.fill(dictionary, -1);
+      Deque<Integer> queue = new ArrayDeque<>();
+
+      for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++)
+      {
+         int next = transitions[symbol];
+         if (next == -1)
+         {
+            transitions[symbol] = 0;
+         }
+         else
+         {
+            failure[next] = 0;
+            queue.add(Integer.valueOf(next));
+         }
+      }
+
+      while (!queue.isEmpty())
+      {
+         int state = queue.remove().intValue();
+         int fail = failure[state];
+         dictionary[state] = output[fail] == -1 ? dictionary[fail] : fail;
+
+         for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++)
+         {
+            int slot = state * ALPHABET_SIZE + symbol;
+            int next = transitions[slot];
+            if (next == -1)
+            {
+               transitions[slot] = transitions[fail * ALPHABET_SIZE + symbol];
+            }
+            else
+            {
+               failure[next] = transitions[fail * ALPHABET_SIZE + symbol];
+               queue.add(Integer.valueOf(next));
+            }
+         }
+      }
+
+      m_transitions = Arrays.copyOf(transitions, stateCount * ALPHABET_SIZE);
+      m_output = Arrays.copyOf(output, stateCount);
+      m_dictionary = dictionary;
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param patterns patterns to match
+    */
+   public BytePatternMatcher(List<byte[]> patterns)
+   {
+      this(patterns.toArray(new byte[patterns.size()][]));
+   }
+
+   /**
+    * Find the first offset at or after the start offset where a pattern matches.
+    *
+    * @param buffer data to search
+    * @param start offset at which to start searching
+    * @param limit matches must start before this offset
+    * @return offset of the first match, or -1 if no match is found
+    */
+   public int findFirst(byte[] buffer, int start, int limit)
+   {
+      int[] result =
+      {
+         -1
+      };
+
+      findAll(buffer, start, limit, (index, patternIndex) -> {
+         result[0] = index;
+         return false;
+      });
+
+      return result[0];
+   }
+
+   /**
+    * Count the number of matches for each pattern.
+    *
+    * @param buffer data to search
+    * @param start offset at which to start searching
+    * @param limit matches must start before this offset
+    * @return array of counts, indexed by pattern
+    */
+   public int[] count(byte[] buffer, int start, int limit)
+   {
+      int[] result = new int[m_patternLengths.length];
+      findAll(buffer, start, limit, (index, patternIndex) -> {
+         ++result[patternIndex];
+         return true;
+      });
+      return result;
+   }
+
+   /**
+    * Find all matches in a byte array.
+    *
+    * @param buffer data to search
+    * @param start offset at which to start searching
+    * @param limit matches must start before this offset
+    * @param handler callback to receive matches
+    */
+   public void findAll(byte[] buffer, int start, int limit, MatchHandler handler)
+   {
+      MatchQueue queue = new MatchQueue(start, limit, handler);
+      int end = Math.min(buffer.length, limit + m_maxPatternLength - 1);
+      int state = 0;
+
+      for (int index = Math.max(start, 0); index < end; index++)
+      {
+         state = m_transitions[state * ALPHABET_SIZE + (buffer[index] & 0xFF)];
+         if (!queue.add(state, index))
+         {
+            return;
+         }
+      }
+      queue.flush();
+   }
+
+   /**
+    * Find all matches in a byte buffer. This allows memory mapped files
+    * to be searched without copying their contents onto the heap.
+    * The position and limit of the buffer are ignored.
+    *
+    * @param buffer data to search
+    * @param start offset at which to start searching
+    * @param limit matches must start before this offset
+    * @param handler callback to receive matches
+    */
+   public void findAll(ByteBuffer buffer, int start, int limit, MatchHandler handler)
+   {
+      MatchQueue queue = new MatchQueue(start, limit, handler);
+      int end = Math.min(buffer.capacity(), limit + m_maxPatternLength - 1);
+      int state = 0;
+
+      for (int index = Math.max(start, 0); index < end; index++)
+      {
+         state = m_transitions[state * ALPHABET_SIZE + (buffer.get(index) & 0xFF)];
+         if (!queue.add(state, index))
+         {
+            return;
+         }
+      }
+      queue.flush();
+   }
+
+   /**
+    * The automaton reports matches when it reaches the end of a pattern,
+    * so where patterns have different lengths matches aren't naturally
+    * ordered by start offset. This class holds pending matches until
+    * no earlier-starting match is possible, then passes them to the handler
+    * in start offset order, keeping only the highest priority
+    * pattern at each offset.
+    */
+   private final class MatchQueue
+   {
+      /**
+       * Constructor.
+       *
+       * @param start search start offset
+       * @param limit matches must start before this offset
+       * @param handler callback to receive matches
+       */
+      public MatchQueue(int start, int limit, MatchHandler handler)
+      {
+         m_start = start;
+         m_limit = limit;
+         m_handler = handler;
+         m_pending = new int[m_maxPatternLength];
+         Arrays.fill(m_pending, -1);
+         m_next = Math.max(start, 0);
+      }
+
+      /**
+       * Record any matches ending at the current state.
+       *
+       * @param state automaton state
+       * @param index offset of the last byte consumed
+       * @return false if the handler has asked to stop
+       */
+      public boolean add(int state, int index)
+      {
+         int match = m_output[state] == -1 ? m_dictionary[state] : state;
+         while (match != -1)
+         {
+            int patternIndex = m_output[match];
+            int matchStart = index - m_patternLengths[patternIndex] + 1;
+            if (matchStart >= m_start && matchStart < m_limit)
+            {
+               int slot = matchStart % m_pending.length;
+               if (m_pending[slot] == -1 || patternIndex < m_pending[slot])
+               {
+                  m_pending[slot] = patternIndex;
+               }
+            }
+            match = m_dictionary[match];
+         }
+
+         //
+         // Any match starting at or before this offset is now complete.
+         //
+         return emit(index - m_maxPatternLength + 1);
+      }
+
+      /**
+       * Report all remaining matches.
+       */
+      public void flush()
+      {
+         emit(m_limit - 1);
+      }
+
+      /**
+       * Report pending matches which start at or before an offset.
+       *
+       * @param last last start offset to report
+       * @return false if the handler has asked to stop
+       */
+      private boolean emit(int last)
+      {
+         while (m_next <= last)
+         {
+            int slot = m_next % m_pending.length;
+            int patternIndex = m_pending[slot];
+            if (patternIndex != -1)
+            {
+               m_pending[slot] = -1;
+               if (!m_handler.match(m_next, patternIndex))
+               {
+                  return false;
+               }
+            }
+            ++m_next;
+         }
+         return true;
+      }
+
+      private final int m_start;
+      private final int m_limit;
+      private final MatchHandler m_handler;
+      private final int[] m_pending;
+      private int m_next;
+   }
+
+   private final int[] m_patternLengths;
+   private final int m_maxPatternLength;
+   private final int[] m_transitions;
+   private final int[] m_output;
+   private final int[] m_dictionary;
+
+   private static final int ALPHABET_SIZE = 256;
+}
@@ -478,6 +478,30 @@ public final class DateHelper
       return result;
    }
 
+   /**
+    * Convert a timestamp to the number of days since 01/01/1970
+    * in the default time zone.
+    *
+    * @param timeInMillis timestamp
+    * @return epoch day
+    */
+   public static long getEpochDay(long timeInMillis)
+   {
+      return Math.floorDiv(getLocalTime(timeInMillis), MS_PER_DAY);
+   }
+
+   /**
+    * Convert a timestamp to the number of milliseconds since
+    * 01/01/1970 00:00 in the default time zone.
+    *
+    * @param timeInMillis timestamp
+    * @return local time in milliseconds
+    */
+   public static long getLocalTime(long timeInMillis)
+   {
+      return timeInMillis + TimeZone.getDefault().getOffset(timeInMillis);
+   }
+
    /**
     * Acquire a calendar instance.
     *
@@ -0,0 +1,922 @@
+/*
+ * file:       DateParser.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       26/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TimeZone;
+
+/**
+ * Parses dates directly from a CharSequence into a timestamp, without creating
+ * Calendar, ParsePosition, Number or exception objects.
+ *
+ * A parser is created from a SimpleDateFormat instance and produces exactly
+ * the same result as that instance would for the text it handles. Only the
+ * pattern letters commonly found in schedule files are supported (y, M, d, H,
+ * h, m, s and a). Where the pattern can't be handled, or the text is in a form
+ * which may be interpreted differently by SimpleDateFormat (for example
+ * out of range values which a lenient calendar would roll over, an ambiguous
+ * two digit year, or a date close to a time zone transition), UNKNOWN is
+ * returned and the caller should fall back to using the SimpleDateFormat
+ * instance itself.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class DateParser
+{
+   /**
+    * Constructor.
+    *
+    * @param format format to replicate
+    * @param locale the locale the format was created with, or null if the
+    * format has been configured using explicit DateFormatSymbols
+    */
+   public DateParser(SimpleDateFormat format, Locale locale)
+   {
+      Calendar calendar = (Calendar) format.getCalendar().clone();
+      calendar.setTime(format.get2DigitYearStart());
+
+      m_timeZone = calendar.getTimeZone();
+      m_defaultCenturyStartYear = calendar.get(Calendar.YEAR);
+
+      List<Element> elements = new ArrayList<>();
+      boolean supported = compile(format.toPattern(), elements);
+      m_elements = elements.toArray(new Element[elements.size()]);
+      m_supported = supported && isSupportedCalendar(calendar) && isSupportedNumberFormat(format.getNumberFormat()) && isSupportedFieldCombination();
+
+      if (m_supported)
+      {
+         DecimalFormat numberFormat = (DecimalFormat) format.getNumberFormat();
+         m_exponentSeparator = numberFormat.getDecimalFormatSymbols().getExponentSeparator();
+         m_textSupported = resolveTextFields(format, calendar, locale);
+      }
+      else
+      {
+         m_exponentSeparator = null;
+         m_textSupported = false;
+      }
+   }
+
+   /**
+    * Parse a date.
+    *
+    * @param text text to parse
+    * @return timestamp in milliseconds, FAILED if the text does not match the
+    * pattern, or UNKNOWN if the caller should parse the text using SimpleDateFormat
+    */
+   public long parse(CharSequence text)
+   {
+      if (!m_supported || !m_textSupported)
+      {
+         return UNKNOWN;
+      }
+
+      int year = 1970;
+      int month = 1;
+      int day = 1;
+      int hour = 0;
+      int minute = 0;
+      int second = 0;
+      int amPm = 0;
+
+      int index = 0;
+      int length = text.length();
+
+      for (Element element : m_elements)
+      {
+         if (element.m_type == LITERAL)
+         {
+            String literal = element.m_literal;
+            for (int literalIndex = 0; literalIndex < literal.length(); literalIndex++)
+            {
+               if (index >= length || text.charAt(index) != literal.charAt(literalIndex))
+               {
+                  return FAILED;
+               }
+               ++index;
+            }
+            continue;
+         }
+
+         //
+         // SimpleDateFormat skips spaces and tabs before each field,
+         // and fails if it reaches the end of the text.
+         //
+         int start = index;
+         while (index < length && (text.charAt(index) == ' ' || text.charAt(index) == '\t'))
+         {
+            ++index;
+         }
+
+         if (index >= length)
+         {
+            return FAILED;
+         }
+
+         if (element.m_type == MONTH_TEXT || element.m_type == AM_PM)
+         {
+            // Text fields are matched from the original start position
+            int matchIndex = element.m_names.match(text, start);
+            if (matchIndex == -1)
+            {
+               return UNKNOWN;
+            }
+
+            if (element.m_type == MONTH_TEXT)
+            {
+               month = element.m_names.m_values[matchIndex] + 1;
+            }
+            else
+            {
+               amPm = element.m_names.m_values[matchIndex];
+            }
+            index = start + element.m_names.m_names[matchIndex].length();
+            continue;
+         }
+
+         int digitsStart = index;
+         int value = 0;
+         while (index < length)
+         {
+            char c = text.charAt(index);
+            if (c < '0' || c > '9')
+            {
+               break;
+            }
+
+            if (index - digitsStart == MAX_DIGITS)
+            {
+               return UNKNOWN;
+            }
+
+            value = value * 10 + (c - '0');
+            ++index;
+         }
+
+         int digitCount = index - digitsStart;
+         if (digitCount == 0 || !isEndOfNumber(text, index))
+         {
+            return UNKNOWN;
+         }
+
+         switch (element.m_type)
+         {
+            case YEAR:
+            {
+               if (element.m_count <= 2 && digitCount == 2)
+               {
+                  int ambiguousTwoDigitYear = m_defaultCenturyStartYear % 100;
+                  if (value == ambiguousTwoDigitYear)
+                  {
+                     return UNKNOWN;
+                  }
+                  value += (m_defaultCenturyStartYear / 100) * 100 + (value < ambiguousTwoDigitYear ? 100 : 0);
+               }
+               year = value;
+               break;
+            }
+
+            case MONTH:
+            {
+               month = value;
+               break;
+            }
+
+            case DAY:
+            {
+               day = value;
+               break;
+            }
+
+            case HOUR_OF_DAY:
+            {
+               if (value > 23)
+               {
+                  return UNKNOWN;
+               }
+               hour = value;
+               break;
+            }
+
+            case HOUR:
+            {
+               if (value < 1 || value > 12)
+               {
+                  return UNKNOWN;
+               }
+               hour = value == 12 ? 0 : value;
+               break;
+            }
+
+            case MINUTE:
+            {
+               if (value > 59)
+               {
+                  return UNKNOWN;
+               }
+               minute = value;
+               break;
+            }
+
+            default:
+            {
+               if (value > 59)
+               {
+                  return UNKNOWN;
+               }
+               second = value;
+               break;
+            }
+         }
+      }
+
+      //
+      // Anything which a lenient calendar would need to roll over
+      // is left to SimpleDateFormat.
+      //
+      if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > getDaysInMonth(year, month))
+      {
+         return UNKNOWN;
+      }
+
+      long localMillis = getEpochDay(year, month, day) * MILLIS_PER_DAY + ((hour + amPm * 12) * 60L + minute) * 60000L + second * 1000L;
+
+      //
+      // We only convert from local time ourselves where the offset
+      // is the same either side of the date, otherwise we'd need to
+      // replicate the calendar's handling of gaps and overlaps.
+      //
+      int offset = m_timeZone.getOffset(localMillis - TRANSITION_WINDOW);
+      if (offset != m_timeZone.getOffset(localMillis + TRANSITION_WINDOW))
+      {
+         return UNKNOWN;
+      }
+
+      return localMillis - offset;
+   }
+
+   /**
+    * Determine if a number has been parsed in the same way as the
+    * DecimalFormat used by SimpleDateFormat would parse it.
+    *
+    * @param text text being parsed
+    * @param index index following the ASCII digits
+    * @return true if DecimalFormat would stop at the same place
+    */
+   private boolean isEndOfNumber(CharSequence text, int index)
+   {
+      if (index == text.length())
+      {
+         return true;
+      }
+
+      char c = text.charAt(index);
+      if (Character.isDigit(c))
+      {
+         return false;
+      }
+
+      int exponentLength = m_exponentSeparator.length();
+      if (exponentLength == 0 || index + exponentLength > text.length())
+      {
+         return true;
+      }
+
+      for (int exponentIndex = 0; exponentIndex < exponentLength; exponentIndex++)
+      {
+         if (text.charAt(index + exponentIndex) != m_exponentSeparator.charAt(exponentIndex))
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Populate the names used to match text fields.
+    *
+    * @param format source format
+    * @param calendar calendar used to retrieve display names
+    * @param locale format locale, or null if explicit symbols are used
+    * @return true if all text fields can be handled
+    */
+   private boolean resolveTextFields(SimpleDateFormat format, Calendar calendar, Locale locale)
+   {
+      boolean result = true;
+      DateFormatSymbols symbols = locale == null ? format.getDateFormatSymbols() : null;
+
+      int fieldCount = 0;
+      for (Element element : m_elements)
+      {
+         if (element.m_type != LITERAL)
+         {
+            ++fieldCount;
+         }
+      }
+
+      for (Element element : m_elements)
+      {
+         if (element.m_type == MONTH_TEXT)
+         {
+            if (symbols == null)
+            {
+               // A pattern consisting of just a month field uses the standalone form
+               element.m_names = fieldCount == 1 ? null : NameList.getInstance(calendar, Calendar.MONTH, locale, Calendar.SHORT_FORMAT, Calendar.LONG_FORMAT);
+            }
+            else
+            {
+               element.m_names = NameList.getInstance(symbols.getMonths(), symbols.getShortMonths());
+            }
+         }
+         else
+         {
+            if (element.m_type == AM_PM)
+            {
+               if (symbols == null)
+               {
+                  element.m_names = NameList.getInstance(calendar, Calendar.AM_PM, locale, Calendar.SHORT_FORMAT, Calendar.SHORT_STANDALONE, Calendar.LONG_FORMAT, Calendar.LONG_STANDALONE);
+               }
+               else
+               {
+                  element.m_names = NameList.getInstance(symbols.getAmPmStrings());
+               }
+            }
+            else
+            {
+               continue;
+            }
+         }
+
+         if (element.m_names == null)
+         {
+            result = false;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Determine if we can replicate the calendar's calculations.
+    *
+    * @param calendar calendar instance
+    * @return true if the calendar is supported
+    */
+   private static boolean isSupportedCalendar(Calendar calendar)
+   {
+      return calendar.getClass() == GregorianCalendar.class && ((GregorianCalendar) calendar).getGregorianChange().getTime() == DEFAULT_GREGORIAN_CUTOVER;
+   }
+
+   /**
+    * Determine if the number format used to parse numeric fields only
+    * accepts plain digits.
+    *
+    * @param format number format
+    * @return true if the number format is supported
+    */
+   private static boolean isSupportedNumberFormat(NumberFormat format)
+   {
+      if (!(format instanceof DecimalFormat))
+      {
+         return false;
+      }
+
+      DecimalFormat decimalFormat = (DecimalFormat) format;
+      return decimalFormat.isParseIntegerOnly() && !decimalFormat.isGroupingUsed() && decimalFormat.getMultiplier() == 1 && decimalFormat.getPositivePrefix().isEmpty() && decimalFormat.getPositiveSuffix().isEmpty() && decimalFormat.getNegativeSuffix().isEmpty() && decimalFormat.getDecimalFormatSymbols().getZeroDigit() == '0';
+   }
+
+   /**
+    * Ensure that each field appears once, and that the hour fields are
+    * used in a way which doesn't depend on the calendar's field resolution rules.
+    * SimpleDateFormat uses the pattern width to parse numeric fields which
+    * aren't separated by literals: we don't support this.
+    *
+    * @return true if the combination of fields is supported
+    */
+   private boolean isSupportedFieldCombination()
+   {
+      boolean[] seen = new boolean[AM_PM + 1];
+      for (int index = 0; index < m_elements.length; index++)
+      {
+         int type = m_elements[index].m_type;
+         if (type == LITERAL)
+         {
+            continue;
+         }
+
+         int key = type == MONTH_TEXT ? MONTH : type;
+         if (seen[key])
+         {
+            return false;
+         }
+         seen[key] = true;
+
+         if (type != MONTH_TEXT && type != AM_PM && index + 1 < m_elements.length)
+         {
+            int nextType = m_elements[index + 1].m_type;
+            if (nextType != LITERAL && nextType != MONTH_TEXT && nextType != AM_PM)
+            {
+               return false;
+            }
+         }
+      }
+
+      if (seen[HOUR_OF_DAY] && (seen[HOUR] || seen[AM_PM]))
+      {
+         return false;
+      }
+
+      return !seen[AM_PM] || seen[HOUR];
+   }
+
+   /**
+    * Compile a SimpleDateFormat pattern into a list of elements.
+    *
+    * @param pattern pattern text
+    * @param elements list to receive elements
+    * @return true if the pattern only contains supported fields
+    */
+   private static boolean compile(String pattern, List<Element> elements)
+   {
+      StringBuilder literal = new StringBuilder();
+      int length = pattern.length();
+      int index = 0;
+
+      while (index < length)
+      {
+         char c = pattern.charAt(index);
+
+         if (c == '\'')
+         {
+            ++index;
+            if (index < length && pattern.charAt(index) == '\'')
+            {
+               literal.append('\'');
+               ++index;
+               continue;
+            }
+
+            while (index < length)
+            {
+               c = pattern.charAt(index++);
+               if (c == '\'')
+               {
+                  if (index < length && pattern.charAt(index) == '\'')
+                  {
+                     literal.append('\'');
+                     ++index;
+                     continue;
+                  }
+                  break;
+               }
+               literal.append(c);
+            }
+            continue;
+         }
+
+         if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))
+         {
+            int count = 1;
+            while (index + count < length && pattern.charAt(index + count) == c)
+            {
+               ++count;
+            }
+            index += count;
+
+            int type = getFieldType(c, count);
+            if (type == LITERAL)
+            {
+               return false;
+            }
+
+            if (literal.length() != 0)
+            {
+               elements.add(new Element(literal.toString()));
+               literal.setLength(0);
+            }
+            elements.add(new Element(type, count));
+            continue;
+         }
+
+         literal.append(c);
+         ++index;
+      }
+
+      if (literal.length() != 0)
+      {
+         elements.add(new Element(literal.toString()));
+      }
+
+      return true;
+   }
+
+   /**
+    * Map a pattern letter to a field type.
+    *
+    * @param c pattern letter
+    * @param count number of repetitions
+    * @return field type, or LITERAL if the field is not supported
+    */
+   private static int getFieldType(char c, int count)
+   {
+      switch (c)
+      {
+         case 'y':
+         {
+            return YEAR;
+         }
+
+         case 'M':
+         {
+            return count <= 2 ? MONTH : MONTH_TEXT;
+         }
+
+         case 'd':
+         {
+            return DAY;
+         }
+
+         case 'H':
+         {
+            return HOUR_OF_DAY;
+         }
+
+         case 'h':
+         {
+            return HOUR;
+         }
+
+         case 'm':
+         {
+            return MINUTE;
+         }
+
+         case 's':
+         {
+            return SECOND;
+         }
+
+         case 'a':
+         {
+            return AM_PM;
+         }
+
+         default:
+         {
+            return LITERAL;
+         }
+      }
+   }
+
+   /**
+    * Retrieve the number of days in a month.
+    *
+    * @param year year
+    * @param month month, 1-12
+    * @return number of days
+    */
+   private static int getDaysInMonth(int year, int month)
+   {
+      if (month == 2)
+      {
+         return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+      }
+      return DAYS_IN_MONTH[month - 1];
+   }
+
+   /**
+    * Calculate the number of days between 1970-01-01 and the given
+    * date in the proleptic Gregorian calendar.
+    *
+    * @param year year
+    * @param month month, 1-12
+    * @param day day of month
+    * @return epoch day
+    */
+   private static long getEpochDay(int year, int month, int day)
+   {
+      long y = month <= 2 ? year - 1 : year;
+      long era = y / 400;
+      long yearOfEra = y - era * 400;
+      long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+      long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+      return era * 146097 + dayOfEra - 719468;
+   }
+
+   /**
+    * A literal or a field from the compiled pattern.
+    */
+   private static final class Element
+   {
+      /**
+       * Constructor for a literal.
+       *
+       * @param literal literal text
+       */
+      public Element(String literal)
+      {
+         m_type = LITERAL;
+         m_count = 0;
+         m_literal = literal;
+      }
+
+      /**
+       * Constructor for a field.
+       *
+       * @param type field type
+       * @param count pattern letter count
+       */
+      public Element(int type, int count)
+      {
+         m_type = type;
+         m_count = count;
+         m_literal = null;
+      }
+
+      final int m_type;
+      final int m_count;
+      final String m_literal;
+      NameList m_names;
+   }
+
+   /**
+    * Names used to match a text field, replicating the longest match
+    * approach taken by SimpleDateFormat.
+    */
+   private static final class NameList
+   {
+      /**
+       * Constructor.
+       *
+       * @param names names
+       * @param values value represented by each name
+       */
+      private NameList(String[] names, int[] values)
+      {
+         m_names = names;
+         m_values = values;
+      }
+
+      /**
+       * Create a name list from one or more arrays of names. As per
+       * SimpleDateFormat, each array is searched in turn, and the first
+       * array containing a match is used.
+       *
+       * @param arrays arrays of names, indexed by value
+       * @return NameList instance
+       */
+      public static NameList getInstance(String[]... arrays)
+      {
+         List<String> names = new ArrayList<>();
+         List<Integer> values = new ArrayList<>();
+         List<Integer> groups = new ArrayList<>();
+
+         for (int group = 0; group < arrays.length; group++)
+         {
+            String[] array = arrays[group];
+            for (int index = 0; index < array.length; index++)
+            {
+               names.add(array[index]);
+               values.add(Integer.valueOf(index));
+               groups.add(Integer.valueOf(group));
+            }
+         }
+
+         NameList result = create(names, values);
+         result.m_groups = groups.stream().mapToInt(Integer::intValue).toArray();
+         return result;
+      }
+
+      /**
+       * Create a name list from the calendar's display names.
+       *
+       * @param calendar calendar
+       * @param field calendar field
+       * @param locale locale
+       * @param styles display name styles to combine
+       * @return NameList instance, or null if the names can't be handled
+       */
+      public static NameList getInstance(Calendar calendar, int field, Locale locale, int... styles)
+      {
+         Map<String, Integer> map = null;
+         for (int style : styles)
+         {
+            Map<String, Integer> styleMap = calendar.getDisplayNames(field, style, locale);
+            if (map == null)
+            {
+               if (styleMap == null || styleMap instanceof SortedMap)
+               {
+                  return null;
+               }
+               map = new HashMap<>(styleMap);
+            }
+            else
+            {
+               if (styleMap != null)
+               {
+                  map.putAll(styleMap);
+               }
+            }
+         }
+
+         List<String> names = new ArrayList<>();
+         List<Integer> values = new ArrayList<>();
+         for (Map.Entry<String, Integer> entry : map.entrySet())
+         {
+            String name = entry.getKey();
+            if (name.isEmpty())
+            {
+               return null;
+            }
+
+            //
+            // The order in which SimpleDateFormat iterates over the map
+            // determines which of two equivalent names is chosen, so we
+            // don't handle names which differ only by case.
+            //
+            for (int index = 0; index < names.size(); index++)
+            {
+               String other = names.get(index);
+               if (other.length() == name.length() && other.regionMatches(true, 0, name, 0, name.length()) && !values.get(index).equals(entry.getValue()))
+               {
+                  return null;
+               }
+            }
+
+            names.add(name);
+            values.add(entry.getValue());
+         }
+
+         NameList result = create(names, values);
+         result.m_groups = new int[names.size()];
+         return result;
+      }
+
+      /**
+       * Create a NameList instance from lists of names and values.
+       *
+       * @param names names
+       * @param values values
+       * @return NameList instance
+       */
+      private static NameList create(List<String> names, List<Integer> values)
+      {
+         return new NameList(names.toArray(new String[names.size()]), values.stream().mapToInt(Integer::intValue).toArray());
+      }
+
+      /**
+       * Find the longest name matching the text at the given position.
+       * Where names are split into groups, the first group containing
+       * a match is used.
+       *
+       * @param text text to match
+       * @param start start position
+       * @return index of the matching name, or -1 if no match is found
+       */
+      public int match(CharSequence text, int start)
+      {
+         int bestMatch = -1;
+         int bestMatchLength = 0;
+
+         for (int index = 0; index < m_names.length; index++)
+         {
+            if (bestMatch != -1 && m_groups[index] != m_groups[bestMatch])
+            {
+               break;
+            }
+
+            String name = m_names[index];
+            int length = name.length();
+            if (length > bestMatchLength && regionMatches(text, start, name))
+            {
+               bestMatch = index;
+               bestMatchLength = length;
+            }
+         }
+
+         return bestMatch;
+      }
+
+      /**
+       * Case insensitive comparison, using the same approach
+       * as String.regionMatches.
+       *
+       * @param text text to match
+       * @param start start position
+       * @param name name to match
+       * @return true if the name matches the text
+       */
+      private static boolean regionMatches(CharSequence text, int start, String name)
+      {
+         int length = name.length();
+         if (start + length > text.length())
+         {
+            return false;
+         }
+
+         for (int index = 0; index < length; index++)
+         {
+            char c1 = text.charAt(start + index);
+            char c2 = name.charAt(index);
+            if (c1 == c2)
+            {
+               continue;
+            }
+
+            char u1 = Character.toUpperCase(c1);
+            char u2 = Character.toUpperCase(c2);
+            if (u1 == u2 || Character.toLowerCase(u1) == Character.toLowerCase(u2))
+            {
+               continue;
+            }
+            return false;
+         }
+         return true;
+      }
+
+      final String[] m_names;
+      final int[] m_values;
+      int[] m_groups;
+   }
+
+   private final Element[] m_elements;
+   private final boolean m_supported;
+   private final boolean m_textSupported;
+   private final TimeZone m_timeZone;
+   private final int m_defaultCenturyStartYear;
+   private final String m_exponentSeparator;
+
+   /**
+    * Returned if the text does not match the pattern.
+    */
+   public static final long FAILED = Long.MIN_VALUE;
+
+   /**
+    * Returned if the text should be parsed by SimpleDateFormat.
+    */
+   public static final long UNKNOWN = Long.MIN_VALUE + 1;
+
+   private static final int LITERAL = 0;
+   private static final int YEAR = 1;
+   private static final int MONTH = 2;
+   private static final int MONTH_TEXT = 3;
+   private static final int DAY = 4;
+   private static final int HOUR_OF_DAY = 5;
+   private static final int HOUR = 6;
+   private static final int MINUTE = 7;
+   private static final int SECOND = 8;
+   private static final int AM_PM = 9;
+
+   private static final int MAX_DIGITS = 9;
+   private static final int MIN_YEAR = 1600;
+   private static final int MAX_YEAR = 9999;
+   private static final long MILLIS_PER_DAY = 86400000L;
+   private static final long TRANSITION_WINDOW = 2 * MILLIS_PER_DAY;
+   private static final long DEFAULT_GREGORIAN_CUTOVER = -12219292800000L;
+   private static final int[] DAYS_IN_MONTH =
+   {
+      31,
+      28,
+      31,
+      30,
+      31,
+      30,
+      31,
+      31,
+      30,
+      31,
+      30,
+      31
+   };
+}
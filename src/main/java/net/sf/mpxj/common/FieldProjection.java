@@ -0,0 +1,256 @@
+/*
+ * file:       FieldProjection.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       11/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.TaskField;
+
+/**
+ * Used by readers to determine which task, resource and assignment
+ * fields should be populated when the caller has only asked for a
+ * subset of fields. The fields the readers rely on to build the
+ * structure of the project are always included.
+ */
+public final class FieldProjection
+{
+   /**
+    * Constructor.
+    *
+    * @param fields fields to populate, or null to populate all fields
+    */
+   public FieldProjection(Set<? extends FieldType> fields)
+   {
+      if (fields == null)
+      {
+         m_fields = null;
+      }
+      else
+      {
+         m_fields = new HashSet<>(fields);
+         m_fields.addAll(REQUIRED_FIELDS);
+
+         //
+         // Outline code values are looked up using their index fields
+         //
+         if (containsAny(TaskFieldLists.CUSTOM_OUTLINE_CODE))
+         {
+            m_fields.addAll(Arrays.asList(TASK_OUTLINE_CODE_INDEXES));
+         }
+
+         if (containsAny(ResourceFieldLists.CUSTOM_OUTLINE_CODE))
+         {
+            m_fields.addAll(Arrays.asList(RESOURCE_OUTLINE_CODE_INDEXES));
+         }
+      }
+   }
+
+   /**
+    * Determine if a field should be populated.
+    *
+    * @param field field type
+    * @return true if the field should be populated
+    */
+   public boolean contains(FieldType field)
+   {
+      return m_fields == null || m_fields.contains(field);
+   }
+
+   /**
+    * Determine if any of a group of fields should be populated.
+    *
+    * @param fields field types
+    * @return true if any of the fields should be populated
+    */
+   public boolean containsAny(FieldType... fields)
+   {
+      if (m_fields == null)
+      {
+         return true;
+      }
+
+      for (FieldType field : fields)
+      {
+         if (m_fields.contains(field))
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Determine if any of the fields for a task baseline should be populated.
+    *
+    * @param number baseline number, zero for the main baseline
+    * @return true if any of the baseline fields should be populated
+    */
+   public boolean containsTaskBaseline(int number)
+   {
+      if (number == 0)
+      {
+         return containsAny(TaskField.BASELINE_COST, TaskField.BASELINE_DURATION, TaskField.BASELINE_START, TaskField.BASELINE_FINISH, TaskField.BASELINE_WORK);
+      }
+
+      if (number > TaskFieldLists.BASELINE_COSTS.length)
+      {
+         return true;
+      }
+
+      int index = number - 1;
+      return containsAny(TaskFieldLists.BASELINE_COSTS[index], TaskFieldLists.BASELINE_DURATIONS[index], TaskFieldLists.BASELINE_STARTS[index], TaskFieldLists.BASELINE_FINISHES[index], TaskFieldLists.BASELINE_WORKS[index]);
+   }
+
+   /**
+    * Determine if any of the fields for a resource baseline should be populated.
+    *
+    * @param number baseline number, zero for the main baseline
+    * @return true if any of the baseline fields should be populated
+    */
+   public boolean containsResourceBaseline(int number)
+   {
+      if (number == 0)
+      {
+         return containsAny(ResourceField.BASELINE_COST, ResourceField.BASELINE_WORK);
+      }
+
+      if (number > ResourceFieldLists.BASELINE_COSTS.length)
+      {
+         return true;
+      }
+
+      int index = number - 1;
+      return containsAny(ResourceFieldLists.BASELINE_COSTS[index], ResourceFieldLists.BASELINE_WORKS[index]);
+   }
+
+   /**
+    * Determine if any of the fields for an assignment baseline should be populated.
+    *
+    * @param number baseline number, zero for the main baseline
+    * @return true if any of the baseline fields should be populated
+    */
+   public boolean containsAssignmentBaseline(int number)
+   {
+      if (number == 0)
+      {
+         return containsAny(AssignmentField.BASELINE_COST, AssignmentField.BASELINE_START, AssignmentField.BASELINE_FINISH, AssignmentField.BASELINE_WORK);
+      }
+
+      if (number > AssignmentFieldLists.BASELINE_COSTS.length)
+      {
+         return true;
+      }
+
+      int index = number - 1;
+      return containsAny(AssignmentFieldLists.BASELINE_COSTS[index], AssignmentFieldLists.BASELINE_STARTS[index], AssignmentFieldLists.BASELINE_FINISHES[index], AssignmentFieldLists.BASELINE_WORKS[index]);
+   }
+
+   private final Set<FieldType> m_fields;
+
+   /**
+    * Projection which populates all fields.
+    */
+   public static final FieldProjection ALL = new FieldProjection(null);
+
+   private static final Set<FieldType> REQUIRED_FIELDS = new HashSet<>(Arrays.asList(new FieldType[]
+   {
+      TaskField.UNIQUE_ID,
+      TaskField.ID,
+      TaskField.NAME,
+      TaskField.PARENT_TASK_UNIQUE_ID,
+      TaskField.OUTLINE_LEVEL,
+      TaskField.WBS,
+      TaskField.START,
+      TaskField.FINISH,
+      TaskField.DURATION,
+      TaskField.ACTUAL_START,
+      TaskField.ACTUAL_FINISH,
+      TaskField.SCHEDULED_START,
+      TaskField.SCHEDULED_FINISH,
+      TaskField.SCHEDULED_DURATION,
+      TaskField.LATE_START,
+      TaskField.LATE_FINISH,
+      TaskField.CONSTRAINT_TYPE,
+      TaskField.TASK_MODE,
+      TaskField.CREATED,
+      TaskField.CALENDAR_UNIQUE_ID,
+      TaskField.SUBPROJECT_TASK_ID,
+      TaskField.MILESTONE,
+      TaskField.SUMMARY,
+      TaskField.IGNORE_RESOURCE_CALENDAR,
+
+      ResourceField.UNIQUE_ID,
+      ResourceField.ID,
+      ResourceField.NAME,
+      ResourceField.TYPE,
+      ResourceField.CALENDAR_UNIQUE_ID,
+      ResourceField.STANDARD_RATE,
+      ResourceField.OVERTIME_RATE,
+      ResourceField.COST_PER_USE,
+
+      AssignmentField.UNIQUE_ID,
+      AssignmentField.TASK_UNIQUE_ID,
+      AssignmentField.RESOURCE_UNIQUE_ID,
+      AssignmentField.START,
+      AssignmentField.FINISH,
+      AssignmentField.ASSIGNMENT_UNITS,
+      AssignmentField.WORK,
+      AssignmentField.ACTUAL_WORK,
+      AssignmentField.REMAINING_WORK,
+      AssignmentField.CREATED
+   }));
+
+   private static final TaskField[] TASK_OUTLINE_CODE_INDEXES =
+   {
+      TaskField.OUTLINE_CODE1_INDEX,
+      TaskField.OUTLINE_CODE2_INDEX,
+      TaskField.OUTLINE_CODE3_INDEX,
+      TaskField.OUTLINE_CODE4_INDEX,
+      TaskField.OUTLINE_CODE5_INDEX,
+      TaskField.OUTLINE_CODE6_INDEX,
+      TaskField.OUTLINE_CODE7_INDEX,
+      TaskField.OUTLINE_CODE8_INDEX,
+      TaskField.OUTLINE_CODE9_INDEX,
+      TaskField.OUTLINE_CODE10_INDEX
+   };
+
+   private static final ResourceField[] RESOURCE_OUTLINE_CODE_INDEXES =
+   {
+      ResourceField.OUTLINE_CODE1_INDEX,
+      ResourceField.OUTLINE_CODE2_INDEX,
+      ResourceField.OUTLINE_CODE3_INDEX,
+      ResourceField.OUTLINE_CODE4_INDEX,
+      ResourceField.OUTLINE_CODE5_INDEX,
+      ResourceField.OUTLINE_CODE6_INDEX,
+      ResourceField.OUTLINE_CODE7_INDEX,
+      ResourceField.OUTLINE_CODE8_INDEX,
+      ResourceField.OUTLINE_CODE9_INDEX,
+      ResourceField.OUTLINE_CODE10_INDEX
+   };
+}
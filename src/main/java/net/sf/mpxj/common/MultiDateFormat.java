@@ -25,13 +25,21 @@ package net.sf.mpxj.common;
 
 import java.text.DateFormat;
 import java.text.FieldPosition;
+import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
 
 /**
  * This class wraps the functionality provided by the SimpleDateFormat class
  * to make it suitable for use with the time conventions used in MPX files.
+ *
+ * Dates can be parsed by multiple threads using the same instance, provided
+ * that the instance is not reconfigured while it is in use. Text which can't
+ * be handled directly by the DateParser instances is parsed using each
+ * thread's own copy of the SimpleDateFormat instances, created the first
+ * time the thread needs them. Formatting dates is not thread safe.
  */
 public class MultiDateFormat extends DateFormat
 {
@@ -42,11 +50,64 @@ public class MultiDateFormat extends DateFormat
     */
    public MultiDateFormat(String... patterns)
    {
-      m_formats = new SimpleDateFormat[patterns.length];
+      SimpleDateFormat[] formats = new SimpleDateFormat[patterns.length];
       for (int index = 0; index < patterns.length; index++)
       {
-         m_formats[index] = new SimpleDateFormat(patterns[index]);
+         formats[index] = new SimpleDateFormat(patterns[index]);
       }
+      setFormats(formats, Locale.getDefault(Locale.Category.FORMAT));
+   }
+
+   /**
+    * Parse a date. Where possible, the text is parsed directly into
+    * a timestamp without using the underlying SimpleDateFormat instances.
+    *
+    * @param text text to parse
+    * @return Date instance, or null if the text represents a null date
+    * @throws ParseException if the text can't be parsed
+    */
+   public Date parseDate(CharSequence text) throws ParseException
+   {
+      if (text == null || isBlank(text) || isNullText(text))
+      {
+         return null;
+      }
+
+      long result = DateParser.FAILED;
+      for (DateParser parser : m_parsers)
+      {
+         result = parser.parse(text);
+         if (result != DateParser.FAILED)
+         {
+            break;
+         }
+      }
+
+      //
+      // If none of the parsers has a definite answer, we use the
+      // original formats, which also gives us the correct error index.
+      //
+      if (result == DateParser.FAILED || result == DateParser.UNKNOWN)
+      {
+         String source = text.toString();
+         ParsePosition pos = new ParsePosition(0);
+         Date date = parseNonNullDate(source, pos);
+         if (pos.getIndex() == 0)
+         {
+            throw new ParseException("Unparseable date: \"" + source + "\"", pos.getErrorIndex());
+         }
+         return date;
+      }
+
+      return new Date(result);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Date parse(String source) throws ParseException
+   {
+      return parseDate(source);
    }
 
    /**
@@ -56,7 +117,7 @@ public class MultiDateFormat extends DateFormat
    {
       Date result;
 
-      if (str == null || str.trim().length() == 0)
+      if (str == null || str.trim().length() == 0 || isNullText(str))
       {
          result = null;
          pos.setIndex(-1);
@@ -71,6 +132,7 @@ public class MultiDateFormat extends DateFormat
 
    /**
     * We have a non-null date, try each format in turn to see if it can be parsed.
+    * SimpleDateFormat is not thread safe, so the current thread's copies are used.
     *
     * @param str date to parse
     * @param pos position at which to start parsing
@@ -79,9 +141,10 @@ public class MultiDateFormat extends DateFormat
    protected Date parseNonNullDate(String str, ParsePosition pos)
    {
       Date result = null;
-      for (int index = 0; index < m_formats.length; index++)
+      SimpleDateFormat[] formats = m_threadFormats.get();
+      for (int index = 0; index < formats.length; index++)
       {
-         result = m_formats[index].parse(str, pos);
+         result = formats[index].parse(str, pos);
          if (pos.getIndex() != 0)
          {
             break;
@@ -91,6 +154,73 @@ public class MultiDateFormat extends DateFormat
       return result;
    }
 
+   /**
+    * Determine if the text represents a null date.
+    *
+    * @param text text to test
+    * @return true if the text represents a null date
+    */
+   protected boolean isNullText(CharSequence text)
+   {
+      return false;
+   }
+
+   /**
+    * Set the formats used by this instance. The corresponding DateParser
+    * instances are created here, so this method must be called again if
+    * the formats are subsequently modified.
+    *
+    * @param formats date formats
+    * @param locale locale used to create the formats, or null if they
+    * have been configured with explicit DateFormatSymbols
+    */
+   protected void setFormats(SimpleDateFormat[] formats, Locale locale)
+   {
+      DateParser[] parsers = new DateParser[formats.length];
+      for (int index = 0; index < parsers.length; index++)
+      {
+         parsers[index] = new DateParser(formats[index], locale);
+      }
+
+      m_formats = formats;
+      m_parsers = parsers;
+      m_threadFormats = ThreadLocal.withInitial(() -> copyFormats(formats));
+   }
+
+   /**
+    * Create a copy of each format, for use by a single thread.
+    *
+    * @param formats date formats
+    * @return copies of the date formats
+    */
+   private static SimpleDateFormat[] copyFormats(SimpleDateFormat[] formats)
+   {
+      SimpleDateFormat[] result = new SimpleDateFormat[formats.length];
+      for (int index = 0; index < formats.length; index++)
+      {
+         result[index] = (SimpleDateFormat) formats[index].clone();
+      }
+      return result;
+   }
+
+   /**
+    * Determine if the text is empty or only contains whitespace.
+    *
+    * @param text text to test
+    * @return true if the text is blank
+    */
+   private static boolean isBlank(CharSequence text)
+   {
+      for (int index = 0; index < text.length(); index++)
+      {
+         if (text.charAt(index) > ' ')
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -100,4 +230,6 @@ public class MultiDateFormat extends DateFormat
    }
 
    protected SimpleDateFormat[] m_formats;
+   private volatile DateParser[] m_parsers;
+   private volatile ThreadLocal<SimpleDateFormat[]> m_threadFormats;
 }
@@ -0,0 +1,260 @@
+/*
+ * file:       NumberParser.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       24/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Parses simple decimal numbers directly from a CharSequence without
+ * creating intermediate String, ParsePosition or exception objects.
+ *
+ * Only plain decimal values are handled: an optional minus sign,
+ * integer digits with optional grouping separators, and optional
+ * fraction digits, surrounded by optional whitespace. Where the text is
+ * in any other form, or the value can't be represented exactly using
+ * this approach, NaN is returned and the caller should fall back to using
+ * a DecimalFormat instance. For values which are handled, the result is
+ * identical to the value produced by DecimalFormat.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class NumberParser
+{
+   /**
+    * Constructor.
+    *
+    * @param decimalSeparator decimal separator character
+    * @param groupingSeparator grouping separator character, or zero if grouping is not used
+    * @param minusSign minus sign character
+    */
+   public NumberParser(char decimalSeparator, char groupingSeparator, char minusSign)
+   {
+      m_decimalSeparator = decimalSeparator;
+      m_groupingSeparator = groupingSeparator;
+      m_minusSign = minusSign;
+   }
+
+   /**
+    * Constructor. Creates a parser which will produce the same results
+    * as the supplied DecimalFormat instance.
+    *
+    * @param format DecimalFormat instance
+    */
+   public NumberParser(DecimalFormat format)
+   {
+      this(format.getDecimalFormatSymbols(), format.isGroupingUsed());
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param symbols decimal format symbols
+    * @param groupingUsed true if grouping separators are recognised
+    */
+   private NumberParser(DecimalFormatSymbols symbols, boolean groupingUsed)
+   {
+      this(symbols.getDecimalSeparator(), groupingUsed ? symbols.getGroupingSeparator() : 0, symbols.getMinusSign());
+   }
+
+   /**
+    * Parse a decimal value.
+    *
+    * @param text text to parse
+    * @return parsed value, or NaN if the text can't be handled by this parser
+    */
+   public double parseDouble(CharSequence text)
+   {
+      int index = 0;
+      int length = text.length();
+
+      while (index < length && text.charAt(index) <= ' ')
+      {
+         ++index;
+      }
+
+      while (length > index && text.charAt(length - 1) <= ' ')
+      {
+         --length;
+      }
+
+      if (index == length)
+      {
+         return Double.NaN;
+      }
+
+      boolean negative = text.charAt(index) == m_minusSign;
+      if (negative)
+      {
+         ++index;
+      }
+
+      long mantissa = 0;
+      int digits = 0;
+      int fractionDigits = 0;
+      boolean decimal = false;
+      boolean sawDigit = false;
+      boolean lastWasGrouping = false;
+
+      while (index < length)
+      {
+         char c = text.charAt(index++);
+         if (c >= '0' && c <= '9')
+         {
+            if (mantissa != 0 || c != '0')
+            {
+               if (++digits > MAX_DIGITS)
+               {
+                  return Double.NaN;
+               }
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (decimal)
+            {
+               ++fractionDigits;
+            }
+            sawDigit = true;
+            lastWasGrouping = false;
+            continue;
+         }
+
+         if (c == m_decimalSeparator && !decimal)
+         {
+            decimal = true;
+            continue;
+         }
+
+         if (c == m_groupingSeparator && c != 0 && !decimal && digits != 0 && !lastWasGrouping)
+         {
+            lastWasGrouping = true;
+            continue;
+         }
+
+         return Double.NaN;
+      }
+
+      if (!sawDigit || lastWasGrouping || fractionDigits >= POWERS_OF_TEN.length)
+      {
+         return Double.NaN;
+      }
+
+      double result = mantissa / POWERS_OF_TEN[fractionDigits];
+      return negative ? -result : result;
+   }
+
+   /**
+    * Parse an integer value. The text is expected to be in a form
+    * accepted by Integer.parseInt, optionally surrounded by whitespace.
+    *
+    * @param text text to parse
+    * @return parsed value
+    * @throws NumberFormatException if the text can't be parsed
+    */
+   public static int parseInt(CharSequence text)
+   {
+      int index = 0;
+      int length = text.length();
+
+      while (index < length && text.charAt(index) <= ' ')
+      {
+         ++index;
+      }
+
+      while (length > index && text.charAt(length - 1) <= ' ')
+      {
+         --length;
+      }
+
+      boolean negative = false;
+      if (index < length)
+      {
+         char c = text.charAt(index);
+         if (c == '-' || c == '+')
+         {
+            negative = c == '-';
+            ++index;
+         }
+      }
+
+      int digitCount = length - index;
+      if (digitCount == 0 || digitCount > 9)
+      {
+         // Let Integer handle the edge cases and generate the appropriate exception
+         return Integer.parseInt(text.toString().trim());
+      }
+
+      int result = 0;
+      while (index < length)
+      {
+         char c = text.charAt(index++);
+         if (c < '0' || c > '9')
+         {
+            return Integer.parseInt(text.toString().trim());
+         }
+         result = result * 10 + (c - '0');
+      }
+
+      return negative ? -result : result;
+   }
+
+   private final char m_decimalSeparator;
+   private final char m_groupingSeparator;
+   private final char m_minusSign;
+
+   /**
+    * Mantissa values up to this many significant digits are
+    * exactly representable as a double.
+    */
+   private static final int MAX_DIGITS = 15;
+
+   /**
+    * Powers of ten which are exactly representable as a double.
+    */
+   private static final double[] POWERS_OF_TEN =
+   {
+      1e0,
+      1e1,
+      1e2,
+      1e3,
+      1e4,
+      1e5,
+      1e6,
+      1e7,
+      1e8,
+      1e9,
+      1e10,
+      1e11,
+      1e12,
+      1e13,
+      1e14,
+      1e15,
+      1e16,
+      1e17,
+      1e18,
+      1e19,
+      1e20,
+      1e21,
+      1e22
+   };
+}
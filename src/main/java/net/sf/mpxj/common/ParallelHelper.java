@@ -0,0 +1,143 @@
+/*
+ * file:       ParallelHelper.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Utility methods for processing a range of items in parallel using
+ * a fork-join pool. The range is split in half repeatedly until each
+ * part holds no more than a given number of items.
+ */
+public final class ParallelHelper
+{
+   /**
+    * Perform an action for each item in a range, in parallel where possible.
+    *
+    * @param pool fork-join pool
+    * @param count number of items
+    * @param itemsPerTask number of items below which a range is not split
+    * @param action action to perform for each item
+    */
+   public static void forEach(ForkJoinPool pool, int count, int itemsPerTask, IntConsumer action)
+   {
+      reduce(pool, count, itemsPerTask, (from, to) -> {
+         for (int index = from; index < to; index++)
+         {
+            action.accept(index);
+         }
+         return null;
+      }, (left, right) -> null);
+   }
+
+   /**
+    * Process a range of items, in parallel where possible, and combine
+    * the results produced for each part of the range.
+    *
+    * @param pool fork-join pool
+    * @param count number of items
+    * @param itemsPerTask number of items below which a range is not split
+    * @param function produces the result for part of the range
+    * @param combiner combines the results for two adjacent parts of the range
+    * @param <T> result type
+    * @return result for the whole range
+    */
+   public static <T> T reduce(ForkJoinPool pool, int count, int itemsPerTask, RangeFunction<T> function, BinaryOperator<T> combiner)
+   {
+      return pool.invoke(new RangeTask<>(function, combiner, itemsPerTask, 0, count));
+   }
+
+   /**
+    * Produces the result for part of a range of items.
+    *
+    * @param <T> result type
+    */
+   @FunctionalInterface public interface RangeFunction<T>
+   {
+      /**
+       * Process part of a range of items.
+       *
+       * @param from first item
+       * @param to last item (exclusive)
+       * @return result
+       */
+      T apply(int from, int to);
+   }
+
+   /**
+    * Processes a range of items, splitting the range between
+    * multiple threads where possible.
+    *
+    * @param <T> result type
+    */
+   private static final class RangeTask<T> extends RecursiveTask<T>
+   {
+      /**
+       * Constructor.
+       *
+       * @param function produces the result for part of the range
+       * @param combiner combines the results for two adjacent parts of the range
+       * @param itemsPerTask number of items below which a range is not split
+       * @param from first item
+       * @param to last item (exclusive)
+       */
+      public RangeTask(RangeFunction<T> function, BinaryOperator<T> combiner, int itemsPerTask, int from, int to)
+      {
+         m_function = function;
+         m_combiner = combiner;
+         m_itemsPerTask = itemsPerTask;
+         m_from = from;
+         m_to = to;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override protected T compute()
+      {
+         if (m_to - m_from > m_itemsPerTask)
+         {
+            int middle = (m_from + m_to) >>> 1;
+            RangeTask<T> left = new RangeTask<>(m_function, m_combiner, m_itemsPerTask, m_from, middle);
+            RangeTask<T> right = new RangeTask<>(m_function, m_combiner, m_itemsPerTask, middle, m_to);
+            left.fork();
+            T rightResult = right.compute();
+            return m_combiner.apply(left.join(), rightResult);
+         }
+
+         return m_function.apply(m_from, m_to);
+      }
+
+      private final RangeFunction<T> m_function;
+      private final BinaryOperator<T> m_combiner;
+      private final int m_itemsPerTask;
+      private final int m_from;
+      private final int m_to;
+
+      private static final long serialVersionUID = 1L;
+   }
+}
@@ -452,4 +452,11 @@ public final class ResourceFieldLists
       ResourceField.OUTLINE_CODE10
    };
 
+   public static final ResourceField[] HYPERLINKS =
+   {
+      ResourceField.HYPERLINK,
+      ResourceField.HYPERLINK_ADDRESS,
+      ResourceField.HYPERLINK_SUBADDRESS,
+      ResourceField.HYPERLINK_SCREEN_TIP
+   };
 }
@@ -24,9 +24,16 @@
 package net.sf.mpxj.common;
 
 import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import com.rtfparserkit.converter.text.StringTextConverter;
 import com.rtfparserkit.parser.RtfStringSource;
+import com.rtfparserkit.rtf.Command;
+import com.rtfparserkit.rtf.CommandType;
 
 /**
  * This class is used to collect together utility functions for manipulating
@@ -47,6 +54,9 @@ public final class RtfHelper
 
    /**
     * This method removes all RTF formatting from a given piece of text.
+    * Recently converted text is cached, as the same notes are
+    * often attached to many tasks, resources or assignments. The
+    * cache is bounded by the total length of the text it holds.
     *
     * @param text Text from which the RTF formatting is to be removed.
     * @return Plain text
@@ -55,21 +65,338 @@ public final class RtfHelper
    {
       String result = text;
       if (text != null && !text.isEmpty())
+      {
+         synchronized (CACHE)
+         {
+            result = CACHE.get(text);
+         }
+
+         if (result == null)
+         {
+            result = convert(text);
+            if (text.length() <= MAX_CACHED_TEXT_LENGTH)
+            {
+               synchronized (CACHE)
+               {
+                  addToCache(text, result);
+               }
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Add a converted value to the cache, discarding the least recently
+    * used entries until the total length of the cached text is within
+    * the limit. The caller must hold the cache lock.
+    *
+    * @param text RTF text
+    * @param result plain text
+    */
+   private static void addToCache(String text, String result)
+   {
+      String previous = CACHE.put(text, result);
+      if (previous != null)
+      {
+         CACHED_CHARACTERS -= text.length() + previous.length();
+      }
+      CACHED_CHARACTERS += text.length() + result.length();
+
+      Iterator<Map.Entry<String, String>> iter = CACHE.entrySet().iterator();
+      while (CACHED_CHARACTERS > MAX_CACHED_CHARACTERS && iter.hasNext())
+      {
+         Map.Entry<String, String> entry = iter.next();
+         CACHED_CHARACTERS -= entry.getKey().length() + entry.getValue().length();
+         iter.remove();
+      }
+   }
+
+   /**
+    * Convert RTF to plain text. Simple RTF is handled by a single pass
+    * over the text, anything else is passed to the full RTF parser.
+    *
+    * @param text RTF text
+    * @return plain text
+    */
+   private static String convert(String text)
+   {
+      boolean formalRTF = isFormalRTF(text);
+      String result = fastStrip(text);
+      if (result == null)
       {
          try
          {
-            boolean formalRTF = isFormalRTF(text);
             StringTextConverter stc = new StringTextConverter();
             stc.convert(new RtfStringSource(text));
-            result = stripExtraLineEnd(stc.getText(), formalRTF);
+            result = stc.getText();
          }
          catch (IOException ex)
          {
-            result = "";
+            return "";
          }
       }
+      return stripExtraLineEnd(result, formalRTF);
+   }
 
-      return result;
+   /**
+    * Extract plain text from RTF, producing the same result as the
+    * StringTextConverter class. Only 7-bit text, groups and
+    * control words are handled here. If the text contains anything which
+    * requires character set handling (hex escapes, Unicode characters,
+    * special characters, control symbols, binary data) or is not well
+    * formed, null is returned and the caller falls back to the
+    * full RTF parser.
+    *
+    * @param text RTF text
+    * @return plain text, or null if the text could not be handled
+    */
+   private static String fastStrip(String text)
+   {
+      StringBuilder result = null;
+      Command[] stack = null;
+      int depth = 0;
+      Command destination = Command.rtf;
+      int pendingTextStart = -1;
+      int length = text.length();
+      int index = 0;
+
+      while (index < length)
+      {
+         char c = text.charAt(index++);
+         switch (c)
+         {
+            case '{':
+            {
+               pendingTextStart = -1;
+               if (stack == null)
+               {
+                  stack = new Command[16];
+               }
+               else
+               {
+                  if (depth == stack.length)
+                  {
+                     Command[] newStack = new Command[depth * 2];
+                     System.arraycopy(stack, 0, newStack, 0, depth);
+                     stack = newStack;
+                  }
+               }
+               stack[depth++] = destination;
+               break;
+            }
+
+            case '}':
+            {
+               if (depth == 0)
+               {
+                  return null;
+               }
+               pendingTextStart = -1;
+               destination = stack[--depth];
+               break;
+            }
+
+            case '\\':
+            {
+               if (index < length && text.charAt(index) == '*')
+               {
+                  // Optional destination: must be followed by a control word we recognise
+                  if (++index == length || text.charAt(index) != '\\')
+                  {
+                     return null;
+                  }
+                  ++index;
+               }
+
+               int nameStart = index;
+               while (index < length && isLetter(text.charAt(index)))
+               {
+                  ++index;
+               }
+
+               int nameLength = index - nameStart;
+               if (nameLength == 0 || nameLength > MAX_COMMAND_LENGTH)
+               {
+                  return null;
+               }
+               Command command = Command.getInstance(text.substring(nameStart, index));
+
+               if (index < length && text.charAt(index) == '-')
+               {
+                  ++index;
+                  if (index == length || !isDigit(text.charAt(index)))
+                  {
+                     return null;
+                  }
+               }
+
+               int parameterStart = index;
+               while (index < length && isDigit(text.charAt(index)))
+               {
+                  ++index;
+               }
+
+               // A control word must be followed by a delimiter
+               if (index == length || index - parameterStart > MAX_PARAMETER_LENGTH)
+               {
+                  return null;
+               }
+
+               if (command == null || UNSUPPORTED_COMMANDS.contains(command))
+               {
+                  return null;
+               }
+
+               if (command == Command.ansicpg && !isSupportedCodePage(text, parameterStart, index))
+               {
+                  return null;
+               }
+
+               if (text.charAt(index) == ' ')
+               {
+                  ++index;
+               }
+
+               pendingTextStart = -1;
+               if (command.getCommandType() == CommandType.Destination)
+               {
+                  destination = command;
+               }
+
+               switch (command)
+               {
+                  case par:
+                  case line:
+                  case row:
+                  {
+                     result = append(result, '\n', length);
+                     break;
+                  }
+
+                  case tab:
+                  case cell:
+                  {
+                     result = append(result, '\t', length);
+                     break;
+                  }
+
+                  default:
+                  {
+                     break;
+                  }
+               }
+               break;
+            }
+
+            case '\t':
+            {
+               pendingTextStart = -1;
+               result = append(result, '\t', length);
+               break;
+            }
+
+            case '\r':
+            case '\n':
+            {
+               break;
+            }
+
+            default:
+            {
+               if (c < ' ' || c > '~')
+               {
+                  return null;
+               }
+
+               if (destination == Command.rtf || destination == Command.pntext || destination == Command.fldrslt)
+               {
+                  if (pendingTextStart == -1)
+                  {
+                     pendingTextStart = result == null ? 0 : result.length();
+                  }
+                  result = append(result, c, length);
+               }
+               break;
+            }
+         }
+      }
+
+      if (depth != 0)
+      {
+         return null;
+      }
+
+      //
+      // Text which is not followed by a group or a control word is discarded
+      //
+      if (pendingTextStart != -1)
+      {
+         result.setLength(pendingTextStart);
+      }
+
+      return result == null ? "" : result.toString();
+   }
+
+   /**
+    * Determine if the code page supplied by an ansicpg control word is
+    * one of the Windows code pages, which decode 7-bit text unchanged.
+    *
+    * @param text RTF text
+    * @param start index of the first digit of the parameter
+    * @param end index following the last digit of the parameter
+    * @return true if the code page is supported
+    */
+   private static boolean isSupportedCodePage(String text, int start, int end)
+   {
+      if (start == end || text.charAt(start - 1) == '-')
+      {
+         return false;
+      }
+      int codePage = Integer.parseInt(text.substring(start, end));
+      return codePage >= 1250 && codePage <= 1258;
+   }
+
+   /**
+    * Append a character to the plain text, allocating the buffer
+    * on first use.
+    *
+    * @param buffer current buffer, may be null
+    * @param c character to append
+    * @param capacity initial buffer capacity
+    * @return buffer
+    */
+   private static StringBuilder append(StringBuilder buffer, char c, int capacity)
+   {
+      if (buffer == null)
+      {
+         buffer = new StringBuilder(capacity);
+      }
+      buffer.append(c);
+      return buffer;
+   }
+
+   /**
+    * Determine if a character can form part of a control word.
+    *
+    * @param c character
+    * @return true if the character is a letter
+    */
+   private static boolean isLetter(char c)
+   {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+   }
+
+   /**
+    * Determine if a character can form part of a control word parameter.
+    *
+    * @param c character
+    * @return true if the character is a digit
+    */
+   private static boolean isDigit(char c)
+   {
+      return c >= '0' && c <= '9';
    }
 
    /**
@@ -87,4 +414,19 @@ public final class RtfHelper
       }
       return text;
    }
+
+   /**
+    * Control words which produce characters, change how characters are
+    * decoded, or introduce binary data. Text containing these is
+    * converted by the full RTF parser.
+    */
+   private static final Set<Command> UNSUPPORTED_COMMANDS = EnumSet.of(Command.bin, Command.bullet, Command.emdash, Command.emspace, Command.endash, Command.enspace, Command.ldblquote, Command.lquote, Command.qmspace, Command.rdblquote, Command.rquote, Command.u, Command.ud, Command.upr);
+
+   private static final int MAX_COMMAND_LENGTH = 30;
+   private static final int MAX_PARAMETER_LENGTH = 9;
+   private static final int MAX_CACHED_TEXT_LENGTH = 16384;
+   private static final int MAX_CACHED_CHARACTERS = 262144;
+
+   private static final Map<String, String> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+   private static int CACHED_CHARACTERS;
 }
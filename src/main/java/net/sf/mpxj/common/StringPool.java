@@ -0,0 +1,156 @@
+/*
+ * file:       StringPool.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       12/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Used by readers to share a single String instance between all
+ * occurrences of the same text value in a project, for example
+ * resource names, calendar names and custom field values which are
+ * repeated many times.
+ *
+ * The number of distinct values held by the pool is limited. Once
+ * the limit is reached, values which are not already in the pool are
+ * returned unchanged. Long values, which are unlikely to be repeated,
+ * are never added to the pool. The pool can safely be used by multiple
+ * threads.
+ *
+ * Readers create a pool for each read and release it when reading
+ * completes, so the pool does not keep its values alive for the
+ * lifetime of the projects which have been read.
+ */
+public final class StringPool
+{
+   /**
+    * Retrieve the pooled instance of a String. If the pool does not
+    * already contain an equal value, the value is added to the pool
+    * if there is space.
+    *
+    * @param value String value, may be null
+    * @return pooled String instance, or the original value
+    */
+   public String intern(String value)
+   {
+      if (value == null || value.length() > MAX_VALUE_LENGTH || m_maxSize == 0)
+      {
+         return value;
+      }
+
+      String result = m_pool.get(value);
+      if (result != null)
+      {
+         m_hitCount.increment();
+         return result;
+      }
+
+      m_missCount.increment();
+      if (m_pool.size() >= m_maxSize)
+      {
+         return value;
+      }
+
+      result = m_pool.putIfAbsent(value, value);
+      return result == null ? value : result;
+   }
+
+   /**
+    * Retrieve the number of times a value passed to the intern method
+    * was found in the pool.
+    *
+    * @return hit count
+    */
+   public long getHitCount()
+   {
+      return m_hitCount.sum();
+   }
+
+   /**
+    * Retrieve the number of times a value passed to the intern method
+    * was not found in the pool.
+    *
+    * @return miss count
+    */
+   public long getMissCount()
+   {
+      return m_missCount.sum();
+   }
+
+   /**
+    * Retrieve the number of distinct values held by the pool.
+    *
+    * @return pool size
+    */
+   public int getSize()
+   {
+      return m_pool.size();
+   }
+
+   /**
+    * Retrieve the maximum number of distinct values held by the pool.
+    *
+    * @return maximum pool size
+    */
+   public int getMaxSize()
+   {
+      return m_maxSize;
+   }
+
+   /**
+    * Set the maximum number of distinct values held by the pool.
+    * A value of zero disables pooling. Reducing the maximum size
+    * does not remove values already held by the pool.
+    *
+    * @param maxSize maximum pool size
+    */
+   public void setMaxSize(int maxSize)
+   {
+      m_maxSize = maxSize;
+   }
+
+   /**
+    * Remove all values from the pool, and reset the hit and miss counts.
+    * Values already retrieved from the pool are not affected.
+    */
+   public void clear()
+   {
+      m_pool.clear();
+      m_hitCount.reset();
+      m_missCount.reset();
+   }
+
+   private final ConcurrentMap<String, String> m_pool = new ConcurrentHashMap<>();
+   private final LongAdder m_hitCount = new LongAdder();
+   private final LongAdder m_missCount = new LongAdder();
+   private volatile int m_maxSize = DEFAULT_MAX_SIZE;
+
+   /**
+    * Default maximum number of distinct values held by the pool.
+    */
+   public static final int DEFAULT_MAX_SIZE = 100000;
+
+   private static final int MAX_VALUE_LENGTH = 256;
+}
@@ -564,4 +564,11 @@ public final class TaskFieldLists
       TaskField.BASELINE10_FIXED_COST_ACCRUAL
    };
 
+   public static final TaskField[] HYPERLINKS =
+   {
+      TaskField.HYPERLINK,
+      TaskField.HYPERLINK_ADDRESS,
+      TaskField.HYPERLINK_SUBADDRESS,
+      TaskField.HYPERLINK_SCREEN_TIP
+   };
 }
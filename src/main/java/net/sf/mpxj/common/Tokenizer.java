@@ -30,6 +30,12 @@ import java.io.IOException;
  * java.io.StreamTokenizer. This tokenizer is designed to parse records from
  * an MPX file correctly. In particular it will handle empty fields,
  * represented by adjacent field delimiters.
+ *
+ * Characters are read from the data source in blocks. Where a token is
+ * entirely contained within the current block and does not include
+ * quoted text, the token is represented as a slice of the block rather than
+ * being copied. The getTokenSequence method provides access to the token
+ * text without creating a String.
  */
 public abstract class Tokenizer
 {
@@ -42,6 +48,30 @@ public abstract class Tokenizer
     */
    protected abstract int read() throws IOException;
 
+   /**
+    * Read a block of characters from the data source. The default
+    * implementation reads a single character using the read method,
+    * which ensures that no more data is consumed from the data source
+    * than is required. Subclasses should override this method where the
+    * data source supports bulk reads.
+    *
+    * @param buffer target buffer
+    * @param offset offset into the target buffer
+    * @param length maximum number of characters to read
+    * @return number of characters read, or -1 at the end of the data
+    * @throws IOException
+    */
+   protected int read(char[] buffer, int offset, int length) throws IOException
+   {
+      int c = read();
+      if (c == -1)
+      {
+         return -1;
+      }
+      buffer[offset] = (char) c;
+      return 1;
+   }
+
    /**
     * This method retrieves the next token and returns a constant representing
     * the type of token found.
@@ -50,9 +80,6 @@ public abstract class Tokenizer
     */
    public int nextToken() throws IOException
    {
-      int c;
-      int nextc = -1;
-      boolean quoted = false;
       int result = m_next;
       if (m_next != 0)
       {
@@ -60,6 +87,100 @@ public abstract class Tokenizer
       }
 
       m_buffer.setLength(0);
+      m_sliceLength = -1;
+
+      if (result == 0)
+      {
+         result = readSlice();
+         if (result == 0)
+         {
+            result = readToken();
+         }
+      }
+
+      m_type = result;
+
+      return (result);
+   }
+
+   /**
+    * Attempt to read the next token as a slice of the current block.
+    * If the token crosses the end of the block, or contains a quote,
+    * the characters scanned so far are copied to the token buffer
+    * and zero is returned to indicate that the token must be completed
+    * by the readToken method.
+    *
+    * @return token type value, or zero if the token is incomplete
+    */
+   private int readSlice() throws IOException
+   {
+      if (m_position == m_limit && !fill())
+      {
+         return 0;
+      }
+
+      char[] chars = m_chars;
+      int start = m_position;
+      int limit = m_limit;
+      int index = start;
+
+      while (index < limit)
+      {
+         char c = chars[index];
+
+         if (c == TT_EOL)
+         {
+            int end = index;
+            if (end != start && chars[end - 1] == '\r')
+            {
+               --end;
+            }
+            m_position = index + 1;
+
+            if (end == start)
+            {
+               return TT_EOL;
+            }
+
+            m_sliceStart = start;
+            m_sliceLength = end - start;
+            m_next = TT_EOL;
+            return TT_WORD;
+         }
+
+         if (c == m_quote)
+         {
+            break;
+         }
+
+         if (c == m_delimiter)
+         {
+            m_position = index + 1;
+            m_sliceStart = start;
+            m_sliceLength = index - start;
+            return TT_WORD;
+         }
+
+         ++index;
+      }
+
+      m_buffer.append(chars, start, index - start);
+      m_position = index;
+      return 0;
+   }
+
+   /**
+    * Read the remainder of a token one character at a time,
+    * accumulating the token text in a buffer.
+    *
+    * @return token type value
+    */
+   private int readToken() throws IOException
+   {
+      int c;
+      int nextc = -1;
+      boolean quoted = false;
+      int result = 0;
 
       while (result == 0)
       {
@@ -70,7 +191,7 @@ public abstract class Tokenizer
          }
          else
          {
-            c = read();
+            c = readChar();
          }
 
          switch (c)
@@ -128,7 +249,7 @@ public abstract class Tokenizer
                      }
                      else
                      {
-                        nextc = read();
+                        nextc = readChar();
                         if (nextc == m_quote)
                         {
                            m_buffer.append((char) c);
@@ -156,9 +277,48 @@ public abstract class Tokenizer
          }
       }
 
-      m_type = result;
+      return result;
+   }
 
-      return (result);
+   /**
+    * Retrieve the next character from the current block,
+    * reading a new block if required.
+    *
+    * @return next character, or TT_EOF
+    */
+   private int readChar() throws IOException
+   {
+      if (m_position == m_limit && !fill())
+      {
+         return TT_EOF;
+      }
+      return m_chars[m_position++];
+   }
+
+   /**
+    * Read the next block of characters.
+    *
+    * @return false if the end of the data has been reached
+    */
+   private boolean fill() throws IOException
+   {
+      int count;
+      do
+      {
+         count = read(m_chars, 0, m_chars.length);
+      }
+      while (count == 0);
+
+      if (count == -1)
+      {
+         m_position = 0;
+         m_limit = 0;
+         return false;
+      }
+
+      m_position = 0;
+      m_limit = count;
+      return true;
    }
 
    /**
@@ -182,7 +342,31 @@ public abstract class Tokenizer
     */
    public String getToken()
    {
-      return (m_buffer.toString());
+      return m_sliceLength == -1 ? m_buffer.toString() : new String(m_chars, m_sliceStart, m_sliceLength);
+   }
+
+   /**
+    * This method retrieves the text of the last token found without
+    * creating a String. The returned value is only valid until
+    * the next call to nextToken. Callers which need to retain
+    * the token text should use getToken instead.
+    *
+    * @return last token text
+    */
+   public CharSequence getTokenSequence()
+   {
+      CharSequence result;
+      if (m_sliceLength == -1)
+      {
+         result = m_buffer;
+      }
+      else
+      {
+         m_slice.m_start = m_sliceStart;
+         m_slice.m_length = m_sliceLength;
+         result = m_slice;
+      }
+      return result;
    }
 
    /**
@@ -206,6 +390,43 @@ public abstract class Tokenizer
       m_delimiter = delimiter;
    }
 
+   /**
+    * Presents a slice of the current block as a CharSequence.
+    */
+   private final class Slice implements CharSequence
+   {
+      @Override public int length()
+      {
+         return m_length;
+      }
+
+      @Override public char charAt(int index)
+      {
+         if (index < 0 || index >= m_length)
+         {
+            throw new IndexOutOfBoundsException();
+         }
+         return m_chars[m_start + index];
+      }
+
+      @Override public CharSequence subSequence(int start, int end)
+      {
+         if (start < 0 || end > m_length || start > end)
+         {
+            throw new IndexOutOfBoundsException();
+         }
+         return new String(m_chars, m_start + start, end - start);
+      }
+
+      @Override public String toString()
+      {
+         return new String(m_chars, m_start, m_length);
+      }
+
+      int m_start;
+      int m_length;
+   }
+
    public static final int TT_EOL = '\n';
    public static final int TT_EOF = -1;
    public static final int TT_WORD = -3;
@@ -215,4 +436,12 @@ public abstract class Tokenizer
    private int m_next;
    private int m_type;
    private StringBuilder m_buffer = new StringBuilder();
+   private final char[] m_chars = new char[BLOCK_SIZE];
+   private int m_position;
+   private int m_limit;
+   private int m_sliceStart;
+   private int m_sliceLength = -1;
+   private final Slice m_slice = new Slice();
+
+   private static final int BLOCK_SIZE = 8192;
 }
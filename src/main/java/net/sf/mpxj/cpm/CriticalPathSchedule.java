@@ -0,0 +1,435 @@
+/*
+ * file:       CriticalPathSchedule.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       29/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * The result of scheduling a project using the CriticalPathScheduler class.
+ * Early and late values are held as working time in arrays indexed in the
+ * same way as the scheduler's network. They are converted to dates on demand,
+ * and are only written to the tasks themselves when the apply method is called.
+ */
+public final class CriticalPathSchedule
+{
+   /**
+    * Constructor.
+    *
+    * @param scheduler parent scheduler
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    * @param finishDate project finish date
+    */
+   CriticalPathSchedule(CriticalPathScheduler scheduler, long[] duration, long[] earlyStart, long[] earlyFinish, long[] lateStart, long[] lateFinish, byte[] flags, long finishDate)
+   {
+      m_scheduler = scheduler;
+      m_duration = duration;
+      m_flags = flags;
+      m_earlyStart = earlyStart;
+      m_earlyFinish = earlyFinish;
+      m_lateStart = lateStart;
+      m_lateFinish = lateFinish;
+      m_finishDate = finishDate;
+   }
+
+   /**
+    * Retrieve the date from which the project was scheduled.
+    *
+    * @return project start date
+    */
+   public Date getStartDate()
+   {
+      return new Date(m_scheduler.getProjectStart());
+   }
+
+   /**
+    * Retrieve the latest early finish date of any task.
+    *
+    * @return project finish date
+    */
+   public Date getFinishDate()
+   {
+      return new Date(m_finishDate);
+   }
+
+   /**
+    * Retrieve a task's early start date.
+    *
+    * @param task task
+    * @return early start date, or null if the task was not scheduled
+    */
+   public Date getEarlyStart(Task task)
+   {
+      long[] dates = getDates(task);
+      return dates == null ? null : new Date(dates[EARLY_START]);
+   }
+
+   /**
+    * Retrieve a task's early finish date.
+    *
+    * @param task task
+    * @return early finish date, or null if the task was not scheduled
+    */
+   public Date getEarlyFinish(Task task)
+   {
+      long[] dates = getDates(task);
+      return dates == null ? null : new Date(dates[EARLY_FINISH]);
+   }
+
+   /**
+    * Retrieve a task's late start date.
+    *
+    * @param task task
+    * @return late start date, or null if the task was not scheduled
+    */
+   public Date getLateStart(Task task)
+   {
+      long[] dates = getDates(task);
+      return dates == null ? null : new Date(dates[LATE_START]);
+   }
+
+   /**
+    * Retrieve a task's late finish date.
+    *
+    * @param task task
+    * @return late finish date, or null if the task was not scheduled
+    */
+   public Date getLateFinish(Task task)
+   {
+      long[] dates = getDates(task);
+      return dates == null ? null : new Date(dates[LATE_FINISH]);
+   }
+
+   /**
+    * Retrieve a task's total slack, being the smaller of its start slack
+    * and finish slack, expressed in the units of the task's duration.
+    *
+    * @param task task
+    * @return total slack, or null if the task was not scheduled
+    */
+   public Duration getTotalSlack(Task task)
+   {
+      Integer index = m_scheduler.getTaskIndex(task);
+      if (index == null)
+      {
+         return null;
+      }
+
+      Duration duration = task.getDuration();
+      TimeUnit units = duration == null ? TimeUnit.DAYS : duration.getUnits();
+      boolean elapsed = m_scheduler.getElapsedDuration(index.intValue());
+      double minutes = getTotalSlack(index.intValue()) / 60000.0;
+      return Duration.convertUnits(minutes, elapsed ? TimeUnit.ELAPSED_MINUTES : TimeUnit.MINUTES, units, m_scheduler.getProjectFile().getProjectProperties());
+   }
+
+   /**
+    * Determine if a task is on the critical path, i.e. it has no total slack.
+    *
+    * @param task task
+    * @return true if the task is critical
+    */
+   public boolean getCritical(Task task)
+   {
+      Integer index = m_scheduler.getTaskIndex(task);
+      return index != null && getTotalSlack(index.intValue()) <= 0;
+   }
+
+   /**
+    * Write the calculated dates to the tasks in the project. Early and late
+    * start and finish dates are updated, along with each task's start and
+    * finish dates. Summary task dates are rolled up from their children.
+    */
+   public void apply()
+   {
+      Task[] tasks = m_scheduler.getTasks();
+      for (int index = 0; index < tasks.length; index++)
+      {
+         long[] dates = getDates(index);
+         setDates(tasks[index], dates[EARLY_START], dates[EARLY_FINISH], dates[LATE_START], dates[LATE_FINISH], dates[START], dates[FINISH]);
+      }
+
+      ProjectFile file = m_scheduler.getProjectFile();
+      for (Task task : file.getChildTasks())
+      {
+         applySummaryDates(task);
+      }
+   }
+
+   /**
+    * Recalculate the schedule following changes to a set of tasks.
+    *
+    * @param changed indexes of the tasks which have changed
+    * @return indexes of the tasks whose dates have changed
+    */
+   BitSet update(BitSet changed)
+   {
+      BitSet updated = new BitSet();
+      m_finishDate = m_scheduler.reschedule(m_duration, m_earlyStart, m_earlyFinish, m_lateStart, m_lateFinish, m_flags, m_finishDate, changed, updated);
+      return updated;
+   }
+
+   /**
+    * Write the calculated dates to a set of tasks, and update the dates of
+    * their summary tasks. Summary task dates are rolled up from the dates
+    * already held by their immediate child tasks, so this method assumes
+    * that the schedule has previously been applied in full.
+    *
+    * @param updated indexes of the tasks to update
+    */
+   void apply(BitSet updated)
+   {
+      Task[] tasks = m_scheduler.getTasks();
+      Set<Task> summaryTasks = new LinkedHashSet<>();
+
+      for (int index = updated.nextSetBit(0); index >= 0; index = updated.nextSetBit(index + 1))
+      {
+         Task task = tasks[index];
+         long[] dates = getDates(index);
+         setDates(task, dates[EARLY_START], dates[EARLY_FINISH], dates[LATE_START], dates[LATE_FINISH], dates[START], dates[FINISH]);
+         if (task.getParentTask() != null)
+         {
+            summaryTasks.add(task.getParentTask());
+         }
+      }
+
+      //
+      // Summary tasks whose dates change add their own parent to the
+      // list, so updates ripple up the hierarchy only as far as needed.
+      //
+      while (!summaryTasks.isEmpty())
+      {
+         Task task = summaryTasks.iterator().next();
+         summaryTasks.remove(task);
+
+         long[] dates = null;
+         for (Task child : task.getChildTasks())
+         {
+            dates = merge(dates, getTaskDates(child));
+         }
+
+         if (dates != null && !Arrays.equals(dates, getTaskDates(task)))
+         {
+            setDates(task, dates[EARLY_START], dates[EARLY_FINISH], dates[LATE_START], dates[LATE_FINISH], dates[START], dates[FINISH]);
+            if (task.getParentTask() != null)
+            {
+               summaryTasks.add(task.getParentTask());
+            }
+         }
+      }
+   }
+
+   /**
+    * Recursively roll up dates for summary tasks.
+    *
+    * @param task parent task
+    * @return dates for this task, or null if no child tasks were scheduled
+    */
+   private long[] applySummaryDates(Task task)
+   {
+      Integer index = m_scheduler.getTaskIndex(task);
+      if (index != null)
+      {
+         return getDates(index.intValue());
+      }
+
+      long[] result = null;
+      for (Task child : task.getChildTasks())
+      {
+         result = merge(result, applySummaryDates(child));
+      }
+
+      if (result != null)
+      {
+         setDates(task, result[EARLY_START], result[EARLY_FINISH], result[LATE_START], result[LATE_FINISH], result[START], result[FINISH]);
+      }
+
+      return result;
+   }
+
+   /**
+    * Retrieve the dates for a task, rolling them up if this is a summary task.
+    *
+    * @param task task
+    * @return dates, or null if the task was not scheduled
+    */
+   private long[] getDates(Task task)
+   {
+      Integer index = m_scheduler.getTaskIndex(task);
+      if (index != null)
+      {
+         return getDates(index.intValue());
+      }
+
+      long[] result = null;
+      for (Task child : task.getChildTasks())
+      {
+         result = merge(result, getDates(child));
+      }
+      return result;
+   }
+
+   /**
+    * Convert the early and late values for a scheduled task to dates.
+    *
+    * @param index task index
+    * @return dates
+    */
+   private long[] getDates(int index)
+   {
+      long earlyStart = m_scheduler.getEarlyTime(index, m_duration, m_earlyStart, m_earlyFinish, m_flags, false);
+      long earlyFinish = m_scheduler.getEarlyTime(index, m_duration, m_earlyStart, m_earlyFinish, m_flags, true);
+      long lateStart = m_scheduler.getLateTime(index, m_duration, m_lateStart, m_lateFinish, m_flags, false);
+      long lateFinish = m_scheduler.getLateTime(index, m_duration, m_lateStart, m_lateFinish, m_flags, true);
+      boolean late = m_scheduler.getAsLateAsPossible(index);
+
+      return new long[]
+      {
+         earlyStart,
+         earlyFinish,
+         lateStart,
+         lateFinish,
+         late ? lateStart : earlyStart,
+         late ? lateFinish : earlyFinish
+      };
+   }
+
+   /**
+    * Retrieve the dates currently held by a task.
+    *
+    * @param task task
+    * @return dates, or null if the task has no early or late dates
+    */
+   private long[] getTaskDates(Task task)
+   {
+      Date earlyStart = task.getEarlyStart();
+      Date earlyFinish = task.getEarlyFinish();
+      Date lateStart = task.getLateStart();
+      Date lateFinish = task.getLateFinish();
+      Date start = task.getStart();
+      Date finish = task.getFinish();
+
+      if (earlyStart == null || earlyFinish == null || lateStart == null || lateFinish == null || start == null || finish == null)
+      {
+         return null;
+      }
+
+      return new long[]
+      {
+         earlyStart.getTime(),
+         earlyFinish.getTime(),
+         lateStart.getTime(),
+         lateFinish.getTime(),
+         start.getTime(),
+         finish.getTime()
+      };
+   }
+
+   /**
+    * Merge two sets of dates, taking the earliest start dates
+    * and the latest finish dates.
+    *
+    * @param current current dates, may be null
+    * @param dates dates to merge, may be null
+    * @return merged dates
+    */
+   private long[] merge(long[] current, long[] dates)
+   {
+      if (current == null)
+      {
+         return dates;
+      }
+
+      if (dates != null)
+      {
+         for (int index = 0; index < dates.length; index++)
+         {
+            // Even indexes are start dates, odd indexes are finish dates
+            current[index] = (index & 1) == 0 ? Math.min(current[index], dates[index]) : Math.max(current[index], dates[index]);
+         }
+      }
+
+      return current;
+   }
+
+   /**
+    * Calculate the total slack for a task in milliseconds.
+    *
+    * @param index task index
+    * @return total slack
+    */
+   private long getTotalSlack(int index)
+   {
+      return m_scheduler.getTotalSlack(index, m_duration, m_earlyStart, m_earlyFinish, m_lateStart, m_lateFinish, m_flags);
+   }
+
+   /**
+    * Update the dates for a single task.
+    *
+    * @param task task
+    * @param earlyStart early start date
+    * @param earlyFinish early finish date
+    * @param lateStart late start date
+    * @param lateFinish late finish date
+    * @param start start date
+    * @param finish finish date
+    */
+   private void setDates(Task task, long earlyStart, long earlyFinish, long lateStart, long lateFinish, long start, long finish)
+   {
+      task.setEarlyStart(new Date(earlyStart));
+      task.setEarlyFinish(new Date(earlyFinish));
+      task.setLateStart(new Date(lateStart));
+      task.setLateFinish(new Date(lateFinish));
+      task.setStart(new Date(start));
+      task.setFinish(new Date(finish));
+   }
+
+   private final CriticalPathScheduler m_scheduler;
+   private final long[] m_duration;
+   private final long[] m_earlyStart;
+   private final long[] m_earlyFinish;
+   private final long[] m_lateStart;
+   private final long[] m_lateFinish;
+   private final byte[] m_flags;
+   private long m_finishDate;
+
+   private static final int EARLY_START = 0;
+   private static final int EARLY_FINISH = 1;
+   private static final int LATE_START = 2;
+   private static final int LATE_FINISH = 3;
+   private static final int START = 4;
+   private static final int FINISH = 5;
+}
@@ -0,0 +1,1383 @@
+/*
+ * file:       CriticalPathScheduler.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       29/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.mpxj.ConstraintType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.NumberHelper;
+
+/**
+ * Calculates early and late dates for the tasks in a project using the
+ * critical path method.
+ *
+ * When an instance of this class is created, the tasks, relations and
+ * calendars in the project are compiled into a network of integer-indexed
+ * arrays, with the tasks held in topological order. Each call to the
+ * schedule method then performs a forward and backward pass over these
+ * arrays, working entirely with primitive values. The network reflects the
+ * project at the point it was compiled, so a new scheduler should be created
+ * if tasks or relations are added or removed.
+ *
+ * Only tasks without child tasks are scheduled. Relations attached to summary
+ * tasks are applied to each of the summary task's descendants, and the
+ * dates of summary tasks are rolled up from their children. Relation lags
+ * are measured using the successor task's calendar. Actual start and finish
+ * dates, and must start on, must finish on, start no earlier/later than and
+ * finish no earlier/later than constraints are honoured. Tasks with an
+ * as late as possible constraint are placed at their late dates.
+ */
+public final class CriticalPathScheduler
+{
+   /**
+    * Constructor. Compiles the project into a network ready to be scheduled.
+    *
+    * @param file project to schedule
+    * @throws MPXJException if the task dependencies contain a cycle
+    */
+   public CriticalPathScheduler(ProjectFile file) throws MPXJException
+   {
+      m_file = file;
+      m_properties = file.getProjectProperties();
+
+      Date startDate = m_properties.getStartDate();
+      if (startDate == null)
+      {
+         startDate = file.getStartDate();
+         if (startDate == null)
+         {
+            startDate = DateHelper.getDayStartDate(new Date());
+         }
+      }
+      m_projectStart = startDate.getTime();
+
+      List<Task> tasks = new ArrayList<>();
+      for (Task task : file.getTasks())
+      {
+         if (isScheduled(task))
+         {
+            m_taskIndex.put(task, Integer.valueOf(tasks.size()));
+            tasks.add(task);
+         }
+      }
+
+      int count = tasks.size();
+      m_tasks = tasks.toArray(new Task[count]);
+      m_calendar = new WorkingTimeIndex[count];
+      m_duration = new long[count];
+      m_elapsedDuration = new boolean[count];
+      m_constraintType = new ConstraintType[count];
+      m_actualStart = new long[count];
+      m_actualFinish = new long[count];
+      m_calendarID = new int[count];
+      m_projectStartWork = new long[count];
+      m_constraintWork = new long[count];
+      m_constraintStartType = new boolean[count];
+      m_actualStartWork = new long[count];
+      m_actualFinishWork = new long[count];
+
+      Map<ProjectCalendar, Integer> calendarIDs = new HashMap<>();
+      List<WorkingTimeIndex> calendars = new ArrayList<>();
+
+      for (int index = 0; index < count; index++)
+      {
+         Task task = m_tasks[index];
+         ProjectCalendar taskCalendar = task.getEffectiveCalendar();
+         Integer calendarID = calendarIDs.get(taskCalendar);
+         if (calendarID == null)
+         {
+            calendarID = Integer.valueOf(calendars.size());
+            calendarIDs.put(taskCalendar, calendarID);
+            calendars.add(new WorkingTimeIndex(taskCalendar, m_projectStart));
+         }
+         WorkingTimeIndex calendar = calendars.get(calendarID.intValue());
+         m_calendarID[index] = calendarID.intValue();
+         m_calendar[index] = calendar;
+         m_projectStartWork[index] = calendar.getWork(m_projectStart);
+         compileTask(index);
+      }
+      m_calendars = calendars.toArray(new WorkingTimeIndex[calendars.size()]);
+
+      compileRelations();
+      sortTasks();
+   }
+
+   /**
+    * Calculate early and late dates for each task using the
+    * task durations held in the project.
+    *
+    * @return schedule
+    */
+   public CriticalPathSchedule schedule()
+   {
+      return schedule(m_duration);
+   }
+
+   /**
+    * Calculate early and late dates for each task using the supplied durations.
+    *
+    * @param duration task durations in milliseconds
+    * @return schedule
+    */
+   CriticalPathSchedule schedule(long[] duration)
+   {
+      int count = m_tasks.length;
+      long[] earlyStart = new long[count];
+      long[] earlyFinish = new long[count];
+      long[] lateStart = new long[count];
+      long[] lateFinish = new long[count];
+      byte[] flags = new byte[count];
+      long projectFinish = schedule(duration, earlyStart, earlyFinish, lateStart, lateFinish, flags);
+      return new CriticalPathSchedule(this, duration, earlyStart, earlyFinish, lateStart, lateFinish, flags, projectFinish);
+   }
+
+   /**
+    * Calculate early and late values for each task, using arrays supplied
+    * by the caller. This allows the arrays to be reused when the same
+    * network is scheduled many times.
+    *
+    * @param duration task durations in milliseconds
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    * @return project finish date
+    */
+   long schedule(long[] duration, long[] earlyStart, long[] earlyFinish, long[] lateStart, long[] lateFinish, byte[] flags)
+   {
+      long projectFinish = forwardPass(duration, earlyStart, earlyFinish, flags);
+      backwardPass(duration, projectFinish, earlyStart, earlyFinish, lateStart, lateFinish, flags);
+      return projectFinish;
+   }
+
+   /**
+    * Recalculate early and late values following changes to a set of tasks.
+    * Only the successors of the changed tasks are revisited when calculating
+    * early values, and only their predecessors when calculating late values,
+    * unless the project finish date has moved.
+    *
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    * @param projectFinish current project finish date
+    * @param changed indexes of the tasks which have changed
+    * @param updated populated with the indexes of the tasks whose values have changed
+    * @return project finish date
+    */
+   long reschedule(long[] duration, long[] earlyStart, long[] earlyFinish, long[] lateStart, long[] lateFinish, byte[] flags, long projectFinish, BitSet changed, BitSet updated)
+   {
+      int count = m_tasks.length;
+
+      //
+      // Tasks are visited in topological order by recording their position
+      // in that order, so successors are always found further ahead.
+      //
+      BitSet pending = new BitSet(count);
+      for (int task = changed.nextSetBit(0); task >= 0; task = changed.nextSetBit(task + 1))
+      {
+         pending.set(m_rank[task]);
+      }
+
+      for (int rank = pending.nextSetBit(0); rank >= 0; rank = pending.nextSetBit(rank + 1))
+      {
+         int task = m_order[rank];
+         long start = earlyStart[task];
+         long finish = earlyFinish[task];
+         byte taskFlags = flags[task];
+
+         calculateEarly(task, duration, earlyStart, earlyFinish, flags);
+
+         if (start != earlyStart[task] || finish != earlyFinish[task] || taskFlags != flags[task])
+         {
+            updated.set(task);
+            for (int index = m_successorOffset[task]; index < m_successorOffset[task + 1]; index++)
+            {
+               pending.set(m_rank[m_successorTask[index]]);
+            }
+         }
+      }
+
+      long newProjectFinish = getProjectFinish(duration, earlyStart, earlyFinish, flags);
+      long[] calendarFinish = getCalendarFinish(newProjectFinish);
+
+      pending.clear();
+      if (newProjectFinish == projectFinish)
+      {
+         //
+         // A changed task's lags affect the late values of its predecessors
+         //
+         for (int task = changed.nextSetBit(0); task >= 0; task = changed.nextSetBit(task + 1))
+         {
+            pending.set(m_rank[task]);
+            for (int relation = m_predecessorOffset[task]; relation < m_predecessorOffset[task + 1]; relation++)
+            {
+               pending.set(m_rank[m_predecessorTask[relation]]);
+            }
+         }
+
+         for (int task = updated.nextSetBit(0); task >= 0; task = updated.nextSetBit(task + 1))
+         {
+            pending.set(m_rank[task]);
+         }
+      }
+      else
+      {
+         pending.set(0, count);
+      }
+
+      for (int rank = pending.previousSetBit(count - 1); rank >= 0; rank = pending.previousSetBit(rank - 1))
+      {
+         int task = m_order[rank];
+         long start = lateStart[task];
+         long finish = lateFinish[task];
+         byte taskFlags = flags[task];
+
+         calculateLate(task, duration, calendarFinish, earlyStart, earlyFinish, lateStart, lateFinish, flags);
+
+         if (start != lateStart[task] || finish != lateFinish[task] || taskFlags != flags[task])
+         {
+            updated.set(task);
+            for (int relation = m_predecessorOffset[task]; relation < m_predecessorOffset[task + 1]; relation++)
+            {
+               pending.set(m_rank[m_predecessorTask[relation]]);
+            }
+         }
+      }
+
+      return newProjectFinish;
+   }
+
+   /**
+    * Calculate early start and early finish values for all tasks.
+    *
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param flags milestone flags
+    * @return project finish date
+    */
+   private long forwardPass(long[] duration, long[] earlyStart, long[] earlyFinish, byte[] flags)
+   {
+      for (int task : m_order)
+      {
+         calculateEarly(task, duration, earlyStart, earlyFinish, flags);
+      }
+      return getProjectFinish(duration, earlyStart, earlyFinish, flags);
+   }
+
+   /**
+    * Calculate late start and late finish values for all tasks.
+    *
+    * @param duration task durations
+    * @param projectFinish project finish date
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    */
+   private void backwardPass(long[] duration, long projectFinish, long[] earlyStart, long[] earlyFinish, long[] lateStart, long[] lateFinish, byte[] flags)
+   {
+      long[] calendarFinish = getCalendarFinish(projectFinish);
+      for (int rank = m_order.length - 1; rank >= 0; rank--)
+      {
+         calculateLate(m_order[rank], duration, calendarFinish, earlyStart, earlyFinish, lateStart, lateFinish, flags);
+      }
+   }
+
+   /**
+    * Calculate the project finish date, being the latest early finish date
+    * of any task.
+    *
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param flags milestone flags
+    * @return project finish date
+    */
+   private long getProjectFinish(long[] duration, long[] earlyStart, long[] earlyFinish, byte[] flags)
+   {
+      //
+      // Most tasks can be compared using working time in their own
+      // calendar, so we only need one date conversion per calendar.
+      //
+      long[] calendarFinish = new long[m_calendars.length];
+      Arrays.fill(calendarFinish, Long.MIN_VALUE);
+      long projectFinish = m_projectStart;
+
+      for (int task = 0; task < m_tasks.length; task++)
+      {
+         if (m_elapsedDuration[task] || m_actualFinish[task] != NO_DATE)
+         {
+            projectFinish = Math.max(projectFinish, getEarlyTime(task, duration, earlyStart, earlyFinish, flags, true));
+         }
+         else
+         {
+            int calendarID = m_calendarID[task];
+            if (earlyFinish[task] > calendarFinish[calendarID])
+            {
+               calendarFinish[calendarID] = earlyFinish[task];
+            }
+         }
+      }
+
+      for (int calendarID = 0; calendarID < m_calendars.length; calendarID++)
+      {
+         if (calendarFinish[calendarID] != Long.MIN_VALUE)
+         {
+            projectFinish = Math.max(projectFinish, m_calendars[calendarID].getFinish(calendarFinish[calendarID]));
+         }
+      }
+
+      return projectFinish;
+   }
+
+   /**
+    * Express the project finish date as working time in each calendar.
+    *
+    * @param projectFinish project finish date
+    * @return working time, by calendar
+    */
+   private long[] getCalendarFinish(long projectFinish)
+   {
+      long[] calendarFinish = new long[m_calendars.length];
+      for (int calendarID = 0; calendarID < m_calendars.length; calendarID++)
+      {
+         calendarFinish[calendarID] = m_calendars[calendarID].getWork(projectFinish);
+      }
+      return calendarFinish;
+   }
+
+   /**
+    * Calculate the early start and early finish values for a single task.
+    * Values are expressed as working time measured using the task's own
+    * calendar, so where a task and its predecessor share a calendar no date
+    * conversion is required.
+    *
+    * @param task task index
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param flags milestone flags
+    */
+   private void calculateEarly(int task, long[] duration, long[] earlyStart, long[] earlyFinish, byte[] flags)
+   {
+      WorkingTimeIndex calendar = m_calendar[task];
+      long taskDuration = duration[task];
+      boolean elapsed = m_elapsedDuration[task];
+      long start = m_projectStartWork[task];
+      boolean startType = true;
+
+      for (int relation = m_predecessorOffset[task]; relation < m_predecessorOffset[task + 1]; relation++)
+      {
+         int predecessor = m_predecessorTask[relation];
+         byte type = m_relationType[relation];
+         boolean fromFinish = type == FINISH_START || type == FINISH_FINISH;
+         long lag = m_lag[relation];
+         long value;
+
+         if (m_sameCalendar[relation] && !m_elapsedDuration[predecessor] && !m_elapsedLag[relation])
+         {
+            value = (fromFinish ? earlyFinish[predecessor] : earlyStart[predecessor]) + lag;
+         }
+         else
+         {
+            long time = getEarlyTime(predecessor, duration, earlyStart, earlyFinish, flags, fromFinish);
+            value = m_elapsedLag[relation] ? calendar.getWork(time + lag) : calendar.getWork(time) + lag;
+         }
+
+         if (type == FINISH_FINISH || type == START_FINISH)
+         {
+            value = getStart(calendar, value, taskDuration, elapsed);
+         }
+
+         if (value > start || (value == start && fromFinish))
+         {
+            start = value;
+            startType = !fromFinish;
+         }
+      }
+
+      switch (m_constraintType[task])
+      {
+         case MUST_START_ON:
+         case MANDATORY_START:
+         {
+            start = m_constraintWork[task];
+            startType = m_constraintStartType[task];
+            break;
+         }
+
+         case START_NO_EARLIER_THAN:
+         {
+            if (m_constraintWork[task] > start)
+            {
+               start = m_constraintWork[task];
+               startType = m_constraintStartType[task];
+            }
+            break;
+         }
+
+         case MUST_FINISH_ON:
+         case MANDATORY_FINISH:
+         {
+            start = getStart(calendar, m_constraintWork[task], taskDuration, elapsed);
+            startType = m_constraintStartType[task];
+            break;
+         }
+
+         case FINISH_NO_EARLIER_THAN:
+         {
+            long value = getStart(calendar, m_constraintWork[task], taskDuration, elapsed);
+            if (value > start)
+            {
+               start = value;
+               startType = m_constraintStartType[task];
+            }
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+
+      if (m_actualStart[task] != NO_DATE)
+      {
+         start = m_actualStartWork[task];
+      }
+
+      long finish;
+      if (m_actualFinish[task] != NO_DATE)
+      {
+         finish = m_actualFinishWork[task];
+      }
+      else
+      {
+         finish = getFinish(calendar, start, taskDuration, elapsed);
+      }
+
+      earlyStart[task] = start;
+      earlyFinish[task] = finish;
+
+      if (startType && taskDuration == 0 && !elapsed)
+      {
+         flags[task] |= EARLY_START_TYPE;
+      }
+      else
+      {
+         flags[task] &= ~EARLY_START_TYPE;
+      }
+   }
+
+   /**
+    * Calculate the late start and late finish values for a single task.
+    *
+    * @param task task index
+    * @param duration task durations
+    * @param calendarFinish project finish expressed as working time in each calendar
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    */
+   private void calculateLate(int task, long[] duration, long[] calendarFinish, long[] earlyStart, long[] earlyFinish, long[] lateStart, long[] lateFinish, byte[] flags)
+   {
+      if (m_actualFinish[task] != NO_DATE)
+      {
+         lateStart[task] = earlyStart[task];
+         lateFinish[task] = earlyFinish[task];
+         setLateStartType(task, flags, (flags[task] & EARLY_START_TYPE) != 0);
+         return;
+      }
+
+      WorkingTimeIndex calendar = m_calendar[task];
+      long taskDuration = duration[task];
+      boolean elapsed = m_elapsedDuration[task];
+      long finish = calendarFinish[m_calendarID[task]];
+      boolean startType = false;
+
+      for (int index = m_successorOffset[task]; index < m_successorOffset[task + 1]; index++)
+      {
+         int successor = m_successorTask[index];
+         int relation = m_successorRelation[index];
+         byte type = m_relationType[relation];
+         boolean fromStart = type == FINISH_START || type == START_START;
+         long lag = m_lag[relation];
+         long value;
+
+         if (m_sameCalendar[relation] && !m_elapsedDuration[successor] && !m_elapsedLag[relation])
+         {
+            value = (fromStart ? lateStart[successor] : lateFinish[successor]) - lag;
+         }
+         else
+         {
+            long time = getLateTime(successor, duration, lateStart, lateFinish, flags, !fromStart);
+            if (m_elapsedLag[relation])
+            {
+               time -= lag;
+            }
+            else
+            {
+               if (lag != 0)
+               {
+                  WorkingTimeIndex successorCalendar = m_calendar[successor];
+                  long work = successorCalendar.getWork(time) - lag;
+                  time = fromStart ? successorCalendar.getStart(work) : successorCalendar.getFinish(work);
+               }
+            }
+            value = calendar.getWork(time);
+         }
+
+         boolean toStart = type == START_START || type == START_FINISH;
+         if (toStart)
+         {
+            value = getFinish(calendar, value, taskDuration, elapsed);
+         }
+
+         if (value < finish || (value == finish && !toStart))
+         {
+            finish = value;
+            startType = toStart;
+         }
+      }
+
+      switch (m_constraintType[task])
+      {
+         case MUST_START_ON:
+         case MANDATORY_START:
+         {
+            finish = getFinish(calendar, m_constraintWork[task], taskDuration, elapsed);
+            startType = m_constraintStartType[task];
+            break;
+         }
+
+         case START_NO_LATER_THAN:
+         {
+            long value = getFinish(calendar, m_constraintWork[task], taskDuration, elapsed);
+            if (value < finish)
+            {
+               finish = value;
+               startType = m_constraintStartType[task];
+            }
+            break;
+         }
+
+         case MUST_FINISH_ON:
+         case MANDATORY_FINISH:
+         {
+            finish = m_constraintWork[task];
+            startType = m_constraintStartType[task];
+            break;
+         }
+
+         case FINISH_NO_LATER_THAN:
+         {
+            if (m_constraintWork[task] < finish)
+            {
+               finish = m_constraintWork[task];
+               startType = m_constraintStartType[task];
+            }
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+
+      lateFinish[task] = finish;
+      lateStart[task] = m_actualStart[task] == NO_DATE ? getStart(calendar, finish, taskDuration, elapsed) : earlyStart[task];
+      setLateStartType(task, flags, startType && taskDuration == 0 && !elapsed);
+   }
+
+   /**
+    * Record whether a milestone's late dates should be presented
+    * as the start of a working period.
+    *
+    * @param task task index
+    * @param flags milestone flags
+    * @param startType true if the late dates are start dates
+    */
+   private void setLateStartType(int task, byte[] flags, boolean startType)
+   {
+      if (startType)
+      {
+         flags[task] |= LATE_START_TYPE;
+      }
+      else
+      {
+         flags[task] &= ~LATE_START_TYPE;
+      }
+   }
+
+   /**
+    * Convert an early start or early finish value to a date.
+    *
+    * @param task task index
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param flags milestone flags
+    * @param finish true to retrieve the early finish
+    * @return date
+    */
+   long getEarlyTime(int task, long[] duration, long[] earlyStart, long[] earlyFinish, byte[] flags, boolean finish)
+   {
+      if (finish)
+      {
+         if (m_actualFinish[task] != NO_DATE)
+         {
+            return m_actualFinish[task];
+         }
+      }
+      else
+      {
+         if (m_actualStart[task] != NO_DATE)
+         {
+            return m_actualStart[task];
+         }
+      }
+
+      WorkingTimeIndex calendar = m_calendar[task];
+
+      if (m_elapsedDuration[task])
+      {
+         long start = m_actualStart[task] == NO_DATE ? calendar.getStart(earlyStart[task]) : m_actualStart[task];
+         return finish ? start + duration[task] : start;
+      }
+
+      if (duration[task] == 0)
+      {
+         return (flags[task] & EARLY_START_TYPE) == 0 ? calendar.getFinish(earlyStart[task]) : calendar.getStart(earlyStart[task]);
+      }
+
+      return finish ? calendar.getFinish(earlyFinish[task]) : calendar.getStart(earlyStart[task]);
+   }
+
+   /**
+    * Convert a late start or late finish value to a date.
+    *
+    * @param task task index
+    * @param duration task durations
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    * @param finish true to retrieve the late finish
+    * @return date
+    */
+   long getLateTime(int task, long[] duration, long[] lateStart, long[] lateFinish, byte[] flags, boolean finish)
+   {
+      WorkingTimeIndex calendar = m_calendar[task];
+
+      if (m_actualFinish[task] == NO_DATE && m_elapsedDuration[task])
+      {
+         long time = calendar.getFinish(lateFinish[task]);
+         return finish ? time : time - duration[task];
+      }
+
+      if (duration[task] == 0)
+      {
+         return (flags[task] & LATE_START_TYPE) == 0 ? calendar.getFinish(lateFinish[task]) : calendar.getStart(lateFinish[task]);
+      }
+
+      return finish ? calendar.getFinish(lateFinish[task]) : calendar.getStart(lateStart[task]);
+   }
+
+   /**
+    * Calculate the total slack for a task, being the smaller of its start
+    * slack and finish slack.
+    *
+    * @param task task index
+    * @param duration task durations
+    * @param earlyStart early start values
+    * @param earlyFinish early finish values
+    * @param lateStart late start values
+    * @param lateFinish late finish values
+    * @param flags milestone flags
+    * @return total slack in milliseconds
+    */
+   long getTotalSlack(int task, long[] duration, long[] earlyStart, long[] earlyFinish, long[] lateStart, long[] lateFinish, byte[] flags)
+   {
+      if (m_elapsedDuration[task])
+      {
+         long startSlack = getLateTime(task, duration, lateStart, lateFinish, flags, false) - getEarlyTime(task, duration, earlyStart, earlyFinish, flags, false);
+         long finishSlack = getLateTime(task, duration, lateStart, lateFinish, flags, true) - getEarlyTime(task, duration, earlyStart, earlyFinish, flags, true);
+         return Math.min(startSlack, finishSlack);
+      }
+
+      return Math.min(lateStart[task] - earlyStart[task], lateFinish[task] - earlyFinish[task]);
+   }
+
+   /**
+    * Calculate a finish value from a start value and a duration.
+    *
+    * @param calendar task calendar
+    * @param start start value
+    * @param duration duration
+    * @param elapsed true if this is an elapsed duration
+    * @return finish value
+    */
+   private long getFinish(WorkingTimeIndex calendar, long start, long duration, boolean elapsed)
+   {
+      if (elapsed)
+      {
+         return calendar.getWork(calendar.getStart(start) + duration);
+      }
+      return start + duration;
+   }
+
+   /**
+    * Calculate a start value from a finish value and a duration.
+    *
+    * @param calendar task calendar
+    * @param finish finish value
+    * @param duration duration
+    * @param elapsed true if this is an elapsed duration
+    * @return start value
+    */
+   private long getStart(WorkingTimeIndex calendar, long finish, long duration, boolean elapsed)
+   {
+      if (elapsed)
+      {
+         return calendar.getWork(calendar.getFinish(finish) - duration);
+      }
+      return finish - duration;
+   }
+
+   /**
+    * Read the duration, constraint and actual dates for a task. This is
+    * called when the network is compiled, and again if these attributes
+    * of the task change.
+    *
+    * @param index task index
+    */
+   void compileTask(int index)
+   {
+      Task task = m_tasks[index];
+      WorkingTimeIndex calendar = m_calendar[index];
+
+      Duration duration = task.getDuration();
+      m_elapsedDuration[index] = duration != null && isElapsed(duration.getUnits());
+      m_duration[index] = duration == null ? 0 : getMilliseconds(duration);
+
+      ConstraintType constraintType = task.getConstraintType();
+      Date constraintDate = task.getConstraintDate();
+      m_constraintType[index] = constraintType == null || (constraintDate == null && constraintType != ConstraintType.AS_LATE_AS_POSSIBLE) ? ConstraintType.AS_SOON_AS_POSSIBLE : constraintType;
+      if (constraintDate != null)
+      {
+         m_constraintWork[index] = calendar.getWork(constraintDate.getTime());
+         m_constraintStartType[index] = calendar.getStart(m_constraintWork[index]) == constraintDate.getTime();
+      }
+
+      Date actualStart = task.getActualStart();
+      m_actualStart[index] = actualStart == null ? NO_DATE : actualStart.getTime();
+      m_actualStartWork[index] = actualStart == null ? 0 : calendar.getWork(m_actualStart[index]);
+
+      Date actualFinish = task.getActualFinish();
+      m_actualFinish[index] = actualFinish == null ? NO_DATE : actualFinish.getTime();
+      m_actualFinishWork[index] = actualFinish == null ? 0 : calendar.getWork(m_actualFinish[index]);
+   }
+
+   /**
+    * Re-read the attributes of a set of changed tasks. Lags on the
+    * relations to their successors are also re-read, as these may be
+    * expressed as a percentage of a changed task's duration, and the
+    * successors are added to the set of changed tasks.
+    *
+    * @param changed indexes of the changed tasks
+    */
+   void compileTasks(BitSet changed)
+   {
+      BitSet successors = new BitSet();
+      for (int task = changed.nextSetBit(0); task >= 0; task = changed.nextSetBit(task + 1))
+      {
+         compileTask(task);
+         for (int index = m_successorOffset[task]; index < m_successorOffset[task + 1]; index++)
+         {
+            successors.set(m_successorTask[index]);
+         }
+      }
+
+      for (int task = successors.nextSetBit(0); task >= 0; task = successors.nextSetBit(task + 1))
+      {
+         compileLags(task);
+      }
+
+      changed.or(successors);
+   }
+
+   /**
+    * Re-read the lags of the relations between a task and its predecessors.
+    * The lags are updated in place, which is only possible if the task
+    * still has the same predecessors, linked by the same relation types.
+    *
+    * @param index task index
+    * @return true if the lags were updated, false if the relations have changed
+    */
+   boolean compileLags(int index)
+   {
+      RelationList relations = new RelationList(m_predecessorOffset[index + 1] - m_predecessorOffset[index]);
+      addRelations(relations, new HashMap<>(), index);
+
+      int offset = m_predecessorOffset[index];
+      int count = m_predecessorOffset[index + 1] - offset;
+      if (relations.m_count != count)
+      {
+         return false;
+      }
+
+      //
+      // Editing a relation may change its position in the task's list of
+      // predecessors, so match each relation to an existing slot.
+      //
+      int[] slots = new int[count];
+      boolean[] used = new boolean[count];
+      for (int relation = 0; relation < count; relation++)
+      {
+         int slot = 0;
+         while (slot < count && (used[slot] || relations.m_predecessor[relation] != m_predecessorTask[offset + slot] || relations.m_type[relation] != m_relationType[offset + slot]))
+         {
+            ++slot;
+         }
+
+         if (slot == count)
+         {
+            return false;
+         }
+
+         used[slot] = true;
+         slots[relation] = offset + slot;
+      }
+
+      for (int relation = 0; relation < count; relation++)
+      {
+         m_lag[slots[relation]] = relations.m_lag[relation];
+         m_elapsedLag[slots[relation]] = relations.m_elapsedLag[relation];
+      }
+      return true;
+   }
+
+   /**
+    * Build arrays representing the predecessors and successors of each task.
+    * Each task's predecessors are held in a contiguous block of the relation
+    * arrays, identified by the predecessor offset array. The successor arrays
+    * index into the same relation arrays.
+    */
+   private void compileRelations()
+   {
+      int count = m_tasks.length;
+      RelationList relations = new RelationList(count);
+      Map<Task, int[]> summaryTasks = new HashMap<>();
+
+      for (int index = 0; index < count; index++)
+      {
+         addRelations(relations, summaryTasks, index);
+      }
+
+      int relationCount = relations.m_count;
+      int[] relationTask = relations.m_task;
+      int[] relationPredecessor = relations.m_predecessor;
+
+      //
+      // Predecessors are already grouped by task
+      //
+      m_predecessorOffset = new int[count + 1];
+      for (int relation = 0; relation < relationCount; relation++)
+      {
+         ++m_predecessorOffset[relationTask[relation] + 1];
+      }
+      for (int index = 0; index < count; index++)
+      {
+         m_predecessorOffset[index + 1] += m_predecessorOffset[index];
+      }
+      m_predecessorTask = Arrays.copyOf(relationPredecessor, relationCount);
+      m_relationType = Arrays.copyOf(relations.m_type, relationCount);
+      m_lag = Arrays.copyOf(relations.m_lag, relationCount);
+      m_elapsedLag = Arrays.copyOf(relations.m_elapsedLag, relationCount);
+
+      m_sameCalendar = new boolean[relationCount];
+      for (int relation = 0; relation < relationCount; relation++)
+      {
+         m_sameCalendar[relation] = m_calendar[relationTask[relation]] == m_calendar[relationPredecessor[relation]];
+      }
+
+      //
+      // Group the same relations by predecessor to give successors
+      //
+      m_successorOffset = new int[count + 1];
+      for (int relation = 0; relation < relationCount; relation++)
+      {
+         ++m_successorOffset[relationPredecessor[relation] + 1];
+      }
+      for (int index = 0; index < count; index++)
+      {
+         m_successorOffset[index + 1] += m_successorOffset[index];
+      }
+
+      int[] position = Arrays.copyOf(m_successorOffset, count);
+      m_successorTask = new int[relationCount];
+      m_successorRelation = new int[relationCount];
+      for (int relation = 0; relation < relationCount; relation++)
+      {
+         int slot = position[relationPredecessor[relation]]++;
+         m_successorTask[slot] = relationTask[relation];
+         m_successorRelation[slot] = relation;
+      }
+   }
+
+   /**
+    * Add the relations between a task and its predecessors to a list.
+    * Relations attached to summary tasks apply to all of their descendants.
+    *
+    * @param relations relation list
+    * @param summaryTasks cache of summary task indexes
+    * @param index task index
+    */
+   private void addRelations(RelationList relations, Map<Task, int[]> summaryTasks, int index)
+   {
+      for (Task task = m_tasks[index]; task != null; task = task.getParentTask())
+      {
+         for (Relation relation : task.getPredecessors())
+         {
+            for (int predecessor : getTaskIndexes(summaryTasks, relation.getTargetTask()))
+            {
+               if (predecessor == index)
+               {
+                  continue;
+               }
+
+               long lag = 0;
+               boolean elapsedLag = false;
+               Duration relationLag = relation.getLag();
+               if (relationLag != null && relationLag.getDuration() != 0)
+               {
+                  TimeUnit units = relationLag.getUnits();
+                  if (units == TimeUnit.PERCENT || units == TimeUnit.ELAPSED_PERCENT)
+                  {
+                     lag = (long) (m_duration[predecessor] * relationLag.getDuration() / 100.0);
+                     elapsedLag = units == TimeUnit.ELAPSED_PERCENT || m_elapsedDuration[predecessor];
+                  }
+                  else
+                  {
+                     lag = getMilliseconds(relationLag);
+                     elapsedLag = isElapsed(units);
+                  }
+               }
+
+               relations.add(index, predecessor, getRelationType(relation.getType()), lag, elapsedLag);
+            }
+         }
+      }
+   }
+
+   /**
+    * Arrange the tasks so that each task appears after all of its predecessors.
+    *
+    * @throws MPXJException if the task dependencies contain a cycle
+    */
+   private void sortTasks() throws MPXJException
+   {
+      int count = m_tasks.length;
+      int[] predecessorCount = new int[count];
+      int[] order = new int[count];
+      int tail = 0;
+
+      for (int index = 0; index < count; index++)
+      {
+         predecessorCount[index] = m_predecessorOffset[index + 1] - m_predecessorOffset[index];
+         if (predecessorCount[index] == 0)
+         {
+            order[tail++] = index;
+         }
+      }
+
+      for (int head = 0; head < tail; head++)
+      {
+         int task = order[head];
+         for (int index = m_successorOffset[task]; index < m_successorOffset[task + 1]; index++)
+         {
+            int successor = m_successorTask[index];
+            if (--predecessorCount[successor] == 0)
+            {
+               order[tail++] = successor;
+            }
+         }
+      }
+
+      if (tail != count)
+      {
+         throw new MPXJException(MPXJException.CYCLIC_DEPENDENCY);
+      }
+
+      m_order = order;
+      m_rank = new int[count];
+      for (int rank = 0; rank < count; rank++)
+      {
+         m_rank[order[rank]] = rank;
+      }
+   }
+
+   /**
+    * Retrieve the indexes of the scheduled tasks represented by a task.
+    * For a summary task this will be all of its scheduled descendants.
+    *
+    * @param summaryTasks cache of summary task indexes
+    * @param task target task
+    * @return task indexes
+    */
+   private int[] getTaskIndexes(Map<Task, int[]> summaryTasks, Task task)
+   {
+      Integer index = m_taskIndex.get(task);
+      if (index != null)
+      {
+         return new int[]
+         {
+            index.intValue()
+         };
+      }
+
+      int[] result = summaryTasks.get(task);
+      if (result == null)
+      {
+         List<Integer> indexes = new ArrayList<>();
+         addTaskIndexes(indexes, task);
+         result = new int[indexes.size()];
+         for (int loop = 0; loop < result.length; loop++)
+         {
+            result[loop] = indexes.get(loop).intValue();
+         }
+         summaryTasks.put(task, result);
+      }
+      return result;
+   }
+
+   /**
+    * Recursively collect the indexes of scheduled tasks.
+    *
+    * @param indexes task indexes
+    * @param task parent task
+    */
+   private void addTaskIndexes(List<Integer> indexes, Task task)
+   {
+      for (Task child : task.getChildTasks())
+      {
+         Integer index = m_taskIndex.get(child);
+         if (index == null)
+         {
+            addTaskIndexes(indexes, child);
+         }
+         else
+         {
+            indexes.add(index);
+         }
+      }
+   }
+
+   /**
+    * Convert a duration to milliseconds.
+    *
+    * @param duration duration
+    * @return milliseconds
+    */
+   long getMilliseconds(Duration duration)
+   {
+      TimeUnit units = duration.getUnits();
+      TimeUnit targetUnits = isElapsed(units) ? TimeUnit.ELAPSED_MINUTES : TimeUnit.MINUTES;
+      double minutes = Duration.convertUnits(duration.getDuration(), units, targetUnits, m_properties).getDuration();
+      return Math.round(minutes * 60000);
+   }
+
+   /**
+    * Returns true if the task is represented in the network.
+    *
+    * @param task task
+    * @return true if the task is scheduled
+    */
+   private boolean isScheduled(Task task)
+   {
+      return !task.hasChildTasks() && !task.getNull() && NumberHelper.getInt(task.getUniqueID()) != 0;
+   }
+
+   /**
+    * Returns true if the units represent elapsed time.
+    *
+    * @param units time units
+    * @return true if elapsed
+    */
+   static boolean isElapsed(TimeUnit units)
+   {
+      switch (units)
+      {
+         case ELAPSED_MINUTES:
+         case ELAPSED_HOURS:
+         case ELAPSED_DAYS:
+         case ELAPSED_WEEKS:
+         case ELAPSED_MONTHS:
+         case ELAPSED_YEARS:
+         case ELAPSED_PERCENT:
+         {
+            return true;
+         }
+
+         default:
+         {
+            return false;
+         }
+      }
+   }
+
+   /**
+    * Map a relation type to its internal representation.
+    *
+    * @param type relation type
+    * @return relation type code
+    */
+   private byte getRelationType(RelationType type)
+   {
+      if (type == null)
+      {
+         return FINISH_START;
+      }
+
+      switch (type)
+      {
+         case START_START:
+         {
+            return START_START;
+         }
+
+         case FINISH_FINISH:
+         {
+            return FINISH_FINISH;
+         }
+
+         case START_FINISH:
+         {
+            return START_FINISH;
+         }
+
+         default:
+         {
+            return FINISH_START;
+         }
+      }
+   }
+
+   /**
+    * Retrieve the project being scheduled.
+    *
+    * @return project file
+    */
+   ProjectFile getProjectFile()
+   {
+      return m_file;
+   }
+
+   /**
+    * Retrieve the project start date used for scheduling.
+    *
+    * @return project start date
+    */
+   long getProjectStart()
+   {
+      return m_projectStart;
+   }
+
+   /**
+    * Retrieve the index of a task in the network.
+    *
+    * @param task task
+    * @return task index, or null if the task is not scheduled
+    */
+   Integer getTaskIndex(Task task)
+   {
+      return m_taskIndex.get(task);
+   }
+
+   /**
+    * Retrieve the scheduled tasks.
+    *
+    * @return tasks, by index
+    */
+   Task[] getTasks()
+   {
+      return m_tasks;
+   }
+
+   /**
+    * Retrieve the task durations read from the project.
+    *
+    * @return durations in milliseconds, by index
+    */
+   long[] getDurations()
+   {
+      return m_duration;
+   }
+
+   /**
+    * Determine if a task has an elapsed duration.
+    *
+    * @param index task index
+    * @return true if the duration is elapsed
+    */
+   boolean getElapsedDuration(int index)
+   {
+      return m_elapsedDuration[index];
+   }
+
+   /**
+    * Determine if a task should be placed at its late dates.
+    *
+    * @param index task index
+    * @return true if the task is scheduled as late as possible
+    */
+   boolean getAsLateAsPossible(int index)
+   {
+      return m_constraintType[index] == ConstraintType.AS_LATE_AS_POSSIBLE && m_actualStart[index] == NO_DATE;
+   }
+
+   /**
+    * A growable list of relations, used while compiling the network.
+    */
+   private static final class RelationList
+   {
+      /**
+       * Constructor.
+       *
+       * @param capacity initial capacity
+       */
+      public RelationList(int capacity)
+      {
+         capacity = Math.max(capacity, 1);
+         m_task = new int[capacity];
+         m_predecessor = new int[capacity];
+         m_type = new byte[capacity];
+         m_lag = new long[capacity];
+         m_elapsedLag = new boolean[capacity];
+      }
+
+      /**
+       * Add a relation to the list.
+       *
+       * @param task task index
+       * @param predecessor predecessor task index
+       * @param type relation type code
+       * @param lag lag in milliseconds
+       * @param elapsedLag true if the lag is elapsed time
+       */
+      public void add(int task, int predecessor, byte type, long lag, boolean elapsedLag)
+      {
+         if (m_count == m_task.length)
+         {
+            int length = m_count * 2;
+            m_task = Arrays.copyOf(m_task, length);
+            m_predecessor = Arrays.copyOf(m_predecessor, length);
+            m_type = Arrays.copyOf(m_type, length);
+            m_lag = Arrays.copyOf(m_lag, length);
+            m_elapsedLag = Arrays.copyOf(m_elapsedLag, length);
+         }
+
+         m_task[m_count] = task;
+         m_predecessor[m_count] = predecessor;
+         m_type[m_count] = type;
+         m_lag[m_count] = lag;
+         m_elapsedLag[m_count] = elapsedLag;
+         ++m_count;
+      }
+
+      int[] m_task;
+      int[] m_predecessor;
+      byte[] m_type;
+      long[] m_lag;
+      boolean[] m_elapsedLag;
+      int m_count;
+   }
+
+   private final ProjectFile m_file;
+   private final ProjectProperties m_properties;
+   private final long m_projectStart;
+   private final Map<Task, Integer> m_taskIndex = new HashMap<>();
+
+   private final Task[] m_tasks;
+   private final WorkingTimeIndex[] m_calendar;
+   private final long[] m_duration;
+   private final boolean[] m_elapsedDuration;
+   private final ConstraintType[] m_constraintType;
+   private final long[] m_actualStart;
+   private final long[] m_actualFinish;
+   private final WorkingTimeIndex[] m_calendars;
+   private final int[] m_calendarID;
+   private final long[] m_projectStartWork;
+   private final long[] m_constraintWork;
+   private final boolean[] m_constraintStartType;
+   private final long[] m_actualStartWork;
+   private final long[] m_actualFinishWork;
+   private int[] m_order;
+   private int[] m_rank;
+
+   private int[] m_predecessorOffset;
+   private int[] m_predecessorTask;
+   private byte[] m_relationType;
+   private long[] m_lag;
+   private boolean[] m_elapsedLag;
+   private boolean[] m_sameCalendar;
+
+   private int[] m_successorOffset;
+   private int[] m_successorTask;
+   private int[] m_successorRelation;
+
+   private static final long NO_DATE = Long.MIN_VALUE;
+
+   private static final byte FINISH_START = 0;
+   private static final byte START_START = 1;
+   private static final byte FINISH_FINISH = 2;
+   private static final byte START_FINISH = 3;
+
+   static final byte EARLY_START_TYPE = 1;
+   static final byte LATE_START_TYPE = 2;
+}
@@ -0,0 +1,193 @@
+/*
+ * file:       IncrementalScheduler.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       30/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+import java.util.BitSet;
+
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.listener.FieldListener;
+
+/**
+ * Keeps the early and late dates of the tasks in a project up to date as
+ * the project is edited.
+ *
+ * When created, the project is scheduled in full and the results are written
+ * to the tasks. A field listener is then attached to each task. Changes to a
+ * task's duration, constraint or actual dates mark the task as changed, and
+ * when the update method is called only the successors and predecessors of
+ * the changed tasks are recalculated. The early and late dates of any tasks
+ * whose schedule has moved are updated in place, which in turn resets the
+ * task's total slack and critical flag.
+ *
+ * Relations do not generate events, so the relationsChanged method should be
+ * called when a task's predecessors are edited. Changes which alter the
+ * structure of the project, for example adding or removing tasks, or changing
+ * task calendars, require the rebuild method to be called.
+ */
+public final class IncrementalScheduler implements FieldListener
+{
+   /**
+    * Constructor. Schedules the project and starts listening for changes.
+    *
+    * @param file project to schedule
+    * @throws MPXJException if the task dependencies contain a cycle
+    */
+   public IncrementalScheduler(ProjectFile file) throws MPXJException
+   {
+      m_file = file;
+      rebuild();
+      for (Task task : m_file.getTasks())
+      {
+         task.addFieldListener(this);
+      }
+   }
+
+   /**
+    * Stop listening for changes to the project.
+    */
+   public void close()
+   {
+      for (Task task : m_file.getTasks())
+      {
+         task.removeFieldListener(this);
+      }
+   }
+
+   /**
+    * Retrieve the current schedule.
+    *
+    * @return schedule
+    */
+   public CriticalPathSchedule getSchedule()
+   {
+      return m_schedule;
+   }
+
+   /**
+    * Determine if there are changes which have not yet been scheduled.
+    *
+    * @return true if the update method needs to be called
+    */
+   public boolean getUpdateRequired()
+   {
+      return !m_changed.isEmpty();
+   }
+
+   /**
+    * Reschedule the tasks affected by any changes made since the last update,
+    * and write their new dates to the project.
+    */
+   public void update()
+   {
+      if (m_changed.isEmpty())
+      {
+         return;
+      }
+
+      BitSet changed = m_changed;
+      m_changed = new BitSet();
+
+      m_scheduler.compileTasks(changed);
+      m_schedule.apply(m_schedule.update(changed));
+   }
+
+   /**
+    * Notify the scheduler that a task's predecessors have been edited.
+    * Where the task has the same predecessors and relation types as before,
+    * for example where only the lag has changed, the existing network is
+    * updated. Otherwise the project is rebuilt. Any pending changes are
+    * applied.
+    *
+    * @param task task whose predecessors have changed
+    * @throws MPXJException if the task dependencies now contain a cycle
+    */
+   public void relationsChanged(Task task) throws MPXJException
+   {
+      Integer index = m_scheduler.getTaskIndex(task);
+      if (index == null || !m_scheduler.compileLags(index.intValue()))
+      {
+         rebuild();
+         return;
+      }
+
+      m_changed.set(index.intValue());
+      update();
+   }
+
+   /**
+    * Recompile and reschedule the entire project. This should be called
+    * after structural changes to the project. Listeners are not attached
+    * to tasks added since this scheduler was created.
+    *
+    * @throws MPXJException if the task dependencies contain a cycle
+    */
+   public void rebuild() throws MPXJException
+   {
+      m_scheduler = new CriticalPathScheduler(m_file);
+      m_schedule = m_scheduler.schedule();
+      m_schedule.apply();
+      m_changed = new BitSet();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void fieldChange(FieldContainer container, FieldType type, Object oldValue, Object newValue)
+   {
+      if (type instanceof TaskField)
+      {
+         switch ((TaskField) type)
+         {
+            case DURATION:
+            case CONSTRAINT_TYPE:
+            case CONSTRAINT_DATE:
+            case ACTUAL_START:
+            case ACTUAL_FINISH:
+            {
+               Integer index = m_scheduler.getTaskIndex((Task) container);
+               if (index != null)
+               {
+                  m_changed.set(index.intValue());
+               }
+               break;
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+      }
+   }
+
+   private final ProjectFile m_file;
+   private CriticalPathScheduler m_scheduler;
+   private CriticalPathSchedule m_schedule;
+   private BitSet m_changed;
+}
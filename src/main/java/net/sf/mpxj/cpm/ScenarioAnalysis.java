@@ -0,0 +1,171 @@
+/*
+ * file:       ScenarioAnalysis.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       01/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.ParallelHelper;
+
+/**
+ * Evaluates a project schedule under many alternative sets of task
+ * durations, for example to support Monte Carlo risk analysis.
+ *
+ * The tasks, relations and calendars of the project are compiled once when
+ * this class is created. Each scenario is then represented by nothing more
+ * than an array of task durations, and scenarios are scheduled in parallel
+ * using a fork-join pool. The project itself is not modified. Percentage
+ * lags are based on the durations held in the project rather than the
+ * durations for each scenario.
+ *
+ * Scenarios may need working time beyond the range already generated
+ * from the project's calendars. The calendars are not thread safe, so
+ * this is generated while holding a lock on the base calendar. The
+ * project's calendars must not be modified, or used by other code,
+ * while scenarios are being evaluated.
+ */
+public final class ScenarioAnalysis
+{
+   /**
+    * Constructor.
+    *
+    * @param file project to analyse
+    * @throws MPXJException if the task dependencies contain a cycle
+    */
+   public ScenarioAnalysis(ProjectFile file) throws MPXJException
+   {
+      m_scheduler = new CriticalPathScheduler(file);
+      int criticalSlackLimit = NumberHelper.getInt(file.getProjectProperties().getCriticalSlackLimit());
+      m_criticalSlackLimit = m_scheduler.getMilliseconds(Duration.getInstance(criticalSlackLimit, TimeUnit.DAYS));
+   }
+
+   /**
+    * Retrieve the tasks whose durations are supplied for each scenario,
+    * in the order in which their durations appear.
+    *
+    * @return list of tasks
+    */
+   public List<Task> getTasks()
+   {
+      return Collections.unmodifiableList(Arrays.asList(m_scheduler.getTasks()));
+   }
+
+   /**
+    * Evaluate a number of scenarios using the common fork-join pool.
+    *
+    * @param scenarios number of scenarios
+    * @param generator supplies the task durations for each scenario
+    * @return results
+    */
+   public ScenarioResults evaluate(int scenarios, ScenarioGenerator generator)
+   {
+      return evaluate(ForkJoinPool.commonPool(), scenarios, generator);
+   }
+
+   /**
+    * Evaluate a number of scenarios using the supplied fork-join pool.
+    *
+    * @param pool fork-join pool
+    * @param scenarios number of scenarios
+    * @param generator supplies the task durations for each scenario
+    * @return results
+    */
+   public ScenarioResults evaluate(ForkJoinPool pool, int scenarios, ScenarioGenerator generator)
+   {
+      long[] finishDates = new long[scenarios];
+      int[] criticalCount = ParallelHelper.reduce(pool, scenarios, SCENARIOS_PER_TASK, (from, to) -> evaluate(generator, finishDates, from, to), ScenarioAnalysis::add);
+      return new ScenarioResults(m_scheduler, finishDates, criticalCount);
+   }
+
+   /**
+    * Evaluate a range of scenarios.
+    *
+    * @param generator supplies the task durations for each scenario
+    * @param finishDates finish date for each scenario
+    * @param from first scenario
+    * @param to last scenario (exclusive)
+    * @return number of scenarios in which each task is critical
+    */
+   private int[] evaluate(ScenarioGenerator generator, long[] finishDates, int from, int to)
+   {
+      //
+      // Working arrays are reused for each scenario in the range
+      //
+      long[] baseDuration = m_scheduler.getDurations();
+      int count = baseDuration.length;
+      long[] duration = new long[count];
+      long[] earlyStart = new long[count];
+      long[] earlyFinish = new long[count];
+      long[] lateStart = new long[count];
+      long[] lateFinish = new long[count];
+      byte[] flags = new byte[count];
+      int[] criticalCount = new int[count];
+
+      for (int scenario = from; scenario < to; scenario++)
+      {
+         System.arraycopy(baseDuration, 0, duration, 0, count);
+         generator.generate(scenario, duration);
+         finishDates[scenario] = m_scheduler.schedule(duration, earlyStart, earlyFinish, lateStart, lateFinish, flags);
+
+         for (int task = 0; task < count; task++)
+         {
+            if (m_scheduler.getTotalSlack(task, duration, earlyStart, earlyFinish, lateStart, lateFinish, flags) <= m_criticalSlackLimit)
+            {
+               ++criticalCount[task];
+            }
+         }
+      }
+
+      return criticalCount;
+   }
+
+   /**
+    * Combine the critical task counts for two ranges of scenarios.
+    *
+    * @param left counts for the first range
+    * @param right counts for the second range
+    * @return combined counts
+    */
+   private static int[] add(int[] left, int[] right)
+   {
+      for (int index = 0; index < left.length; index++)
+      {
+         left[index] += right[index];
+      }
+      return left;
+   }
+
+   private final CriticalPathScheduler m_scheduler;
+   private final long m_criticalSlackLimit;
+
+   private static final int SCENARIOS_PER_TASK = 4;
+}
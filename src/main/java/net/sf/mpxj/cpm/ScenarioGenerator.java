@@ -0,0 +1,45 @@
+/*
+ * file:       ScenarioGenerator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       01/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+/**
+ * Supplies the task durations for each scenario evaluated by the
+ * ScenarioAnalysis class.
+ */
+@FunctionalInterface public interface ScenarioGenerator
+{
+   /**
+    * Populate the task durations for a scenario. On entry the array holds
+    * the durations read from the project, indexed in the same order as the
+    * list returned by ScenarioAnalysis.getTasks(). Durations are expressed in
+    * milliseconds of working time, or of elapsed time for tasks with elapsed
+    * durations. This method may be called concurrently from multiple threads,
+    * so any random number generator should be seeded from the scenario number
+    * rather than shared.
+    *
+    * @param scenario scenario number
+    * @param durations task durations, to be updated in place
+    */
+   public void generate(int scenario, long[] durations);
+}
@@ -0,0 +1,143 @@
+/*
+ * file:       ScenarioResults.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       01/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import net.sf.mpxj.Task;
+
+/**
+ * The results of evaluating a set of scenarios using the
+ * ScenarioAnalysis class.
+ */
+public final class ScenarioResults
+{
+   /**
+    * Constructor.
+    *
+    * @param scheduler scheduler used to evaluate the scenarios
+    * @param finishDates finish date for each scenario
+    * @param criticalCount number of scenarios in which each task was critical
+    */
+   ScenarioResults(CriticalPathScheduler scheduler, long[] finishDates, int[] criticalCount)
+   {
+      m_scheduler = scheduler;
+      m_finishDates = finishDates;
+      m_criticalCount = criticalCount;
+      m_sortedFinishDates = finishDates.clone();
+      Arrays.sort(m_sortedFinishDates);
+   }
+
+   /**
+    * Retrieve the number of scenarios evaluated.
+    *
+    * @return scenario count
+    */
+   public int getScenarioCount()
+   {
+      return m_finishDates.length;
+   }
+
+   /**
+    * Retrieve the project finish date for a scenario.
+    *
+    * @param scenario scenario number
+    * @return finish date
+    */
+   public Date getFinishDate(int scenario)
+   {
+      return new Date(m_finishDates[scenario]);
+   }
+
+   /**
+    * Retrieve the project finish date at a given percentile of the
+    * distribution of finish dates, using the nearest rank method. For
+    * example, the 80th percentile is the date by which the project
+    * finished in at least 80% of the scenarios.
+    *
+    * @param percentile percentile, from 0 to 100
+    * @return finish date, or null if no scenarios were evaluated
+    */
+   public Date getFinishDatePercentile(double percentile)
+   {
+      int count = m_sortedFinishDates.length;
+      if (count == 0)
+      {
+         return null;
+      }
+
+      int rank = (int) Math.ceil(percentile / 100.0 * count);
+      return new Date(m_sortedFinishDates[Math.min(Math.max(rank, 1), count) - 1]);
+   }
+
+   /**
+    * Retrieve the mean project finish date across all scenarios.
+    *
+    * @return finish date, or null if no scenarios were evaluated
+    */
+   public Date getMeanFinishDate()
+   {
+      int count = m_finishDates.length;
+      if (count == 0)
+      {
+         return null;
+      }
+
+      //
+      // Average the offsets from the earliest date to avoid overflow
+      //
+      long earliest = m_sortedFinishDates[0];
+      double total = 0;
+      for (long date : m_finishDates)
+      {
+         total += date - earliest;
+      }
+      return new Date(earliest + Math.round(total / count));
+   }
+
+   /**
+    * Retrieve the criticality index for a task, being the proportion
+    * of scenarios in which the task was on the critical path. A task
+    * is on the critical path when its total slack is no more than the
+    * project's critical slack limit.
+    *
+    * @param task task
+    * @return criticality index from 0 to 1, or 0 if the task was not scheduled
+    */
+   public double getCriticalityIndex(Task task)
+   {
+      Integer index = m_scheduler.getTaskIndex(task);
+      if (index == null || m_finishDates.length == 0)
+      {
+         return 0;
+      }
+      return (double) m_criticalCount[index.intValue()] / m_finishDates.length;
+   }
+
+   private final CriticalPathScheduler m_scheduler;
+   private final long[] m_finishDates;
+   private final long[] m_sortedFinishDates;
+   private final int[] m_criticalCount;
+}
@@ -0,0 +1,532 @@
+/*
+ * file:       WorkingTimeIndex.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       29/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.cpm;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarDateRanges;
+import net.sf.mpxj.ProjectCalendarHours;
+
+/**
+ * Represents the working time defined by a calendar as a sorted array of
+ * working intervals. Each interval records the amount of working time
+ * which precedes it, so an instant can be converted to an amount of working
+ * time, and vice versa, using a binary search. All values are expressed in
+ * milliseconds.
+ *
+ * Intervals are generated from the calendar as required, in one year
+ * chunks, either side of the date supplied to the constructor. A calendar
+ * shares its caches with the calendars it is derived from, so all of the
+ * indexes built from calendars with the same base calendar generate
+ * their intervals while holding a lock on that base calendar. This
+ * allows instances to be used by multiple threads, provided that the
+ * calendars are not modified, or used other than via an index, at
+ * the same time.
+ */
+final class WorkingTimeIndex
+{
+   /**
+    * Constructor.
+    *
+    * @param calendar calendar represented by this index
+    * @param origin initial date around which intervals are generated
+    */
+   public WorkingTimeIndex(ProjectCalendar calendar, long origin)
+   {
+      m_calendar = calendar;
+
+      ProjectCalendar lock = calendar;
+      while (lock.getParent() != null)
+      {
+         lock = lock.getParent();
+      }
+      m_lock = lock;
+
+      Calendar cal = Calendar.getInstance();
+      cal.setTimeInMillis(origin);
+      cal.set(Calendar.HOUR_OF_DAY, 0);
+      cal.set(Calendar.MINUTE, 0);
+      cal.set(Calendar.SECOND, 0);
+      cal.set(Calendar.MILLISECOND, 0);
+      long from = cal.getTimeInMillis();
+
+      synchronized (m_lock)
+      {
+         m_continuous = isContinuous(calendar);
+         m_intervals = m_continuous ? null : createIntervals(from, 0);
+      }
+   }
+
+   /**
+    * Retrieve the amount of working time which precedes the given instant.
+    *
+    * @param time instant
+    * @return working time
+    */
+   public long getWork(long time)
+   {
+      if (m_continuous)
+      {
+         return time;
+      }
+
+      Intervals intervals = m_intervals;
+      while (time < intervals.m_from || time >= intervals.m_to)
+      {
+         intervals = extend(time < intervals.m_from);
+      }
+
+      long[] start = intervals.m_start;
+      int low = 0;
+      int high = intervals.m_count - 1;
+      int index = -1;
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         if (start[mid] <= time)
+         {
+            index = mid;
+            low = mid + 1;
+         }
+         else
+         {
+            high = mid - 1;
+         }
+      }
+
+      if (index == -1)
+      {
+         return intervals.m_workFrom;
+      }
+
+      return intervals.m_work[index] + Math.min(time, intervals.m_end[index]) - start[index];
+   }
+
+   /**
+    * Retrieve the instant at which the given amount of working time has
+    * elapsed. Where this falls at the end of a working period, the start
+    * of the next working period is returned.
+    *
+    * @param work working time
+    * @return instant
+    */
+   public long getStart(long work)
+   {
+      if (m_continuous)
+      {
+         return work;
+      }
+
+      Intervals intervals = m_intervals;
+      while (work < intervals.m_workFrom || work >= intervals.m_workTo)
+      {
+         intervals = extend(work < intervals.m_workFrom);
+      }
+
+      int index = findInterval(intervals, work, false);
+      return intervals.m_start[index] + work - intervals.m_work[index];
+   }
+
+   /**
+    * Retrieve the instant at which the given amount of working time has
+    * elapsed. Where this falls at the start of a working period, the end
+    * of the previous working period is returned.
+    *
+    * @param work working time
+    * @return instant
+    */
+   public long getFinish(long work)
+   {
+      if (m_continuous)
+      {
+         return work;
+      }
+
+      Intervals intervals = m_intervals;
+      while (work <= intervals.m_workFrom || work > intervals.m_workTo)
+      {
+         intervals = extend(work <= intervals.m_workFrom);
+      }
+
+      int index = findInterval(intervals, work, true);
+      return intervals.m_start[index] + work - intervals.m_work[index];
+   }
+
+   /**
+    * Find the first interval whose cumulative working time at its end is
+    * greater than (or equal to, if inclusive is true) the target.
+    *
+    * @param intervals intervals to search
+    * @param work target working time
+    * @param inclusive true if an interval ending at the target matches
+    * @return interval index
+    */
+   private int findInterval(Intervals intervals, long work, boolean inclusive)
+   {
+      long[] start = intervals.m_start;
+      long[] end = intervals.m_end;
+      long[] cumulative = intervals.m_work;
+      int low = 0;
+      int high = intervals.m_count - 1;
+      int index = high;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         long workAtEnd = cumulative[mid] + end[mid] - start[mid];
+         if (workAtEnd > work || (inclusive && workAtEnd == work))
+         {
+            index = mid;
+            high = mid - 1;
+         }
+         else
+         {
+            low = mid + 1;
+         }
+      }
+
+      return index;
+   }
+
+   /**
+    * Generate a further chunk of intervals either before or after
+    * the intervals already present.
+    *
+    * @param backwards true if the intervals should be extended backwards in time
+    * @return updated intervals
+    */
+   private Intervals extend(boolean backwards)
+   {
+      synchronized (m_lock)
+      {
+         return extendIntervals(backwards);
+      }
+   }
+
+   /**
+    * Generate a further chunk of intervals either before or after
+    * the intervals already present. The caller must hold the lock
+    * on the base calendar.
+    *
+    * @param backwards true if the intervals should be extended backwards in time
+    * @return updated intervals
+    */
+   private Intervals extendIntervals(boolean backwards)
+   {
+      Intervals current = m_intervals;
+      Intervals chunk;
+      int count;
+
+      //
+      // Skip over periods without any working time, up to a limit,
+      // so we always return having added at least one interval.
+      //
+      int attempts = 0;
+      do
+      {
+         if (++attempts > MAX_EMPTY_CHUNKS)
+         {
+            throw new IllegalStateException("Unable to find working time in calendar " + m_calendar.getName());
+         }
+
+         if (backwards)
+         {
+            Calendar cal = Calendar.getInstance();
+            cal.setTimeInMillis(current.m_from);
+            cal.add(Calendar.DAY_OF_YEAR, -CHUNK_DAYS);
+            chunk = createIntervals(cal.getTimeInMillis(), 0);
+            chunk = chunk.rebase(current.m_workFrom - chunk.m_workTo);
+            current = chunk.append(current);
+         }
+         else
+         {
+            chunk = createIntervals(current.m_to, current.m_workTo);
+            current = current.append(chunk);
+         }
+         count = chunk.m_count;
+      }
+      while (count == 0);
+
+      m_intervals = current;
+      return current;
+   }
+
+   /**
+    * Determine if the calendar defines continuous working time: every day
+    * of the week is worked from midnight to midnight, and there are no
+    * exceptions or work weeks which could change this. Working time is
+    * then equal to elapsed time, and no intervals need to be generated.
+    *
+    * @param calendar calendar
+    * @return true if the calendar defines continuous working time
+    */
+   private static boolean isContinuous(ProjectCalendar calendar)
+   {
+      for (ProjectCalendar cal = calendar; cal != null; cal = cal.getParent())
+      {
+         if (!cal.getCalendarExceptions().isEmpty() || !cal.getWorkWeeks().isEmpty())
+         {
+            return false;
+         }
+      }
+
+      Calendar rangeTime = Calendar.getInstance();
+      for (Day day : Day.values())
+      {
+         if (!calendar.isWorkingDay(day))
+         {
+            return false;
+         }
+
+         ProjectCalendarHours hours = calendar.getHours(day);
+         if (hours == null || hours.getRangeCount() != 1)
+         {
+            return false;
+         }
+
+         DateRange range = hours.getRange(0);
+         if (range.getStart() == null || range.getEnd() == null)
+         {
+            return false;
+         }
+
+         //
+         // The range must start at midnight, and end at midnight on the
+         // following day, which is how createIntervals interprets it
+         //
+         rangeTime.setTime(range.getStart());
+         int startDay = rangeTime.get(Calendar.DAY_OF_YEAR);
+         if (rangeTime.get(Calendar.HOUR_OF_DAY) != 0 || rangeTime.get(Calendar.MINUTE) != 0)
+         {
+            return false;
+         }
+
+         rangeTime.setTime(range.getEnd());
+         if (rangeTime.get(Calendar.DAY_OF_YEAR) == startDay || rangeTime.get(Calendar.HOUR_OF_DAY) != 0 || rangeTime.get(Calendar.MINUTE) != 0)
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * Create a chunk of intervals from the calendar.
+    *
+    * @param from start of the first day
+    * @param workFrom cumulative working time at the start of the chunk
+    * @return intervals
+    */
+   private Intervals createIntervals(long from, long workFrom)
+   {
+      long[] start = new long[CHUNK_DAYS * 2];
+      long[] end = new long[CHUNK_DAYS * 2];
+      long[] work = new long[CHUNK_DAYS * 2];
+      int count = 0;
+      long total = workFrom;
+
+      Calendar day = Calendar.getInstance();
+      day.setTimeInMillis(from);
+      Calendar time = Calendar.getInstance();
+      Calendar rangeTime = Calendar.getInstance();
+
+      for (int dayIndex = 0; dayIndex < CHUNK_DAYS; dayIndex++)
+      {
+         ProjectCalendarDateRanges ranges = m_calendar.getHours(day.getTime());
+         if (ranges != null)
+         {
+            for (DateRange range : ranges)
+            {
+               Date rangeStart = range.getStart();
+               Date rangeEnd = range.getEnd();
+               if (rangeStart == null || rangeEnd == null)
+               {
+                  continue;
+               }
+
+               rangeTime.setTime(rangeStart);
+               int startMinute = rangeTime.get(Calendar.HOUR_OF_DAY) * 60 + rangeTime.get(Calendar.MINUTE);
+               int startDay = rangeTime.get(Calendar.DAY_OF_YEAR);
+
+               rangeTime.setTime(rangeEnd);
+               int endMinute = rangeTime.get(Calendar.HOUR_OF_DAY) * 60 + rangeTime.get(Calendar.MINUTE);
+
+               //
+               // Handle the case where the end of the range is at midnight -
+               // this will show up as the start and end days not matching
+               //
+               if (rangeTime.get(Calendar.DAY_OF_YEAR) != startDay || endMinute < startMinute)
+               {
+                  endMinute += MINUTES_PER_DAY;
+               }
+
+               long intervalStart = getTime(day, time, startMinute);
+               long intervalEnd = getTime(day, time, endMinute);
+               if (intervalEnd <= intervalStart)
+               {
+                  continue;
+               }
+
+               if (count != 0 && intervalStart <= end[count - 1])
+               {
+                  //
+                  // Merge with the previous interval
+                  //
+                  if (intervalEnd > end[count - 1])
+                  {
+                     total += intervalEnd - end[count - 1];
+                     end[count - 1] = intervalEnd;
+                  }
+                  continue;
+               }
+
+               if (count == start.length)
+               {
+                  start = Arrays.copyOf(start, count * 2);
+                  end = Arrays.copyOf(end, count * 2);
+                  work = Arrays.copyOf(work, count * 2);
+               }
+
+               start[count] = intervalStart;
+               end[count] = intervalEnd;
+               work[count] = total;
+               total += intervalEnd - intervalStart;
+               ++count;
+            }
+         }
+         day.add(Calendar.DAY_OF_YEAR, 1);
+      }
+
+      return new Intervals(from, day.getTimeInMillis(), workFrom, total, start, end, work, count);
+   }
+
+   /**
+    * Retrieve an instant expressed as a number of minutes from the start of a day.
+    *
+    * @param day start of day
+    * @param time Calendar instance used for the calculation
+    * @param minutes number of minutes from the start of the day
+    * @return instant
+    */
+   private long getTime(Calendar day, Calendar time, int minutes)
+   {
+      time.setTimeInMillis(day.getTimeInMillis());
+      if (minutes >= MINUTES_PER_DAY)
+      {
+         time.add(Calendar.DAY_OF_YEAR, 1);
+         minutes -= MINUTES_PER_DAY;
+      }
+      time.set(Calendar.HOUR_OF_DAY, minutes / 60);
+      time.set(Calendar.MINUTE, minutes % 60);
+      return time.getTimeInMillis();
+   }
+
+   /**
+    * Immutable set of working intervals.
+    */
+   private static final class Intervals
+   {
+      /**
+       * Constructor.
+       *
+       * @param from first instant covered
+       * @param to first instant after those covered
+       * @param workFrom cumulative working time at from
+       * @param workTo cumulative working time at to
+       * @param start interval start instants
+       * @param end interval end instants
+       * @param work cumulative working time at the start of each interval
+       * @param count number of intervals
+       */
+      public Intervals(long from, long to, long workFrom, long workTo, long[] start, long[] end, long[] work, int count)
+      {
+         m_from = from;
+         m_to = to;
+         m_workFrom = workFrom;
+         m_workTo = workTo;
+         m_start = start;
+         m_end = end;
+         m_work = work;
+         m_count = count;
+      }
+
+      /**
+       * Create a copy of these intervals with the cumulative working time adjusted.
+       *
+       * @param offset amount to add to the cumulative working time
+       * @return new intervals
+       */
+      public Intervals rebase(long offset)
+      {
+         long[] work = new long[m_count];
+         for (int index = 0; index < m_count; index++)
+         {
+            work[index] = m_work[index] + offset;
+         }
+         return new Intervals(m_from, m_to, m_workFrom + offset, m_workTo + offset, m_start, m_end, work, m_count);
+      }
+
+      /**
+       * Create a new set of intervals by appending the supplied intervals to these.
+       *
+       * @param next intervals immediately following these
+       * @return new intervals
+       */
+      public Intervals append(Intervals next)
+      {
+         int count = m_count + next.m_count;
+         long[] start = Arrays.copyOf(m_start, count);
+         long[] end = Arrays.copyOf(m_end, count);
+         long[] work = Arrays.copyOf(m_work, count);
+         System.arraycopy(next.m_start, 0, start, m_count, next.m_count);
+         System.arraycopy(next.m_end, 0, end, m_count, next.m_count);
+         System.arraycopy(next.m_work, 0, work, m_count, next.m_count);
+         return new Intervals(m_from, next.m_to, m_workFrom, next.m_workTo, start, end, work, count);
+      }
+
+      final long m_from;
+      final long m_to;
+      final long m_workFrom;
+      final long m_workTo;
+      final long[] m_start;
+      final long[] m_end;
+      final long[] m_work;
+      final int m_count;
+   }
+
+   private final ProjectCalendar m_calendar;
+   private final ProjectCalendar m_lock;
+   private final boolean m_continuous;
+   private volatile Intervals m_intervals;
+
+   private static final int CHUNK_DAYS = 366;
+   private static final int MAX_EMPTY_CHUNKS = 10;
+   private static final int MINUTES_PER_DAY = 24 * 60;
+}
@@ -37,10 +37,12 @@ abstract class AbstractColumn implements FastTrackColumn
       setFieldType(tableType);
       int offset = readData(buffer, m_header.getOffset());
 
-      if (length > offset)
+      // The offset returned is an absolute position in the buffer
+      int trailerLength = startIndex + length - offset;
+      if (trailerLength > 0)
       {
-         m_trailer = new byte[length - offset];
-         System.arraycopy(buffer, startIndex + offset, m_trailer, 0, m_trailer.length);
+         m_trailer = new byte[trailerLength];
+         System.arraycopy(buffer, offset, m_trailer, 0, trailerLength);
       }
       else
       {
@@ -26,7 +26,11 @@ package net.sf.mpxj.fasttrack;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.PrintWriter;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -36,6 +40,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.BytePatternMatcher;
 import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.DebugLogPrintWriter;
 
@@ -53,7 +58,25 @@ class FastTrackData
    {
       openLogFile();
 
-      int blockIndex = 0;
+      if (m_useMemoryMapping)
+      {
+         processMappedFile(file);
+      }
+      else
+      {
+         processBuffer(file);
+      }
+
+      closeLogFile();
+   }
+
+   /**
+    * Read the entire file into a buffer on the heap, then process it.
+    *
+    * @param file FastTrack file
+    */
+   private void processBuffer(File file) throws Exception
+   {
       int length = (int) file.length();
       m_buffer = new byte[length];
       FileInputStream is = new FileInputStream(file);
@@ -70,19 +93,14 @@ class FastTrackData
          is.close();
       }
 
-      configureVersion();
+      configureVersion(FastTrackUtility.getInt(m_buffer, 4));
 
       if (getSupported())
       {
          List<Integer> blocks = new ArrayList<>();
-         for (int index = 64; index < m_buffer.length - 11; index++)
-         {
-            if (matchPattern(PARENT_BLOCK_PATTERNS, index))
-            {
-               blocks.add(Integer.valueOf(index));
-            }
-         }
+         PARENT_BLOCK_MATCHER.findAll(m_buffer, 64, m_buffer.length - 11, (index, patternIndex) -> blocks.add(Integer.valueOf(index)));
 
+         int blockIndex = 0;
          int startIndex = 0;
          for (int endIndex : blocks)
          {
@@ -95,16 +113,59 @@ class FastTrackData
          int blockLength = m_buffer.length - startIndex;
          readBlock(blockIndex, startIndex, blockLength);
       }
+   }
 
-      closeLogFile();
+   /**
+    * Memory map the file and locate the block boundaries without
+    * copying the file onto the heap. Each block is copied into
+    * a buffer only while it is being read.
+    *
+    * @param file FastTrack file
+    */
+   private void processMappedFile(File file) throws Exception
+   {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+         mapped.order(ByteOrder.LITTLE_ENDIAN);
+         int length = mapped.capacity();
+
+         configureVersion(mapped.getInt(4));
+
+         if (getSupported())
+         {
+            List<Integer> blocks = new ArrayList<>();
+            PARENT_BLOCK_MATCHER.findAll(mapped, 64, length - 11, (index, patternIndex) -> blocks.add(Integer.valueOf(index)));
+            blocks.add(Integer.valueOf(length));
+
+            int blockIndex = 0;
+            int startIndex = 0;
+            for (int endIndex : blocks)
+            {
+               int blockLength = endIndex - startIndex;
+               m_buffer = new byte[blockLength];
+               mapped.position(startIndex);
+               mapped.get(m_buffer);
+               readBlock(blockIndex, 0, blockLength);
+               startIndex = endIndex;
+               ++blockIndex;
+            }
+         }
+      }
+      finally
+      {
+         m_buffer = null;
+      }
    }
 
    /**
     * Extract the version number and set version dependent options.
+    *
+    * @param version version number read from the file
     */
-   private void configureVersion()
+   private void configureVersion(int version)
    {
-      m_version = FastTrackUtility.getInt(m_buffer, 4);
+      m_version = version;
       switch (m_version)
       {
          //         case 138:
@@ -136,6 +197,17 @@ class FastTrackData
       }
    }
 
+   /**
+    * Set a flag to determine if the file is memory mapped rather than
+    * being read into a buffer on the heap.
+    *
+    * @param useMemoryMapping true if the file should be memory mapped
+    */
+   public void setUseMemoryMapping(boolean useMemoryMapping)
+   {
+      m_useMemoryMapping = useMemoryMapping;
+   }
+
    /**
     * Returns true if this file version is supported.
     *
@@ -217,27 +289,24 @@ class FastTrackData
     */
    private void readTableBlock(int startIndex, int blockLength)
    {
-      for (int index = startIndex; index < (startIndex + blockLength - 11); index++)
+      int index = TABLE_BLOCK_MATCHER.findFirst(m_buffer, startIndex, startIndex + blockLength - 11);
+      if (index != -1)
       {
-         if (matchPattern(TABLE_BLOCK_PATTERNS, index))
+         int offset = index + 7;
+         int nameLength = FastTrackUtility.getInt(m_buffer, offset);
+         offset += 4;
+         String name = FastTrackUtility.getString(m_buffer, offset, nameLength).toUpperCase();
+         FastTrackTableType type = REQUIRED_TABLES.get(name);
+         if (type != null)
          {
-            int offset = index + 7;
-            int nameLength = FastTrackUtility.getInt(m_buffer, offset);
-            offset += 4;
-            String name = FastTrackUtility.getString(m_buffer, offset, nameLength).toUpperCase();
-            FastTrackTableType type = REQUIRED_TABLES.get(name);
-            if (type != null)
-            {
-               m_currentTable = new FastTrackTable(type, this);
-               m_tables.put(type, m_currentTable);
-            }
-            else
-            {
-               m_currentTable = null;
-            }
-            m_currentFields.clear();
-            break;
+            m_currentTable = new FastTrackTable(type, this);
+            m_tables.put(type, m_currentTable);
+         }
+         else
+         {
+            m_currentTable = null;
          }
+         m_currentFields.clear();
       }
    }
 
@@ -251,14 +320,14 @@ class FastTrackData
    {
       int endIndex = startIndex + blockLength;
       List<Integer> blocks = new ArrayList<>();
-      for (int index = startIndex; index < endIndex - 11; index++)
-      {
+      CHILD_BLOCK_MATCHER.findAll(m_buffer, startIndex, endIndex - 11, (index, patternIndex) -> {
          if (matchChildBlock(index))
          {
             int childBlockStart = index - 2;
             blocks.add(Integer.valueOf(childBlockStart));
          }
-      }
+         return true;
+      });
       blocks.add(Integer.valueOf(endIndex));
 
       int childBlockStart = -1;
@@ -323,68 +392,23 @@ class FastTrackData
    }
 
    /**
-    * Locate a feature in the file by match a byte pattern.
-    *
-    * @param patterns patterns to match
-    * @param bufferIndex start index
-    * @return true if the bytes at the position match a pattern
-    */
-   private final boolean matchPattern(byte[][] patterns, int bufferIndex)
-   {
-      boolean match = false;
-      for (byte[] pattern : patterns)
-      {
-         int index = 0;
-         match = true;
-         for (byte b : pattern)
-         {
-            if (b != m_buffer[bufferIndex + index])
-            {
-               match = false;
-               break;
-            }
-            ++index;
-         }
-         if (match)
-         {
-            break;
-         }
-      }
-      return match;
-   }
-
-   /**
-    * Locate a child block by byte pattern and validate by
-    * checking the length of the string we are expecting
-    * to follow the pattern.
+    * Validate a child block pattern match by checking the length
+    * of the string we are expecting to follow the pattern.
     *
-    * @param bufferIndex start index
+    * @param bufferIndex start index of the pattern match
     * @return true if a child block starts at this point
     */
    private final boolean matchChildBlock(int bufferIndex)
    {
-      if (!matchPattern(CHILD_BLOCK_PATTERNS, bufferIndex))
-      {
-         return false;
-      }
       // TODO: use pattern length
       int index = 6;
 
       //
-      // The first step will produce false positives. To handle this, we should find
+      // Matching the pattern will produce false positives. To handle this, we should find
       // the name of the block next, and check to ensure that the length
       // of the name makes sense.
       //
       int nameLength = FastTrackUtility.getInt(m_buffer, bufferIndex + index);
-
-      //      System.out.println("Name length: " + nameLength);
-      //
-      //      if (nameLength > 0 && nameLength < 100)
-      //      {
-      //         String name = new String(m_buffer, bufferIndex+index+4, nameLength, CharsetHelper.UTF16LE);
-      //         System.out.println("Name: " + name);
-      //      }
-
       return nameLength > 0 && nameLength < 100;
    }
 
@@ -444,12 +468,23 @@ class FastTrackData
       return column instanceof DurationColumn && column.getName().indexOf("Work") != -1;
    }
 
+   /**
+    * Write debug output to the supplied writer, rather than to the file
+    * named by the MPXJ_DEBUG_LOG environment variable.
+    *
+    * @param log debug output
+    */
+   void setLog(PrintWriter log)
+   {
+      m_logWriter = log;
+   }
+
    /**
     * Open the log file for writing.
     */
    private void openLogFile()
    {
-      m_log = DebugLogPrintWriter.getInstance();
+      m_log = m_logWriter == null ? DebugLogPrintWriter.getInstance() : m_logWriter;
    }
 
    /**
@@ -546,6 +581,7 @@ class FastTrackData
 
    private byte[] m_buffer;
    private PrintWriter m_log;
+   private PrintWriter m_logWriter;
    private final Map<FastTrackTableType, FastTrackTable> m_tables = new EnumMap<>(FastTrackTableType.class);
    private FastTrackTable m_currentTable;
    private FastTrackColumn m_currentColumn;
@@ -555,6 +591,7 @@ class FastTrackData
    private int m_version;
    private boolean m_supported;
    private Charset m_charset;
+   private boolean m_useMemoryMapping;
 
    private static final ThreadLocal<FastTrackData> INSTANCE = new ThreadLocal<FastTrackData>()
    {
@@ -662,6 +699,10 @@ class FastTrackData
       }
    };
 
+   private static final BytePatternMatcher PARENT_BLOCK_MATCHER = new BytePatternMatcher(PARENT_BLOCK_PATTERNS);
+   private static final BytePatternMatcher CHILD_BLOCK_MATCHER = new BytePatternMatcher(CHILD_BLOCK_PATTERNS);
+   private static final BytePatternMatcher TABLE_BLOCK_MATCHER = new BytePatternMatcher(TABLE_BLOCK_PATTERNS);
+
    private static final Class<?>[] COLUMN_MAP = new Class<?>[256];
    static
    {
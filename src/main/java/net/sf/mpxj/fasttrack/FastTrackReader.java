@@ -78,6 +78,18 @@ public final class FastTrackReader implements ProjectReader
       m_projectListeners.add(listener);
    }
 
+   /**
+    * By default the whole FastTrack file is read into memory before it is
+    * processed. Setting this flag to true memory maps the file instead,
+    * which avoids the heap overhead of holding a copy of a large file.
+    *
+    * @param useMemoryMapping true if the file should be memory mapped
+    */
+   public void setUseMemoryMapping(boolean useMemoryMapping)
+   {
+      m_useMemoryMapping = useMemoryMapping;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -116,6 +128,7 @@ public final class FastTrackReader implements ProjectReader
       try
       {
          m_data = FastTrackData.getInstance();
+         m_data.setUseMemoryMapping(m_useMemoryMapping);
          // Uncomment this to write debug data to a log file
          //m_data.setLogFile("c:/temp/project1.txt");
          m_data.process(file);
@@ -664,6 +677,7 @@ public final class FastTrackReader implements ProjectReader
    private ProjectFile m_project;
    private EventManager m_eventManager;
    private List<ProjectListener> m_projectListeners;
+   private boolean m_useMemoryMapping;
 
    private static final Pattern WBS_SPLIT_REGEX = Pattern.compile("(\\.|\\-|\\+|\\/|\\,|\\:|\\;|\\~|\\\\|\\| )");
    private static final Pattern RELATION_REGEX = Pattern.compile("(\\d+)(:\\d+)?(FS|SF|SS|FF)*(\\-|\\+)*(\\d+\\.\\d+)*");
@@ -28,6 +28,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import net.sf.mpxj.AccrueType;
 import net.sf.mpxj.AssignmentField;
@@ -37,6 +38,7 @@ import net.sf.mpxj.DateRange;
 import net.sf.mpxj.Day;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldType;
 import net.sf.mpxj.Priority;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectCalendarException;
@@ -58,12 +60,12 @@ import net.sf.mpxj.TaskType;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.WorkContour;
 import net.sf.mpxj.WorkGroup;
+import net.sf.mpxj.common.FieldProjection;
 import net.sf.mpxj.common.MPPAssignmentField;
 import net.sf.mpxj.common.MPPResourceField;
 import net.sf.mpxj.common.MPPTaskField;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.Pair;
-import net.sf.mpxj.common.RtfHelper;
 
 /**
  * This class implements retrieval of data from a project database
@@ -115,8 +117,8 @@ abstract class MPD9AbstractReader
       properties.setDefaultWorkUnits(MPDUtility.getDurationTimeUnits(row.getInt("PROJ_OPT_WORK_ENTRY_FMT")));
       properties.setMinutesPerDay(row.getInteger("PROJ_OPT_MINUTES_PER_DAY"));
       properties.setMinutesPerWeek(row.getInteger("PROJ_OPT_MINUTES_PER_WEEK"));
-      properties.setDefaultStandardRate(new Rate(row.getDouble("PROJ_OPT_DEF_STD_RATE"), TimeUnit.HOURS));
-      properties.setDefaultOvertimeRate(new Rate(row.getDouble("PROJ_OPT_DEF_OVT_RATE"), TimeUnit.HOURS));
+      properties.setDefaultStandardRate(Rate.getInstance(row.getDouble("PROJ_OPT_DEF_STD_RATE"), TimeUnit.HOURS));
+      properties.setDefaultOvertimeRate(Rate.getInstance(row.getDouble("PROJ_OPT_DEF_OVT_RATE"), TimeUnit.HOURS));
       properties.setUpdatingTaskStatusUpdatesResourceStatus(row.getBoolean("PROJ_OPT_TASK_UPDATES_RES"));
       properties.setSplitInProgressTasks(row.getBoolean("PROJ_OPT_SPLIT_IN_PROGRESS"));
       //properties.setDateOrder();
@@ -523,7 +525,7 @@ abstract class MPD9AbstractReader
          //resource.setOutlineCode10();
          resource.setOverAllocated(row.getBoolean("RES_IS_OVERALLOCATED"));
          resource.setOvertimeCost(row.getCurrency("RES_OVT_COST"));
-         resource.setOvertimeRate(new Rate(row.getDouble("RES_OVT_RATE"), TimeUnit.HOURS));
+         resource.setOvertimeRate(Rate.getInstance(row.getDouble("RES_OVT_RATE"), TimeUnit.HOURS));
          resource.setOvertimeRateUnits(TimeUnit.getInstance(row.getInt("RES_OVT_RATE_FMT") - 1));
          resource.setOvertimeWork(row.getDuration("RES_OVT_WORK"));
          resource.setPeakUnits(Double.valueOf(NumberHelper.getDouble(row.getDouble("RES_PEAK")) * 100));
@@ -535,7 +537,7 @@ abstract class MPD9AbstractReader
          resource.setRemainingOvertimeWork(row.getDuration("RES_REM_OVT_WORK"));
          resource.setRemainingWork(row.getDuration("RES_REM_WORK"));
          //resource.setResourceCalendar();RES_CAL_UID = null ( ) // CHECK THIS
-         resource.setStandardRate(new Rate(row.getDouble("RES_STD_RATE"), TimeUnit.HOURS));
+         resource.setStandardRate(Rate.getInstance(row.getDouble("RES_STD_RATE"), TimeUnit.HOURS));
          resource.setStandardRateUnits(TimeUnit.getInstance(row.getInt("RES_STD_RATE_FMT") - 1));
          //resource.setStart();
          //resource.setStart1();
@@ -586,11 +588,14 @@ abstract class MPD9AbstractReader
          String notes = row.getString("RES_RTF_NOTES");
          if (notes != null)
          {
-            if (m_preserveNoteFormatting == false)
+            if (m_preserveNoteFormatting)
             {
-               notes = RtfHelper.strip(notes);
+               resource.setNotes(notes);
+            }
+            else
+            {
+               resource.setRtfNotes(notes);
             }
-            resource.setNotes(notes);
          }
 
          resource.setResourceCalendar(m_project.getCalendarByUniqueID(row.getInteger("RES_CAL_UID")));
@@ -635,9 +640,9 @@ abstract class MPD9AbstractReader
    {
       Integer id = row.getInteger("RES_UID");
       Resource resource = m_project.getResourceByUniqueID(id);
-      if (resource != null)
+      int index = row.getInt("RB_BASE_NUM");
+      if (resource != null && m_projection.containsResourceBaseline(index))
       {
-         int index = row.getInt("RB_BASE_NUM");
 
          resource.setBaselineWork(index, row.getDuration("RB_BASE_WORK"));
          resource.setBaselineCost(index, row.getCurrency("RB_BASE_COST"));
@@ -738,7 +743,7 @@ abstract class MPD9AbstractReader
          case MPPTaskField.TASK_FIELD_BASE:
          {
             TaskField field = MPPTaskField.getInstance(index);
-            if (field != null && field != TaskField.NOTES)
+            if (field != null && field != TaskField.NOTES && m_projection.contains(field))
             {
                Task task = m_project.getTaskByUniqueID(entityID);
                if (task != null)
@@ -756,7 +761,7 @@ abstract class MPD9AbstractReader
          case MPPResourceField.RESOURCE_FIELD_BASE:
          {
             ResourceField field = MPPResourceField.getInstance(index);
-            if (field != null && field != ResourceField.NOTES)
+            if (field != null && field != ResourceField.NOTES && m_projection.contains(field))
             {
                Resource resource = m_project.getResourceByUniqueID(entityID);
                if (resource != null)
@@ -774,7 +779,7 @@ abstract class MPD9AbstractReader
          case MPPAssignmentField.ASSIGNMENT_FIELD_BASE:
          {
             AssignmentField field = MPPAssignmentField.getInstance(index);
-            if (field != null && field != AssignmentField.NOTES)
+            if (field != null && field != AssignmentField.NOTES && m_projection.contains(field))
             {
                ResourceAssignment assignment = m_assignmentMap.get(entityID);
                if (assignment != null)
@@ -1043,11 +1048,14 @@ abstract class MPD9AbstractReader
          String notes = row.getString("TASK_RTF_NOTES");
          if (notes != null)
          {
-            if (m_preserveNoteFormatting == false)
+            if (m_preserveNoteFormatting)
+            {
+               task.setNotes(notes);
+            }
+            else
             {
-               notes = RtfHelper.strip(notes);
+               task.setRtfNotes(notes);
             }
-            task.setNotes(notes);
          }
 
          //
@@ -1101,9 +1109,9 @@ abstract class MPD9AbstractReader
    {
       Integer id = row.getInteger("TASK_UID");
       Task task = m_project.getTaskByUniqueID(id);
-      if (task != null)
+      int index = row.getInt("TB_BASE_NUM");
+      if (task != null && m_projection.containsTaskBaseline(index))
       {
-         int index = row.getInt("TB_BASE_NUM");
 
          task.setBaselineDuration(index, MPDUtility.getAdjustedDuration(m_project, row.getInt("TB_BASE_DUR"), MPDUtility.getDurationTimeUnits(row.getInt("TB_BASE_DUR_FMT"))));
          task.setBaselineStart(index, row.getDate("TB_BASE_START"));
@@ -1198,11 +1206,14 @@ abstract class MPD9AbstractReader
          String notes = row.getString("ASSN_RTF_NOTES");
          if (notes != null)
          {
-            if (m_preserveNoteFormatting == false)
+            if (m_preserveNoteFormatting)
+            {
+               assignment.setNotes(notes);
+            }
+            else
             {
-               notes = RtfHelper.strip(notes);
+               assignment.setRtfNotes(notes);
             }
-            assignment.setNotes(notes);
          }
 
          m_eventManager.fireAssignmentReadEvent(assignment);
@@ -1218,9 +1229,9 @@ abstract class MPD9AbstractReader
    {
       Integer id = row.getInteger("ASSN_UID");
       ResourceAssignment assignment = m_assignmentMap.get(id);
-      if (assignment != null)
+      int index = row.getInt("AB_BASE_NUM");
+      if (assignment != null && m_projection.containsAssignmentBaseline(index))
       {
-         int index = row.getInt("AB_BASE_NUM");
 
          assignment.setBaselineStart(index, row.getDate("AB_BASE_START"));
          assignment.setBaselineFinish(index, row.getDate("AB_BASE_FINISH"));
@@ -1331,11 +1342,23 @@ abstract class MPD9AbstractReader
       m_preserveNoteFormatting = preserveNoteFormatting;
    }
 
+   /**
+    * Restrict the task, resource and resource assignment fields populated
+    * by the reader.
+    *
+    * @param fields fields to populate, or null to populate all fields
+    */
+   public void setFieldProjection(Set<? extends FieldType> fields)
+   {
+      m_projection = new FieldProjection(fields);
+   }
+
    protected Integer m_projectID;
    protected ProjectFile m_project;
    protected EventManager m_eventManager;
 
    private boolean m_preserveNoteFormatting;
+   private FieldProjection m_projection = FieldProjection.ALL;
    private boolean m_autoWBS = true;
 
    private Map<Integer, ProjectCalendar> m_calendarMap = new HashMap<>();
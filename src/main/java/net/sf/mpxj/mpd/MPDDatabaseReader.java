@@ -31,9 +31,11 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
+import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.listener.ProjectListener;
@@ -81,6 +83,7 @@ public final class MPDDatabaseReader implements ProjectReader
       MPD9DatabaseReader reader = new MPD9DatabaseReader();
       reader.setProjectID(m_projectID);
       reader.setPreserveNoteFormatting(m_preserveNoteFormatting);
+      reader.setFieldProjection(m_fieldProjection);
       reader.setDataSource(m_dataSource);
       reader.setConnection(m_connection);
       ProjectFile project = reader.read();
@@ -109,6 +112,32 @@ public final class MPDDatabaseReader implements ProjectReader
       m_preserveNoteFormatting = preserveNoteFormatting;
    }
 
+   /**
+    * Restrict the task, resource and resource assignment fields populated
+    * by the reader. Fields which have not been requested are not decoded.
+    * The fields the reader needs to build the structure of the project,
+    * for example unique IDs, parent tasks, and start and finish dates,
+    * are always populated. Calculated fields are only available if the
+    * fields they are calculated from have been requested. Field projection
+    * is supported by MPPReader, MSPDIReader and MPDDatabaseReader.
+    *
+    * @param fields fields to populate, or null to populate all fields
+    */
+   public void setFieldProjection(Set<? extends FieldType> fields)
+   {
+      m_fieldProjection = fields;
+   }
+
+   /**
+    * Retrieve the fields to populate.
+    *
+    * @return fields to populate, or null if all fields are populated
+    */
+   public Set<? extends FieldType> getFieldProjection()
+   {
+      return m_fieldProjection;
+   }
+
    /**
     * Set the data source. A DataSource or a Connection can be supplied
     * to this class to allow connection to the database.
@@ -197,5 +226,6 @@ public final class MPDDatabaseReader implements ProjectReader
    private DataSource m_dataSource;
    private Connection m_connection;
    private boolean m_preserveNoteFormatting;
+   private Set<? extends FieldType> m_fieldProjection;
    private List<ProjectListener> m_projectListeners;
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+/*
+ * file:       BlockData.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       09/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpp;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Holds the raw blocks read from one of the task, resource or assignment
+ * directories in an MPP file. The blocks can either be read on demand,
+ * or decoded in the background while the reader processes the rest of
+ * the file.
+ */
+final class BlockData
+{
+   /**
+    * Constructor.
+    *
+    * @param varMeta var meta block
+    * @param varData var data block
+    * @param fixedMeta fixed meta block
+    * @param fixedData fixed data block
+    * @param fixed2Meta fixed2 meta block, may be null
+    * @param fixed2Data fixed2 data block, may be null
+    */
+   public BlockData(VarMeta varMeta, Var2Data varData, FixedMeta fixedMeta, FixedData fixedData, FixedMeta fixed2Meta, FixedData fixed2Data)
+   {
+      m_varMeta = varMeta;
+      m_varData = varData;
+      m_fixedMeta = fixedMeta;
+      m_fixedData = fixedData;
+      m_fixed2Meta = fixed2Meta;
+      m_fixed2Data = fixed2Data;
+   }
+
+   /**
+    * Retrieve the var meta block.
+    *
+    * @return var meta block
+    */
+   public VarMeta getVarMeta()
+   {
+      return m_varMeta;
+   }
+
+   /**
+    * Retrieve the var data block.
+    *
+    * @return var data block
+    */
+   public Var2Data getVarData()
+   {
+      return m_varData;
+   }
+
+   /**
+    * Retrieve the fixed meta block.
+    *
+    * @return fixed meta block
+    */
+   public FixedMeta getFixedMeta()
+   {
+      return m_fixedMeta;
+   }
+
+   /**
+    * Retrieve the fixed data block.
+    *
+    * @return fixed data block
+    */
+   public FixedData getFixedData()
+   {
+      return m_fixedData;
+   }
+
+   /**
+    * Retrieve the fixed2 meta block.
+    *
+    * @return fixed2 meta block
+    */
+   public FixedMeta getFixed2Meta()
+   {
+      return m_fixed2Meta;
+   }
+
+   /**
+    * Retrieve the fixed2 data block.
+    *
+    * @return fixed2 data block
+    */
+   public FixedData getFixed2Data()
+   {
+      return m_fixed2Data;
+   }
+
+   /**
+    * Start reading a set of blocks in the background.
+    *
+    * @param reader block reader
+    * @return future result
+    */
+   public static Future<BlockData> submit(BlockReader reader)
+   {
+      return ForkJoinPool.commonPool().submit(() -> reader.read());
+   }
+
+   /**
+    * Retrieve a set of blocks. If the blocks have been read in the
+    * background, wait for the result, otherwise read them now. Any
+    * error encountered while reading the blocks in the background is
+    * reported here, as it would have been had the blocks been read now.
+    *
+    * @param future future result, or null if the blocks have not been submitted
+    * @param reader block reader
+    * @return block data
+    */
+   public static BlockData get(Future<BlockData> future, BlockReader reader) throws IOException
+   {
+      if (future == null)
+      {
+         return reader.read();
+      }
+
+      try
+      {
+         return future.get();
+      }
+
+      catch (InterruptedException ex)
+      {
+         Thread.currentThread().interrupt();
+         throw new IOException(ex);
+      }
+
+      catch (CancellationException ex)
+      {
+         return reader.read();
+      }
+
+      catch (ExecutionException ex)
+      {
+         Throwable cause = ex.getCause();
+         if (cause instanceof IOException)
+         {
+            throw (IOException) cause;
+         }
+
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+
+         throw new IOException(cause);
+      }
+   }
+
+   /**
+    * Cancel a background read, if one is in progress.
+    *
+    * @param future future result, may be null
+    */
+   public static void cancel(Future<BlockData> future)
+   {
+      if (future != null)
+      {
+         future.cancel(false);
+      }
+   }
+
+   /**
+    * Implemented by the code which reads a set of blocks.
+    */
+   @FunctionalInterface interface BlockReader
+   {
+      /**
+       * Read the blocks.
+       *
+       * @return block data
+       */
+      public BlockData read() throws IOException;
+   }
+
+   private final VarMeta m_varMeta;
+   private final Var2Data m_varData;
+   private final FixedMeta m_fixedMeta;
+   private final FixedData m_fixedData;
+   private final FixedMeta m_fixed2Meta;
+   private final FixedData m_fixed2Data;
+}
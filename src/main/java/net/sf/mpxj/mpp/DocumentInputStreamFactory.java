@@ -25,6 +25,8 @@ package net.sf.mpxj.mpp;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
@@ -62,7 +64,7 @@ class DocumentInputStreamFactory
       InputStream stream;
       if (m_encrypted)
       {
-         stream = new EncryptedDocumentInputStream(entry, m_encryptionCode);
+         stream = new EncryptedDocumentInputStream(getDecryptedData(entry));
       }
       else
       {
@@ -72,6 +74,25 @@ class DocumentInputStreamFactory
       return stream;
    }
 
+   /**
+    * Retrieve the decrypted content of a document. Documents are only
+    * decrypted once, as some are read more than once.
+    *
+    * @param entry file entry
+    * @return decrypted document data
+    * @throws IOException
+    */
+   private synchronized byte[] getDecryptedData(DocumentEntry entry) throws IOException
+   {
+      byte[] data = m_decryptedData.get(entry);
+      if (data == null)
+      {
+         data = EncryptedDocumentInputStream.decrypt(entry, m_encryptionCode);
+         m_decryptedData.put(entry, data);
+      }
+      return data;
+   }
+
    /**
     * Retrieve the encryption code.
     *
@@ -84,4 +105,5 @@ class DocumentInputStreamFactory
 
    private boolean m_encrypted;
    private byte m_encryptionCode;
+   private final Map<DocumentEntry, byte[]> m_decryptedData = new HashMap<>();
 }
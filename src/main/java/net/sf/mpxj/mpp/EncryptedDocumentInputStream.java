@@ -23,104 +23,81 @@
 
 package net.sf.mpxj.mpp;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.poi.poifs.filesystem.DocumentEntry;
 import org.apache.poi.poifs.filesystem.DocumentInputStream;
 
 /**
- * This class wraps the POI {@link DocumentInputStream} class
- * to allow data to be decrypted before passing
- * it back to the caller.
+ * This class provides access to the decrypted content of
+ * a document which has been "encrypted" with a simple
+ * XOR mask. The whole document is decrypted in one pass
+ * when it is first read, and subsequent reads are served
+ * from the decrypted data.
  */
-final class EncryptedDocumentInputStream extends InputStream
+final class EncryptedDocumentInputStream extends ByteArrayInputStream
 {
    /**
     * Constructor.
     *
-    * @param entry file entry
-    * @param mask the mask used to decrypt the stream.
-    * @throws IOException
-    */
-   public EncryptedDocumentInputStream(DocumentEntry entry, int mask)
-      throws IOException
-   {
-      m_dis = new DocumentInputStream(entry);
-      m_mask = mask;
-   }
-
-   /**
-    * {@inheritDoc}
+    * @param data decrypted document data
     */
-   @Override public int read() throws IOException
+   public EncryptedDocumentInputStream(byte[] data)
    {
-      int value = m_dis.read();
-      value ^= m_mask;
-      return (value);
+      super(data);
    }
 
    /**
-    * {@inheritDoc}
+    * Read and decrypt the content of a document.
+    *
+    * @param entry file entry
+    * @param mask the mask used to decrypt the stream
+    * @return decrypted document data
+    * @throws IOException
     */
-   @Override public int read(byte[] b, int off, int len) throws IOException
+   public static byte[] decrypt(DocumentEntry entry, int mask) throws IOException
    {
-      int result = m_dis.read(b, off, len);
-      for (int loop = 0; loop < len; loop++)
+      byte[] data = new byte[entry.getSize()];
+      DocumentInputStream dis = new DocumentInputStream(entry);
+      try
       {
-         b[loop + off] ^= m_mask;
+         dis.readFully(data);
       }
-      return result;
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public int available()
-   {
-      return m_dis.available();
-   }
 
-   /**
-    * {@inheritDoc}
-    */
-   @Override public void close()
-   {
-      m_dis.close();
-   }
+      finally
+      {
+         dis.close();
+      }
 
-   /**
-    * {@inheritDoc}
-    */
-   @Override public synchronized void mark(int readlimit)
-   {
-      m_dis.mark(readlimit);
+      decrypt(data, (byte) mask);
+      return data;
    }
 
    /**
-    * {@inheritDoc}
+    * Apply the mask to every byte in the supplied array. The bulk
+    * of the data is processed eight bytes at a time.
+    *
+    * @param data data to decrypt
+    * @param mask the mask used to decrypt the data
     */
-   @Override public boolean markSupported()
+   private static void decrypt(byte[] data, byte mask)
    {
-      return m_dis.markSupported();
-   }
+      long longMask = (mask & 0xFFL) * 0x0101010101010101L;
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      int longLimit = data.length - (data.length % 8);
+      int index = 0;
 
-   /**
-    * {@inheritDoc}
-    */
-   @Override public synchronized void reset()
-   {
-      m_dis.reset();
-   }
+      while (index < longLimit)
+      {
+         buffer.putLong(index, buffer.getLong(index) ^ longMask);
+         index += 8;
+      }
 
-   /**
-    * {@inheritDoc}
-    */
-   @Override public long skip(long n) throws IOException
-   {
-      return m_dis.skip(n);
+      while (index < data.length)
+      {
+         data[index++] ^= mask;
+      }
    }
-
-   private final DocumentInputStream m_dis;
-   private final int m_mask;
 }
@@ -49,6 +49,7 @@ import net.sf.mpxj.TaskType;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.WorkGroup;
 import net.sf.mpxj.common.ByteArrayHelper;
+import net.sf.mpxj.common.FieldProjection;
 import net.sf.mpxj.common.NumberHelper;
 
 /**
@@ -81,6 +82,28 @@ abstract class FieldMap
       m_debug = value;
    }
 
+   /**
+    * Set the fields which will be written to a container
+    * by the populateContainer method.
+    *
+    * @param projection fields to populate
+    */
+   public void setFieldProjection(FieldProjection projection)
+   {
+      m_projection = projection;
+   }
+
+   /**
+    * Retrieve the fields which will be written to a container
+    * by the populateContainer method.
+    *
+    * @return fields to populate
+    */
+   public FieldProjection getFieldProjection()
+   {
+      return m_projection;
+   }
+
    /**
     * Generic method used to create a field map from a block of data.
     *
@@ -433,7 +456,7 @@ abstract class FieldMap
       //System.out.println(container.getClass().getSimpleName()+": " + id);
       for (FieldItem item : m_map.values())
       {
-         if (item.getType().getClass().equals(type))
+         if (item.getType().getClass().equals(type) && m_projection.contains(item.getType()))
          {
             //System.out.println(item.m_type);
             Object value = item.read(id, fixedData, varData);
@@ -876,7 +899,7 @@ abstract class FieldMap
 
                   case RATE:
                   {
-                     result = new Rate(MPPUtility.getDouble(data, m_fixedDataOffset), TimeUnit.HOURS);
+                     result = Rate.getInstance(MPPUtility.getDouble(data, m_fixedDataOffset), TimeUnit.HOURS);
                      break;
                   }
 
@@ -1314,6 +1337,7 @@ abstract class FieldMap
    private Map<FieldType, FieldItem> m_map = new HashMap<>();
    private int[] m_maxFixedDataSize = new int[MAX_FIXED_DATA_BLOCKS];
    private boolean m_debug;
+   private FieldProjection m_projection = FieldProjection.ALL;
 
    private static final Integer[] TASK_KEYS =
    {
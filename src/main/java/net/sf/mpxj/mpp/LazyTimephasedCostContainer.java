@@ -0,0 +1,83 @@
+/*
+ * file:       LazyTimephasedCostContainer.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       10/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpp;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.sf.mpxj.TimephasedCost;
+import net.sf.mpxj.TimephasedCostContainer;
+
+/**
+ * Timephased cost container which holds a reference to the raw data
+ * read from an MPP file, and only decodes it the first time it is used.
+ */
+final class LazyTimephasedCostContainer implements TimephasedCostContainer
+{
+   /**
+    * Constructor.
+    *
+    * @param decoder decodes the raw data, returning null if there is no timephased data
+    */
+   public LazyTimephasedCostContainer(Supplier<TimephasedCostContainer> decoder)
+   {
+      m_decoder = decoder;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public List<TimephasedCost> getData()
+   {
+      TimephasedCostContainer container = getContainer();
+      return container == null ? null : container.getData();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public boolean hasData()
+   {
+      TimephasedCostContainer container = getContainer();
+      return container != null && container.hasData();
+   }
+
+   /**
+    * Decode the raw data if this has not already been done.
+    *
+    * @return decoded container, or null if there is no timephased data
+    */
+   private TimephasedCostContainer getContainer()
+   {
+      if (m_decoder != null)
+      {
+         m_container = m_decoder.get();
+         m_decoder = null;
+      }
+      return m_container;
+   }
+
+   private Supplier<TimephasedCostContainer> m_decoder;
+   private TimephasedCostContainer m_container;
+}
@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Future;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
@@ -52,8 +53,11 @@ import net.sf.mpxj.Task;
 import net.sf.mpxj.TaskField;
 import net.sf.mpxj.View;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.FieldProjection;
 import net.sf.mpxj.common.NumberHelper;
-import net.sf.mpxj.common.RtfHelper;
+import net.sf.mpxj.common.ResourceFieldLists;
+import net.sf.mpxj.common.StringPool;
+import net.sf.mpxj.common.TaskFieldLists;
 
 /**
  * This class is used to represent a Microsoft Project MPP12 file. This
@@ -80,6 +84,11 @@ final class MPP12Reader implements MPPVariantReader
 
          if (!reader.getReadPropertiesOnly())
          {
+            if (reader.getDecodeInParallel())
+            {
+               submitBlocks();
+            }
+
             processSubProjectData();
             processGraphicalIndicators();
             processCustomValueLists();
@@ -119,6 +128,8 @@ final class MPP12Reader implements MPPVariantReader
    private void populateMemberData(MPPReader reader, ProjectFile file, DirectoryEntry root) throws MPXJException, IOException
    {
       m_reader = reader;
+      m_projection = new FieldProjection(reader.getFieldProjection());
+      m_stringPool = new StringPool();
       m_file = file;
       m_eventManager = file.getEventManager();
       m_root = root;
@@ -156,6 +167,7 @@ final class MPP12Reader implements MPPVariantReader
       DirectoryEntry outlineCodeDir = (DirectoryEntry) m_projectDir.getEntry("TBkndOutlCode");
       m_outlineCodeVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("VarMeta"))));
       m_outlineCodeVarData = new Var2Data(m_outlineCodeVarMeta, new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("Var2Data"))));
+      m_outlineCodeVarData.setStringPool(m_stringPool);
       m_outlineCodeFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("FixedMeta"))), 10);
       m_outlineCodeFixedData = new FixedData(m_outlineCodeFixedMeta, new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("FixedData"))));
       m_outlineCodeFixedMeta2 = new FixedMeta(new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("Fixed2Meta"))), 10);
@@ -178,8 +190,13 @@ final class MPP12Reader implements MPPVariantReader
     */
    private void clearMemberData()
    {
+      BlockData.cancel(m_taskBlocks);
+      BlockData.cancel(m_resourceBlocks);
+      BlockData.cancel(m_assignmentBlocks);
       m_reader = null;
+      m_projection = null;
       m_file = null;
+      m_stringPool = null;
       m_eventManager = null;
       m_root = null;
       m_resourceMap = null;
@@ -193,6 +210,9 @@ final class MPP12Reader implements MPPVariantReader
       m_taskOrder = null;
       m_nullTaskOrder = null;
       m_inputStreamFactory = null;
+      m_taskBlocks = null;
+      m_resourceBlocks = null;
+      m_assignmentBlocks = null;
    }
 
    /**
@@ -943,17 +963,21 @@ final class MPP12Reader implements MPPVariantReader
    {
       FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
       fieldMap.createTaskFieldMap(m_projectProps);
+      fieldMap.setFieldProjection(m_projection);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, TaskField.class);
+      enterpriseCustomFieldMap.setFieldProjection(m_projection);
 
       DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
-      VarMeta taskVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("VarMeta"))));
-      Var2Data taskVarData = new Var2Data(taskVarMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Var2Data"))));
-      FixedMeta taskFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedMeta"))), 47);
-      FixedData taskFixedData = new FixedData(taskFixedMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedData"))), 768, fieldMap.getMaxFixedDataSize(0));
-      FixedMeta taskFixed2Meta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Fixed2Meta"))), 86);
-      FixedData taskFixed2Data = new FixedData(taskFixed2Meta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Fixed2Data"))));
+      BlockData blocks = BlockData.get(m_taskBlocks, () -> readTaskBlocks(fieldMap.getMaxFixedDataSize(0)));
+      VarMeta taskVarMeta = blocks.getVarMeta();
+      Var2Data taskVarData = blocks.getVarData();
+      taskVarData.setStringPool(m_stringPool);
+      FixedMeta taskFixedMeta = blocks.getFixedMeta();
+      FixedData taskFixedData = blocks.getFixedData();
+      FixedMeta taskFixed2Meta = blocks.getFixed2Meta();
+      FixedData taskFixed2Data = blocks.getFixed2Data();
 
       Props12 props = new Props12(m_inputStreamFactory.getInstance(taskDir, "Props"));
       //System.out.println(taskFixedMeta);
@@ -981,7 +1005,6 @@ final class MPP12Reader implements MPPVariantReader
       boolean autoWBS = true;
       List<Task> externalTasks = new ArrayList<>();
       RecurringTaskReader recurringTaskReader = null;
-      String notes;
 
       for (int loop = 0; loop < uniqueIdArray.length; loop++)
       {
@@ -1103,7 +1126,10 @@ final class MPP12Reader implements MPPVariantReader
          task.setFlag(20, (metaData[40] & 0x01) != 0);
          task.setHideBar((metaData[10] & 0x80) != 0);
 
-         processHyperlinkData(task, taskVarData.getByteArray(uniqueID, fieldMap.getVarDataKey(TaskField.HYPERLINK_DATA)));
+         if (m_projection.containsAny(TaskFieldLists.HYPERLINKS))
+         {
+            processHyperlinkData(task, taskVarData.getByteArray(uniqueID, fieldMap.getVarDataKey(TaskField.HYPERLINK_DATA)));
+         }
 
          task.setID(id);
 
@@ -1113,16 +1139,19 @@ final class MPP12Reader implements MPPVariantReader
          task.setMarked((metaData[9] & 0x40) != 0);
          task.setMilestone((metaData[8] & 0x20) != 0);
 
-         task.setOutlineCode(1, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE1_INDEX)));
-         task.setOutlineCode(2, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE2_INDEX)));
-         task.setOutlineCode(3, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE3_INDEX)));
-         task.setOutlineCode(4, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE4_INDEX)));
-         task.setOutlineCode(5, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE5_INDEX)));
-         task.setOutlineCode(6, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE6_INDEX)));
-         task.setOutlineCode(7, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE7_INDEX)));
-         task.setOutlineCode(8, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE8_INDEX)));
-         task.setOutlineCode(9, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE9_INDEX)));
-         task.setOutlineCode(10, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE10_INDEX)));
+         if (m_projection.containsAny(TaskFieldLists.CUSTOM_OUTLINE_CODE))
+         {
+            task.setOutlineCode(1, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE1_INDEX)));
+            task.setOutlineCode(2, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE2_INDEX)));
+            task.setOutlineCode(3, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE3_INDEX)));
+            task.setOutlineCode(4, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE4_INDEX)));
+            task.setOutlineCode(5, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE5_INDEX)));
+            task.setOutlineCode(6, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE6_INDEX)));
+            task.setOutlineCode(7, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE7_INDEX)));
+            task.setOutlineCode(8, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE8_INDEX)));
+            task.setOutlineCode(9, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE9_INDEX)));
+            task.setOutlineCode(10, getCustomFieldOutlineCodeValue(taskVarData, m_outlineCodeVarData, uniqueID, fieldMap.getVarDataKey(TaskField.OUTLINE_CODE10_INDEX)));
+         }
 
          task.setRollup((metaData[10] & 0x08) != 0);
          task.setUniqueID(uniqueID);
@@ -1167,23 +1196,24 @@ final class MPP12Reader implements MPPVariantReader
          //
          if (recurringData != null)
          {
-            if (recurringTaskReader == null)
+            if (m_projection.contains(TaskField.RECURRING_DATA))
             {
-               recurringTaskReader = new RecurringTaskReader(m_file.getProjectProperties());
+               if (recurringTaskReader == null)
+               {
+                  recurringTaskReader = new RecurringTaskReader(m_file.getProjectProperties());
+               }
+               recurringTaskReader.processRecurringTask(task, recurringData);
             }
-            recurringTaskReader.processRecurringTask(task, recurringData);
             task.setRecurring(true);
          }
 
          //
          // Retrieve the task notes.
          //
-         notes = task.getNotes();
          if (!m_reader.getPreserveNoteFormatting())
          {
-            notes = RtfHelper.strip(notes);
+            task.setRtfNotes(task.getNotes());
          }
-         task.setNotes(notes);
 
          //
          // Set the calendar name
@@ -1690,17 +1720,21 @@ final class MPP12Reader implements MPPVariantReader
    {
       FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
       fieldMap.createResourceFieldMap(m_projectProps);
+      fieldMap.setFieldProjection(m_projection);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, ResourceField.class);
+      enterpriseCustomFieldMap.setFieldProjection(m_projection);
 
       DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
-      VarMeta rscVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("VarMeta"))));
-      Var2Data rscVarData = new Var2Data(rscVarMeta, new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Var2Data"))));
-      FixedMeta rscFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("FixedMeta"))), 37);
-      FixedData rscFixedData = new FixedData(rscFixedMeta, m_inputStreamFactory.getInstance(rscDir, "FixedData"));
-      FixedMeta rscFixed2Meta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Fixed2Meta"))), 49);
-      FixedData rscFixed2Data = new FixedData(rscFixed2Meta, m_inputStreamFactory.getInstance(rscDir, "Fixed2Data"));
+      BlockData blocks = BlockData.get(m_resourceBlocks, this::readResourceBlocks);
+      VarMeta rscVarMeta = blocks.getVarMeta();
+      Var2Data rscVarData = blocks.getVarData();
+      rscVarData.setStringPool(m_stringPool);
+      FixedMeta rscFixedMeta = blocks.getFixedMeta();
+      FixedData rscFixedData = blocks.getFixedData();
+      FixedMeta rscFixed2Meta = blocks.getFixed2Meta();
+      FixedData rscFixed2Data = blocks.getFixed2Data();
       Props12 props = new Props12(m_inputStreamFactory.getInstance(rscDir, "Props"));
       //System.out.println(rscVarMeta);
       //System.out.println(rscVarData);
@@ -1721,8 +1755,6 @@ final class MPP12Reader implements MPPVariantReader
       byte[] metaData;
       Resource resource;
 
-      String notes;
-
       for (int loop = 0; loop < uniqueid.length; loop++)
       {
          id = uniqueid[loop];
@@ -1757,20 +1789,26 @@ final class MPP12Reader implements MPPVariantReader
 
          resource.setGUID(MPPUtility.getGUID(data2, 0));
 
-         processHyperlinkData(resource, rscVarData.getByteArray(id, fieldMap.getVarDataKey(ResourceField.HYPERLINK_DATA)));
+         if (m_projection.containsAny(ResourceFieldLists.HYPERLINKS))
+         {
+            processHyperlinkData(resource, rscVarData.getByteArray(id, fieldMap.getVarDataKey(ResourceField.HYPERLINK_DATA)));
+         }
 
          resource.setID(Integer.valueOf(MPPUtility.getInt(data, 4)));
 
-         resource.setOutlineCode1(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE1_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode2(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE2_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode3(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE3_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode4(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE4_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode5(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE5_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode6(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE6_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode7(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE7_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode8(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE8_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode9(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE9_INDEX))), OUTLINECODE_DATA));
-         resource.setOutlineCode10(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE10_INDEX))), OUTLINECODE_DATA));
+         if (m_projection.containsAny(ResourceFieldLists.CUSTOM_OUTLINE_CODE))
+         {
+            resource.setOutlineCode1(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE1_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode2(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE2_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode3(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE3_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode4(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE4_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode5(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE5_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode6(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE6_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode7(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE7_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode8(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE8_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode9(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE9_INDEX))), OUTLINECODE_DATA));
+            resource.setOutlineCode10(m_outlineCodeVarData.getUnicodeString(Integer.valueOf(rscVarData.getInt(id, 2, fieldMap.getVarDataKey(ResourceField.OUTLINE_CODE10_INDEX))), OUTLINECODE_DATA));
+         }
 
          resource.setUniqueID(id);
 
@@ -1796,12 +1834,10 @@ final class MPP12Reader implements MPPVariantReader
          resource.setFlag(19, (metaData[30] & 0x80) != 0);
          resource.setFlag(20, (metaData[31] & 0x01) != 0);
 
-         notes = resource.getNotes();
          if (m_reader.getPreserveNoteFormatting() == false)
          {
-            notes = RtfHelper.strip(notes);
+            resource.setRtfNotes(resource.getNotes());
          }
-         resource.setNotes(notes);
 
          //
          // Configure the resource calendar
@@ -1861,10 +1897,80 @@ final class MPP12Reader implements MPPVariantReader
    {
       FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
       fieldMap.createAssignmentFieldMap(m_projectProps);
+      fieldMap.setFieldProjection(m_projection);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, AssignmentField.class);
+      enterpriseCustomFieldMap.setFieldProjection(m_projection);
+
+      BlockData blocks = BlockData.get(m_assignmentBlocks, this::readAssignmentBlocks);
+      VarMeta assnVarMeta = blocks.getVarMeta();
+      Var2Data assnVarData = blocks.getVarData();
+      assnVarData.setStringPool(m_stringPool);
+      FixedMeta assnFixedMeta = blocks.getFixedMeta();
+      FixedData assnFixedData = blocks.getFixedData();
+      FixedData assnFixedData2 = blocks.getFixed2Data();
+      ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
+      factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getLazyTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getAdjustedItemCount());
+   }
+
+   /**
+    * Start decoding the raw task, resource and assignment blocks in
+    * the background, while the rest of the file is processed.
+    */
+   private void submitBlocks()
+   {
+      FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.createTaskFieldMap(m_projectProps);
+      int maxFixedDataSize = fieldMap.getMaxFixedDataSize(0);
 
+      m_taskBlocks = BlockData.submit(() -> readTaskBlocks(maxFixedDataSize));
+      m_resourceBlocks = BlockData.submit(this::readResourceBlocks);
+      m_assignmentBlocks = BlockData.submit(this::readAssignmentBlocks);
+   }
+
+   /**
+    * Read the raw task blocks.
+    *
+    * @param maxFixedDataSize maximum fixed data block size
+    * @return task blocks
+    */
+   private BlockData readTaskBlocks(int maxFixedDataSize) throws IOException
+   {
+      DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
+      VarMeta taskVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("VarMeta"))));
+      Var2Data taskVarData = new Var2Data(taskVarMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Var2Data"))));
+      FixedMeta taskFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedMeta"))), 47);
+      FixedData taskFixedData = new FixedData(taskFixedMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedData"))), 768, maxFixedDataSize);
+      FixedMeta taskFixed2Meta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Fixed2Meta"))), 86);
+      FixedData taskFixed2Data = new FixedData(taskFixed2Meta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Fixed2Data"))));
+      return new BlockData(taskVarMeta, taskVarData, taskFixedMeta, taskFixedData, taskFixed2Meta, taskFixed2Data);
+   }
+
+   /**
+    * Read the raw resource blocks.
+    *
+    * @return resource blocks
+    */
+   private BlockData readResourceBlocks() throws IOException
+   {
+      DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
+      VarMeta rscVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("VarMeta"))));
+      Var2Data rscVarData = new Var2Data(rscVarMeta, new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Var2Data"))));
+      FixedMeta rscFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("FixedMeta"))), 37);
+      FixedData rscFixedData = new FixedData(rscFixedMeta, m_inputStreamFactory.getInstance(rscDir, "FixedData"));
+      FixedMeta rscFixed2Meta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Fixed2Meta"))), 49);
+      FixedData rscFixed2Data = new FixedData(rscFixed2Meta, m_inputStreamFactory.getInstance(rscDir, "Fixed2Data"));
+      return new BlockData(rscVarMeta, rscVarData, rscFixedMeta, rscFixedData, rscFixed2Meta, rscFixed2Data);
+   }
+
+   /**
+    * Read the raw resource assignment blocks.
+    *
+    * @return resource assignment blocks
+    */
+   private BlockData readAssignmentBlocks() throws IOException
+   {
       DirectoryEntry assnDir = (DirectoryEntry) m_projectDir.getEntry("TBkndAssn");
       VarMeta assnVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("VarMeta"))));
       Var2Data assnVarData = new Var2Data(assnVarMeta, new DocumentInputStream(((DocumentEntry) assnDir.getEntry("Var2Data"))));
@@ -1873,8 +1979,7 @@ final class MPP12Reader implements MPPVariantReader
       // We need to identify any cases where the meta data count does not correctly identify the block size
       FixedData assnFixedData = new FixedData(assnFixedMeta, m_inputStreamFactory.getInstance(assnDir, "FixedData"));
       FixedData assnFixedData2 = new FixedData(48, m_inputStreamFactory.getInstance(assnDir, "Fixed2Data"));
-      ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
-      factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getAdjustedItemCount());
+      return new BlockData(assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, null, assnFixedData2);
    }
 
    /**
@@ -2115,6 +2220,8 @@ final class MPP12Reader implements MPPVariantReader
    }
 
    private MPPReader m_reader;
+   private FieldProjection m_projection;
+   private StringPool m_stringPool;
    private ProjectFile m_file;
    private EventManager m_eventManager;
    private DirectoryEntry m_root;
@@ -2133,6 +2240,9 @@ final class MPP12Reader implements MPPVariantReader
    private Map<Long, Integer> m_taskOrder;
    private Map<Integer, Integer> m_nullTaskOrder;
    private DocumentInputStreamFactory m_inputStreamFactory;
+   private Future<BlockData> m_taskBlocks;
+   private Future<BlockData> m_resourceBlocks;
+   private Future<BlockData> m_assignmentBlocks;
 
    // Signals the end of the list of subproject task unique ids
    //private static final int SUBPROJECT_LISTEND = 0x00000303;
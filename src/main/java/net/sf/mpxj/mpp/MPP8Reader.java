@@ -65,7 +65,6 @@ import net.sf.mpxj.common.MPPResourceField;
 import net.sf.mpxj.common.MPPTaskField;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.Pair;
-import net.sf.mpxj.common.RtfHelper;
 
 /**
  * This class is used to represent a Microsoft Project MPP8 file. This
@@ -761,12 +760,14 @@ final class MPP8Reader implements MPPVariantReader
 
       if (notes != null)
       {
-         if (m_reader.getPreserveNoteFormatting() == false)
+         if (m_reader.getPreserveNoteFormatting())
          {
-            notes = RtfHelper.strip(notes);
+            task.setNotes(notes);
+         }
+         else
+         {
+            task.setRtfNotes(notes);
          }
-
-         task.setNotes(notes);
       }
    }
 
@@ -1010,7 +1011,7 @@ final class MPP8Reader implements MPPVariantReader
          //resource.setObjects(); // Calculated value
          //resource.setOverallocated(); // Calculated value
          resource.setOvertimeCost(NumberHelper.getDouble(((double) MPPUtility.getLong6(data, 138)) / 100));
-         resource.setOvertimeRate(new Rate(MPPUtility.getDouble(data, 44), TimeUnit.HOURS));
+         resource.setOvertimeRate(Rate.getInstance(MPPUtility.getDouble(data, 44), TimeUnit.HOURS));
          resource.setOvertimeWork(MPPUtility.getDuration(((double) MPPUtility.getLong6(data, 74)) / 100, TimeUnit.HOURS));
          resource.setPeakUnits(NumberHelper.getDouble(((double) MPPUtility.getInt(data, 110)) / 100));
          //resource.setPercentageWorkComplete(); // Calculated value
@@ -1018,7 +1019,7 @@ final class MPP8Reader implements MPPVariantReader
          resource.setRemainingCost(NumberHelper.getDouble(((double) MPPUtility.getLong6(data, 132)) / 100));
          resource.setRemainingOvertimeCost(NumberHelper.getDouble(((double) MPPUtility.getLong6(data, 150)) / 100));
          resource.setRemainingWork(MPPUtility.getDuration(((double) MPPUtility.getLong6(data, 86)) / 100, TimeUnit.HOURS));
-         resource.setStandardRate(new Rate(MPPUtility.getDouble(data, 36), TimeUnit.HOURS));
+         resource.setStandardRate(Rate.getInstance(MPPUtility.getDouble(data, 36), TimeUnit.HOURS));
          resource.setStart(1, rscExtData.getTimestamp(RESOURCE_START1));
          resource.setStart(2, rscExtData.getTimestamp(RESOURCE_START2));
          resource.setStart(3, rscExtData.getTimestamp(RESOURCE_START3));
@@ -1074,12 +1075,14 @@ final class MPP8Reader implements MPPVariantReader
          notes = rscExtData.getString(RESOURCE_NOTES);
          if (notes != null)
          {
-            if (m_reader.getPreserveNoteFormatting() == false)
+            if (m_reader.getPreserveNoteFormatting())
             {
-               notes = RtfHelper.strip(notes);
+               resource.setNotes(notes);
+            }
+            else
+            {
+               resource.setRtfNotes(notes);
             }
-
-            resource.setNotes(notes);
          }
 
          m_eventManager.fireResourceReadEvent(resource);
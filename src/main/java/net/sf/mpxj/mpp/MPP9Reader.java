@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Future;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
@@ -56,10 +57,13 @@ import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.View;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.FieldProjection;
 import net.sf.mpxj.common.MPPResourceField;
 import net.sf.mpxj.common.MPPTaskField;
 import net.sf.mpxj.common.NumberHelper;
-import net.sf.mpxj.common.RtfHelper;
+import net.sf.mpxj.common.ResourceFieldLists;
+import net.sf.mpxj.common.StringPool;
+import net.sf.mpxj.common.TaskFieldLists;
 
 /**
  * This class is used to represent a Microsoft Project MPP9 file. This
@@ -86,6 +90,11 @@ final class MPP9Reader implements MPPVariantReader
 
          if (!reader.getReadPropertiesOnly())
          {
+            if (reader.getDecodeInParallel())
+            {
+               submitBlocks();
+            }
+
             processSubProjectData();
             processGraphicalIndicators();
             processCustomValueLists();
@@ -125,6 +134,8 @@ final class MPP9Reader implements MPPVariantReader
    private void populateMemberData(MPPReader reader, ProjectFile file, DirectoryEntry root) throws MPXJException, IOException
    {
       m_reader = reader;
+      m_projection = new FieldProjection(reader.getFieldProjection());
+      m_stringPool = new StringPool();
       m_file = file;
       m_eventManager = file.getEventManager();
       m_root = root;
@@ -175,6 +186,7 @@ final class MPP9Reader implements MPPVariantReader
       DirectoryEntry outlineCodeDir = (DirectoryEntry) m_projectDir.getEntry("TBkndOutlCode");
       VarMeta outlineCodeVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("VarMeta"))));
       m_outlineCodeVarData = new Var2Data(outlineCodeVarMeta, new DocumentInputStream(((DocumentEntry) outlineCodeDir.getEntry("Var2Data"))));
+      m_outlineCodeVarData.setStringPool(m_stringPool);
       m_projectProps = new Props9(m_inputStreamFactory.getInstance(m_projectDir, "Props"));
       //MPPUtility.fileDump("c:\\temp\\props.txt", m_projectProps.toString().getBytes());
 
@@ -192,8 +204,13 @@ final class MPP9Reader implements MPPVariantReader
     */
    private void clearMemberData()
    {
+      BlockData.cancel(m_taskBlocks);
+      BlockData.cancel(m_resourceBlocks);
+      BlockData.cancel(m_assignmentBlocks);
       m_reader = null;
+      m_projection = null;
       m_file = null;
+      m_stringPool = null;
       m_eventManager = null;
       m_root = null;
       m_resourceMap = null;
@@ -204,6 +221,9 @@ final class MPP9Reader implements MPPVariantReader
       m_taskOrder = null;
       m_nullTaskOrder = null;
       m_taskSubProjects = null;
+      m_taskBlocks = null;
+      m_resourceBlocks = null;
+      m_assignmentBlocks = null;
    }
 
    /**
@@ -1038,12 +1058,14 @@ final class MPP9Reader implements MPPVariantReader
    {
       FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
       fieldMap.createTaskFieldMap(m_projectProps);
-
-      DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
-      VarMeta taskVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("VarMeta"))));
-      Var2Data taskVarData = new Var2Data(taskVarMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Var2Data"))));
-      FixedMeta taskFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedMeta"))), 47);
-      FixedData taskFixedData = new FixedData(taskFixedMeta, m_inputStreamFactory.getInstance(taskDir, "FixedData"), 768, fieldMap.getMaxFixedDataSize(0));
+      fieldMap.setFieldProjection(m_projection);
+
+      BlockData blocks = BlockData.get(m_taskBlocks, () -> readTaskBlocks(fieldMap.getMaxFixedDataSize(0)));
+      VarMeta taskVarMeta = blocks.getVarMeta();
+      Var2Data taskVarData = blocks.getVarData();
+      taskVarData.setStringPool(m_stringPool);
+      FixedMeta taskFixedMeta = blocks.getFixedMeta();
+      FixedData taskFixedData = blocks.getFixedData();
       //System.out.println(taskFixedData);
       //System.out.println(taskFixedMeta);
       //System.out.println(taskVarMeta);
@@ -1063,7 +1085,6 @@ final class MPP9Reader implements MPPVariantReader
       boolean autoWBS = true;
       List<Task> externalTasks = new ArrayList<>();
       RecurringTaskReader recurringTaskReader = null;
-      String notes;
 
       for (int loop = 0; loop < uniqueIdArray.length; loop++)
       {
@@ -1169,7 +1190,10 @@ final class MPP9Reader implements MPPVariantReader
          task.setFlag(19, (metaData[39] & 0x80) != 0);
          task.setFlag(20, (metaData[40] & 0x01) != 0);
          task.setHideBar((metaData[10] & 0x80) != 0);
-         processHyperlinkData(task, taskVarData.getByteArray(uniqueID, fieldMap.getVarDataKey(TaskField.HYPERLINK_DATA)));
+         if (m_projection.containsAny(TaskFieldLists.HYPERLINKS))
+         {
+            processHyperlinkData(task, taskVarData.getByteArray(uniqueID, fieldMap.getVarDataKey(TaskField.HYPERLINK_DATA)));
+         }
 
          task.setID(id);
          task.setIgnoreResourceCalendar(((metaData[10] & 0x02) != 0));
@@ -1178,16 +1202,19 @@ final class MPP9Reader implements MPPVariantReader
          task.setMarked((metaData[9] & 0x40) != 0);
          task.setMilestone((metaData[8] & 0x20) != 0);
 
-         task.setOutlineCode(1, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE1_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(2, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE2_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(3, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE3_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(4, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE4_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(5, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE5_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(6, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE6_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(7, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE7_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(8, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE8_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(9, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE9_INDEX), OUTLINECODE_DATA));
-         task.setOutlineCode(10, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE10_INDEX), OUTLINECODE_DATA));
+         if (m_projection.containsAny(TaskFieldLists.CUSTOM_OUTLINE_CODE))
+         {
+            task.setOutlineCode(1, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE1_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(2, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE2_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(3, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE3_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(4, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE4_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(5, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE5_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(6, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE6_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(7, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE7_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(8, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE8_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(9, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE9_INDEX), OUTLINECODE_DATA));
+            task.setOutlineCode(10, m_outlineCodeVarData.getUnicodeString((Integer) task.getCachedValue(TaskField.OUTLINE_CODE10_INDEX), OUTLINECODE_DATA));
+         }
 
          task.setRollup((metaData[10] & 0x08) != 0);
          task.setUniqueID(uniqueID);
@@ -1232,11 +1259,14 @@ final class MPP9Reader implements MPPVariantReader
          //
          if (recurringData != null)
          {
-            if (recurringTaskReader == null)
+            if (m_projection.contains(TaskField.RECURRING_DATA))
             {
-               recurringTaskReader = new RecurringTaskReader(m_file.getProjectProperties());
+               if (recurringTaskReader == null)
+               {
+                  recurringTaskReader = new RecurringTaskReader(m_file.getProjectProperties());
+               }
+               recurringTaskReader.processRecurringTask(task, recurringData);
             }
-            recurringTaskReader.processRecurringTask(task, recurringData);
             task.setRecurring(true);
          }
 
@@ -1244,12 +1274,10 @@ final class MPP9Reader implements MPPVariantReader
          // Retrieve the task notes.
          //
          //notes = taskVarData.getString(id, TASK_NOTES);
-         notes = task.getNotes();
          if (!m_reader.getPreserveNoteFormatting())
          {
-            notes = RtfHelper.strip(notes);
+            task.setRtfNotes(task.getNotes());
          }
-         task.setNotes(notes);
 
          //
          // Set the calendar name
@@ -1741,12 +1769,14 @@ final class MPP9Reader implements MPPVariantReader
    {
       FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
       fieldMap.createResourceFieldMap(m_projectProps);
-
-      DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
-      VarMeta rscVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("VarMeta"))));
-      Var2Data rscVarData = new Var2Data(rscVarMeta, new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Var2Data"))));
-      FixedMeta rscFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("FixedMeta"))), 37);
-      FixedData rscFixedData = new FixedData(rscFixedMeta, m_inputStreamFactory.getInstance(rscDir, "FixedData"));
+      fieldMap.setFieldProjection(m_projection);
+
+      BlockData blocks = BlockData.get(m_resourceBlocks, this::readResourceBlocks);
+      VarMeta rscVarMeta = blocks.getVarMeta();
+      Var2Data rscVarData = blocks.getVarData();
+      rscVarData.setStringPool(m_stringPool);
+      FixedMeta rscFixedMeta = blocks.getFixedMeta();
+      FixedData rscFixedData = blocks.getFixedData();
       //System.out.println(rscVarMeta);
       //System.out.println(rscVarData);
       //System.out.println(rscFixedMeta);
@@ -1761,7 +1791,6 @@ final class MPP9Reader implements MPPVariantReader
       byte[] data;
       byte[] metaData;
       Resource resource;
-      String notes;
 
       for (int loop = 0; loop < uniqueid.length; loop++)
       {
@@ -1785,19 +1814,25 @@ final class MPP9Reader implements MPPVariantReader
          }, rscVarData);
          resource.enableEvents();
 
-         processHyperlinkData(resource, rscVarData.getByteArray(id, fieldMap.getVarDataKey(ResourceField.HYPERLINK_DATA)));
+         if (m_projection.containsAny(ResourceFieldLists.HYPERLINKS))
+         {
+            processHyperlinkData(resource, rscVarData.getByteArray(id, fieldMap.getVarDataKey(ResourceField.HYPERLINK_DATA)));
+         }
          resource.setID(Integer.valueOf(MPPUtility.getInt(data, 4)));
 
-         resource.setOutlineCode1(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE1_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode2(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE2_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode3(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE3_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode4(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE4_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode5(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE5_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode6(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE6_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode7(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE7_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode8(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE8_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode9(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE9_INDEX), OUTLINECODE_DATA));
-         resource.setOutlineCode10(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE10_INDEX), OUTLINECODE_DATA));
+         if (m_projection.containsAny(ResourceFieldLists.CUSTOM_OUTLINE_CODE))
+         {
+            resource.setOutlineCode1(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE1_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode2(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE2_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode3(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE3_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode4(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE4_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode5(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE5_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode6(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE6_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode7(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE7_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode8(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE8_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode9(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE9_INDEX), OUTLINECODE_DATA));
+            resource.setOutlineCode10(m_outlineCodeVarData.getUnicodeString((Integer) resource.getCachedValue(ResourceField.OUTLINE_CODE10_INDEX), OUTLINECODE_DATA));
+         }
 
          resource.setUniqueID(id);
 
@@ -1823,14 +1858,11 @@ final class MPP9Reader implements MPPVariantReader
          resource.setFlag(19, (metaData[30] & 0x80) != 0);
          resource.setFlag(20, (metaData[31] & 0x01) != 0);
 
-         notes = resource.getNotes();
          if (m_reader.getPreserveNoteFormatting() == false)
          {
-            notes = RtfHelper.strip(notes);
+            resource.setRtfNotes(resource.getNotes());
          }
 
-         resource.setNotes(notes);
-
          //
          // Configure the resource calendar
          //
@@ -1882,7 +1914,72 @@ final class MPP9Reader implements MPPVariantReader
    {
       FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
       fieldMap.createAssignmentFieldMap(m_projectProps);
+      fieldMap.setFieldProjection(m_projection);
+
+      BlockData blocks = BlockData.get(m_assignmentBlocks, this::readAssignmentBlocks);
+      VarMeta assnVarMeta = blocks.getVarMeta();
+      Var2Data assnVarData = blocks.getVarData();
+      assnVarData.setStringPool(m_stringPool);
+      FixedMeta assnFixedMeta = blocks.getFixedMeta();
+      FixedData assnFixedData = blocks.getFixedData();
+
+      ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
+      factory.process(m_file, fieldMap, null, m_reader.getUseRawTimephasedData(), m_reader.getLazyTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, null, assnFixedMeta.getAdjustedItemCount());
+   }
+
+   /**
+    * Start decoding the raw task, resource and assignment blocks in
+    * the background, while the rest of the file is processed.
+    */
+   private void submitBlocks()
+   {
+      FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.createTaskFieldMap(m_projectProps);
+      int maxFixedDataSize = fieldMap.getMaxFixedDataSize(0);
+
+      m_taskBlocks = BlockData.submit(() -> readTaskBlocks(maxFixedDataSize));
+      m_resourceBlocks = BlockData.submit(this::readResourceBlocks);
+      m_assignmentBlocks = BlockData.submit(this::readAssignmentBlocks);
+   }
+
+   /**
+    * Read the raw task blocks.
+    *
+    * @param maxFixedDataSize maximum fixed data block size
+    * @return task blocks
+    */
+   private BlockData readTaskBlocks(int maxFixedDataSize) throws IOException
+   {
+      DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
+      VarMeta taskVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("VarMeta"))));
+      Var2Data taskVarData = new Var2Data(taskVarMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Var2Data"))));
+      FixedMeta taskFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedMeta"))), 47);
+      FixedData taskFixedData = new FixedData(taskFixedMeta, m_inputStreamFactory.getInstance(taskDir, "FixedData"), 768, maxFixedDataSize);
+      return new BlockData(taskVarMeta, taskVarData, taskFixedMeta, taskFixedData, null, null);
+   }
+
+   /**
+    * Read the raw resource blocks.
+    *
+    * @return resource blocks
+    */
+   private BlockData readResourceBlocks() throws IOException
+   {
+      DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
+      VarMeta rscVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("VarMeta"))));
+      Var2Data rscVarData = new Var2Data(rscVarMeta, new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Var2Data"))));
+      FixedMeta rscFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("FixedMeta"))), 37);
+      FixedData rscFixedData = new FixedData(rscFixedMeta, m_inputStreamFactory.getInstance(rscDir, "FixedData"));
+      return new BlockData(rscVarMeta, rscVarData, rscFixedMeta, rscFixedData, null, null);
+   }
 
+   /**
+    * Read the raw resource assignment blocks.
+    *
+    * @return resource assignment blocks
+    */
+   private BlockData readAssignmentBlocks() throws IOException
+   {
       DirectoryEntry assnDir = (DirectoryEntry) m_projectDir.getEntry("TBkndAssn");
       VarMeta assnVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("VarMeta"))));
       Var2Data assnVarData = new Var2Data(assnVarMeta, new DocumentInputStream(((DocumentEntry) assnDir.getEntry("Var2Data"))));
@@ -1893,9 +1990,7 @@ final class MPP9Reader implements MPPVariantReader
       {
          assnFixedData = new FixedData(assnFixedMeta, m_inputStreamFactory.getInstance(assnDir, "FixedData"));
       }
-
-      ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
-      factory.process(m_file, fieldMap, null, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, null, assnFixedMeta.getAdjustedItemCount());
+      return new BlockData(assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, null, null);
    }
 
    /**
@@ -2183,6 +2278,8 @@ final class MPP9Reader implements MPPVariantReader
    //   };
 
    private MPPReader m_reader;
+   private FieldProjection m_projection;
+   private StringPool m_stringPool;
    private ProjectFile m_file;
    private EventManager m_eventManager;
    private DirectoryEntry m_root;
@@ -2196,6 +2293,9 @@ final class MPP9Reader implements MPPVariantReader
    private Map<Integer, Integer> m_taskOrder;
    private Map<Integer, Integer> m_nullTaskOrder;
    private DocumentInputStreamFactory m_inputStreamFactory;
+   private Future<BlockData> m_taskBlocks;
+   private Future<BlockData> m_resourceBlocks;
+   private Future<BlockData> m_assignmentBlocks;
 
    // Signals the end of the list of subproject task unique ids
    private static final int SUBPROJECT_LISTEND = 0x00000303;
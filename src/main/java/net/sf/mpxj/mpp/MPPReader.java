@@ -23,12 +23,14 @@
 
 package net.sf.mpxj.mpp;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
@@ -36,12 +38,14 @@ import org.apache.poi.poifs.filesystem.DocumentInputStream;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 
 import net.sf.mpxj.DateRange;
+import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectConfig;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.Relation;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.common.StreamHelper;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.AbstractProjectReader;
 
@@ -87,6 +91,46 @@ public final class MPPReader extends AbstractProjectReader
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(String fileName) throws MPXJException
+   {
+      return read(new File(fileName));
+   }
+
+   /**
+    * Read an MPP file directly from disk. Rather than reading the whole
+    * file into memory before it is processed, the POI file system reads
+    * only the blocks belonging to the streams used by MPXJ, as they are
+    * required. Embedded objects and any other streams ignored by the
+    * reader are never loaded.
+    *
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(File file) throws MPXJException
+   {
+      POIFSFileSystem fs = null;
+
+      try
+      {
+         fs = new POIFSFileSystem(file, true);
+         m_fileBacked = true;
+         return read(fs);
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         m_fileBacked = false;
+         StreamHelper.closeQuietly(fs);
+      }
+   }
+
    /**
     * This method allows us to peek into the OLE compound document to extract the file format.
     * This allows the UniversalProjectReader to determine if this is an MPP file, or if
@@ -274,6 +318,32 @@ public final class MPPReader extends AbstractProjectReader
       m_preserveNoteFormatting = preserveNoteFormatting;
    }
 
+   /**
+    * Restrict the task, resource and resource assignment fields populated
+    * by the reader. Fields which have not been requested are not decoded.
+    * The fields the reader needs to build the structure of the project,
+    * for example unique IDs, parent tasks, and start and finish dates,
+    * are always populated. Calculated fields are only available if the
+    * fields they are calculated from have been requested. Field projection
+    * is supported by MPPReader, MSPDIReader and MPDDatabaseReader.
+    *
+    * @param fields fields to populate, or null to populate all fields
+    */
+   public void setFieldProjection(Set<? extends FieldType> fields)
+   {
+      m_fieldProjection = fields;
+   }
+
+   /**
+    * Retrieve the fields to populate.
+    *
+    * @return fields to populate, or null if all fields are populated
+    */
+   public Set<? extends FieldType> getFieldProjection()
+   {
+      return m_fieldProjection;
+   }
+
    /**
     * If this flag is true, raw timephased data will be retrieved
     * from MS Project: no normalisation will take place.
@@ -296,6 +366,32 @@ public final class MPPReader extends AbstractProjectReader
       m_useRawTimephasedData = useRawTimephasedData;
    }
 
+   /**
+    * Retrieves a flag which indicates whether timephased baseline
+    * and actual overtime work data is decoded on first use.
+    *
+    * @return lazy timephased data flag
+    */
+   public boolean getLazyTimephasedData()
+   {
+      return m_lazyTimephasedData;
+   }
+
+   /**
+    * When this flag is set to true, the timephased baseline work, baseline
+    * cost and actual overtime work data for each resource assignment is
+    * retained in its raw form, and is only decoded the first time it is
+    * retrieved. This saves time and memory when reading files with many
+    * resource assignments if this data is not required. The default value
+    * for this flag is false.
+    *
+    * @param lazyTimephasedData set to true to decode timephased data on first use
+    */
+   public void setLazyTimephasedData(boolean lazyTimephasedData)
+   {
+      m_lazyTimephasedData = lazyTimephasedData;
+   }
+
    /**
     * Retrieves a flag which indicates whether presentation data will
     * be read from the MPP file. Not reading this data saves time and memory.
@@ -342,6 +438,46 @@ public final class MPPReader extends AbstractProjectReader
       m_readPropertiesOnly = readPropertiesOnly;
    }
 
+   /**
+    * Retrieves a flag which indicates whether the raw task, resource
+    * and assignment blocks are decoded in parallel.
+    *
+    * @return parallel decode flag
+    */
+   public boolean getParallelDecode()
+   {
+      return m_parallelDecode;
+   }
+
+   /**
+    * When this flag is set to true, the raw task, resource and assignment
+    * blocks are decoded concurrently on the common fork join pool, while
+    * the reader processes the remainder of the file. The tasks, resources
+    * and assignments themselves are still created in file order, so the
+    * resulting project is identical to the one read with this flag set
+    * to false, which is the default. This flag is ignored when a file
+    * is read directly from disk using the read(File) method.
+    *
+    * @param parallelDecode set to true to decode blocks in parallel
+    */
+   public void setParallelDecode(boolean parallelDecode)
+   {
+      m_parallelDecode = parallelDecode;
+   }
+
+   /**
+    * Determine if the raw blocks for the file currently being read
+    * should be decoded in parallel. POI does not support concurrent
+    * reads from a file-backed file system, so in this case the blocks
+    * are always decoded sequentially.
+    *
+    * @return true if blocks should be decoded in parallel
+    */
+   boolean getDecodeInParallel()
+   {
+      return m_parallelDecode && !m_fileBacked;
+   }
+
    /**
     * Set the read password for this Project file. This is needed in order to
     * be allowed to read a read-protected Project file.
@@ -397,6 +533,11 @@ public final class MPPReader extends AbstractProjectReader
     */
    private boolean m_useRawTimephasedData;
 
+   /**
+    * Set to true to decode timephased baseline and overtime data on first use.
+    */
+   private boolean m_lazyTimephasedData;
+
    /**
     * Flag to allow time and memory to be saved by not reading
     * presentation data from the MPP file.
@@ -404,12 +545,23 @@ public final class MPPReader extends AbstractProjectReader
    private boolean m_readPresentationData = true;
    private boolean m_readPropertiesOnly;
 
+   /**
+    * Set to true to decode raw blocks in parallel.
+    */
+   private boolean m_parallelDecode;
+
+   /**
+    * Set while reading from a file-backed file system.
+    */
+   private boolean m_fileBacked;
+
    /**
     * Where supported, set to false to ignore password protection.
     */
    private boolean m_respectPasswordProtection = true;
 
    private String m_readPassword;
+   private Set<? extends FieldType> m_fieldProjection;
    private List<ProjectListener> m_projectListeners;
 
    /**
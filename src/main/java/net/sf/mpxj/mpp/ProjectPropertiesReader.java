@@ -76,8 +76,8 @@ public final class ProjectPropertiesReader
          ph.setDefaultDurationUnits(MPPUtility.getDurationTimeUnits(props.getShort(Props.DURATION_UNITS)));
          ph.setMinutesPerDay(Integer.valueOf(props.getInt(Props.MINUTES_PER_DAY)));
          ph.setMinutesPerWeek(Integer.valueOf(props.getInt(Props.MINUTES_PER_WEEK)));
-         ph.setDefaultOvertimeRate(new Rate(props.getDouble(Props.OVERTIME_RATE), TimeUnit.HOURS));
-         ph.setDefaultStandardRate(new Rate(props.getDouble(Props.STANDARD_RATE), TimeUnit.HOURS));
+         ph.setDefaultOvertimeRate(Rate.getInstance(props.getDouble(Props.OVERTIME_RATE), TimeUnit.HOURS));
+         ph.setDefaultStandardRate(Rate.getInstance(props.getDouble(Props.STANDARD_RATE), TimeUnit.HOURS));
          ph.setDefaultWorkUnits(MPPUtility.getWorkTimeUnits(props.getShort(Props.WORK_UNITS)));
          ph.setSplitInProgressTasks(props.getBoolean(Props.SPLIT_TASKS));
          ph.setUpdatingTaskStatusUpdatesResourceStatus(props.getBoolean(Props.TASK_UPDATES_RESOURCE));
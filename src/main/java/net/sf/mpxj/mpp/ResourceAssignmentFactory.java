@@ -38,9 +38,10 @@ import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.TimephasedWork;
 import net.sf.mpxj.WorkContour;
+import net.sf.mpxj.common.AssignmentFieldLists;
 import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.common.FieldProjection;
 import net.sf.mpxj.common.NumberHelper;
-import net.sf.mpxj.common.RtfHelper;
 import net.sf.mpxj.common.SplitTaskFactory;
 import net.sf.mpxj.common.TimephasedCostNormaliser;
 import net.sf.mpxj.common.TimephasedWorkNormaliser;
@@ -58,6 +59,7 @@ public class ResourceAssignmentFactory
     * @param fieldMap assignment field map
     * @param enterpriseCustomFieldMap enterprise custom field map
     * @param useRawTimephasedData use raw timephased data flag
+    * @param lazyTimephasedData decode baseline and overtime timephased data on first use
     * @param preserveNoteFormatting preserve note formatting flag
     * @param assnVarMeta var meta
     * @param assnVarData var data
@@ -66,7 +68,7 @@ public class ResourceAssignmentFactory
     * @param assnFixedData2 fixed data
     * @param count expected number of assignments
     */
-   public void process(ProjectFile file, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, boolean useRawTimephasedData, boolean preserveNoteFormatting, VarMeta assnVarMeta, Var2Data assnVarData, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int count)
+   public void process(ProjectFile file, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, boolean useRawTimephasedData, boolean lazyTimephasedData, boolean preserveNoteFormatting, VarMeta assnVarMeta, Var2Data assnVarData, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int count)
    {
       Set<Integer> set = assnVarMeta.getUniqueIdentifierSet();
       TimephasedDataFactory timephasedFactory = new TimephasedDataFactory();
@@ -75,6 +77,7 @@ public class ResourceAssignmentFactory
       TimephasedWorkNormaliser baselineWorkNormaliser = new MPPTimephasedBaselineWorkNormaliser();
       TimephasedCostNormaliser baselineCostNormaliser = new MPPTimephasedBaselineCostNormaliser();
       ProjectCalendar baselineCalendar = file.getBaselineCalendar();
+      FieldProjection projection = fieldMap.getFieldProjection();
 
       //System.out.println(assnFixedMeta);
       //System.out.println(assnFixedData);
@@ -161,7 +164,10 @@ public class ResourceAssignmentFactory
          assignment.setResponsePending((meta[9] & 0x01) != 0);
          assignment.setTeamStatusPending((meta[10] & 0x02) != 0);
 
-         processHyperlinkData(assignment, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.HYPERLINK_DATA)));
+         if (projection.containsAny(AssignmentFieldLists.HYPERLINKS))
+         {
+            processHyperlinkData(assignment, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.HYPERLINK_DATA)));
+         }
 
          //
          // Post processing
@@ -175,12 +181,10 @@ public class ResourceAssignmentFactory
             }
          }
 
-         String notes = assignment.getNotes();
          if (!preserveNoteFormatting)
          {
-            notes = RtfHelper.strip(notes);
+            assignment.setRtfNotes(assignment.getNotes());
          }
-         assignment.setNotes(notes);
 
          Task task = file.getTaskByUniqueID(assignment.getTaskUniqueID());
          if (task != null)
@@ -201,37 +205,29 @@ public class ResourceAssignmentFactory
                calendar = task.getEffectiveCalendar();
             }
 
-            assignment.setTimephasedBaselineWork(0, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(1, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE1_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(2, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE2_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(3, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE3_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(4, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE4_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(5, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE5_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(6, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE6_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(7, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE7_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(8, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE8_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(9, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE9_WORK)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineWork(10, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE10_WORK)), !useRawTimephasedData));
-
-            assignment.setTimephasedBaselineCost(0, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(1, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE1_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(2, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE2_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(3, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE3_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(4, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE4_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(5, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE5_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(6, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE6_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(7, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE7_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(8, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE8_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(9, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE9_COST)), !useRawTimephasedData));
-            assignment.setTimephasedBaselineCost(10, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_BASELINE10_COST)), !useRawTimephasedData));
+            for (int index = 0; index < TIMEPHASED_BASELINE_WORK_FIELDS.length; index++)
+            {
+               byte[] baselineWorkData = getTimephasedData(projection, fieldMap, assnVarData, varDataId, TIMEPHASED_BASELINE_WORK_FIELDS[index]);
+               byte[] baselineCostData = getTimephasedData(projection, fieldMap, assnVarData, varDataId, TIMEPHASED_BASELINE_COST_FIELDS[index]);
+
+               if (lazyTimephasedData)
+               {
+                  assignment.setTimephasedBaselineWork(index, baselineWorkData == null ? null : new LazyTimephasedWorkContainer(() -> timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, baselineWorkData, !useRawTimephasedData)));
+                  assignment.setTimephasedBaselineCost(index, baselineCostData == null ? null : new LazyTimephasedCostContainer(() -> timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, baselineCostData, !useRawTimephasedData)));
+               }
+               else
+               {
+                  assignment.setTimephasedBaselineWork(index, timephasedFactory.getBaselineWork(assignment, baselineCalendar, baselineWorkNormaliser, baselineWorkData, !useRawTimephasedData));
+                  assignment.setTimephasedBaselineCost(index, timephasedFactory.getBaselineCost(baselineCalendar, baselineCostNormaliser, baselineCostData, !useRawTimephasedData));
+               }
+            }
 
             byte[] timephasedActualWorkData = assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_ACTUAL_WORK));
             byte[] timephasedWorkData = assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_WORK));
-            byte[] timephasedActualOvertimeWorkData = assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(AssignmentField.TIMEPHASED_ACTUAL_OVERTIME_WORK));
+            byte[] timephasedActualOvertimeWorkData = getTimephasedData(projection, fieldMap, assnVarData, varDataId, AssignmentField.TIMEPHASED_ACTUAL_OVERTIME_WORK);
 
             List<TimephasedWork> timephasedActualWork = timephasedFactory.getCompleteWork(calendar, assignment, timephasedActualWorkData);
             List<TimephasedWork> timephasedWork = timephasedFactory.getPlannedWork(calendar, assignment.getStart(), assignment.getUnits().doubleValue(), timephasedWorkData, timephasedActualWork, resourceType);
-            List<TimephasedWork> timephasedActualOvertimeWork = timephasedFactory.getCompleteWork(calendar, assignment, timephasedActualOvertimeWorkData);
 
             assignment.setActualStart(timephasedActualWork.isEmpty() ? null : assignment.getStart());
             assignment.setActualFinish((assignment.getRemainingWork().getDuration() == 0 && resource != null) ? assignment.getFinish() : null);
@@ -246,7 +242,17 @@ public class ResourceAssignmentFactory
 
             assignment.setTimephasedWork(new DefaultTimephasedWorkContainer(calendar, normaliser, timephasedWork, !useRawTimephasedData));
             assignment.setTimephasedActualWork(new DefaultTimephasedWorkContainer(calendar, normaliser, timephasedActualWork, !useRawTimephasedData));
-            assignment.setTimephasedActualOvertimeWork(new DefaultTimephasedWorkContainer(calendar, normaliser, timephasedActualOvertimeWork, !useRawTimephasedData));
+
+            ProjectCalendar overtimeCalendar = calendar;
+            if (lazyTimephasedData && timephasedActualOvertimeWorkData != null)
+            {
+               assignment.setTimephasedActualOvertimeWork(new LazyTimephasedWorkContainer(() -> new DefaultTimephasedWorkContainer(overtimeCalendar, normaliser, timephasedFactory.getCompleteWork(overtimeCalendar, assignment, timephasedActualOvertimeWorkData), !useRawTimephasedData)));
+            }
+            else
+            {
+               List<TimephasedWork> timephasedActualOvertimeWork = timephasedFactory.getCompleteWork(calendar, assignment, timephasedActualOvertimeWorkData);
+               assignment.setTimephasedActualOvertimeWork(new DefaultTimephasedWorkContainer(calendar, normaliser, timephasedActualOvertimeWork, !useRawTimephasedData));
+            }
 
             if (timephasedWorkData != null)
             {
@@ -272,6 +278,22 @@ public class ResourceAssignmentFactory
       }
    }
 
+   /**
+    * Retrieve the raw timephased data for an assignment, provided that
+    * the caller has asked for the field to be populated.
+    *
+    * @param projection fields to populate
+    * @param fieldMap assignment field map
+    * @param assnVarData var data
+    * @param varDataId assignment var data key
+    * @param field timephased data field
+    * @return raw timephased data, or null if not present or not required
+    */
+   private byte[] getTimephasedData(FieldProjection projection, FieldMap fieldMap, Var2Data assnVarData, Integer varDataId, AssignmentField field)
+   {
+      return projection.contains(field) ? assnVarData.getByteArray(varDataId, fieldMap.getVarDataKey(field)) : null;
+   }
+
    /**
     * Extract assignment hyperlink data.
     *
@@ -370,6 +392,36 @@ public class ResourceAssignmentFactory
 
    private static final Integer MPP9_CREATION_DATA = Integer.valueOf(138);
 
+   private static final AssignmentField[] TIMEPHASED_BASELINE_WORK_FIELDS =
+   {
+      AssignmentField.TIMEPHASED_BASELINE_WORK,
+      AssignmentField.TIMEPHASED_BASELINE1_WORK,
+      AssignmentField.TIMEPHASED_BASELINE2_WORK,
+      AssignmentField.TIMEPHASED_BASELINE3_WORK,
+      AssignmentField.TIMEPHASED_BASELINE4_WORK,
+      AssignmentField.TIMEPHASED_BASELINE5_WORK,
+      AssignmentField.TIMEPHASED_BASELINE6_WORK,
+      AssignmentField.TIMEPHASED_BASELINE7_WORK,
+      AssignmentField.TIMEPHASED_BASELINE8_WORK,
+      AssignmentField.TIMEPHASED_BASELINE9_WORK,
+      AssignmentField.TIMEPHASED_BASELINE10_WORK
+   };
+
+   private static final AssignmentField[] TIMEPHASED_BASELINE_COST_FIELDS =
+   {
+      AssignmentField.TIMEPHASED_BASELINE_COST,
+      AssignmentField.TIMEPHASED_BASELINE1_COST,
+      AssignmentField.TIMEPHASED_BASELINE2_COST,
+      AssignmentField.TIMEPHASED_BASELINE3_COST,
+      AssignmentField.TIMEPHASED_BASELINE4_COST,
+      AssignmentField.TIMEPHASED_BASELINE5_COST,
+      AssignmentField.TIMEPHASED_BASELINE6_COST,
+      AssignmentField.TIMEPHASED_BASELINE7_COST,
+      AssignmentField.TIMEPHASED_BASELINE8_COST,
+      AssignmentField.TIMEPHASED_BASELINE9_COST,
+      AssignmentField.TIMEPHASED_BASELINE10_COST
+   };
+
    private static final MppBitFlag[] ASSIGNMENT_META_DATA_BIT_FLAGS =
    {
       new MppBitFlag(AssignmentField.FLAG1, 28, 0x00000080, Boolean.FALSE, Boolean.TRUE),
@@ -31,6 +31,7 @@ import java.util.Date;
 import java.util.Map;
 import java.util.TreeMap;
 
+import net.sf.mpxj.common.StringPool;
 import net.sf.mpxj.common.ByteArrayHelper;
 import net.sf.mpxj.common.StreamHelper;
 
@@ -159,12 +160,27 @@ final class Var2Data extends MPPComponent
          if (value != null)
          {
             result = MPPUtility.getUnicodeString(value, 0);
+            if (m_stringPool != null)
+            {
+               result = m_stringPool.intern(result);
+            }
          }
       }
 
       return (result);
    }
 
+   /**
+    * Set the pool used to share String instances between repeated
+    * values retrieved from this block.
+    *
+    * @param stringPool string pool, or null if values are not pooled
+    */
+   public void setStringPool(StringPool stringPool)
+   {
+      m_stringPool = stringPool;
+   }
+
    /**
     * This method retrieves a String of the specified type,
     * belonging to the item with the specified unique ID.
@@ -467,4 +483,9 @@ final class Var2Data extends MPPComponent
     * Reference to the meta data associated with this block.
     */
    private VarMeta m_meta;
+
+   /**
+    * Pool used to share String instances between repeated values.
+    */
+   private StringPool m_stringPool;
 }
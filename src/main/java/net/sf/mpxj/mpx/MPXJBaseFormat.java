@@ -24,9 +24,8 @@
 package net.sf.mpxj.mpx;
 
 import java.text.DateFormatSymbols;
-import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.Locale;
 
 import net.sf.mpxj.common.MultiDateFormat;
 
@@ -54,11 +53,12 @@ abstract class MPXJBaseFormat extends MultiDateFormat
     */
    public void applyPatterns(String[] patterns)
    {
-      m_formats = new SimpleDateFormat[patterns.length];
+      SimpleDateFormat[] formats = new SimpleDateFormat[patterns.length];
       for (int index = 0; index < patterns.length; index++)
       {
-         m_formats[index] = new SimpleDateFormat(patterns[index]);
+         formats[index] = new SimpleDateFormat(patterns[index]);
       }
+      setFormats(formats, Locale.getDefault(Locale.Category.FORMAT));
    }
 
    /**
@@ -79,24 +79,15 @@ abstract class MPXJBaseFormat extends MultiDateFormat
          });
          format.setDateFormatSymbols(symbols);
       }
+      setFormats(m_formats, null);
    }
 
    /**
     * {@inheritDoc}
     */
-   @Override protected Date parseNonNullDate(String str, ParsePosition pos)
+   @Override protected boolean isNullText(CharSequence text)
    {
-      Date result;
-      if (str.equals(m_null) == true)
-      {
-         result = null;
-         pos.setIndex(-1);
-      }
-      else
-      {
-         result = super.parseNonNullDate(str, pos);
-      }
-      return result;
+      return m_null != null && m_null.contentEquals(text);
    }
 
    protected String m_null = "NA";
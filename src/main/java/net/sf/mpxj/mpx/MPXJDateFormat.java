@@ -47,10 +47,10 @@ public final class MPXJDateFormat extends MPXJBaseFormat
     */
    public MPXJDateFormat()
    {
-      m_formats = new SimpleDateFormat[]
+      setFormats(new SimpleDateFormat[]
       {
          new SimpleDateFormat("dd/MM/yyyy", Locale.ENGLISH)
-      };
+      }, Locale.ENGLISH);
    }
 
    /**
@@ -68,6 +68,6 @@ public final class MPXJDateFormat extends MPXJBaseFormat
          formats.add(new SimpleDateFormat(format.toPattern(), locale));
       }
 
-      m_formats = formats.toArray(new SimpleDateFormat[formats.size()]);
+      setFormats(formats.toArray(new SimpleDateFormat[formats.size()]), locale);
    }
 }
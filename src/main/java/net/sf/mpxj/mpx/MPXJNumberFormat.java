@@ -29,6 +29,8 @@ import java.text.DecimalFormatSymbols;
 import java.text.ParsePosition;
 import java.util.Arrays;
 
+import net.sf.mpxj.common.NumberParser;
+
 /**
  * This class extends the functionality of the DecimalFormat class
  * for use within MPXJ.
@@ -93,7 +95,12 @@ public final class MPXJNumberFormat extends DecimalFormat
          }
          else
          {
-            result = super.parse(str, parsePosition);
+            result = parsePlainNumber(str, parsePosition);
+            if (result == null)
+            {
+               result = super.parse(str, parsePosition);
+            }
+
             if (parsePosition.getIndex() == 0)
             {
                result = null;
@@ -121,6 +128,88 @@ public final class MPXJNumberFormat extends DecimalFormat
       return (result);
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void applyPattern(String pattern)
+   {
+      super.applyPattern(pattern);
+      m_numberParser = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void applyLocalizedPattern(String pattern)
+   {
+      super.applyLocalizedPattern(pattern);
+      m_numberParser = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setDecimalFormatSymbols(DecimalFormatSymbols newSymbols)
+   {
+      super.setDecimalFormatSymbols(newSymbols);
+      m_numberParser = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setGroupingUsed(boolean newValue)
+   {
+      super.setGroupingUsed(newValue);
+      m_numberParser = null;
+   }
+
+   /**
+    * Plain decimal numbers, which make up the majority of the values
+    * we read, are parsed directly from the text. This method returns null
+    * if the text is in any other form, or the primary format has a prefix,
+    * suffix or multiplier. The result is the same as that returned by
+    * DecimalFormat.
+    *
+    * @param str text to parse
+    * @param parsePosition parse position
+    * @return parsed value or null
+    */
+   private Number parsePlainNumber(String str, ParsePosition parsePosition)
+   {
+      if (parsePosition.getIndex() != 0 || getMultiplier() != 1 || isParseBigDecimal() || isParseIntegerOnly() || !getPositivePrefix().isEmpty() || !getPositiveSuffix().isEmpty() || !getNegativeSuffix().isEmpty())
+      {
+         return null;
+      }
+
+      if (m_numberParser == null)
+      {
+         m_numberParser = new NumberParser(this);
+         m_minusSign = getDecimalFormatSymbols().getMinusSign();
+      }
+
+      String negativePrefix = getNegativePrefix();
+      if (negativePrefix.length() != 1 || negativePrefix.charAt(0) != m_minusSign)
+      {
+         return null;
+      }
+
+      double value = m_numberParser.parseDouble(str);
+      if (Double.isNaN(value))
+      {
+         return null;
+      }
+
+      parsePosition.setIndex(str.length());
+
+      // DecimalFormat returns a Long for integral values, other than negative zero
+      if (value == (long) value && !(value == 0.0 && 1 / value < 0.0))
+      {
+         return Long.valueOf((long) value);
+      }
+      return Double.valueOf(value);
+   }
+
    @Override public int hashCode()
    {
       final int prime = 31;
@@ -176,4 +265,6 @@ public final class MPXJNumberFormat extends DecimalFormat
     */
    private DecimalFormatSymbols m_symbols = new DecimalFormatSymbols();
    private DecimalFormat[] m_alternativeFormats;
+   private NumberParser m_numberParser;
+   private char m_minusSign;
 }
@@ -25,6 +25,7 @@
 package net.sf.mpxj.mpx;
 
 import java.text.SimpleDateFormat;
+import java.util.Locale;
 
 /**
  * This class wraps the functionality provided by the SimpleDateFormat class
@@ -37,9 +38,9 @@ public final class MPXJTimeFormat extends MPXJBaseFormat
     */
    public MPXJTimeFormat()
    {
-      m_formats = new SimpleDateFormat[]
+      setFormats(new SimpleDateFormat[]
       {
          new SimpleDateFormat("HH:mm")
-      };
+      }, Locale.getDefault(Locale.Category.FORMAT));
    }
 }
@@ -61,6 +61,7 @@ import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.InputStreamTokenizer;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.ReaderTokenizer;
+import net.sf.mpxj.common.StringPool;
 import net.sf.mpxj.common.Tokenizer;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.AbstractProjectReader;
@@ -137,6 +138,8 @@ public final class MPXReader extends AbstractProjectReader
          m_baseOutlineLevel = -1;
          m_formats = new MPXJFormats(m_locale, LocaleData.getString(m_locale, LocaleData.NA), m_projectFile);
          m_deferredRelationships = new ArrayList<>();
+         m_openTasks = new ArrayList<>();
+         m_stringPool = new StringPool();
 
          bis.reset();
 
@@ -152,7 +155,7 @@ public final class MPXReader extends AbstractProjectReader
          //
          // Add the header record
          //
-         parseRecord(Integer.valueOf(MPXConstants.FILE_CREATION_RECORD_NUMBER), new Record(m_locale, tk, m_formats));
+         parseRecord(Integer.valueOf(MPXConstants.FILE_CREATION_RECORD_NUMBER), new Record(m_locale, tk, m_formats, m_stringPool));
          ++line;
 
          //
@@ -171,7 +174,7 @@ public final class MPXReader extends AbstractProjectReader
          //
          while (tk.getType() != Tokenizer.TT_EOF)
          {
-            Record record = new Record(m_locale, tk, m_formats);
+            Record record = new Record(m_locale, tk, m_formats, m_stringPool);
             Integer number = record.getRecordNumber();
 
             if (number != null)
@@ -182,6 +185,12 @@ public final class MPXReader extends AbstractProjectReader
             ++line;
          }
 
+         if (m_streaming)
+         {
+            deliverLastTask();
+            releaseOpenTasks(Integer.MIN_VALUE);
+         }
+
          processDeferredRelationships();
 
          //
@@ -218,6 +227,8 @@ public final class MPXReader extends AbstractProjectReader
          m_resourceModel = null;
          m_formats = null;
          m_deferredRelationships = null;
+         m_openTasks = null;
+         m_stringPool = null;
       }
    }
 
@@ -392,6 +403,11 @@ public final class MPXReader extends AbstractProjectReader
 
          case MPXConstants.TASK_RECORD_NUMBER:
          {
+            if (m_streaming)
+            {
+               deliverLastTask();
+            }
+
             m_lastTask = m_projectFile.addTask();
             populateTask(record, m_lastTask);
 
@@ -409,7 +425,17 @@ public final class MPXReader extends AbstractProjectReader
                {
                   throw new MPXJException(MPXJException.INVALID_OUTLINE);
                }
-               childTasks.get(childTasks.size() - 1).addChildTask(m_lastTask, outlineLevel);
+
+               if (!m_streaming)
+               {
+                  childTasks.get(childTasks.size() - 1).addChildTask(m_lastTask, outlineLevel);
+               }
+            }
+
+            if (m_streaming)
+            {
+               addStreamedTask(outlineLevel);
+               break;
             }
 
             m_eventManager.fireTaskReadEvent(m_lastTask);
@@ -1090,7 +1116,11 @@ public final class MPXReader extends AbstractProjectReader
             case PREDECESSORS:
             case UNIQUE_ID_PREDECESSORS:
             {
-               populateRelationList(task, taskField, field);
+               // Relationships can't be resolved once tasks have been released
+               if (!m_streaming)
+               {
+                  populateRelationList(task, taskField, field);
+               }
                break;
             }
 
@@ -1468,7 +1498,72 @@ public final class MPXReader extends AbstractProjectReader
          resource.addResourceAssignment(assignment);
       }
 
-      m_eventManager.fireAssignmentReadEvent(assignment);
+      if (!m_streaming)
+      {
+         m_eventManager.fireAssignmentReadEvent(assignment);
+      }
+   }
+
+   /**
+    * When streaming, a task is complete once the next task record is
+    * read, or we reach the end of the file. At this point the task
+    * and its resource assignments are passed to any listeners.
+    */
+   private void deliverLastTask()
+   {
+      if (m_lastTask != null)
+      {
+         m_eventManager.fireTaskReadEvent(m_lastTask);
+         for (ResourceAssignment assignment : m_lastTask.getResourceAssignments())
+         {
+            m_eventManager.fireAssignmentReadEvent(assignment);
+         }
+      }
+      m_lastResourceAssignment = null;
+   }
+
+   /**
+    * When streaming, we only retain the tasks which may still have
+    * children added to them: the ancestors of the most recently read task.
+    * Any other task has already been delivered to listeners and is released.
+    * The parent of the new task is chosen in the same way as
+    * TaskContainer.updateStructure chooses it once a file has been read
+    * in full: it is the closest preceding task with a lower outline level.
+    *
+    * @param outlineLevel outline level of the task just read
+    */
+   private void addStreamedTask(int outlineLevel)
+   {
+      releaseOpenTasks(outlineLevel);
+
+      if (!m_openTasks.isEmpty())
+      {
+         m_projectFile.getChildTasks().remove(m_lastTask);
+         m_openTasks.get(m_openTasks.size() - 1).addChildTask(m_lastTask);
+      }
+
+      m_openTasks.add(m_lastTask);
+   }
+
+   /**
+    * Release the open tasks which can't be ancestors of a task
+    * at the given outline level.
+    *
+    * @param outlineLevel outline level
+    */
+   private void releaseOpenTasks(int outlineLevel)
+   {
+      while (!m_openTasks.isEmpty())
+      {
+         int index = m_openTasks.size() - 1;
+         Task task = m_openTasks.get(index);
+         if (NumberHelper.getInt(task.getOutlineLevel()) < outlineLevel)
+         {
+            break;
+         }
+         m_openTasks.remove(index);
+         m_projectFile.removeTask(task);
+      }
    }
 
    /**
@@ -1556,8 +1651,49 @@ public final class MPXReader extends AbstractProjectReader
       return (m_ignoreTextModels);
    }
 
+   /**
+    * Enable or disable streaming mode. In streaming mode each task is
+    * passed to any listeners registered using addProjectListener once
+    * the task and its resource assignments have been read, and is then
+    * released by the reader rather than being retained in the ProjectFile
+    * instance. This allows large files to be processed without holding
+    * every task and resource assignment in memory. The ProjectFile
+    * instance returned by the reader will contain the project properties,
+    * calendars and resources, but no tasks.
+    *
+    * When a task is delivered its parent task is available, but its child
+    * tasks will not have been read. The hierarchy is built in the order
+    * the tasks appear in the file, rather than in ID order, and WBS values
+    * are not generated for tasks which do not have one.
+    *
+    * Predecessor information is lost in streaming mode: the Predecessors
+    * and Unique ID Predecessors values in each task record are ignored,
+    * so no relationships are created, and the predecessors and successors
+    * of every task delivered to a listener are empty. This is because a
+    * relationship may refer to a task which has already been released,
+    * or which has not yet been read. Streaming should not be used where
+    * relationships are required.
+    *
+    * @param streaming true to enable streaming mode
+    */
+   public void setStreaming(boolean streaming)
+   {
+      m_streaming = streaming;
+   }
+
+   /**
+    * Retrieve the streaming mode flag.
+    *
+    * @return true if streaming mode is enabled
+    */
+   public boolean getStreaming()
+   {
+      return m_streaming;
+   }
+
    private Locale m_locale = Locale.ENGLISH;
    private boolean m_ignoreTextModels = true;
+   private boolean m_streaming;
 
    /**
     * Transient working data.
@@ -1651,6 +1787,8 @@ public final class MPXReader extends AbstractProjectReader
    private MPXJFormats m_formats;
    private List<DeferredRelationship> m_deferredRelationships;
    private List<ProjectListener> m_projectListeners;
+   private List<Task> m_openTasks;
+   private StringPool m_stringPool;
 
    /**
     * This member data is used to hold the outline level number of the
@@ -42,6 +42,7 @@ import net.sf.mpxj.ProjectDateFormat;
 import net.sf.mpxj.ProjectTimeFormat;
 import net.sf.mpxj.Rate;
 import net.sf.mpxj.ScheduleFrom;
+import net.sf.mpxj.common.StringPool;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.Tokenizer;
 
@@ -57,9 +58,10 @@ final class Record
     * @param locale target locale
     * @param tk tokenizer providing the input stream of tokens
     * @param formats formats used when parsing data
+    * @param stringPool pool used to share repeated String values
     * @throws MPXJException normally thrown when parsing fails
     */
-   Record(Locale locale, Tokenizer tk, MPXJFormats formats)
+   Record(Locale locale, Tokenizer tk, MPXJFormats formats, StringPool stringPool)
       throws MPXJException
    {
       try
@@ -68,6 +70,8 @@ final class Record
 
          m_formats = formats;
 
+         m_stringPool = stringPool;
+
          List<String> list = new ArrayList<>();
 
          while (tk.nextToken() == Tokenizer.TT_WORD)
@@ -137,7 +141,7 @@ final class Record
 
          if (result != null)
          {
-            result = result.replace(MPXConstants.EOL_PLACEHOLDER, '\n');
+            result = m_stringPool.intern(result.replace(MPXConstants.EOL_PLACEHOLDER, '\n'));
          }
       }
       else
@@ -392,7 +396,7 @@ final class Record
                units = TimeUnitUtility.getInstance(rate.substring(index + 1), m_locale);
             }
 
-            result = new Rate(amount, units);
+            result = Rate.getInstance(amount, units);
          }
 
          catch (ParseException ex)
@@ -799,4 +803,6 @@ final class Record
    private String[] m_fields;
 
    private MPXJFormats m_formats;
+
+   private StringPool m_stringPool;
 }
@@ -1685,7 +1685,7 @@ public final class DatatypeConverter
 
       if (value != null)
       {
-         result = new Rate(value, TimeUnit.HOURS);
+         result = Rate.getInstance(value, TimeUnit.HOURS);
       }
 
       return (result);
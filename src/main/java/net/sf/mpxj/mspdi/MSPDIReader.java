@@ -77,6 +77,7 @@ import net.sf.mpxj.ProjectConfig;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.Rate;
+import net.sf.mpxj.RecurrenceIterator;
 import net.sf.mpxj.RecurrenceType;
 import net.sf.mpxj.RecurringData;
 import net.sf.mpxj.Relation;
@@ -96,6 +97,7 @@ import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.common.FieldProjection;
 import net.sf.mpxj.common.FieldTypeHelper;
 import net.sf.mpxj.common.MPPAssignmentField;
 import net.sf.mpxj.common.MPPResourceField;
@@ -178,6 +180,7 @@ public final class MSPDIReader extends AbstractProjectReader
       try
       {
          m_projectFile = new ProjectFile();
+         m_projection = new FieldProjection(getFieldProjection());
          m_eventManager = m_projectFile.getEventManager();
 
          ProjectConfig config = m_projectFile.getProjectConfig();
@@ -279,6 +282,7 @@ public final class MSPDIReader extends AbstractProjectReader
       finally
       {
          m_projectFile = null;
+         m_projection = null;
          m_lookupTableMap.clear();
       }
    }
@@ -710,13 +714,30 @@ public final class MSPDIReader extends AbstractProjectReader
             }
          }
 
-         if (rd.getRecurrenceType() != RecurrenceType.DAILY || rd.getDates().length > 1)
+         if (rd.getRecurrenceType() != RecurrenceType.DAILY || hasMultipleOccurrences(rd))
          {
             bce.setRecurring(rd);
          }
       }
    }
 
+   /**
+    * Determine if recurrence data represents more than one date,
+    * without generating the complete list of dates.
+    *
+    * @param data recurrence data
+    * @return true if there is more than one date
+    */
+   private boolean hasMultipleOccurrences(RecurringData data)
+   {
+      RecurrenceIterator iter = data.iterator();
+      if (iter.hasNext())
+      {
+         iter.next();
+      }
+      return iter.hasNext();
+   }
+
    /**
     * Retrieve the recurrence type.
     *
@@ -990,6 +1011,10 @@ public final class MSPDIReader extends AbstractProjectReader
       for (Project.Resources.Resource.Baseline baseline : xmlResource.getBaseline())
       {
          int number = NumberHelper.getInt(baseline.getNumber());
+         if (!m_projection.containsResourceBaseline(number))
+         {
+            continue;
+         }
 
          Double cost = DatatypeConverter.parseCurrency(baseline.getCost());
          Duration work = DatatypeConverter.parseDuration(m_projectFile, TimeUnit.HOURS, baseline.getWork());
@@ -1019,6 +1044,11 @@ public final class MSPDIReader extends AbstractProjectReader
       {
          int xmlFieldID = Integer.parseInt(attrib.getFieldID()) & 0x0000FFFF;
          ResourceField mpxFieldID = MPPResourceField.getInstance(xmlFieldID);
+         if (!m_projection.contains(mpxFieldID))
+         {
+            continue;
+         }
+
          TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(attrib.getDurationFormat(), null);
          DatatypeConverter.parseExtendedAttribute(m_projectFile, mpx, attrib.getValue(), mpxFieldID, durationFormat);
       }
@@ -1424,6 +1454,10 @@ public final class MSPDIReader extends AbstractProjectReader
       for (Project.Tasks.Task.Baseline baseline : xmlTask.getBaseline())
       {
          int number = NumberHelper.getInt(baseline.getNumber());
+         if (!m_projection.containsTaskBaseline(number))
+         {
+            continue;
+         }
 
          Double cost = DatatypeConverter.parseCurrency(baseline.getCost());
          Duration duration = DatatypeConverter.parseDuration(m_projectFile, durationFormat, baseline.getDuration());
@@ -1462,6 +1496,11 @@ public final class MSPDIReader extends AbstractProjectReader
       {
          int xmlFieldID = Integer.parseInt(attrib.getFieldID()) & 0x0000FFFF;
          TaskField mpxFieldID = MPPTaskField.getInstance(xmlFieldID);
+         if (!m_projection.contains(mpxFieldID))
+         {
+            continue;
+         }
+
          TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(attrib.getDurationFormat(), null);
          DatatypeConverter.parseExtendedAttribute(m_projectFile, mpx, attrib.getValue(), mpxFieldID, durationFormat);
       }
@@ -1811,6 +1850,10 @@ public final class MSPDIReader extends AbstractProjectReader
       for (Project.Assignments.Assignment.Baseline baseline : assignment.getBaseline())
       {
          int number = NumberHelper.getInt(baseline.getNumber());
+         if (!m_projection.containsAssignmentBaseline(number))
+         {
+            continue;
+         }
 
          //baseline.getBCWP()
          //baseline.getBCWS()
@@ -1850,6 +1893,11 @@ public final class MSPDIReader extends AbstractProjectReader
       {
          int xmlFieldID = Integer.parseInt(attrib.getFieldID()) & 0x0000FFFF;
          AssignmentField mpxFieldID = MPPAssignmentField.getInstance(xmlFieldID);
+         if (!m_projection.contains(mpxFieldID))
+         {
+            continue;
+         }
+
          TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(attrib.getDurationFormat(), null);
          DatatypeConverter.parseExtendedAttribute(m_projectFile, mpx, attrib.getValue(), mpxFieldID, durationFormat);
       }
@@ -1956,6 +2004,32 @@ public final class MSPDIReader extends AbstractProjectReader
       return (m_compatibleInput);
    }
 
+   /**
+    * Restrict the task, resource and resource assignment fields populated
+    * by the reader. Fields which have not been requested are not decoded.
+    * The fields the reader needs to build the structure of the project,
+    * for example unique IDs, parent tasks, and start and finish dates,
+    * are always populated. Calculated fields are only available if the
+    * fields they are calculated from have been requested. Field projection
+    * is supported by MPPReader, MSPDIReader and MPDDatabaseReader.
+    *
+    * @param fields fields to populate, or null to populate all fields
+    */
+   public void setFieldProjection(Set<? extends FieldType> fields)
+   {
+      m_fieldProjection = fields;
+   }
+
+   /**
+    * Retrieve the fields to populate.
+    *
+    * @return fields to populate, or null if all fields are populated
+    */
+   public Set<? extends FieldType> getFieldProjection()
+   {
+      return m_fieldProjection;
+   }
+
    /**
     * Cached context to minimise construction cost.
     */
@@ -1992,6 +2066,8 @@ public final class MSPDIReader extends AbstractProjectReader
    private String m_encoding;
    private Charset m_charset;
    private ProjectFile m_projectFile;
+   private Set<? extends FieldType> m_fieldProjection;
+   private FieldProjection m_projection;
    private EventManager m_eventManager;
    private List<ProjectListener> m_projectListeners;
    private Map<UUID, FieldType> m_lookupTableMap = new HashMap<>();
@@ -32,10 +32,20 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
@@ -45,6 +55,7 @@ import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.StringPool;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.ProjectReader;
 
@@ -104,6 +115,12 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    public ProjectFile read() throws MPXJException
    {
+      boolean releaseStringPool = m_stringPool == null;
+      if (releaseStringPool)
+      {
+         m_stringPool = new StringPool();
+      }
+
       try
       {
          m_reader = new PrimaveraReader(m_taskUdfCounters, m_resourceUdfCounters, m_assignmentUdfCounters, m_resourceFields, m_wbsFields, m_taskFields, m_assignmentFields, m_aliases, m_matchPrimaveraWBS, m_wbsIsFullPath);
@@ -134,6 +151,11 @@ public final class PrimaveraDatabaseReader implements ProjectReader
 
       finally
       {
+         if (releaseStringPool)
+         {
+            m_stringPool = null;
+         }
+
          if (m_allocatedConnection && m_connection != null)
          {
             try
@@ -162,43 +184,197 @@ public final class PrimaveraDatabaseReader implements ProjectReader
    {
       Map<Integer, String> projects = listProjects();
       List<ProjectFile> result = new ArrayList<>(projects.keySet().size());
-      for (Integer id : projects.keySet())
+      m_stringPool = new StringPool();
+
+      try
+      {
+         if (m_batchSize < 2)
+         {
+            for (Integer id : projects.keySet())
+            {
+               setProjectID(id.intValue());
+               result.add(read());
+            }
+            return result;
+         }
+
+         List<Integer> projectIDs = new ArrayList<>(projects.keySet());
+         m_sharedRows = new HashMap<>();
+
+         for (int fromIndex = 0; fromIndex < projectIDs.size(); fromIndex += m_batchSize)
+         {
+            List<Integer> batch = projectIDs.subList(fromIndex, Math.min(fromIndex + m_batchSize, projectIDs.size()));
+            Map<Integer, Map<String, List<Row>>> batchRows = getProjectRows(batch);
+            for (Integer id : batch)
+            {
+               setProjectID(id.intValue());
+               m_projectRows = batchRows.get(id);
+               result.add(read());
+            }
+         }
+      }
+
+      catch (SQLException ex)
       {
-         setProjectID(id.intValue());
-         result.add(read());
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
       }
+
+      finally
+      {
+         m_projectRows = null;
+         m_sharedRows = null;
+         m_stringPool = null;
+      }
+
       return result;
    }
 
    /**
-    * Populate data for analytics.
+    * Retrieve the rows for a batch of projects. Each table is read using a
+    * single query covering all of the projects in the batch, and the rows
+    * are then divided up between the projects.
+    *
+    * @param projectIDs IDs of the projects in the batch
+    * @return map of project ID to table name to rows
     */
-   private void processAnalytics() throws SQLException
+   private Map<Integer, Map<String, List<Row>>> getProjectRows(List<Integer> projectIDs) throws SQLException
    {
-      allocateConnection();
+      StringBuilder placeholders = new StringBuilder();
+      for (int index = 0; index < projectIDs.size(); index++)
+      {
+         if (index != 0)
+         {
+            placeholders.append(',');
+         }
+         placeholders.append('?');
+      }
+      String in = placeholders.toString();
+
+      Map<String, String> queries = new LinkedHashMap<>();
+      queries.put("project", "select * from " + m_schema + "project where proj_id in (" + in + ")");
+      queries.put("projprop", "select * from " + m_schema + "projprop where proj_id in (" + in + ") and prop_name='scheduling'");
+      queries.put("actvtype", "select * from " + m_schema + "actvtype where actv_code_type_id in (select distinct actv_code_type_id from " + m_schema + "taskactv where proj_id in (" + in + "))");
+      queries.put("actvcode", "select * from " + m_schema + "actvcode where actv_code_id in (select distinct actv_code_id from " + m_schema + "taskactv where proj_id in (" + in + "))");
+      queries.put("taskactv", "select * from " + m_schema + "taskactv where proj_id in (" + in + ")");
+      queries.put("udfvalue", "select * from " + m_schema + "udfvalue where proj_id in (" + in + ") or proj_id is null");
+      queries.put("calendar", "select * from " + m_schema + "calendar where (proj_id is null or proj_id in (" + in + ")) and delete_date is null");
+      queries.put("rsrc", "select * from " + m_schema + "rsrc where delete_date is null and rsrc_id in (select rsrc_id from " + m_schema + "taskrsrc t where proj_id in (" + in + ") and delete_date is null) order by rsrc_seq_num");
+      queries.put("rsrcrate", "select * from " + m_schema + "rsrcrate where delete_date is null and rsrc_id in (select rsrc_id from " + m_schema + "taskrsrc t where proj_id in (" + in + ") and delete_date is null) order by rsrc_rate_id");
+      queries.put("projwbs", "select * from " + m_schema + "projwbs where proj_id in (" + in + ") and delete_date is null order by parent_wbs_id,seq_num");
+      queries.put("task", "select * from " + m_schema + "task where proj_id in (" + in + ") and delete_date is null");
+      queries.put("taskpred", "select * from " + m_schema + "taskpred where proj_id in (" + in + ") and delete_date is null");
+      queries.put("taskrsrc", "select * from " + m_schema + "taskrsrc where proj_id in (" + in + ") and delete_date is null");
+
+      Map<String, List<Row>> tables = getRows(queries, projectIDs);
+
+      Map<Integer, Map<String, List<Row>>> result = new HashMap<>();
+      for (Integer id : projectIDs)
+      {
+         result.put(id, new HashMap<>());
+      }
 
-      try
+      for (Entry<String, List<Row>> entry : tables.entrySet())
       {
-         DatabaseMetaData meta = m_connection.getMetaData();
-         String productName = meta.getDatabaseProductName();
-         if (productName == null || productName.isEmpty())
+         String tableName = entry.getKey();
+         boolean shared = "udfvalue".equals(tableName) || "calendar".equals(tableName);
+         for (Row row : entry.getValue())
          {
-            productName = "DATABASE";
+            Integer id = row.getInteger("proj_id");
+            if (id == null)
+            {
+               if (shared)
+               {
+                  result.values().forEach(map -> map.computeIfAbsent(tableName, k -> new ArrayList<>()).add(row));
+               }
+            }
+            else
+            {
+               Map<String, List<Row>> map = result.get(id);
+               if (map != null)
+               {
+                  map.computeIfAbsent(tableName, k -> new ArrayList<>()).add(row);
+               }
+            }
          }
-         else
+      }
+
+      for (Map<String, List<Row>> map : result.values())
+      {
+         Set<Integer> resourceIDs = getIDs(map.get("taskrsrc"), "rsrc_id");
+         map.put("rsrc", filterRows(tables.get("rsrc"), "rsrc_id", resourceIDs));
+         map.put("rsrcrate", filterRows(tables.get("rsrcrate"), "rsrc_id", resourceIDs));
+
+         List<Row> activityCodeAssignments = map.get("taskactv");
+         map.put("actvtype", filterRows(tables.get("actvtype"), "actv_code_type_id", getIDs(activityCodeAssignments, "actv_code_type_id")));
+         map.put("actvcode", filterRows(tables.get("actvcode"), "actv_code_id", getIDs(activityCodeAssignments, "actv_code_id")));
+      }
+
+      return result;
+   }
+
+   /**
+    * Retrieve the set of IDs held in a column.
+    *
+    * @param rows rows to read, may be null
+    * @param column column name
+    * @return set of IDs
+    */
+   private Set<Integer> getIDs(List<Row> rows, String column)
+   {
+      Set<Integer> result = new HashSet<>();
+      if (rows != null)
+      {
+         for (Row row : rows)
          {
-            productName = productName.toUpperCase();
+            result.add(row.getInteger(column));
          }
+      }
+      return result;
+   }
 
-         ProjectProperties properties = m_reader.getProject().getProjectProperties();
-         properties.setFileApplication("Primavera");
-         properties.setFileType(productName);
+   /**
+    * Select the rows whose column value is one of the supplied IDs,
+    * preserving their original order.
+    *
+    * @param rows rows to filter
+    * @param column column name
+    * @param ids IDs to match
+    * @return filtered rows
+    */
+   private List<Row> filterRows(List<Row> rows, String column, Set<Integer> ids)
+   {
+      List<Row> result = new ArrayList<>();
+      for (Row row : rows)
+      {
+         if (ids.contains(row.getInteger(column)))
+         {
+            result.add(row);
+         }
       }
+      return result;
+   }
 
-      finally
+   /**
+    * Populate data for analytics.
+    */
+   private void processAnalytics() throws SQLException
+   {
+      allocateConnection();
+
+      DatabaseMetaData meta = m_connection.getMetaData();
+      String productName = meta.getDatabaseProductName();
+      if (productName == null || productName.isEmpty())
       {
-         releaseConnection();
+         productName = "DATABASE";
       }
+      else
+      {
+         productName = productName.toUpperCase();
+      }
+
+      ProjectProperties properties = m_reader.getProject().getProjectProperties();
+      properties.setFileApplication("Primavera");
+      properties.setFileType(productName);
    }
 
    /**
@@ -211,13 +387,13 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       //
       // Process common attributes
       //
-      List<Row> rows = getRows("select * from " + m_schema + "project where proj_id=?", m_projectID);
+      List<Row> rows = getProjectRows("project", "select * from " + m_schema + "project where proj_id=?");
       m_reader.processProjectProperties(rows, m_projectID);
 
       //
       // Process PMDB-specific attributes
       //
-      rows = getRows("select * from " + m_schema + "prefer where prefer.delete_date is null");
+      rows = getSharedRows("prefer", "select * from " + m_schema + "prefer where prefer.delete_date is null");
       if (!rows.isEmpty())
       {
          Row row = rows.get(0);
@@ -239,9 +415,9 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processActivityCodes() throws SQLException
    {
-      List<Row> types = getRows("select * from " + m_schema + "actvtype where actv_code_type_id in (select distinct actv_code_type_id from taskactv where proj_id=?)", m_projectID);
-      List<Row> typeValues = getRows("select * from " + m_schema + "actvcode where actv_code_id in (select distinct actv_code_id from taskactv where proj_id=?)", m_projectID);
-      List<Row> assignments = getRows("select * from " + m_schema + "taskactv where proj_id=?", m_projectID);
+      List<Row> types = getProjectRows("actvtype", "select * from " + m_schema + "actvtype where actv_code_type_id in (select distinct actv_code_type_id from taskactv where proj_id=?)");
+      List<Row> typeValues = getProjectRows("actvcode", "select * from " + m_schema + "actvcode where actv_code_id in (select distinct actv_code_id from taskactv where proj_id=?)");
+      List<Row> assignments = getProjectRows("taskactv", "select * from " + m_schema + "taskactv where proj_id=?");
       m_reader.processActivityCodes(types, typeValues, assignments);
    }
 
@@ -250,8 +426,8 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processUserDefinedFields() throws SQLException
    {
-      List<Row> fields = getRows("select * from " + m_schema + "udftype");
-      List<Row> values = getRows("select * from " + m_schema + "udfvalue where proj_id=? or proj_id is null", m_projectID);
+      List<Row> fields = getSharedRows("udftype", "select * from " + m_schema + "udftype");
+      List<Row> values = getProjectRows("udfvalue", "select * from " + m_schema + "udfvalue where proj_id=? or proj_id is null");
       m_reader.processUserDefinedFields(fields, values);
    }
 
@@ -263,7 +439,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processSchedulingProjectProperties() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "projprop where proj_id=? and prop_name='scheduling'", m_projectID);
+      List<Row> rows = getProjectRows("projprop", "select * from " + m_schema + "projprop where proj_id=? and prop_name='scheduling'");
       if (!rows.isEmpty())
       {
          Row row = rows.get(0);
@@ -307,7 +483,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processResources() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "rsrc where delete_date is null and rsrc_id in (select rsrc_id from " + m_schema + "taskrsrc t where proj_id=? and delete_date is null) order by rsrc_seq_num", m_projectID);
+      List<Row> rows = getProjectRows("rsrc", "select * from " + m_schema + "rsrc where delete_date is null and rsrc_id in (select rsrc_id from " + m_schema + "taskrsrc t where proj_id=? and delete_date is null) order by rsrc_seq_num");
       m_reader.processResources(rows);
    }
 
@@ -318,7 +494,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processResourceRates() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "rsrcrate where delete_date is null and rsrc_id in (select rsrc_id from " + m_schema + "taskrsrc t where proj_id=? and delete_date is null) order by rsrc_rate_id", m_projectID);
+      List<Row> rows = getProjectRows("rsrcrate", "select * from " + m_schema + "rsrcrate where delete_date is null and rsrc_id in (select rsrc_id from " + m_schema + "taskrsrc t where proj_id=? and delete_date is null) order by rsrc_rate_id");
       m_reader.processResourceRates(rows);
    }
 
@@ -329,8 +505,8 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processTasks() throws SQLException
    {
-      List<Row> wbs = getRows("select * from " + m_schema + "projwbs where proj_id=? and delete_date is null order by parent_wbs_id,seq_num", m_projectID);
-      List<Row> tasks = getRows("select * from " + m_schema + "task where proj_id=? and delete_date is null", m_projectID);
+      List<Row> wbs = getProjectRows("projwbs", "select * from " + m_schema + "projwbs where proj_id=? and delete_date is null order by parent_wbs_id,seq_num");
+      List<Row> tasks = getProjectRows("task", "select * from " + m_schema + "task where proj_id=? and delete_date is null");
       m_reader.processTasks(wbs, tasks);
    }
 
@@ -341,7 +517,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processPredecessors() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "taskpred where proj_id=? and delete_date is null", m_projectID);
+      List<Row> rows = getProjectRows("taskpred", "select * from " + m_schema + "taskpred where proj_id=? and delete_date is null");
       m_reader.processPredecessors(rows);
    }
 
@@ -352,7 +528,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processCalendars() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "calendar where (proj_id is null or proj_id=?) and delete_date is null", m_projectID);
+      List<Row> rows = getProjectRows("calendar", "select * from " + m_schema + "calendar where (proj_id is null or proj_id=?) and delete_date is null");
       m_reader.processCalendars(rows);
    }
 
@@ -363,7 +539,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processAssignments() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "taskrsrc where proj_id=? and delete_date is null", m_projectID);
+      List<Row> rows = getProjectRows("taskrsrc", "select * from " + m_schema + "taskrsrc where proj_id=? and delete_date is null");
       m_reader.processAssignments(rows);
    }
 
@@ -424,35 +600,62 @@ public final class PrimaveraDatabaseReader implements ProjectReader
    }
 
    /**
-    * Retrieve a number of rows matching the supplied query.
+    * Retrieve rows for the current project. If the rows for this project
+    * have been retrieved as part of a batch they are used, otherwise
+    * the supplied query is executed with the project ID as its parameter.
     *
+    * @param tableName table name
     * @param sql query statement
-    * @return result set
+    * @return rows
     * @throws SQLException
     */
-   private List<Row> getRows(String sql) throws SQLException
+   private List<Row> getProjectRows(String tableName, String sql) throws SQLException
    {
-      allocateConnection();
-
-      try
+      if (m_projectRows == null)
       {
-         List<Row> result = new ArrayList<>();
+         return getRows(sql, m_projectID);
+      }
 
-         m_ps = m_connection.prepareStatement(sql);
-         m_rs = m_ps.executeQuery();
-         populateMetaData();
-         while (m_rs.next())
-         {
-            result.add(new ResultSetRow(m_rs, m_meta));
-         }
+      List<Row> result = m_projectRows.get(tableName);
+      return result == null ? new ArrayList<>() : result;
+   }
 
-         return (result);
+   /**
+    * Retrieve rows which are the same for every project. When reading
+    * a batch of projects these rows are only retrieved once.
+    *
+    * @param key cache key
+    * @param sql query statement
+    * @return rows
+    * @throws SQLException
+    */
+   private List<Row> getSharedRows(String key, String sql) throws SQLException
+   {
+      if (m_sharedRows == null)
+      {
+         return getRows(sql);
       }
 
-      finally
+      List<Row> result = m_sharedRows.get(key);
+      if (result == null)
       {
-         releaseConnection();
+         result = getRows(sql);
+         m_sharedRows.put(key, result);
       }
+      return result;
+   }
+
+   /**
+    * Retrieve a number of rows matching the supplied query.
+    *
+    * @param sql query statement
+    * @return result set
+    * @throws SQLException
+    */
+   private List<Row> getRows(String sql) throws SQLException
+   {
+      allocateConnection();
+      return getRows(m_connection, sql, Collections.emptyList());
    }
 
    /**
@@ -467,97 +670,223 @@ public final class PrimaveraDatabaseReader implements ProjectReader
    private List<Row> getRows(String sql, Integer var) throws SQLException
    {
       allocateConnection();
+      return getRows(m_connection, sql, Arrays.asList(var));
+   }
+
+   /**
+    * Execute a number of queries which take the same parameters. Where a
+    * DataSource has been supplied and more than one connection is allowed,
+    * the queries are executed concurrently, each using its own connection.
+    *
+    * @param queries map of key to query statement
+    * @param vars bind variable values
+    * @return map of key to result set
+    * @throws SQLException
+    */
+   private Map<String, List<Row>> getRows(Map<String, String> queries, List<Integer> vars) throws SQLException
+   {
+      Map<String, List<Row>> result = new HashMap<>();
+
+      if (m_dataSource == null || m_maxConnections < 2)
+      {
+         allocateConnection();
+         for (Entry<String, String> entry : queries.entrySet())
+         {
+            result.put(entry.getKey(), getRows(m_connection, entry.getValue(), vars));
+         }
+         return result;
+      }
 
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(m_maxConnections, queries.size()));
       try
       {
-         List<Row> result = new ArrayList<>();
+         Map<String, Future<List<Row>>> futures = new HashMap<>();
+         for (Entry<String, String> entry : queries.entrySet())
+         {
+            String sql = entry.getValue();
+            futures.put(entry.getKey(), executor.submit(() -> {
+               try (Connection connection = m_dataSource.getConnection())
+               {
+                  return getRows(connection, sql, vars);
+               }
+            }));
+         }
 
-         m_ps = m_connection.prepareStatement(sql);
-         m_ps.setInt(1, NumberHelper.getInt(var));
-         m_rs = m_ps.executeQuery();
-         populateMetaData();
-         while (m_rs.next())
+         for (Entry<String, Future<List<Row>>> entry : futures.entrySet())
          {
-            result.add(new ResultSetRow(m_rs, m_meta));
+            result.put(entry.getKey(), entry.getValue().get());
          }
+      }
 
-         return (result);
+      catch (InterruptedException ex)
+      {
+         Thread.currentThread().interrupt();
+         throw new SQLException(ex);
       }
 
-      finally
+      catch (ExecutionException ex)
       {
-         releaseConnection();
+         if (ex.getCause() instanceof SQLException)
+         {
+            throw (SQLException) ex.getCause();
+         }
+         throw new SQLException(ex.getCause());
       }
-   }
 
-   /**
-    * Allocates a database connection.
-    *
-    * @throws SQLException
-    */
-   private void allocateConnection() throws SQLException
-   {
-      if (m_connection == null)
+      finally
       {
-         m_connection = m_dataSource.getConnection();
-         m_allocatedConnection = true;
+         executor.shutdownNow();
       }
+
+      return result;
    }
 
    /**
-    * Releases a database connection, and cleans up any resources
-    * associated with that connection.
+    * Retrieve a number of rows matching the supplied query.
+    *
+    * @param connection database connection
+    * @param sql query statement
+    * @param vars bind variable values
+    * @return result set
+    * @throws SQLException
     */
-   private void releaseConnection()
+   private List<Row> getRows(Connection connection, String sql, List<Integer> vars) throws SQLException
    {
-      if (m_rs != null)
+      try (PreparedStatement ps = connection.prepareStatement(sql))
       {
-         try
+         if (m_fetchSize > 0)
          {
-            m_rs.close();
+            ps.setFetchSize(m_fetchSize);
          }
 
-         catch (SQLException ex)
+         int index = 1;
+         for (Integer var : vars)
          {
-            // silently ignore errors on close
+            ps.setInt(index++, NumberHelper.getInt(var));
          }
 
-         m_rs = null;
-      }
-
-      if (m_ps != null)
-      {
-         try
+         try (ResultSet rs = ps.executeQuery())
          {
-            m_ps.close();
-         }
-
-         catch (SQLException ex)
-         {
-            // silently ignore errors on close
+            List<Row> result = new ArrayList<>();
+            Map<String, Integer> meta = getMetaData(rs);
+            while (rs.next())
+            {
+               result.add(new ResultSetRow(rs, meta, m_stringPool));
+            }
+            return (result);
          }
+      }
+   }
 
-         m_ps = null;
+   /**
+    * Allocates a database connection.
+    *
+    * @throws SQLException
+    */
+   private void allocateConnection() throws SQLException
+   {
+      if (m_connection == null)
+      {
+         m_connection = m_dataSource.getConnection();
+         m_allocatedConnection = true;
       }
    }
 
    /**
     * Retrieves basic meta data from the result set.
     *
+    * @param rs result set
+    * @return map of column name to column type
     * @throws SQLException
     */
-   private void populateMetaData() throws SQLException
+   private Map<String, Integer> getMetaData(ResultSet rs) throws SQLException
    {
-      m_meta.clear();
+      Map<String, Integer> result = new HashMap<>();
 
-      ResultSetMetaData meta = m_rs.getMetaData();
+      ResultSetMetaData meta = rs.getMetaData();
       int columnCount = meta.getColumnCount() + 1;
       for (int loop = 1; loop < columnCount; loop++)
       {
          String name = meta.getColumnName(loop).toLowerCase();
          Integer type = Integer.valueOf(meta.getColumnType(loop));
-         m_meta.put(name, type);
+         result.put(name, type);
       }
+
+      return result;
+   }
+
+   /**
+    * Retrieve the number of projects read using a single set of
+    * queries by the readAll method.
+    *
+    * @return batch size
+    */
+   public int getBatchSize()
+   {
+      return m_batchSize;
+   }
+
+   /**
+    * Set the number of projects read using a single set of queries
+    * by the readAll method. Rather than issuing queries for each project
+    * in turn, each table is read once for the whole batch using a
+    * "proj_id in (...)" clause, which significantly reduces the number of
+    * round trips made to the database when exporting many projects.
+    * Some databases limit the number of values allowed in an in clause,
+    * Oracle for example allows 1000. Defaults to 1, which reads each
+    * project individually.
+    *
+    * @param batchSize batch size
+    */
+   public void setBatchSize(int batchSize)
+   {
+      m_batchSize = batchSize;
+   }
+
+   /**
+    * Retrieve the fetch size hint passed to the JDBC driver.
+    *
+    * @return fetch size
+    */
+   public int getFetchSize()
+   {
+      return m_fetchSize;
+   }
+
+   /**
+    * Set the number of rows the JDBC driver should retrieve
+    * from the database in each round trip. Defaults to 0, which
+    * uses the driver's default.
+    *
+    * @param fetchSize fetch size
+    */
+   public void setFetchSize(int fetchSize)
+   {
+      m_fetchSize = fetchSize;
+   }
+
+   /**
+    * Retrieve the maximum number of connections used to read tables
+    * concurrently when reading a batch of projects.
+    *
+    * @return maximum number of connections
+    */
+   public int getMaxConnections()
+   {
+      return m_maxConnections;
+   }
+
+   /**
+    * Set the maximum number of connections used to read tables
+    * concurrently when reading a batch of projects. This only applies
+    * where a DataSource has been supplied, as each query will use its
+    * own connection. Defaults to 1.
+    *
+    * @param maxConnections maximum number of connections
+    */
+   public void setMaxConnections(int maxConnections)
+   {
+      m_maxConnections = maxConnections;
    }
 
    /**
@@ -726,9 +1055,12 @@ public final class PrimaveraDatabaseReader implements ProjectReader
    private DataSource m_dataSource;
    private Connection m_connection;
    private boolean m_allocatedConnection;
-   private PreparedStatement m_ps;
-   private ResultSet m_rs;
-   private Map<String, Integer> m_meta = new HashMap<>();
+   private int m_batchSize = 1;
+   private int m_fetchSize;
+   private int m_maxConnections = 1;
+   private Map<String, List<Row>> m_projectRows;
+   private Map<String, List<Row>> m_sharedRows;
+   private StringPool m_stringPool;
    private List<ProjectListener> m_projectListeners;
    private UserFieldCounters m_taskUdfCounters = new UserFieldCounters();
    private UserFieldCounters m_resourceUdfCounters = new UserFieldCounters();
@@ -84,6 +84,7 @@ import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.StringPool;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.primavera.schema.APIBusinessObjects;
 import net.sf.mpxj.primavera.schema.ActivityCodeType;
@@ -154,6 +155,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
       try
       {
          m_projectFile = new ProjectFile();
+         m_stringPool = new StringPool();
          m_eventManager = m_projectFile.getEventManager();
 
          ProjectConfig config = m_projectFile.getProjectConfig();
@@ -251,6 +253,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
       finally
       {
          m_projectFile = null;
+         m_stringPool = null;
          m_clashMap.clear();
          m_activityCodeMap.clear();
       }
@@ -522,7 +525,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
    {
       ProjectCalendar calendar = m_projectFile.addCalendar();
       Integer id = row.getObjectId();
-      calendar.setName(row.getName());
+      calendar.setName(m_stringPool.intern(row.getName()));
       calendar.setUniqueID(id);
 
       StandardWorkWeek stdWorkWeek = row.getStandardWorkWeek();
@@ -587,8 +590,8 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
       {
          Resource resource = m_projectFile.addResource();
          resource.setUniqueID(xml.getObjectId());
-         resource.setName(xml.getName());
-         resource.setCode(xml.getEmployeeId());
+         resource.setName(m_stringPool.intern(xml.getName()));
+         resource.setCode(m_stringPool.intern(xml.getEmployeeId()));
          resource.setEmailAddress(xml.getEmailAddress());
          resource.setGUID(DatatypeConverter.parseUUID(xml.getGUID()));
          resource.setNotes(xml.getResourceNotes());
@@ -674,14 +677,14 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
 
          task.setUniqueID(uniqueID);
          task.setGUID(DatatypeConverter.parseUUID(row.getGUID()));
-         task.setName(row.getName());
+         task.setName(m_stringPool.intern(row.getName()));
          task.setBaselineCost(row.getSummaryBaselineTotalCost());
          task.setRemainingCost(row.getSummaryRemainingTotalCost());
          task.setRemainingDuration(getDuration(row.getSummaryRemainingDuration()));
          task.setSummary(true);
          task.setStart(row.getAnticipatedStartDate());
          task.setFinish(row.getAnticipatedFinishDate());
-         task.setWBS(row.getCode());
+         task.setWBS(m_stringPool.intern(row.getCode()));
       }
 
       //
@@ -744,7 +747,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
 
          task.setUniqueID(uniqueID);
          task.setGUID(DatatypeConverter.parseUUID(row.getGUID()));
-         task.setName(row.getName());
+         task.setName(m_stringPool.intern(row.getName()));
          task.setPercentageComplete(reversePercentage(row.getPercentComplete()));
          task.setRemainingDuration(getDuration(row.getRemainingDuration()));
          task.setActualWork(getDuration(zeroIsNull(row.getActualDuration())));
@@ -772,9 +775,9 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
 
          task.setPriority(PRIORITY_MAP.get(row.getLevelingPriority()));
          task.setCreateDate(row.getCreateDate());
-         task.setText(1, row.getId());
-         task.setText(2, row.getType());
-         task.setText(3, row.getStatus());
+         task.setText(1, m_stringPool.intern(row.getId()));
+         task.setText(2, m_stringPool.intern(row.getType()));
+         task.setText(3, m_stringPool.intern(row.getStatus()));
          task.setNumber(1, row.getPrimaryResourceObjectId());
 
          task.setMilestone(BooleanHelper.getBoolean(MILESTONE_MAP.get(row.getType())));
@@ -1230,7 +1233,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
 
       if (udf.getTextValue() != null)
       {
-         return udf.getTextValue();
+         return m_stringPool.intern(udf.getTextValue());
       }
 
       return null;
@@ -1303,6 +1306,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
 
    private ProjectFile m_projectFile;
    private EventManager m_eventManager;
+   private StringPool m_stringPool;
    private List<ProjectListener> m_projectListeners;
    private Map<Integer, Integer> m_clashMap = new HashMap<>();
    private Map<Integer, ActivityCodeValue> m_activityCodeMap = new HashMap<>();
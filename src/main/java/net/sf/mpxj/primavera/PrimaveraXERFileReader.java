@@ -28,7 +28,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
-import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
@@ -45,10 +44,12 @@ import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.Relation;
+import net.sf.mpxj.common.StringPool;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.MultiDateFormat;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.NumberParser;
 import net.sf.mpxj.common.ReaderTokenizer;
 import net.sf.mpxj.common.Tokenizer;
 import net.sf.mpxj.listener.ProjectListener;
@@ -123,6 +124,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_tables = null;
          m_numberFormat = null;
          m_reader = null;
+         m_stringPool = null;
       }
    }
 
@@ -200,6 +202,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_tables = null;
          m_numberFormat = null;
          m_reader = null;
+         m_stringPool = null;
       }
    }
 
@@ -238,6 +241,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_currentTableName = null;
          m_currentTable = null;
          m_currentFieldNames = null;
+         m_currentFieldTypes = null;
          m_defaultCurrencyName = null;
          m_currencyMap.clear();
          m_numberFormat = null;
@@ -254,6 +258,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private void processFile(InputStream is) throws MPXJException
    {
       int line = 1;
+      m_stringPool = new StringPool();
 
       try
       {
@@ -284,13 +289,9 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
 
          while (tk.getType() != Tokenizer.TT_EOF)
          {
-            readRecord(tk, record);
-            if (!record.isEmpty())
+            if (readRecord(tk, record))
             {
-               if (processRecord(record))
-               {
-                  break;
-               }
+               break;
             }
             ++line;
          }
@@ -391,6 +392,8 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_tables = null;
          m_currentTable = null;
          m_currentFieldNames = null;
+         m_currentFieldTypes = null;
+         m_stringPool = null;
       }
    }
 
@@ -516,19 +519,186 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    }
 
    /**
-    * Reads each token from a single record and adds it to a list.
+    * Reads a single record. Data records are converted directly from
+    * the tokenizer without creating an intermediate list of strings,
+    * and data records from tables we aren't interested in are skipped
+    * without materializing their contents. Tokens from all other record
+    * types are added to a list for processing.
     *
     * @param tk tokenizer
     * @param record list of tokens
+    * @return flag indicating if this is the last record in the file to be processed
     * @throws IOException
+    * @throws MPXJException
     */
-   private void readRecord(Tokenizer tk, List<String> record) throws IOException
+   private boolean readRecord(Tokenizer tk, List<String> record) throws IOException, MPXJException
    {
+      if (tk.nextToken() != Tokenizer.TT_WORD)
+      {
+         return false;
+      }
+
+      if (isDataRecord(tk.getTokenSequence()))
+      {
+         processDataRecord(tk);
+         return false;
+      }
+
       record.clear();
+      record.add(tk.getToken());
       while (tk.nextToken() == Tokenizer.TT_WORD)
       {
          record.add(tk.getToken());
       }
+
+      return processRecord(record);
+   }
+
+   /**
+    * Determine if the first token of a record indicates that this is a data record.
+    *
+    * @param token first token
+    * @return true if this is a data record
+    */
+   private boolean isDataRecord(CharSequence token)
+   {
+      // Either %R, or an empty token for multiline data
+      return token.length() == 0 || (token.length() == 2 && token.charAt(0) == '%' && token.charAt(1) == 'R');
+   }
+
+   /**
+    * Read the fields of a data record directly from the tokenizer.
+    *
+    * @param tk tokenizer
+    * @throws IOException
+    * @throws MPXJException
+    */
+   private void processDataRecord(Tokenizer tk) throws IOException, MPXJException
+   {
+      if (m_skipTable)
+      {
+         while (tk.nextToken() == Tokenizer.TT_WORD)
+         {
+            // Skip the record
+         }
+         return;
+      }
+
+      Map<String, Object> map = new HashMap<>();
+      int loop = 1;
+      while (tk.nextToken() == Tokenizer.TT_WORD)
+      {
+         // If we have more fields than field names, ignore the remaining fields
+         if (loop < m_currentFieldNames.length)
+         {
+            map.put(m_currentFieldNames[loop], getFieldValue(m_currentFieldTypes[loop], tk));
+         }
+         ++loop;
+      }
+
+      Row currentRow = new MapRow(map);
+      m_currentTable.add(currentRow);
+
+      //
+      // Special case - we need to know the default currency format
+      // ahead of time, so process each row as we get it so that
+      // we can correctly parse currency values in later tables.
+      //
+      if (m_currentTableName.equals("currtype"))
+      {
+         processCurrency(currentRow);
+      }
+   }
+
+   /**
+    * Convert the current token into a value of the appropriate type.
+    * Numeric values are parsed directly from the tokenizer's buffer,
+    * a String is only created when one is required.
+    *
+    * @param fieldType field type
+    * @param tk tokenizer
+    * @return field value
+    */
+   private Object getFieldValue(XerFieldType fieldType, Tokenizer tk)
+   {
+      CharSequence fieldValue = tk.getTokenSequence();
+      if (fieldValue.length() == 0)
+      {
+         return null;
+      }
+
+      Object objectValue;
+      switch (fieldType)
+      {
+         case DATE:
+         {
+            try
+            {
+               objectValue = m_df.parseDate(fieldValue);
+            }
+
+            catch (ParseException ex)
+            {
+               objectValue = fieldValue.toString();
+            }
+
+            break;
+         }
+
+         case CURRENCY:
+         case DOUBLE:
+         case DURATION:
+         {
+            double value = getNumberParser().parseDouble(fieldValue);
+            if (Double.isNaN(value))
+            {
+               String text = fieldValue.toString();
+               try
+               {
+                  objectValue = Double.valueOf(m_numberFormat.parse(text.trim()).doubleValue());
+               }
+
+               catch (ParseException ex)
+               {
+                  objectValue = text;
+               }
+            }
+            else
+            {
+               objectValue = Double.valueOf(value);
+            }
+            break;
+         }
+
+         case INTEGER:
+         {
+            objectValue = Integer.valueOf(NumberParser.parseInt(fieldValue));
+            break;
+         }
+
+         default:
+         {
+            objectValue = m_stringPool.intern(fieldValue.toString());
+            break;
+         }
+      }
+
+      return objectValue;
+   }
+
+   /**
+    * Retrieve a parser which matches the current number format.
+    *
+    * @return NumberParser instance
+    */
+   private NumberParser getNumberParser()
+   {
+      if (m_numberParserFormat != m_numberFormat)
+      {
+         m_numberParser = new NumberParser(m_numberFormat);
+         m_numberParserFormat = m_numberFormat;
+      }
+      return m_numberParser;
    }
 
    /**
@@ -578,103 +748,16 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
             if (m_skipTable)
             {
                m_currentFieldNames = null;
+               m_currentFieldTypes = null;
             }
             else
             {
                m_currentFieldNames = record.toArray(new String[record.size()]);
+               m_currentFieldTypes = new XerFieldType[m_currentFieldNames.length];
                for (int loop = 0; loop < m_currentFieldNames.length; loop++)
                {
                   m_currentFieldNames[loop] = m_currentFieldNames[loop].toLowerCase();
-               }
-            }
-            break;
-         }
-
-         case DATA:
-         {
-            if (!m_skipTable)
-            {
-               Map<String, Object> map = new HashMap<>();
-               for (int loop = 1; loop < record.size(); loop++)
-               {
-                  // We have more fields than field names, stop processing
-                  if (loop == m_currentFieldNames.length)
-                  {
-                     break;
-                  }
-
-                  String fieldName = m_currentFieldNames[loop];
-                  String fieldValue = record.get(loop);
-                  XerFieldType fieldType = m_fieldTypes.getOrDefault(fieldName, XerFieldType.STRING);
-
-                  Object objectValue;
-                  if (fieldValue.length() == 0)
-                  {
-                     objectValue = null;
-                  }
-                  else
-                  {
-                     switch (fieldType)
-                     {
-                        case DATE:
-                        {
-                           try
-                           {
-                              objectValue = m_df.parseObject(fieldValue);
-                           }
-
-                           catch (ParseException ex)
-                           {
-                              objectValue = fieldValue;
-                           }
-
-                           break;
-                        }
-
-                        case CURRENCY:
-                        case DOUBLE:
-                        case DURATION:
-                        {
-                           try
-                           {
-                              objectValue = Double.valueOf(m_numberFormat.parse(fieldValue.trim()).doubleValue());
-                           }
-
-                           catch (ParseException ex)
-                           {
-                              objectValue = fieldValue;
-                           }
-                           break;
-                        }
-
-                        case INTEGER:
-                        {
-                           objectValue = Integer.valueOf(fieldValue.trim());
-                           break;
-                        }
-
-                        default:
-                        {
-                           objectValue = fieldValue;
-                           break;
-                        }
-                     }
-                  }
-
-                  map.put(fieldName, objectValue);
-               }
-
-               Row currentRow = new MapRow(map);
-               m_currentTable.add(currentRow);
-
-               //
-               // Special case - we need to know the default currency format
-               // ahead of time, so process each row as we get it so that
-               // we can correctly parse currency values in later tables.
-               //
-               if (m_currentTableName.equals("currtype"))
-               {
-                  processCurrency(currentRow);
+                  m_currentFieldTypes[loop] = m_fieldTypes.getOrDefault(m_currentFieldNames[loop], XerFieldType.STRING);
                }
             }
             break;
@@ -904,11 +987,15 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private String m_currentTableName;
    private List<Row> m_currentTable;
    private String[] m_currentFieldNames;
+   private XerFieldType[] m_currentFieldTypes;
    private String m_defaultCurrencyName;
    private Map<String, DecimalFormat> m_currencyMap = new HashMap<>();
    private DecimalFormat m_numberFormat;
+   private DecimalFormat m_numberParserFormat;
+   private NumberParser m_numberParser;
+   private StringPool m_stringPool;
    private Row m_defaultCurrencyData;
-   private DateFormat m_df = new MultiDateFormat("yyyy-MM-dd HH:mm", "yyyy-MM-dd");
+   private MultiDateFormat m_df = new MultiDateFormat("yyyy-MM-dd HH:mm", "yyyy-MM-dd");
    private List<ProjectListener> m_projectListeners;
    private UserFieldCounters m_taskUdfCounters = new UserFieldCounters();
    private UserFieldCounters m_resourceUdfCounters = new UserFieldCounters();
@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.StringPool;
 
 /**
  * Implementation of the Row interface, wrapping a Map.
@@ -46,8 +47,10 @@ final class ResultSetRow extends MapRow
     *            result set from which data is drawn
     * @param meta
     *            result set meta data
+    * @param stringPool
+    *            pool used to share repeated text values, may be null
     */
-   public ResultSetRow(ResultSet rs, Map<String, Integer> meta)
+   public ResultSetRow(ResultSet rs, Map<String, Integer> meta, StringPool stringPool)
       throws SQLException
    {
       super(new HashMap<String, Object>());
@@ -75,6 +78,10 @@ final class ResultSetRow extends MapRow
             case Types.LONGNVARCHAR:
             {
                value = stripTrailingNul(rs.getString(name));
+               if (stringPool != null)
+               {
+                  value = stringPool.intern((String) value);
+               }
                break;
             }
 
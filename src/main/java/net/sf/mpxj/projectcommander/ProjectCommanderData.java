@@ -26,6 +26,7 @@ package net.sf.mpxj.projectcommander;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,11 +37,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import net.sf.mpxj.common.ByteArrayHelper;
+import net.sf.mpxj.common.BytePatternMatcher;
 import net.sf.mpxj.common.DebugLogPrintWriter;
 
 /**
@@ -249,9 +249,8 @@ final class ProjectCommanderData
    {
       // This is pretty crude, but it allows us to select between the two
       // different task fingerprints we've come across.
-      long fingerprint1 = IntStream.range(0, m_buffer.length - TASK_FINGERPRINT_1.length).filter(index -> matchPattern(TASK_FINGERPRINT_1, index)).count();
-      long fingerprint2 = IntStream.range(0, m_buffer.length - TASK_FINGERPRINT_2.length).filter(index -> matchPattern(TASK_FINGERPRINT_2, index)).count();
-      byte[] fingerprint = fingerprint1 > fingerprint2 ? TASK_FINGERPRINT_1 : TASK_FINGERPRINT_2;
+      int[] counts = TASK_FINGERPRINT_MATCHER.count(m_buffer, 0, m_buffer.length - TASK_FINGERPRINT_1.length);
+      byte[] fingerprint = counts[0] > counts[1] ? TASK_FINGERPRINT_1 : TASK_FINGERPRINT_2;
 
       int index = findFirstMatch(fingerprint, 0);
       if (index == -1)
@@ -348,7 +347,11 @@ final class ProjectCommanderData
     */
    private void determineLinkBlockBoundary(Map<String, BlockPattern> map)
    {
-      Map<Integer, Long> valueCounts = IntStream.range(0, m_buffer.length - LINK_FINGERPRINT.length).filter(index -> matchPattern(LINK_FINGERPRINT, index)).mapToObj(index -> Integer.valueOf(DatatypeConverter.getShort(m_buffer, index - 4))).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+      Map<Integer, Long> valueCounts = new HashMap<>();
+      LINK_FINGERPRINT_MATCHER.findAll(m_buffer, 0, m_buffer.length - LINK_FINGERPRINT.length, (index, patternIndex) -> {
+         valueCounts.merge(Integer.valueOf(DatatypeConverter.getShort(m_buffer, index - 4)), Long.valueOf(1), Long::sum);
+         return true;
+      });
 
       Map.Entry<Integer, Long> entry = valueCounts.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
       if (entry != null)
@@ -418,14 +421,14 @@ final class ProjectCommanderData
    private List<BlockReference> populateBlockReferences()
    {
       List<BlockReference> blockReferences = new ArrayList<>();
-      List<BlockPattern> blockPatterns = selectBlockPatterns();
       Set<String> matchedPatternNames = new HashSet<>();
       boolean skipImage = false;
 
-      for (int index = 0; index < m_buffer.length - 11; index++)
+      for (BlockReference candidate : findBlockPatterns())
       {
-         BlockPattern block = matchPattern(blockPatterns, index);
-         if (block != null && block.getValid(matchedPatternNames))
+         BlockPattern block = candidate.getPattern();
+         int index = candidate.getIndex();
+         if (block.getValid(matchedPatternNames))
          {
             // If we hit a CImage we'll skip everything else until we hit a named block.
             // Too many false positive hits in image data, and we don't know the
@@ -442,7 +445,7 @@ final class ProjectCommanderData
 
             if (!skipImage)
             {
-               blockReferences.add(new BlockReference(block, index));
+               blockReferences.add(candidate);
                matchedPatternNames.add(block.getName());
 
                // Nothing useful to us after we hit this block
@@ -573,24 +576,19 @@ final class ProjectCommanderData
    }
 
    /**
-    * Determine if the data at the current index in the file matches a block start pattern.
+    * Locate all offsets in the file which match a block start pattern.
+    * Where more than one pattern matches at the same offset, the first
+    * pattern in the list is used.
     *
-    * @param blocks list of block start patterns
-    * @param bufferIndex current index in file
-    * @return matching block pattern or null
+    * @return list of candidate block starts
     */
-   private final BlockPattern matchPattern(List<BlockPattern> blocks, int bufferIndex)
+   private List<BlockReference> findBlockPatterns()
    {
-      BlockPattern match = null;
-      for (BlockPattern block : blocks)
-      {
-         if (matchPattern(block.getPattern(), bufferIndex))
-         {
-            match = block;
-            break;
-         }
-      }
-      return match;
+      List<BlockPattern> blockPatterns = selectBlockPatterns();
+      BytePatternMatcher matcher = new BytePatternMatcher(blockPatterns.stream().map(BlockPattern::getPattern).collect(Collectors.toList()));
+      List<BlockReference> result = new ArrayList<>();
+      matcher.findAll(m_buffer, 0, m_buffer.length - 11, (index, patternIndex) -> result.add(new BlockReference(blockPatterns.get(patternIndex), index)));
+      return result;
    }
 
    private byte[] extractFingerprint(String name, boolean skipBlockStartString, int fingerprintLength)
@@ -688,6 +686,7 @@ final class ProjectCommanderData
 
    /**
     * Find first match for a byte pattern from an offset in the file.
+    * The matcher for each distinct pattern is built once and reused.
     *
     * @param pattern byte pattern
     * @param offset file offset
@@ -695,16 +694,8 @@ final class ProjectCommanderData
     */
    private int findFirstMatch(byte[] pattern, int offset)
    {
-      int result = -1;
-      for (int bufferIndex = offset; bufferIndex < m_buffer.length - pattern.length; bufferIndex++)
-      {
-         if (matchPattern(pattern, bufferIndex))
-         {
-            result = bufferIndex;
-            break;
-         }
-      }
-      return result;
+      BytePatternMatcher matcher = m_matchers.computeIfAbsent(ByteBuffer.wrap(pattern), k -> new BytePatternMatcher(pattern));
+      return matcher.findFirst(m_buffer, offset, m_buffer.length - pattern.length);
    }
 
    /**
@@ -787,6 +778,7 @@ final class ProjectCommanderData
    private PrintWriter m_log;
    private List<Block> m_blocks = new ArrayList<>();
    private Deque<Block> m_parentStack = new ArrayDeque<>();
+   private Map<ByteBuffer, BytePatternMatcher> m_matchers = new HashMap<>();
 
    private static final BlockPattern[] NAMED_BLOCK_PATTERNS =
    {
@@ -915,6 +907,10 @@ final class ProjectCommanderData
       0x00
    };
 
+   private static final BytePatternMatcher TASK_FINGERPRINT_MATCHER = new BytePatternMatcher(TASK_FINGERPRINT_1, TASK_FINGERPRINT_2);
+
+   private static final BytePatternMatcher LINK_FINGERPRINT_MATCHER = new BytePatternMatcher(LINK_FINGERPRINT);
+
    private static final Map<String, Set<String>> EXPECTED_CHILD_CLASSES = new HashMap<>();
    static
    {
@@ -26,6 +26,7 @@ package net.sf.mpxj.reader;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.sql.Connection;
@@ -135,6 +136,10 @@ public final class UniversalProjectReader implements ProjectReader
          {
             result = handleDirectory(file);
          }
+         else if (isOleCompoundDocument(file))
+         {
+            result = handleOleCompoundDocument(file);
+         }
          else
          {
             FileInputStream fis = null;
@@ -417,6 +422,70 @@ public final class UniversalProjectReader implements ProjectReader
       return null;
    }
 
+   /**
+    * Determine if a file appears to be an OLE compound document.
+    *
+    * @param file file to test
+    * @return true if the file starts with the OLE compound document fingerprint
+    */
+   private boolean isOleCompoundDocument(File file) throws IOException
+   {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int bytesRead;
+      FileInputStream fis = new FileInputStream(file);
+      try
+      {
+         bytesRead = fis.read(buffer);
+      }
+
+      finally
+      {
+         fis.close();
+      }
+
+      return bytesRead == BUFFER_SIZE && matchesFingerprint(buffer, OLE_COMPOUND_DOC_FINGERPRINT);
+   }
+
+   /**
+    * We have an OLE compound document on disk... but is it an MPP file?
+    * Opening the file system directly from the file means that only the
+    * parts of the document which are used are read into memory.
+    *
+    * @param file OLE compound document
+    * @return ProjectFile instance
+    */
+   private ProjectFile handleOleCompoundDocument(File file) throws Exception
+   {
+      POIFSFileSystem fs;
+
+      try
+      {
+         fs = new POIFSFileSystem(file, true);
+      }
+
+      catch (Exception ex)
+      {
+         return null;
+      }
+
+      try
+      {
+         String fileFormat = MPPReader.getFileFormat(fs);
+         if (fileFormat != null && fileFormat.startsWith("MSProject"))
+         {
+            MPPReader reader = new MPPReader();
+            addListeners(reader);
+            return reader.read(fs);
+         }
+         return null;
+      }
+
+      finally
+      {
+         fs.close();
+      }
+   }
+
    /**
     * We have a binary property list.
     *
@@ -23,9 +23,9 @@
 
 package net.sf.mpxj.sdef;
 
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+
+import net.sf.mpxj.common.MultiDateFormat;
 
 /**
  * SDEF Date Field.
@@ -65,11 +65,11 @@ class DateField extends StringField
       return result;
    }
 
-   private static final ThreadLocal<DateFormat> DATE_FORMAT = new ThreadLocal<DateFormat>()
+   private static final ThreadLocal<MultiDateFormat> DATE_FORMAT = new ThreadLocal<MultiDateFormat>()
    {
-      @Override protected DateFormat initialValue()
+      @Override protected MultiDateFormat initialValue()
       {
-         return new SimpleDateFormat("ddMMMyy");
+         return new MultiDateFormat("ddMMMyy");
       }
    };
 
@@ -23,6 +23,8 @@
 
 package net.sf.mpxj.sdef;
 
+import net.sf.mpxj.common.NumberParser;
+
 /**
  * SDEF number field.
  */
@@ -49,16 +51,26 @@ class DoubleField extends StringField
       }
       else
       {
-         try
+         double parsedValue = NUMBER_PARSER.parseDouble(value);
+         if (!Double.isNaN(parsedValue))
          {
-            result = Double.valueOf(value);
+            result = Double.valueOf(parsedValue);
          }
-
-         catch (NumberFormatException ex)
+         else
          {
-            result = null;
+            try
+            {
+               result = Double.valueOf(value);
+            }
+
+            catch (NumberFormatException ex)
+            {
+               result = null;
+            }
          }
       }
       return result;
    }
+
+   private static final NumberParser NUMBER_PARSER = new NumberParser('.', (char) 0, '-');
 }
@@ -0,0 +1,374 @@
+/*
+ * file:       TimephasedAggregator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       08/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedCost;
+import net.sf.mpxj.TimephasedItem;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.DateHelper;
+
+/**
+ * Rolls up timephased data from a set of resource assignments into
+ * a TimephasedSeries, from which the total for any date range can be
+ * retrieved in constant time. This avoids repeatedly walking each
+ * assignment's timephased data for every column of a timescale, as
+ * TimephasedUtility does.
+ *
+ * Timephased data is aggregated at the resolution of whole days, using
+ * each assignment's calendar to determine which days are working days,
+ * consistent with the results produced by TimephasedUtility for
+ * timescale units of a day or more. The working days for each calendar
+ * are determined once per series, rather than once per assignment.
+ *
+ * The timephased data to aggregate is chosen using a function, for
+ * example {@code ResourceAssignment::getTimephasedWork} or
+ * {@code ResourceAssignment::getTimephasedActualCost}.
+ */
+public final class TimephasedAggregator
+{
+   /**
+    * Constructor.
+    *
+    * @param file parent project file
+    */
+   public TimephasedAggregator(ProjectFile file)
+   {
+      m_file = file;
+   }
+
+   /**
+    * Aggregate timephased work for a set of resource assignments.
+    *
+    * @param assignments resource assignments
+    * @param data function to retrieve timephased work from an assignment
+    * @return aggregated work, in hours
+    */
+   public TimephasedSeries getWork(Collection<ResourceAssignment> assignments, Function<ResourceAssignment, List<TimephasedWork>> data)
+   {
+      ProjectProperties properties = m_file.getProjectProperties();
+      return aggregate(assignments, data, w -> getHours(w.getAmountPerDay(), properties));
+   }
+
+   /**
+    * Aggregate timephased cost for a set of resource assignments.
+    *
+    * @param assignments resource assignments
+    * @param data function to retrieve timephased cost from an assignment
+    * @return aggregated cost
+    */
+   public TimephasedSeries getCost(Collection<ResourceAssignment> assignments, Function<ResourceAssignment, List<TimephasedCost>> data)
+   {
+      return aggregate(assignments, data, c -> c.getAmountPerDay() == null ? 0 : c.getAmountPerDay().doubleValue());
+   }
+
+   /**
+    * Aggregate timephased work for a task. For a summary task this
+    * includes the work for all of its child tasks.
+    *
+    * @param task target task
+    * @param data function to retrieve timephased work from an assignment
+    * @return aggregated work, in hours
+    */
+   public TimephasedSeries getTaskWork(Task task, Function<ResourceAssignment, List<TimephasedWork>> data)
+   {
+      return getWork(getTaskAssignments(task), data);
+   }
+
+   /**
+    * Aggregate timephased cost for a task. For a summary task this
+    * includes the cost for all of its child tasks.
+    *
+    * @param task target task
+    * @param data function to retrieve timephased cost from an assignment
+    * @return aggregated cost
+    */
+   public TimephasedSeries getTaskCost(Task task, Function<ResourceAssignment, List<TimephasedCost>> data)
+   {
+      return getCost(getTaskAssignments(task), data);
+   }
+
+   /**
+    * Aggregate timephased work for a resource.
+    *
+    * @param resource target resource
+    * @param data function to retrieve timephased work from an assignment
+    * @return aggregated work, in hours
+    */
+   public TimephasedSeries getResourceWork(Resource resource, Function<ResourceAssignment, List<TimephasedWork>> data)
+   {
+      return getWork(resource.getTaskAssignments(), data);
+   }
+
+   /**
+    * Aggregate timephased cost for a resource.
+    *
+    * @param resource target resource
+    * @param data function to retrieve timephased cost from an assignment
+    * @return aggregated cost
+    */
+   public TimephasedSeries getResourceCost(Resource resource, Function<ResourceAssignment, List<TimephasedCost>> data)
+   {
+      return getCost(resource.getTaskAssignments(), data);
+   }
+
+   /**
+    * Aggregate timephased work for the whole project.
+    *
+    * @param data function to retrieve timephased work from an assignment
+    * @return aggregated work, in hours
+    */
+   public TimephasedSeries getProjectWork(Function<ResourceAssignment, List<TimephasedWork>> data)
+   {
+      return getWork(m_file.getResourceAssignments(), data);
+   }
+
+   /**
+    * Aggregate timephased cost for the whole project.
+    *
+    * @param data function to retrieve timephased cost from an assignment
+    * @return aggregated cost
+    */
+   public TimephasedSeries getProjectCost(Function<ResourceAssignment, List<TimephasedCost>> data)
+   {
+      return getCost(m_file.getResourceAssignments(), data);
+   }
+
+   /**
+    * Aggregate timephased data for a set of resource assignments.
+    *
+    * @param <T> timephased item type
+    * @param assignments resource assignments
+    * @param data function to retrieve timephased data from an assignment
+    * @param amount function to retrieve the amount per day from a timephased item
+    * @return aggregated data
+    */
+   private <T extends TimephasedItem<?>> TimephasedSeries aggregate(Collection<ResourceAssignment> assignments, Function<ResourceAssignment, List<T>> data, ToDoubleFunction<T> amount)
+   {
+      //
+      // Determine the range of days covered by the timephased data
+      //
+      List<ProjectCalendar> calendars = new ArrayList<>(assignments.size());
+      List<List<T>> itemLists = new ArrayList<>(assignments.size());
+      long firstDay = Long.MAX_VALUE;
+      long lastDay = Long.MIN_VALUE;
+      for (ResourceAssignment assignment : assignments)
+      {
+         List<T> items = data.apply(assignment);
+         if (items == null || items.isEmpty())
+         {
+            continue;
+         }
+
+         calendars.add(assignment.getCalendar());
+         itemLists.add(items);
+         for (T item : items)
+         {
+            long start = item.getStart().getTime();
+            long days = getDayCount(start, item.getFinish().getTime());
+            if (days > 0)
+            {
+               long day = DateHelper.getEpochDay(start);
+               firstDay = Math.min(firstDay, day);
+               lastDay = Math.max(lastDay, day + days - 1);
+            }
+         }
+      }
+
+      if (firstDay > lastDay)
+      {
+         return new TimephasedSeries(0, new double[1]);
+      }
+
+      //
+      // Record the change in the amount per day at the start and end of each item,
+      // separately for each calendar as the working days may differ.
+      //
+      int dayCount = (int) (lastDay - firstDay + 1);
+      Map<ProjectCalendar, double[]> changes = new HashMap<>();
+      for (int listIndex = 0; listIndex < itemLists.size(); listIndex++)
+      {
+         double[] calendarChanges = changes.computeIfAbsent(calendars.get(listIndex), k -> new double[dayCount + 1]);
+         for (T item : itemLists.get(listIndex))
+         {
+            long start = item.getStart().getTime();
+            long days = getDayCount(start, item.getFinish().getTime());
+            if (days > 0)
+            {
+               double value = amount.applyAsDouble(item);
+               int index = (int) (DateHelper.getEpochDay(start) - firstDay);
+               calendarChanges[index] += value;
+               calendarChanges[(int) (index + days)] -= value;
+            }
+         }
+      }
+
+      //
+      // Accumulate the amount for each working day
+      //
+      double[] daily = new double[dayCount];
+      for (Map.Entry<ProjectCalendar, double[]> entry : changes.entrySet())
+      {
+         boolean[] workingDays = getWorkingDays(entry.getKey(), firstDay, dayCount);
+         double[] calendarChanges = entry.getValue();
+         double amountPerDay = 0;
+         for (int index = 0; index < dayCount; index++)
+         {
+            amountPerDay += calendarChanges[index];
+            if (workingDays[index])
+            {
+               daily[index] += amountPerDay;
+            }
+         }
+      }
+
+      double[] totals = new double[dayCount + 1];
+      for (int index = 0; index < dayCount; index++)
+      {
+         totals[index + 1] = totals[index] + daily[index];
+      }
+
+      return new TimephasedSeries(firstDay, totals);
+   }
+
+   /**
+    * Determine which days in a range are working days.
+    *
+    * @param calendar calendar, or null if every day is a working day
+    * @param firstDay first epoch day
+    * @param dayCount number of days
+    * @return working day flags
+    */
+   private boolean[] getWorkingDays(ProjectCalendar calendar, long firstDay, int dayCount)
+   {
+      boolean[] result = new boolean[dayCount];
+      if (calendar == null)
+      {
+         Arrays.fill(result, true);
+      }
+      else
+      {
+         Calendar cal = DateHelper.popCalendar(firstDay * DateHelper.MS_PER_DAY);
+         cal.set(Calendar.HOUR_OF_DAY, 0);
+         cal.set(Calendar.MINUTE, 0);
+         cal.set(Calendar.SECOND, 0);
+         cal.set(Calendar.MILLISECOND, 0);
+         while (DateHelper.getEpochDay(cal.getTimeInMillis()) < firstDay)
+         {
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+         }
+
+         for (int index = 0; index < dayCount; index++)
+         {
+            result[index] = calendar.isWorkingDate(cal.getTime());
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+         }
+         DateHelper.pushCalendar(cal);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the resource assignments for a task and its child tasks.
+    *
+    * @param task parent task
+    * @return resource assignments
+    */
+   private List<ResourceAssignment> getTaskAssignments(Task task)
+   {
+      List<ResourceAssignment> result = new ArrayList<>();
+      addTaskAssignments(result, task);
+      return result;
+   }
+
+   /**
+    * Recursively add the resource assignments for a task and its child tasks.
+    *
+    * @param list list of resource assignments
+    * @param task parent task
+    */
+   private void addTaskAssignments(List<ResourceAssignment> list, Task task)
+   {
+      list.addAll(task.getResourceAssignments());
+      for (Task child : task.getChildTasks())
+      {
+         addTaskAssignments(list, child);
+      }
+   }
+
+   /**
+    * Calculate the number of days covered by a timephased item. Starting
+    * from the item start, a day is included if the same time on that day
+    * falls before the item finish.
+    *
+    * @param start item start
+    * @param finish item finish
+    * @return number of days
+    */
+   private long getDayCount(long start, long finish)
+   {
+      long difference = DateHelper.getLocalTime(finish) - DateHelper.getLocalTime(start);
+      return difference <= 0 ? 0 : ((difference - 1) / DateHelper.MS_PER_DAY) + 1;
+   }
+
+   /**
+    * Convert an amount of work to hours.
+    *
+    * @param work work duration
+    * @param properties project properties
+    * @return hours
+    */
+   private static double getHours(Duration work, ProjectProperties properties)
+   {
+      double result;
+      if (work == null)
+      {
+         result = 0;
+      }
+      else
+      {
+         result = work.getUnits() == TimeUnit.HOURS ? work.getDuration() : work.convertUnits(TimeUnit.HOURS, properties).getDuration();
+      }
+      return result;
+   }
+
+   private final ProjectFile m_file;
+}
@@ -0,0 +1,138 @@
+/*
+ * file:       TimephasedSeries.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       08/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.DateHelper;
+
+/**
+ * Aggregated timephased data produced by the TimephasedAggregator class.
+ * Values are held as a running total per day, so the total for any
+ * date range can be retrieved in constant time. Work is expressed in
+ * hours, cost in the project's currency.
+ */
+public final class TimephasedSeries
+{
+   /**
+    * Constructor.
+    *
+    * @param firstDay epoch day represented by the first entry in the totals array
+    * @param totals running totals, where entry n is the sum of the values preceding day n
+    */
+   TimephasedSeries(long firstDay, double[] totals)
+   {
+      m_firstDay = firstDay;
+      m_totals = totals;
+   }
+
+   /**
+    * Retrieve the total for a date range. Each day which starts before
+    * the end of the range contributes to the total.
+    *
+    * @param start range start
+    * @param end range end
+    * @return total value
+    */
+   public double getTotal(Date start, Date end)
+   {
+      long first = DateHelper.getEpochDay(start.getTime()) - m_firstDay;
+      long last = DateHelper.getEpochDay(end.getTime() - 1) - m_firstDay + 1;
+      int days = m_totals.length - 1;
+
+      first = Math.max(0, Math.min(first, days));
+      last = Math.max(0, Math.min(last, days));
+
+      return first < last ? m_totals[(int) last] - m_totals[(int) first] : 0;
+   }
+
+   /**
+    * Retrieve the total for a date range.
+    *
+    * @param range date range
+    * @return total value
+    */
+   public double getTotal(DateRange range)
+   {
+      return getTotal(range.getStart(), range.getEnd());
+   }
+
+   /**
+    * Retrieve the total for each of a list of date ranges.
+    *
+    * @param ranges date ranges, for example created by TimescaleUtility
+    * @return total value for each range
+    */
+   public double[] getTotals(List<DateRange> ranges)
+   {
+      double[] result = new double[ranges.size()];
+      for (int index = 0; index < result.length; index++)
+      {
+         result[index] = getTotal(ranges.get(index));
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve work for each of a list of date ranges, in the
+    * same form as the TimephasedUtility.segmentWork method.
+    *
+    * @param ranges date ranges, for example created by TimescaleUtility
+    * @return list of durations, one per date range
+    */
+   public ArrayList<Duration> segmentWork(List<DateRange> ranges)
+   {
+      ArrayList<Duration> result = new ArrayList<>(ranges.size());
+      for (DateRange range : ranges)
+      {
+         result.add(Duration.getInstance(getTotal(range), TimeUnit.HOURS));
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve cost for each of a list of date ranges, in the
+    * same form as the TimephasedUtility.segmentCost method.
+    *
+    * @param ranges date ranges, for example created by TimescaleUtility
+    * @return list of costs, one per date range
+    */
+   public ArrayList<Double> segmentCost(List<DateRange> ranges)
+   {
+      ArrayList<Double> result = new ArrayList<>(ranges.size());
+      for (DateRange range : ranges)
+      {
+         result.add(Double.valueOf(getTotal(range)));
+      }
+      return result;
+   }
+
+   private final long m_firstDay;
+   private final double[] m_totals;
+}
@@ -0,0 +1,90 @@
+/*
+ * file:       FastTrackDataTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.fasttrack;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import net.sf.mpxj.junit.MpxjTestData;
+
+/**
+ * Tests to exercise reading the raw data from FastTrack files. This test
+ * is in the same package as FastTrackData as the column data is not
+ * visible outside this package.
+ */
+public class FastTrackDataTest
+{
+   /**
+    * Validate that the trailing bytes which follow the data in each
+    * column are captured. The trailer is written to the debug log
+    * as part of each column.
+    */
+   @Test public void testColumnTrailers() throws Exception
+   {
+      StringWriter log = new StringWriter();
+      try
+      {
+         FastTrackData data = FastTrackData.getInstance();
+         data.setLog(new PrintWriter(log));
+         data.process(new File(MpxjTestData.filePath("generated/resource-misc/resource-misc-fasttrack10.fts")));
+      }
+
+      finally
+      {
+         FastTrackData.clearInstance();
+      }
+
+      int columns = 0;
+      int trailers = 0;
+      for (String line : log.toString().split("\\R"))
+      {
+         if (line.startsWith(TRAILER))
+         {
+            ++columns;
+
+            //
+            // An empty trailer is followed immediately by the closing bracket
+            //
+            if (line.startsWith(TRAILER + "00000:"))
+            {
+               ++trailers;
+            }
+         }
+      }
+
+      //
+      // Every column in this file is followed by a trailer
+      //
+      assertTrue(columns > 0);
+      assertEquals(columns, trailers);
+      assertTrue(log.toString().contains(TRAILER + "00000: 03 00 01 00 00 00 00 00"));
+   }
+
+   private static final String TRAILER = "  Trailer: ";
+}
@@ -0,0 +1,195 @@
+/*
+ * file:       BytePatternMatcherTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       22/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.mpxj.common.BytePatternMatcher;
+
+/**
+ * Unit tests for the BytePatternMatcher class.
+ */
+public class BytePatternMatcherTest
+{
+   /**
+    * Validate basic matching behaviour.
+    */
+   @Test public void testMatch()
+   {
+      byte[] buffer =
+      {
+         0x00,
+         0x01,
+         0x02,
+         0x03,
+         0x01,
+         0x02,
+         0x01
+      };
+
+      BytePatternMatcher matcher = new BytePatternMatcher(new byte[]
+      {
+         0x01,
+         0x02
+      }, new byte[]
+      {
+         0x02,
+         0x03
+      });
+
+      assertEquals(1, matcher.findFirst(buffer, 0, buffer.length));
+      assertEquals(2, matcher.findFirst(buffer, 2, buffer.length));
+      assertEquals(4, matcher.findFirst(buffer, 3, buffer.length));
+      assertEquals(-1, matcher.findFirst(buffer, 5, buffer.length));
+      assertEquals(-1, matcher.findFirst(buffer, 0, 1));
+
+      int[] counts = matcher.count(buffer, 0, buffer.length);
+      assertEquals(2, counts[0]);
+      assertEquals(1, counts[1]);
+   }
+
+   /**
+    * Validate that where patterns overlap, the first pattern in the list
+    * is reported and matches are reported in order of start offset.
+    */
+   @Test public void testPriority()
+   {
+      byte[] buffer =
+      {
+         0x01,
+         0x02,
+         0x03,
+         0x04
+      };
+
+      BytePatternMatcher matcher = new BytePatternMatcher(new byte[]
+      {
+         0x01,
+         0x02,
+         0x03,
+         0x04
+      }, new byte[]
+      {
+         0x01
+      }, new byte[]
+      {
+         0x02
+      });
+
+      List<String> matches = new ArrayList<>();
+      matcher.findAll(buffer, 0, buffer.length, (index, patternIndex) -> matches.add(index + ":" + patternIndex));
+      assertEquals("[0:0, 1:2]", matches.toString());
+   }
+
+   /**
+    * Compare results with a simple search over random data.
+    */
+   @Test public void testRandom()
+   {
+      Random random = new Random(1);
+      for (int iteration = 0; iteration < 1000; iteration++)
+      {
+         byte[][] patterns = new byte[1 + random.nextInt(5)][];
+         for (int index = 0; index < patterns.length; index++)
+         {
+            patterns[index] = randomBytes(random, 1 + random.nextInt(5));
+         }
+         byte[] buffer = randomBytes(random, random.nextInt(100));
+         int start = random.nextInt(10);
+         int limit = random.nextInt(110);
+
+         List<String> expected = new ArrayList<>();
+         for (int index = start; index < limit && index < buffer.length; index++)
+         {
+            for (int patternIndex = 0; patternIndex < patterns.length; patternIndex++)
+            {
+               if (matchPattern(patterns[patternIndex], buffer, index))
+               {
+                  expected.add(index + ":" + patternIndex);
+                  break;
+               }
+            }
+         }
+
+         BytePatternMatcher matcher = new BytePatternMatcher(patterns);
+
+         List<String> arrayMatches = new ArrayList<>();
+         matcher.findAll(buffer, start, limit, (index, patternIndex) -> arrayMatches.add(index + ":" + patternIndex));
+         assertEquals(expected, arrayMatches);
+
+         List<String> bufferMatches = new ArrayList<>();
+         matcher.findAll(ByteBuffer.wrap(buffer), start, limit, (index, patternIndex) -> bufferMatches.add(index + ":" + patternIndex));
+         assertEquals(expected, bufferMatches);
+      }
+   }
+
+   /**
+    * Generate random data from a small alphabet to ensure we get plenty of matches.
+    *
+    * @param random random number generator
+    * @param length array length
+    * @return random data
+    */
+   private byte[] randomBytes(Random random, int length)
+   {
+      byte[] result = new byte[length];
+      for (int index = 0; index < length; index++)
+      {
+         result[index] = (byte) random.nextInt(3);
+      }
+      return result;
+   }
+
+   /**
+    * Simple pattern match.
+    *
+    * @param pattern pattern to match
+    * @param buffer data to search
+    * @param offset offset into data
+    * @return true if the pattern matches at this offset
+    */
+   private boolean matchPattern(byte[] pattern, byte[] buffer, int offset)
+   {
+      if (offset + pattern.length > buffer.length)
+      {
+         return false;
+      }
+
+      for (int index = 0; index < pattern.length; index++)
+      {
+         if (pattern[index] != buffer[offset + index])
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+}
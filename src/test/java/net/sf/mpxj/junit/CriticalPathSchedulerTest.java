@@ -0,0 +1,419 @@
+/*
+ * file:       CriticalPathSchedulerTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       29/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ConstraintType;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarHours;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.cpm.CriticalPathSchedule;
+import net.sf.mpxj.cpm.CriticalPathScheduler;
+import net.sf.mpxj.cpm.IncrementalScheduler;
+import net.sf.mpxj.cpm.ScenarioGenerator;
+import net.sf.mpxj.cpm.ScenarioAnalysis;
+import net.sf.mpxj.cpm.ScenarioResults;
+
+/**
+ * Unit tests for the critical path scheduling classes.
+ */
+public class CriticalPathSchedulerTest
+{
+   /**
+    * Validate early and late dates, slack and critical flags for a small network.
+    */
+   @Test public void testSchedule() throws Exception
+   {
+      ProjectFile file = createProject();
+      Task a = addTask(file, "A", 2, TimeUnit.DAYS);
+      Task b = addTask(file, "B", 3, TimeUnit.DAYS);
+      Task c = addTask(file, "C", 1, TimeUnit.DAYS);
+      Task m = addTask(file, "M", 0, TimeUnit.DAYS);
+      Task d = addTask(file, "D", 4, TimeUnit.HOURS);
+      Task e = addTask(file, "E", 1, TimeUnit.DAYS);
+
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      m.addPredecessor(b, RelationType.FINISH_START, null);
+      m.addPredecessor(c, RelationType.FINISH_START, null);
+      d.addPredecessor(a, RelationType.START_START, Duration.getInstance(1, TimeUnit.DAYS));
+      e.addPredecessor(b, RelationType.FINISH_FINISH, Duration.getInstance(2, TimeUnit.DAYS));
+
+      CriticalPathSchedule schedule = new CriticalPathScheduler(file).schedule();
+      assertEquals("2020-01-14 17:00", m_df.format(schedule.getFinishDate()));
+
+      assertDates(schedule, a, "2020-01-06 08:00", "2020-01-07 17:00", "2020-01-06 08:00", "2020-01-07 17:00");
+      assertDates(schedule, b, "2020-01-08 08:00", "2020-01-10 17:00", "2020-01-08 08:00", "2020-01-10 17:00");
+      assertDates(schedule, c, "2020-01-06 08:00", "2020-01-06 17:00", "2020-01-14 08:00", "2020-01-14 17:00");
+      assertDates(schedule, m, "2020-01-10 17:00", "2020-01-10 17:00", "2020-01-14 17:00", "2020-01-14 17:00");
+      assertDates(schedule, d, "2020-01-07 08:00", "2020-01-07 12:00", "2020-01-14 13:00", "2020-01-14 17:00");
+      assertDates(schedule, e, "2020-01-14 08:00", "2020-01-14 17:00", "2020-01-14 08:00", "2020-01-14 17:00");
+
+      assertTrue(schedule.getCritical(a));
+      assertTrue(schedule.getCritical(b));
+      assertFalse(schedule.getCritical(c));
+      assertTrue(schedule.getCritical(e));
+      assertEquals(Duration.getInstance(6, TimeUnit.DAYS), schedule.getTotalSlack(c));
+      assertEquals(Duration.getInstance(44, TimeUnit.HOURS), schedule.getTotalSlack(d));
+
+      //
+      // Nothing is written to the tasks until apply is called
+      //
+      assertNull(a.getEarlyStart());
+      schedule.apply();
+      assertEquals("2020-01-08 08:00", m_df.format(b.getStart()));
+      assertEquals("2020-01-14 17:00", m_df.format(c.getLateFinish()));
+   }
+
+   /**
+    * Validate that constraints and summary task relations are honoured.
+    */
+   @Test public void testConstraintsAndSummaryTasks() throws Exception
+   {
+      ProjectFile file = createProject();
+      Task a = addTask(file, "A", 1, TimeUnit.DAYS);
+      Task summary = file.addTask();
+      summary.setName("Summary");
+      Task b = addTask(summary, "B", 1, TimeUnit.DAYS);
+      Task c = addTask(summary, "C", 2, TimeUnit.DAYS);
+      summary.addPredecessor(a, RelationType.FINISH_START, null);
+
+      b.setConstraintType(ConstraintType.START_NO_EARLIER_THAN);
+      b.setConstraintDate(m_df.parse("2020-01-09 08:00"));
+
+      CriticalPathSchedule schedule = new CriticalPathScheduler(file).schedule();
+      assertDates(schedule, b, "2020-01-09 08:00", "2020-01-09 17:00", "2020-01-09 08:00", "2020-01-09 17:00");
+      assertDates(schedule, c, "2020-01-07 08:00", "2020-01-08 17:00", "2020-01-08 08:00", "2020-01-09 17:00");
+      assertDates(schedule, summary, "2020-01-07 08:00", "2020-01-09 17:00", "2020-01-08 08:00", "2020-01-09 17:00");
+   }
+
+   /**
+    * Validate that incremental updates give the same results as a full
+    * recalculation.
+    */
+   @Test public void testIncrementalScheduler() throws Exception
+   {
+      ProjectFile file = createProject();
+      Task a = addTask(file, "A", 2, TimeUnit.DAYS);
+      Task b = addTask(file, "B", 3, TimeUnit.DAYS);
+      Task c = addTask(file, "C", 1, TimeUnit.DAYS);
+      Task d = addTask(file, "D", 1, TimeUnit.DAYS);
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      d.addPredecessor(b, RelationType.FINISH_START, null);
+      d.addPredecessor(c, RelationType.FINISH_START, null);
+
+      IncrementalScheduler scheduler = new IncrementalScheduler(file);
+      assertEquals("2020-01-13 17:00", m_df.format(d.getEarlyFinish()));
+      assertFalse(c.getCritical());
+
+      //
+      // Lengthen C so that it becomes the critical path
+      //
+      c.setDuration(Duration.getInstance(8, TimeUnit.DAYS));
+      assertTrue(scheduler.getUpdateRequired());
+      scheduler.update();
+      assertFalse(scheduler.getUpdateRequired());
+      assertEquals("2020-01-16 08:00", m_df.format(d.getEarlyStart()));
+      assertEquals("2020-01-16 17:00", m_df.format(d.getLateFinish()));
+      assertTrue(c.getCritical());
+      assertFalse(a.getCritical());
+      assertEquals(Duration.getInstance(3, TimeUnit.DAYS), a.getTotalSlack());
+
+      //
+      // Add a lag between A and B
+      //
+      b.removePredecessor(a, RelationType.FINISH_START, null);
+      b.addPredecessor(a, RelationType.FINISH_START, Duration.getInstance(4, TimeUnit.DAYS));
+      scheduler.relationsChanged(b);
+      assertEquals("2020-01-14 08:00", m_df.format(b.getEarlyStart()));
+      assertTrue(a.getCritical());
+      assertFalse(c.getCritical());
+
+      CriticalPathSchedule schedule = new CriticalPathScheduler(file).schedule();
+      for (Task task : file.getTasks())
+      {
+         assertEquals(task.getName(), schedule.getEarlyStart(task), task.getEarlyStart());
+         assertEquals(task.getName(), schedule.getLateFinish(task), task.getLateFinish());
+      }
+
+      scheduler.close();
+      c.setDuration(Duration.getInstance(1, TimeUnit.DAYS));
+      assertFalse(scheduler.getUpdateRequired());
+   }
+
+   /**
+    * Validate finish date distributions and criticality indexes
+    * calculated across multiple scenarios.
+    */
+   @Test public void testScenarioAnalysis() throws Exception
+   {
+      ProjectFile file = createProject();
+      Task a = addTask(file, "A", 2, TimeUnit.DAYS);
+      Task b = addTask(file, "B", 1, TimeUnit.DAYS);
+      Task c = addTask(file, "C", 1, TimeUnit.DAYS);
+      c.addPredecessor(a, RelationType.FINISH_START, null);
+      c.addPredecessor(b, RelationType.FINISH_START, null);
+
+      ScenarioAnalysis analysis = new ScenarioAnalysis(file);
+      int indexB = analysis.getTasks().indexOf(b);
+      long day = 8 * 60 * 60 * 1000L;
+
+      //
+      // B takes three days in even numbered scenarios
+      //
+      ScenarioResults results = analysis.evaluate(10, (scenario, durations) -> {
+         if (scenario % 2 == 0)
+         {
+            durations[indexB] = 3 * day;
+         }
+      });
+
+      assertEquals(10, results.getScenarioCount());
+      assertEquals("2020-01-09 17:00", m_df.format(results.getFinishDate(0)));
+      assertEquals("2020-01-08 17:00", m_df.format(results.getFinishDate(1)));
+      assertEquals("2020-01-08 17:00", m_df.format(results.getFinishDatePercentile(50)));
+      assertEquals("2020-01-09 17:00", m_df.format(results.getFinishDatePercentile(90)));
+      assertEquals(0.5, results.getCriticalityIndex(a), 0.0);
+      assertEquals(0.5, results.getCriticalityIndex(b), 0.0);
+      assertEquals(1.0, results.getCriticalityIndex(c), 0.0);
+
+      //
+      // With a critical slack limit of one day, the task with one day
+      // of slack in each scenario is also critical
+      //
+      file.getProjectProperties().setCriticalSlackLimit(Integer.valueOf(1));
+      results = new ScenarioAnalysis(file).evaluate(10, (scenario, durations) -> {
+         if (scenario % 2 == 0)
+         {
+            durations[indexB] = 3 * day;
+         }
+      });
+      assertEquals(1.0, results.getCriticalityIndex(a), 0.0);
+      assertEquals(1.0, results.getCriticalityIndex(b), 0.0);
+      assertEquals(1.0, results.getCriticalityIndex(c), 0.0);
+
+      //
+      // The project itself is unchanged
+      //
+      assertEquals(Duration.getInstance(1, TimeUnit.DAYS), b.getDuration());
+      assertNull(b.getEarlyStart());
+   }
+
+   /**
+    * Validate that scenarios evaluated concurrently, using derived
+    * calendars which share a base calendar, give the same results
+    * as scenarios evaluated on a single thread. Durations vary
+    * widely, so working time is generated while scenarios are running.
+    */
+   @Test public void testConcurrentScenarioAnalysis() throws Exception
+   {
+      ProjectFile file = createProject();
+      ProjectCalendar first = file.addDefaultDerivedCalendar();
+      first.setParent(file.getDefaultCalendar());
+      first.setName("First");
+      first.addCalendarException(m_df.parse("2020-02-03 00:00"), m_df.parse("2020-02-07 00:00"));
+      ProjectCalendar second = file.addDefaultDerivedCalendar();
+      second.setParent(file.getDefaultCalendar());
+      second.setName("Second");
+      second.setWorkingDay(Day.SATURDAY, true);
+
+      Task previous = null;
+      for (int index = 0; index < 20; index++)
+      {
+         Task task = addTask(file, "T" + index, 1, TimeUnit.DAYS);
+         task.setCalendar(index % 2 == 0 ? first : second);
+         if (previous != null)
+         {
+            task.addPredecessor(previous, RelationType.FINISH_START, null);
+         }
+         previous = task;
+      }
+
+      ScenarioAnalysis analysis = new ScenarioAnalysis(file);
+      long day = 8 * 60 * 60 * 1000L;
+      int scenarios = 400;
+      ScenarioGenerator generator = (scenario, durations) -> {
+         for (int index = 0; index < durations.length; index++)
+         {
+            durations[index] = day * (1 + (scenario * 31 + index * 17) % (scenario + 1));
+         }
+      };
+
+      ForkJoinPool pool = new ForkJoinPool(4);
+      ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+      try
+      {
+         ScenarioResults concurrent = analysis.evaluate(pool, scenarios, generator);
+         ScenarioResults expected = new ScenarioAnalysis(file).evaluate(singleThreadPool, scenarios, generator);
+         for (int scenario = 0; scenario < scenarios; scenario++)
+         {
+            assertEquals(expected.getFinishDate(scenario), concurrent.getFinishDate(scenario));
+         }
+      }
+
+      finally
+      {
+         pool.shutdown();
+         singleThreadPool.shutdown();
+      }
+   }
+
+   /**
+    * Validate a calendar which is worked around the clock, and a calendar
+    * with no working time for more than a year from the project start.
+    */
+   @Test public void testCalendars() throws Exception
+   {
+      ProjectFile file = createProject();
+
+      ProjectCalendar continuous = file.addCalendar();
+      continuous.setName("24 Hours");
+      for (Day day : Day.values())
+      {
+         continuous.setWorkingDay(day, true);
+         ProjectCalendarHours hours = continuous.addCalendarHours(day);
+         hours.addRange(new DateRange(DateHelper.getTime(0, 0), DateHelper.addDays(DateHelper.getTime(0, 0), 1)));
+      }
+
+      ProjectCalendar closed = file.addDefaultDerivedCalendar();
+      closed.setParent(file.getDefaultCalendar());
+      closed.setName("Closed");
+      closed.addCalendarException(m_df.parse("2020-01-01 00:00"), m_df.parse("2021-03-31 00:00"));
+
+      Task a = addTask(file, "A", 2, TimeUnit.DAYS);
+      a.setCalendar(continuous);
+      Task b = addTask(file, "B", 1, TimeUnit.DAYS);
+      b.setCalendar(closed);
+
+      CriticalPathSchedule schedule = new CriticalPathScheduler(file).schedule();
+      assertEquals("2020-01-06 08:00", m_df.format(schedule.getEarlyStart(a)));
+      assertEquals("2020-01-07 00:00", m_df.format(schedule.getEarlyFinish(a)));
+      assertEquals("2021-04-01 08:00", m_df.format(schedule.getEarlyStart(b)));
+      assertEquals("2021-04-01 17:00", m_df.format(schedule.getEarlyFinish(b)));
+   }
+
+   /**
+    * Validate that a cycle in the task dependencies is reported.
+    */
+   @Test public void testCycle() throws Exception
+   {
+      ProjectFile file = createProject();
+      Task a = addTask(file, "A", 1, TimeUnit.DAYS);
+      Task b = addTask(file, "B", 1, TimeUnit.DAYS);
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      a.addPredecessor(b, RelationType.FINISH_START, null);
+
+      try
+      {
+         new CriticalPathScheduler(file);
+         fail("Expected exception");
+      }
+
+      catch (MPXJException ex)
+      {
+         assertEquals(MPXJException.CYCLIC_DEPENDENCY, ex.getMessage());
+      }
+   }
+
+   /**
+    * Create an empty project using the default calendar.
+    *
+    * @return project file
+    */
+   private ProjectFile createProject() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      file.addDefaultBaseCalendar();
+      file.getProjectProperties().setStartDate(m_df.parse("2020-01-06 08:00"));
+      return file;
+   }
+
+   /**
+    * Add a top level task.
+    *
+    * @param file parent project
+    * @param name task name
+    * @param duration duration value
+    * @param units duration units
+    * @return new task
+    */
+   private Task addTask(ProjectFile file, String name, double duration, TimeUnit units)
+   {
+      Task task = file.addTask();
+      task.setName(name);
+      task.setDuration(Duration.getInstance(duration, units));
+      return task;
+   }
+
+   /**
+    * Add a child task.
+    *
+    * @param parent parent task
+    * @param name task name
+    * @param duration duration value
+    * @param units duration units
+    * @return new task
+    */
+   private Task addTask(Task parent, String name, double duration, TimeUnit units)
+   {
+      Task task = parent.addTask();
+      task.setName(name);
+      task.setDuration(Duration.getInstance(duration, units));
+      return task;
+   }
+
+   /**
+    * Validate the early and late dates for a task.
+    *
+    * @param schedule schedule
+    * @param task task
+    * @param earlyStart expected early start
+    * @param earlyFinish expected early finish
+    * @param lateStart expected late start
+    * @param lateFinish expected late finish
+    */
+   private void assertDates(CriticalPathSchedule schedule, Task task, String earlyStart, String earlyFinish, String lateStart, String lateFinish)
+   {
+      assertEquals(task.getName(), earlyStart, m_df.format(schedule.getEarlyStart(task)));
+      assertEquals(task.getName(), earlyFinish, m_df.format(schedule.getEarlyFinish(task)));
+      assertEquals(task.getName(), lateStart, m_df.format(schedule.getLateStart(task)));
+      assertEquals(task.getName(), lateFinish, m_df.format(schedule.getLateFinish(task)));
+   }
+
+   private final DateFormat m_df = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+}
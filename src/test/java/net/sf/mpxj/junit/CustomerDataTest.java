@@ -205,6 +205,46 @@ public class CustomerDataTest
       }
    }
 
+   /**
+    * Test extracting projects in batches from a sample SQLite P6 database.
+    */
+   @Test public void testPrimaveraDatabaseBatch() throws Exception
+   {
+      if (m_primaveraFile == null)
+      {
+         return;
+      }
+
+      Class.forName("org.sqlite.JDBC");
+      String url = "jdbc:sqlite:" + m_primaveraFile;
+
+      Properties props = new Properties();
+      props.setProperty("date_string_format", "yyyy-MM-dd HH:mm:ss");
+
+      try (Connection connection = DriverManager.getConnection(url, props))
+      {
+         PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+         reader.setConnection(connection);
+         reader.setBatchSize(10);
+         reader.setFetchSize(500);
+
+         List<String> names = new ArrayList<>(reader.listProjects().values());
+         List<ProjectFile> projects = reader.readAll();
+         assertEquals(names.size(), projects.size());
+
+         int failures = 0;
+         for (int index = 0; index < names.size(); index++)
+         {
+            if (!testBaseline(names.get(index), projects.get(index), m_primaveraBaselineDir))
+            {
+               System.err.println("Failed to validate Primavera database project baseline " + names.get(index));
+               ++failures;
+            }
+         }
+         assertEquals("Failed to validate " + failures + " Primavera database projects", 0, failures);
+      }
+   }
+
    /**
     * Test a project from a Primavera SQLite database.
     *
@@ -0,0 +1,229 @@
+/*
+ * file:       DateParserTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       26/06/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import net.sf.mpxj.common.DateParser;
+import net.sf.mpxj.common.MultiDateFormat;
+
+/**
+ * Unit tests for the DateParser class.
+ */
+public class DateParserTest
+{
+   /**
+    * Validate that DateParser produces the same results as SimpleDateFormat.
+    */
+   @Test public void testEquivalence()
+   {
+      String[] patterns =
+      {
+         "dd/MM/yy hh:mm a",
+         "MM/dd/yyyy HH:mm",
+         "dd MMM ''yy",
+         "ddMMMyy",
+         "yyyy-MM-dd HH:mm",
+         "HH:mm",
+         "hh:mma"
+      };
+
+      Random random = new Random(1);
+      for (String pattern : patterns)
+      {
+         testEquivalence(random, new SimpleDateFormat(pattern, Locale.ENGLISH), Locale.ENGLISH);
+
+         SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.ENGLISH);
+         DateFormatSymbols symbols = format.getDateFormatSymbols();
+         symbols.setAmPmStrings(new String[]
+         {
+            "am",
+            "pm"
+         });
+         format.setDateFormatSymbols(symbols);
+         testEquivalence(random, format, null);
+      }
+   }
+
+   /**
+    * Validate that MultiDateFormat tries each pattern in turn.
+    */
+   @Test public void testMultiDateFormat() throws Exception
+   {
+      MultiDateFormat format = new MultiDateFormat("yyyy-MM-dd HH:mm", "yyyy-MM-dd");
+      SimpleDateFormat dateTime = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+      SimpleDateFormat date = new SimpleDateFormat("yyyy-MM-dd");
+
+      assertEquals(dateTime.parse("2020-06-26 08:30"), format.parseDate("2020-06-26 08:30"));
+      assertEquals(date.parse("2020-06-26"), format.parseDate("2020-06-26"));
+      assertEquals(date.parse("2020-06-26"), format.parse("2020-06-26"));
+      assertNull(format.parseDate(" "));
+
+      try
+      {
+         format.parseDate("26/06/2020");
+         fail("Expected ParseException");
+      }
+
+      catch (ParseException ex)
+      {
+         // Expected
+      }
+   }
+
+   /**
+    * Validate that a single MultiDateFormat instance can be used to
+    * parse dates from multiple threads, including text which is parsed
+    * using the underlying SimpleDateFormat instances.
+    */
+   @Test public void testConcurrentParse() throws Exception
+   {
+      String[] patterns =
+      {
+         "dd/MM/yy HH:mm",
+         "dd/MM/yyyy"
+      };
+
+      Random random = new Random(1);
+      SimpleDateFormat source = new SimpleDateFormat("dd/MM/yyyy");
+      List<String> inputs = new ArrayList<>();
+      for (int loop = 0; loop < 2000; loop++)
+      {
+         long timestamp = (long) ((random.nextDouble() * 2 - 0.5) * 2_000_000_000_000L);
+         inputs.add(source.format(new Date(timestamp)));
+         // Out of range values are handled by the SimpleDateFormat fallback
+         inputs.add((32 + random.nextInt(60)) + "/" + (1 + random.nextInt(20)) + "/" + (1990 + random.nextInt(40)));
+         inputs.add("x" + loop);
+      }
+
+      MultiDateFormat reference = new MultiDateFormat(patterns);
+      List<String> expected = parseAll(reference, inputs);
+
+      MultiDateFormat format = new MultiDateFormat(patterns);
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         List<Future<List<String>>> results = new ArrayList<>();
+         for (int thread = 0; thread < 8; thread++)
+         {
+            results.add(executor.submit(() -> parseAll(format, inputs)));
+         }
+
+         for (Future<List<String>> result : results)
+         {
+            assertEquals(expected, result.get());
+         }
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Parse a list of dates, representing failures as a marker.
+    *
+    * @param format format used to parse the dates
+    * @param inputs text to parse
+    * @return parsed values
+    */
+   private List<String> parseAll(MultiDateFormat format, List<String> inputs)
+   {
+      List<String> result = new ArrayList<>();
+      for (String text : inputs)
+      {
+         try
+         {
+            result.add(String.valueOf(format.parseDate(text).getTime()));
+         }
+
+         catch (ParseException ex)
+         {
+            result.add("error " + ex.getErrorOffset());
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Compare results for a single format.
+    *
+    * @param random random number generator
+    * @param format format to test
+    * @param locale locale used to create the format, or null if explicit symbols are used
+    */
+   private void testEquivalence(Random random, SimpleDateFormat format, Locale locale)
+   {
+      DateParser parser = new DateParser(format, locale);
+      String mutations = "0123456789 /:-aApP";
+      int handled = 0;
+
+      for (int loop = 0; loop < 5000; loop++)
+      {
+         long timestamp = (long) ((random.nextDouble() * 2 - 0.5) * 2_000_000_000_000L);
+         StringBuilder text = new StringBuilder(format.format(new Date(timestamp)));
+         if (random.nextInt(3) == 0)
+         {
+            int index = random.nextInt(text.length());
+            text.setCharAt(index, mutations.charAt(random.nextInt(mutations.length())));
+         }
+
+         Date expected = format.parse(text.toString(), new ParsePosition(0));
+         long actual = parser.parse(text);
+         if (actual == DateParser.UNKNOWN)
+         {
+            continue;
+         }
+
+         ++handled;
+         if (actual == DateParser.FAILED)
+         {
+            assertNull(text.toString(), expected);
+         }
+         else
+         {
+            assertNotNull(text.toString(), expected);
+            assertEquals(text.toString(), expected.getTime(), actual);
+         }
+      }
+
+      assertTrue(format.toPattern(), handled != 0);
+   }
+}
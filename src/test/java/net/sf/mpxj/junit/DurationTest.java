@@ -27,6 +27,7 @@ import static net.sf.mpxj.junit.MpxjAssert.*;
 import static org.junit.Assert.*;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Rate;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
@@ -129,6 +130,25 @@ public class DurationTest
       testDurations(mpp);
    }
 
+   /**
+    * Test that common Duration and Rate values share instances.
+    */
+   @Test public void testSharedInstances()
+   {
+      assertSame(Duration.getInstance(8, TimeUnit.HOURS), Duration.getInstance(8.0, TimeUnit.HOURS));
+      assertSame(Duration.getInstance(5, TimeUnit.DAYS), Duration.getInstance(40, TimeUnit.HOURS).convertUnits(TimeUnit.DAYS, new ProjectFile().getProjectProperties()));
+      assertNotSame(Duration.getInstance(1, TimeUnit.DAYS), Duration.getInstance(1, TimeUnit.ELAPSED_DAYS));
+      assertNotSame(Duration.getInstance(1.5, TimeUnit.DAYS), Duration.getInstance(1.5, TimeUnit.DAYS));
+      assertNotSame(Duration.getInstance(-1, TimeUnit.DAYS), Duration.getInstance(-1, TimeUnit.DAYS));
+      assertEquals(1.5, Duration.getInstance(1.5, TimeUnit.DAYS).getDuration(), 0);
+      assertEquals(100000, Duration.getInstance(100000, TimeUnit.MINUTES).getDuration(), 0);
+
+      assertSame(Rate.getInstance(50, TimeUnit.HOURS), Rate.getInstance(Double.valueOf(50), TimeUnit.HOURS));
+      assertSame(Rate.getInstance(0, TimeUnit.HOURS), Rate.getInstance(null, TimeUnit.HOURS));
+      assertNotSame(Rate.getInstance(50, TimeUnit.HOURS), Rate.getInstance(50, TimeUnit.DAYS));
+      assertEquals(12.5, Rate.getInstance(12.5, TimeUnit.HOURS).getAmount(), 0);
+   }
+
    /**
     * Validates duration values.
     *
@@ -23,6 +23,7 @@
 
 package net.sf.mpxj.junit;
 
+import static net.sf.mpxj.junit.MppReaderComparison.*;
 import static net.sf.mpxj.junit.MpxjAssert.*;
 import static org.junit.Assert.*;
 
@@ -30,10 +31,13 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.List;
 
+import net.sf.mpxj.AssignmentField;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
@@ -110,6 +114,28 @@ public class MppAssignmentTest
       testCustomFields(mpp);
    }
 
+   /**
+    * Test assignment data read from MPP files with the raw blocks
+    * decoded in parallel. Parallel decoding only applies when the
+    * file is read into memory, so the files are read from a stream.
+    *
+    * @throws Exception
+    */
+   @Test public void testParallelDecodeCustomFields() throws Exception
+   {
+      MppReaderComparison.compare(new String[]
+      {
+         "mpp9assignmentcustom.mpp",
+         "mpp12assignmentcustom.mpp",
+         "mpp14assignmentcustom.mpp"
+      }, reader -> reader.setParallelDecode(true), true, (name, expected, actual) -> {
+         testCustomFields(actual);
+         assertFieldsEqual(name, expected.getTasks(), actual.getTasks(), TaskField.UNIQUE_ID, TaskField.NAME, TaskField.START, TaskField.FINISH, TaskField.WORK);
+         assertFieldsEqual(name, expected.getResources(), actual.getResources(), ResourceField.UNIQUE_ID, ResourceField.NAME, ResourceField.START, ResourceField.FINISH, ResourceField.WORK);
+         assertFieldsEqual(name, expected.getResourceAssignments(), actual.getResourceAssignments(), AssignmentField.UNIQUE_ID, AssignmentField.TASK_UNIQUE_ID, AssignmentField.RESOURCE_UNIQUE_ID, AssignmentField.START, AssignmentField.FINISH, AssignmentField.WORK);
+      });
+   }
+
    /**
     * Test assignment data read from an MSPDI file.
     *
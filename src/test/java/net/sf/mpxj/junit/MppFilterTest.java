@@ -25,10 +25,14 @@ package net.sf.mpxj.junit;
 
 import static org.junit.Assert.*;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Predicate;
 
+import net.sf.mpxj.FieldContainer;
 import net.sf.mpxj.Filter;
 import net.sf.mpxj.FilterContainer;
+import net.sf.mpxj.FilterGroupEvaluator;
 import net.sf.mpxj.GenericCriteria;
 import net.sf.mpxj.GenericCriteriaPrompt;
 import net.sf.mpxj.ProjectFile;
@@ -119,12 +123,36 @@ public class MppFilterTest
     */
    private void executeTests(ProjectFile mpp)
    {
+      testCompiledFilters(mpp);
       testFilters(mpp);
       testFilterEvaluation(mpp);
       testLogicalOperatorEvaluation(mpp);
       testParameters(mpp);
    }
 
+   /**
+    * Validate that compiled filters, and filters applied to all tasks,
+    * give the same results as evaluating the filter criteria directly.
+    *
+    * @param mpp project file
+    */
+   private void testCompiledFilters(ProjectFile mpp)
+   {
+      FilterGroupEvaluator evaluator = new FilterGroupEvaluator(mpp);
+      for (Filter filter : mpp.getFilters().getTaskFilters())
+      {
+         Predicate<FieldContainer> predicate = filter.compile(null);
+         BitSet matches = evaluator.applyTaskFilter(filter.getName(), null);
+         int row = 0;
+         for (Task task : mpp.getTasks())
+         {
+            Boolean expected = Boolean.valueOf(filter.evaluate(task, null));
+            assertEquals(filter.getName() + " " + task.getName(), expected, Boolean.valueOf(predicate.test(task)));
+            assertEquals(filter.getName() + " " + task.getName(), expected, Boolean.valueOf(matches.get(row++)));
+         }
+      }
+   }
+
    /**
     * Test filter data.
     *
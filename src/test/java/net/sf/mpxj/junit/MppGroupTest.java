@@ -27,12 +27,17 @@ import static org.junit.Assert.*;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 
+import net.sf.mpxj.FilterGroupEvaluator;
 import net.sf.mpxj.Group;
 import net.sf.mpxj.GroupClause;
+import net.sf.mpxj.GroupedRows;
 import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
 import net.sf.mpxj.TaskField;
 import net.sf.mpxj.mpp.BackgroundPattern;
 import net.sf.mpxj.mpp.ColorType;
@@ -58,6 +63,77 @@ public class MppGroupTest
       testGroups(mpp);
    }
 
+   /**
+    * Test applying a group to all tasks.
+    */
+   @Test public void testGroupEvaluation()
+   {
+      ProjectFile file = new ProjectFile();
+      double[] numbers =
+      {
+         0.5,
+         1,
+         2.5,
+         3,
+         4,
+         7
+      };
+      for (int index = 0; index < numbers.length; index++)
+      {
+         Task task = file.addTask();
+         task.setNumber(1, Double.valueOf(numbers[index]));
+         task.setFlag(1, index % 2 == 0);
+      }
+      file.addTask();
+
+      Group group = new Group(Integer.valueOf(1), "Group", false);
+      GroupClause clause = new GroupClause();
+      clause.setField(TaskField.FLAG1);
+      clause.setAscending(true);
+      group.addGroupClause(clause);
+
+      clause = new GroupClause();
+      clause.setField(TaskField.NUMBER1);
+      clause.setAscending(false);
+      clause.setGroupOn(1);
+      clause.setStartAt(Double.valueOf(1));
+      clause.setGroupInterval(Double.valueOf(2));
+      group.addGroupClause(clause);
+      file.getGroups().add(group);
+
+      FilterGroupEvaluator evaluator = new FilterGroupEvaluator(file);
+      BitSet selection = new BitSet();
+      selection.set(0, numbers.length);
+      GroupedRows rows = evaluator.applyTaskGroup("Group", selection);
+
+      assertEquals(6, rows.getGroupCount());
+      assertEquals(Arrays.asList(Boolean.FALSE, Double.valueOf(7)), rows.getGroupKey(0));
+      assertArrayEquals(new int[]
+      {
+         5
+      }, rows.getGroupRows(0));
+      assertEquals(Arrays.asList(Boolean.FALSE, Double.valueOf(3)), rows.getGroupKey(1));
+      assertArrayEquals(new int[]
+      {
+         3
+      }, rows.getGroupRows(1));
+      assertEquals(Arrays.asList(Boolean.FALSE, Double.valueOf(1)), rows.getGroupKey(2));
+      assertEquals(Arrays.asList(Boolean.TRUE, Double.valueOf(3)), rows.getGroupKey(3));
+      assertArrayEquals(new int[]
+      {
+         4
+      }, rows.getGroupRows(3));
+      assertEquals(Arrays.asList(Boolean.TRUE, Double.valueOf(1)), rows.getGroupKey(4));
+      assertArrayEquals(new int[]
+      {
+         2
+      }, rows.getGroupRows(4));
+      assertEquals(Arrays.asList(Boolean.TRUE, Double.valueOf(-1)), rows.getGroupKey(5));
+      assertEquals(5, rows.getGroup(0));
+      assertEquals(-1, rows.getGroup(numbers.length));
+      assertEquals(2, rows.getGroup(1));
+   }
+
    /**
     * Test group data read from an MPP9 file saved by Project 2007.
     *
@@ -0,0 +1,148 @@
+/*
+ * file:       MppReaderComparison.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.mpp.MPPReader;
+
+/**
+ * Compares the projects read from MPP test files using the default
+ * MPPReader configuration with those read using a reader with
+ * an option enabled.
+ */
+public final class MppReaderComparison
+{
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private MppReaderComparison()
+   {
+
+   }
+
+   /**
+    * Read each test file twice, first using a default MPPReader, then using
+    * an MPPReader configured by the supplied option, and pass both projects
+    * to the validator. Both files are read directly from disk.
+    *
+    * @param names test file names
+    * @param option configures the second reader
+    * @param validator compares the two projects
+    */
+   public static void compare(String[] names, Consumer<MPPReader> option, Validator validator) throws Exception
+   {
+      compare(names, option, false, validator);
+   }
+
+   /**
+    * Read each test file twice, first using a default MPPReader, then using
+    * an MPPReader configured by the supplied option, and pass both projects
+    * to the validator.
+    *
+    * @param names test file names
+    * @param option configures the second reader
+    * @param fromStream true if the files are read from a stream rather than directly from disk
+    * @param validator compares the two projects
+    */
+   public static void compare(String[] names, Consumer<MPPReader> option, boolean fromStream, Validator validator) throws Exception
+   {
+      for (String name : names)
+      {
+         ProjectFile expected = read(new MPPReader(), name, fromStream);
+         MPPReader reader = new MPPReader();
+         option.accept(reader);
+         ProjectFile actual = read(reader, name, fromStream);
+         validator.validate(name, expected, actual);
+      }
+   }
+
+   /**
+    * Validate that two lists of tasks, resources or resource assignments
+    * hold the same number of entities, and that the entities at each
+    * position have the same values for the supplied fields.
+    *
+    * @param name test file name
+    * @param expected entities read using a default MPPReader
+    * @param actual entities read using the configured MPPReader
+    * @param fields fields to compare
+    */
+   public static void assertFieldsEqual(String name, List<? extends FieldContainer> expected, List<? extends FieldContainer> actual, FieldType... fields)
+   {
+      assertEquals(name, expected.size(), actual.size());
+      for (int index = 0; index < expected.size(); index++)
+      {
+         FieldContainer expectedEntity = expected.get(index);
+         FieldContainer actualEntity = actual.get(index);
+         for (FieldType field : fields)
+         {
+            assertEquals(name + " " + field, expectedEntity.getCurrentValue(field), actualEntity.getCurrentValue(field));
+         }
+      }
+   }
+
+   /**
+    * Read a test file.
+    *
+    * @param reader MPPReader instance
+    * @param name test file name
+    * @param fromStream true if the file is read from a stream rather than directly from disk
+    * @return project file
+    */
+   private static ProjectFile read(MPPReader reader, String name, boolean fromStream) throws Exception
+   {
+      if (!fromStream)
+      {
+         return reader.read(MpxjTestData.filePath(name));
+      }
+
+      try (InputStream is = new FileInputStream(MpxjTestData.filePath(name)))
+      {
+         return reader.read(is);
+      }
+   }
+
+   /**
+    * Compares the projects read from a single test file.
+    */
+   @FunctionalInterface public interface Validator
+   {
+      /**
+       * Compare the projects read from a single test file.
+       *
+       * @param name test file name
+       * @param expected project read using a default MPPReader
+       * @param actual project read using the configured MPPReader
+       */
+      void validate(String name, ProjectFile expected, ProjectFile actual) throws Exception;
+   }
+}
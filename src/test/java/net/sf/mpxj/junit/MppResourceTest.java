@@ -28,18 +28,29 @@ import static org.junit.Assert.*;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import net.sf.mpxj.AccrueType;
 import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.Rate;
 import net.sf.mpxj.Resource;
 import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
 import net.sf.mpxj.ResourceType;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.WorkContour;
+import net.sf.mpxj.common.ResourceFieldLists;
+import net.sf.mpxj.common.StringPool;
+import net.sf.mpxj.common.TaskFieldLists;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
 import net.sf.mpxj.mpp.MPPReader;
 import net.sf.mpxj.mspdi.MSPDIReader;
@@ -498,6 +509,122 @@ public class MppResourceTest
       validateIdValues(file);
    }
 
+   /**
+    * Test sharing String instances between repeated values.
+    */
+   @Test public void testStringPool() throws Exception
+   {
+      List<FieldType> taskFields = new ArrayList<>(Arrays.asList(TaskFieldLists.CUSTOM_TEXT));
+      taskFields.add(TaskField.NAME);
+
+      List<FieldType> resourceFields = new ArrayList<>(Arrays.asList(ResourceFieldLists.CUSTOM_TEXT));
+      resourceFields.add(ResourceField.NAME);
+      resourceFields.add(ResourceField.GROUP);
+      resourceFields.add(ResourceField.INITIALS);
+
+      //
+      // Each file is read twice. Values are shared within a read, but
+      // the pool is released when the read completes, so equal values
+      // from separate reads are not the same instance.
+      //
+      MppReaderComparison.compare(new String[]
+      {
+         "mpp9resource.mpp",
+         "mpp12resource.mpp",
+         "mpp14resource.mpp"
+      }, reader -> {
+      }, (name, first, second) -> {
+         Map<String, String> values = new HashMap<>();
+         int repeatedValues = 0;
+         for (Task task : first.getTasks())
+         {
+            repeatedValues += validateSharedValues(name, values, task, taskFields);
+         }
+
+         for (Resource resource : first.getResources())
+         {
+            repeatedValues += validateSharedValues(name, values, resource, resourceFields);
+         }
+         assertTrue(name, repeatedValues > 0);
+
+         validateSeparateValues(name, first.getTasks(), second.getTasks(), taskFields);
+         validateSeparateValues(name, first.getResources(), second.getResources(), resourceFields);
+      });
+
+      StringPool pool = new StringPool();
+      pool.setMaxSize(1);
+      String value = pool.intern(new String("One"));
+      assertSame(value, pool.intern(new String("One")));
+      String other = new String("Two");
+      assertSame(other, pool.intern(other));
+      assertEquals(1, pool.getSize());
+      assertEquals(1, pool.getHitCount());
+      assertEquals(2, pool.getMissCount());
+      assertNull(pool.intern(null));
+
+      pool.clear();
+      assertEquals(0, pool.getSize());
+      assertEquals(0, pool.getHitCount());
+   }
+
+   /**
+    * Validate that text values read from an MPP file share a single
+    * String instance with any equal value read previously.
+    *
+    * @param name file name
+    * @param values map of the values seen so far
+    * @param container task or resource
+    * @param fields text fields to validate
+    * @return number of values which repeat an earlier value
+    */
+   private int validateSharedValues(String name, Map<String, String> values, FieldContainer container, List<FieldType> fields)
+   {
+      int result = 0;
+      for (FieldType field : fields)
+      {
+         String value = (String) container.getCachedValue(field);
+         if (value == null || value.isEmpty())
+         {
+            continue;
+         }
+
+         String previous = values.putIfAbsent(value, value);
+         if (previous != null)
+         {
+            assertSame(name + " " + field, previous, value);
+            ++result;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Validate that text values read from the same MPP file by two separate
+    * readers are equal, but do not share the same String instance.
+    *
+    * @param name file name
+    * @param first tasks or resources from the first read
+    * @param second tasks or resources from the second read
+    * @param fields text fields to validate
+    */
+   private void validateSeparateValues(String name, List<? extends FieldContainer> first, List<? extends FieldContainer> second, List<FieldType> fields)
+   {
+      assertEquals(name, first.size(), second.size());
+      for (int index = 0; index < first.size(); index++)
+      {
+         for (FieldType field : fields)
+         {
+            String firstValue = (String) first.get(index).getCachedValue(field);
+            String secondValue = (String) second.get(index).getCachedValue(field);
+            assertEquals(name + " " + field, firstValue, secondValue);
+            if (firstValue != null && !firstValue.isEmpty())
+            {
+               assertNotSame(name + " " + field, firstValue, secondValue);
+            }
+         }
+      }
+   }
+
    /**
     * Validate the ID, Unique ID and name attributes.
     *
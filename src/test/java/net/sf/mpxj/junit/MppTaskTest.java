@@ -28,6 +28,9 @@ import static org.junit.Assert.*;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 import net.sf.mpxj.AccrueType;
@@ -41,6 +44,7 @@ import net.sf.mpxj.Relation;
 import net.sf.mpxj.RelationType;
 import net.sf.mpxj.Resource;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TaskType;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
@@ -49,6 +53,9 @@ import net.sf.mpxj.mspdi.MSPDIReader;
 
 import org.junit.Test;
 
+import com.rtfparserkit.converter.text.StringTextConverter;
+import com.rtfparserkit.parser.RtfStringSource;
+
 /**
  * Tests to exercise MPP file read functionality for various versions of
  * MPP file.
@@ -402,6 +409,84 @@ public class MppTaskTest
       testRelations(mpp);
    }
 
+   /**
+    * Test that notes converted from RTF when first retrieved match
+    * the text produced by the RTF parser.
+    *
+    * @throws Exception
+    */
+   @Test public void testRtfNotes() throws Exception
+   {
+      MppReaderComparison.compare(new String[]
+      {
+         "mpp9task.mpp",
+         "mpp12task.mpp",
+         "mpp14task.mpp",
+         "mpp9embedded.mpp",
+         "mpp12embedded.mpp",
+         "mpp14embedded.mpp"
+      }, reader -> reader.setPreserveNoteFormatting(true), (name, file, rtfFile) -> {
+         List<Task> tasks = file.getTasks();
+         List<Task> rtfTasks = rtfFile.getTasks();
+         assertEquals(rtfTasks.size(), tasks.size());
+
+         for (int index = 0; index < tasks.size(); index++)
+         {
+            String rtf = rtfTasks.get(index).getNotes();
+            String expected = "";
+            if (!rtf.isEmpty())
+            {
+               StringTextConverter converter = new StringTextConverter();
+               converter.convert(new RtfStringSource(rtf));
+               expected = converter.getText();
+               if (rtf.startsWith("{\\rtf") && expected.endsWith("\n"))
+               {
+                  expected = expected.substring(0, expected.length() - 1);
+               }
+            }
+            assertEquals(name, expected, tasks.get(index).getNotes());
+         }
+      });
+
+      Task task = new ProjectFile().addTask();
+      task.setRtfNotes("{\\rtf1\\ansi\\ansicpg1252{\\fonttbl{\\f0 Arial;}}\\uc1\\pard\\f0\\fs16 Line 1\\par Line 2\\par }");
+      assertEquals("Line 1\nLine 2", task.getNotes());
+      task.setRtfNotes("{\\rtf1 Replaced\\par }");
+      task.setNotes("{\\rtf1 Plain}");
+      assertEquals("{\\rtf1 Plain}", task.getNotes());
+
+      // Listeners receive the plain text
+      List<String> events = new ArrayList<>();
+      task.addFieldListener((container, type, oldValue, newValue) -> events.add(oldValue + "|" + newValue));
+      task.setRtfNotes("{\\rtf1 First\\par }");
+      task.setRtfNotes("{\\rtf1 Second\\par }");
+      assertEquals(Arrays.asList("{\\rtf1 Plain}|First", "First|Second"), events);
+      assertEquals("Second", task.getCachedValue(TaskField.NOTES));
+   }
+
+   /**
+    * Test reading a subset of task fields.
+    */
+   @Test public void testFieldProjection() throws Exception
+   {
+      MppReaderComparison.compare(new String[]
+      {
+         "mpp9task.mpp",
+         "mpp12task.mpp",
+         "mpp14task.mpp"
+      }, reader -> reader.setFieldProjection(new HashSet<>(Arrays.asList(TaskField.TEXT1, TaskField.NUMBER1))), (name, file, projectedFile) -> {
+         List<Task> tasks = file.getTasks();
+         List<Task> projectedTasks = projectedFile.getTasks();
+         assertEquals(name, "2", tasks.get(1).getText(2));
+         MppReaderComparison.assertFieldsEqual(name, tasks, projectedTasks, TaskField.UNIQUE_ID, TaskField.NAME, TaskField.OUTLINE_LEVEL, TaskField.TEXT1, TaskField.NUMBER1);
+
+         for (Task projectedTask : projectedTasks)
+         {
+            assertNull(name, projectedTask.getText(2));
+         }
+      });
+   }
+
    /**
     * Tests dozens of basic fields of a Task.
     * @param mpp The ProjectFile being tested.
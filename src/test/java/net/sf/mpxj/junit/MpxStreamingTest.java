@@ -0,0 +1,217 @@
+/*
+ * file:       MpxStreamingTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.listener.DefaultProjectListener;
+import net.sf.mpxj.mpx.MPXReader;
+
+/**
+ * Compare the tasks delivered by MPXReader in streaming mode
+ * with the tasks read without streaming.
+ */
+public class MpxStreamingTest
+{
+   /**
+    * Validate a well formed hierarchy, with relationships.
+    */
+   @Test public void testHierarchy() throws Exception
+   {
+      String text = generateFile(new int[]
+      {
+         0,
+         1,
+         2,
+         3,
+         3,
+         2,
+         1,
+         2,
+         1
+      });
+
+      List<String> expected = readTasks(text);
+      assertEquals(expected, readStreamedTasks(text));
+   }
+
+   /**
+    * Validate outline levels which skip a level, or fall below the
+    * level of the first task. Both modes must produce the same hierarchy.
+    */
+   @Test public void testBadOutline() throws Exception
+   {
+      String text = generateFile(new int[]
+      {
+         2,
+         4,
+         3,
+         5,
+         1,
+         3,
+         2
+      });
+
+      List<String> expected = readTasks(text);
+      assertEquals(expected, readStreamedTasks(text));
+   }
+
+   /**
+    * Validate that relationships are populated when not streaming,
+    * and are not populated when streaming.
+    */
+   @Test public void testRelations() throws Exception
+   {
+      String text = generateFile(new int[]
+      {
+         1,
+         1,
+         2,
+         2,
+         1
+      });
+
+      ProjectFile file = new MPXReader().read(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+      int relationCount = 0;
+      for (Task task : file.getTasks())
+      {
+         relationCount += task.getPredecessors().size();
+      }
+      assertEquals(4, relationCount);
+
+      List<Task> tasks = new ArrayList<>();
+      MPXReader reader = new MPXReader();
+      reader.setStreaming(true);
+      reader.addProjectListener(new DefaultProjectListener()
+      {
+         @Override public void taskRead(Task task)
+         {
+            tasks.add(task);
+         }
+      });
+
+      file = reader.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+      assertTrue(file.getTasks().isEmpty());
+      assertTrue(file.getChildTasks().isEmpty());
+      assertEquals(5, tasks.size());
+      for (Task task : tasks)
+      {
+         assertTrue(task.getPredecessors().isEmpty());
+         assertTrue(task.getSuccessors().isEmpty());
+      }
+   }
+
+   /**
+    * Read a file without streaming, and describe each task once
+    * the project structure has been built.
+    *
+    * @param text MPX file
+    * @return task descriptions
+    */
+   private List<String> readTasks(String text) throws Exception
+   {
+      ProjectFile file = new MPXReader().read(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+      List<String> result = new ArrayList<>();
+      for (Task task : file.getTasks())
+      {
+         result.add(describe(task));
+      }
+      return result;
+   }
+
+   /**
+    * Read a file in streaming mode, and describe each task as it
+    * is delivered to the listener.
+    *
+    * @param text MPX file
+    * @return task descriptions
+    */
+   private List<String> readStreamedTasks(String text) throws Exception
+   {
+      List<String> result = new ArrayList<>();
+      MPXReader reader = new MPXReader();
+      reader.setStreaming(true);
+      reader.addProjectListener(new DefaultProjectListener()
+      {
+         @Override public void taskRead(Task task)
+         {
+            result.add(describe(task));
+         }
+      });
+
+      ProjectFile file = reader.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+      assertTrue(file.getTasks().isEmpty());
+      return result;
+   }
+
+   /**
+    * Describe a task's position in the hierarchy.
+    *
+    * @param task task
+    * @return task description
+    */
+   private String describe(Task task)
+   {
+      Task parent = task.getParentTask();
+      return task.getID() + ":" + task.getName() + ":" + task.getOutlineLevel() + ":" + (parent == null ? "-" : parent.getID());
+   }
+
+   /**
+    * Generate an MPX file containing tasks with the given outline levels.
+    * From the second task onwards, each task has the previous task as
+    * its predecessor.
+    *
+    * @param outlineLevels task outline levels
+    * @return MPX file
+    */
+   private String generateFile(int[] outlineLevels)
+   {
+      StringBuilder sb = new StringBuilder();
+      sb.append("MPX,Microsoft Project for Windows,4.0,ANSI\r\n");
+      sb.append("60,ID,Unique ID,Name,Outline Level,Predecessors\r\n");
+      sb.append("61,90,98,1,3,70\r\n");
+
+      for (int index = 0; index < outlineLevels.length; index++)
+      {
+         int id = index + 1;
+         sb.append("70,").append(id).append(',').append(id).append(",Task ").append(id).append(',').append(outlineLevels[index]).append(',');
+         if (index != 0)
+         {
+            sb.append(id - 1);
+         }
+         sb.append("\r\n");
+      }
+
+      return sb.toString();
+   }
+}
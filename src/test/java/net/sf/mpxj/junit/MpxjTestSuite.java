@@ -26,6 +26,7 @@ package net.sf.mpxj.junit;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import net.sf.mpxj.fasttrack.FastTrackDataTest;
 import net.sf.mpxj.junit.assignment.AssignmentAssignmentsTest;
 import net.sf.mpxj.junit.assignment.AssignmentFlagsTest;
 import net.sf.mpxj.junit.assignment.AssignmentTextTest;
@@ -38,6 +39,7 @@ import net.sf.mpxj.junit.legacy.BasicTest;
 import net.sf.mpxj.junit.primavera.PrimaveraDatabaseReaderTest;
 import net.sf.mpxj.junit.project.DataLinksTest;
 import net.sf.mpxj.junit.project.DefaultDurationFormatTest;
+import net.sf.mpxj.junit.project.ProjectFileTest;
 import net.sf.mpxj.junit.project.ProjectPropertiesOnlyTest;
 import net.sf.mpxj.junit.project.ProjectPropertiesTest;
 import net.sf.mpxj.junit.project.ProjectValueListsTest;
@@ -150,7 +152,16 @@ import net.sf.mpxj.junit.task.TaskTextValuesTest;
    DataLinksTest.class,
    LocaleDataTest.class,
    MultiDayExceptionsTest.class,
-   CustomerDataTest.class
+   CustomerDataTest.class,
+   BytePatternMatcherTest.class,
+   DateParserTest.class,
+   TokenizerTest.class,
+   NumberParserTest.class,
+   MpxStreamingTest.class,
+   CriticalPathSchedulerTest.class,
+   RelationIndexTest.class,
+   ProjectFileTest.class,
+   FastTrackDataTest.class
 }) public class MpxjTestSuite
 {
    // No class body required
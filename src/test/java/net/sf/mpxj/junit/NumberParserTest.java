@@ -0,0 +1,157 @@
+/*
+ * file:       NumberParserTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.mpxj.common.NumberParser;
+
+/**
+ * Unit tests for the NumberParser class.
+ */
+public class NumberParserTest
+{
+   /**
+    * Validate plain decimal values.
+    */
+   @Test public void testParseDouble()
+   {
+      NumberParser parser = new NumberParser('.', ',', '-');
+      assertEquals(0.0, parser.parseDouble("0"), 0.0);
+      assertEquals(42.0, parser.parseDouble(" 42 "), 0.0);
+      assertEquals(-12.5, parser.parseDouble("-12.5"), 0.0);
+      assertEquals(0.1, parser.parseDouble("0.1"), 0.0);
+      assertEquals(0.5, parser.parseDouble(".5"), 0.0);
+      assertEquals(5.0, parser.parseDouble("5."), 0.0);
+      assertEquals(1.0, parser.parseDouble("0000000000000000001"), 0.0);
+      assertEquals(123456789012345.0, parser.parseDouble("123456789012345"), 0.0);
+   }
+
+   /**
+    * Validate grouping separators.
+    */
+   @Test public void testGrouping()
+   {
+      NumberParser parser = new NumberParser('.', ',', '-');
+      assertEquals(1234.5, parser.parseDouble("1,234.5"), 0.0);
+      assertEquals(-1234567.0, parser.parseDouble("-1,234,567"), 0.0);
+      assertTrue(Double.isNaN(parser.parseDouble(",123")));
+      assertTrue(Double.isNaN(parser.parseDouble("123,")));
+      assertTrue(Double.isNaN(parser.parseDouble("1,,234")));
+      assertTrue(Double.isNaN(parser.parseDouble("1.234,5")));
+
+      // Grouping not used
+      parser = new NumberParser('.', (char) 0, '-');
+      assertTrue(Double.isNaN(parser.parseDouble("1,234")));
+
+      // European format
+      parser = new NumberParser(',', '.', '-');
+      assertEquals(1234.5, parser.parseDouble("1.234,5"), 0.0);
+   }
+
+   /**
+    * Validate values which are not handled, and must be parsed
+    * by the caller using a DecimalFormat instance.
+    */
+   @Test public void testFallback()
+   {
+      NumberParser parser = new NumberParser('.', ',', '-');
+      assertTrue(Double.isNaN(parser.parseDouble("")));
+      assertTrue(Double.isNaN(parser.parseDouble("   ")));
+      assertTrue(Double.isNaN(parser.parseDouble("-")));
+      assertTrue(Double.isNaN(parser.parseDouble(".")));
+      assertTrue(Double.isNaN(parser.parseDouble("abc")));
+      assertTrue(Double.isNaN(parser.parseDouble("12a")));
+      assertTrue(Double.isNaN(parser.parseDouble("1.2.3")));
+      assertTrue(Double.isNaN(parser.parseDouble("--1")));
+      assertTrue(Double.isNaN(parser.parseDouble("+1")));
+      assertTrue(Double.isNaN(parser.parseDouble("1e5")));
+      assertTrue(Double.isNaN(parser.parseDouble("1.5E-3")));
+
+      // Too many significant digits to be represented exactly
+      assertTrue(Double.isNaN(parser.parseDouble("1234567890123456")));
+      assertTrue(Double.isNaN(parser.parseDouble("0.00000000000000000000001")));
+   }
+
+   /**
+    * Validate that the results match those produced by DecimalFormat.
+    */
+   @Test public void testMatchesDecimalFormat() throws Exception
+   {
+      DecimalFormat format = new DecimalFormat("#,##0.#####", new DecimalFormatSymbols(Locale.ENGLISH));
+      NumberParser parser = new NumberParser(format);
+      Random random = new Random(1);
+
+      for (int loop = 0; loop < 10000; loop++)
+      {
+         String text = format.format((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10)));
+         double value = parser.parseDouble(text);
+         assertFalse(text, Double.isNaN(value));
+         assertEquals(text, format.parse(text).doubleValue(), value, 0.0);
+      }
+   }
+
+   /**
+    * Validate integer parsing, including the edge cases
+    * which are passed to Integer.parseInt.
+    */
+   @Test public void testParseInt()
+   {
+      assertEquals(123, NumberParser.parseInt("123"));
+      assertEquals(-45, NumberParser.parseInt(" -45 "));
+      assertEquals(7, NumberParser.parseInt("+7"));
+      assertEquals(Integer.MAX_VALUE, NumberParser.parseInt("2147483647"));
+      assertEquals(Integer.MIN_VALUE, NumberParser.parseInt("-2147483648"));
+      assertEquals(12, NumberParser.parseInt("0000000012"));
+
+      for (String text : new String[]
+      {
+         "",
+         "-",
+         "12a",
+         "1.5",
+         "2147483648",
+         "99999999999"
+      })
+      {
+         try
+         {
+            NumberParser.parseInt(text);
+            fail("Expected NumberFormatException for " + text);
+         }
+
+         catch (NumberFormatException ex)
+         {
+            // Expected
+         }
+      }
+   }
+}
@@ -34,6 +34,8 @@ import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectCalendarException;
 import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RecurrenceType;
+import net.sf.mpxj.RecurringData;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.mpp.MPPReader;
@@ -710,4 +712,145 @@ public class ProjectCalendarTest
       //
       assertNull(cal.getStartTime(df.parse("11/10/2003 00:00")));
    }
+
+   /**
+    * Exercise exception lookup for a derived calendar which inherits,
+    * overrides, and partially overlaps exceptions from its base calendar.
+    *
+    * @throws Exception
+    */
+   @Test public void testDerivedCalendarExceptions() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      ProjectCalendar base = file.addDefaultBaseCalendar();
+      ProjectCalendar derived = file.addDefaultDerivedCalendar();
+      derived.setParent(base);
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+
+      ProjectCalendarException baseException = base.addCalendarException(df.parse("06/07/2020 00:00"), df.parse("10/07/2020 23:59"));
+
+      RecurringData recurring = new RecurringData();
+      recurring.setRecurrenceType(RecurrenceType.DAILY);
+      recurring.setStartDate(df.parse("20/07/2020 00:00"));
+      recurring.setOccurrences(Integer.valueOf(3));
+      recurring.setFrequency(Integer.valueOf(2));
+      ProjectCalendarException baseRecurring = base.addCalendarException(df.parse("20/07/2020 00:00"), df.parse("24/07/2020 23:59"));
+      baseRecurring.setRecurring(recurring);
+
+      //
+      // Inherited exceptions
+      //
+      assertNull(derived.getException(df.parse("05/07/2020 12:00")));
+      assertSame(baseException, derived.getException(df.parse("06/07/2020 12:00")));
+      assertSame(baseException, derived.getException(df.parse("10/07/2020 12:00")));
+      assertNotNull(derived.getException(df.parse("22/07/2020 12:00")));
+      assertNull(derived.getException(df.parse("23/07/2020 12:00")));
+
+      //
+      // A derived exception splits the base exception
+      //
+      ProjectCalendarException derivedException = derived.addCalendarException(df.parse("08/07/2020 00:00"), df.parse("08/07/2020 23:59"));
+      assertSame(baseException, derived.getException(df.parse("07/07/2020 12:00")));
+      assertSame(derivedException, derived.getException(df.parse("08/07/2020 12:00")));
+      assertSame(baseException, derived.getException(df.parse("09/07/2020 12:00")));
+      assertSame(baseException, base.getException(df.parse("08/07/2020 12:00")));
+
+      //
+      // A derived exception overlapping the end of a base exception
+      //
+      ProjectCalendarException overlapException = derived.addCalendarException(df.parse("10/07/2020 00:00"), df.parse("13/07/2020 23:59"));
+      assertSame(overlapException, derived.getException(df.parse("10/07/2020 12:00")));
+      assertSame(overlapException, derived.getException(df.parse("13/07/2020 12:00")));
+      assertNull(derived.getException(df.parse("14/07/2020 12:00")));
+
+      //
+      // A derived calendar with no exceptions of its own
+      //
+      ProjectCalendar inherited = file.addDefaultDerivedCalendar();
+      inherited.setParent(base);
+      assertSame(baseException, inherited.getException(df.parse("08/07/2020 12:00")));
+      assertNull(inherited.getException(df.parse("14/07/2020 12:00")));
+
+      //
+      // Changes to the base calendar are visible in the derived calendars
+      //
+      ProjectCalendarException newBaseException = base.addCalendarException(df.parse("14/07/2020 00:00"), df.parse("14/07/2020 23:59"));
+      assertSame(newBaseException, derived.getException(df.parse("14/07/2020 12:00")));
+      assertSame(newBaseException, inherited.getException(df.parse("14/07/2020 12:00")));
+
+      base.clearCalendarExceptions();
+      assertNull(derived.getException(df.parse("07/07/2020 12:00")));
+      assertSame(derivedException, derived.getException(df.parse("08/07/2020 12:00")));
+      assertNull(derived.getException(df.parse("22/07/2020 12:00")));
+      assertNull(inherited.getException(df.parse("08/07/2020 12:00")));
+
+      //
+      // Adding an exception to a calendar which shared its base calendar's index
+      //
+      ProjectCalendarException inheritedException = inherited.addCalendarException(df.parse("15/07/2020 00:00"), df.parse("15/07/2020 23:59"));
+      assertSame(inheritedException, inherited.getException(df.parse("15/07/2020 12:00")));
+      assertNull(base.getException(df.parse("15/07/2020 12:00")));
+   }
+
+   /**
+    * Exercise lookup of recurring exceptions, which are not expanded
+    * into individual occurrences, and their precedence over other
+    * exceptions.
+    *
+    * @throws Exception
+    */
+   @Test public void testRecurringCalendarExceptions() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      ProjectCalendar base = file.addDefaultBaseCalendar();
+      ProjectCalendar derived = file.addDefaultDerivedCalendar();
+      derived.setParent(base);
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+
+      //
+      // Every Monday for the next two thousand years
+      //
+      RecurringData mondays = new RecurringData();
+      mondays.setRecurrenceType(RecurrenceType.DAILY);
+      mondays.setStartDate(df.parse("06/07/2020 00:00"));
+      mondays.setOccurrences(Integer.valueOf(100000));
+      mondays.setFrequency(Integer.valueOf(7));
+      ProjectCalendarException baseRecurring = base.addCalendarException(df.parse("06/07/2020 00:00"), df.parse("06/07/2020 23:59"));
+      baseRecurring.setRecurring(mondays);
+
+      ProjectCalendarException occurrence = derived.getException(df.parse("02/01/2102 12:00"));
+      assertNotNull(occurrence);
+      assertEquals(df.parse("02/01/2102 00:00"), occurrence.getFromDate());
+      assertEquals(0, occurrence.getRangeCount());
+      assertNull(derived.getException(df.parse("03/01/2102 12:00")));
+      assertNull(derived.getException(df.parse("29/06/2020 12:00")));
+
+      //
+      // A non-recurring exception takes precedence over a
+      // recurring exception in the same calendar
+      //
+      ProjectCalendarException baseException = base.addCalendarException(df.parse("13/07/2020 00:00"), df.parse("17/07/2020 23:59"));
+      assertSame(baseException, derived.getException(df.parse("13/07/2020 12:00")));
+      assertNotNull(derived.getException(df.parse("20/07/2020 12:00")));
+
+      //
+      // A recurring exception in a derived calendar takes
+      // precedence over the base calendar's exceptions
+      //
+      RecurringData daily = new RecurringData();
+      daily.setRecurrenceType(RecurrenceType.DAILY);
+      daily.setStartDate(df.parse("13/07/2020 00:00"));
+      daily.setOccurrences(Integer.valueOf(2));
+      daily.setFrequency(Integer.valueOf(1));
+      ProjectCalendarException derivedRecurring = derived.addCalendarException(df.parse("13/07/2020 00:00"), df.parse("14/07/2020 23:59"));
+      derivedRecurring.addRange(new DateRange(df.parse("13/07/2020 10:00"), df.parse("13/07/2020 12:00")));
+      derivedRecurring.setRecurring(daily);
+
+      occurrence = derived.getException(df.parse("14/07/2020 12:00"));
+      assertEquals(df.parse("14/07/2020 00:00"), occurrence.getFromDate());
+      assertEquals(1, occurrence.getRangeCount());
+      assertSame(baseException, derived.getException(df.parse("15/07/2020 12:00")));
+      assertSame(baseException, base.getException(df.parse("14/07/2020 12:00")));
+      assertEquals(0, derived.getException(df.parse("20/07/2020 12:00")).getRangeCount());
+   }
 }
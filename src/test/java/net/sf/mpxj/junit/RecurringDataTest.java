@@ -33,6 +33,7 @@ import java.util.Date;
 import org.junit.Test;
 
 import net.sf.mpxj.Day;
+import net.sf.mpxj.RecurrenceIterator;
 import net.sf.mpxj.RecurrenceType;
 import net.sf.mpxj.RecurringData;
 
@@ -188,6 +189,60 @@ public class RecurringDataTest
       testDates(data, "15/06/2018", "15/06/2019", "15/06/2020");
    }
 
+   /**
+    * Test skipping through a recurrence without generating every date.
+    */
+   @Test public void testIterator() throws Exception
+   {
+      RecurringData data = new RecurringData();
+      data.setRecurrenceType(RecurrenceType.MONTHLY);
+      data.setRelative(true);
+      data.setDayNumber(Integer.valueOf(3));
+      data.setDayOfWeek(Day.WEDNESDAY);
+      data.setFrequency(Integer.valueOf(2));
+      data.setStartDate(m_df.parse("07/11/2017"));
+      data.setOccurrences(Integer.valueOf(50));
+
+      assertTrue(data.contains(m_df.parse("15/11/2017")));
+      assertFalse(data.contains(m_df.parse("16/11/2017")));
+      assertFalse(data.contains(m_df.parse("20/12/2017")));
+      assertTrue(data.contains(m_df.parse("21/03/2018")));
+      assertEquals("21/03/2018", m_df.format(data.getNextDate(m_df.parse("18/01/2018"))));
+
+      //
+      // The 50th occurrence is the last
+      //
+      assertEquals("21/01/2026", m_df.format(data.getNextDate(m_df.parse("01/12/2025"))));
+      assertNull(data.getNextDate(m_df.parse("22/01/2026")));
+
+      //
+      // Skipping produces the same dates as stepping through the recurrence
+      //
+      Date[] dates = data.getDates();
+      RecurrenceIterator iter = data.iterator();
+      for (int index = 0; index < dates.length; index += 3)
+      {
+         long day = RecurrenceIterator.getEpochDay(dates[index]);
+         assertTrue(iter.contains(day));
+         assertEquals(m_df.format(dates[index]), m_df.format(iter.getDate(iter.next())));
+         assertFalse(iter.contains(day + 1));
+      }
+
+      data.setRecurrenceType(RecurrenceType.WEEKLY);
+      data.setFrequency(Integer.valueOf(2));
+      data.setWeeklyDay(Day.MONDAY, true);
+      data.setWeeklyDay(Day.FRIDAY, true);
+      data.setStartDate(m_df.parse("01/11/2017"));
+      data.setOccurrences(null);
+      data.setFinishDate(m_df.parse("31/12/2018"));
+      assertTrue(data.contains(m_df.parse("03/11/2017")));
+      assertTrue(data.contains(m_df.parse("06/11/2017")));
+      assertFalse(data.contains(m_df.parse("10/11/2017")));
+      assertEquals("19/11/2018", m_df.format(data.getNextDate(m_df.parse("17/11/2018"))));
+      assertEquals("31/12/2018", m_df.format(data.getNextDate(m_df.parse("29/12/2018"))));
+      assertNull(data.getNextDate(m_df.parse("01/01/2019")));
+   }
+
    /**
     * Validate the generated dates. Note that the test data sets the number of occurrences,
     * but no finish date. This method swaps those around to ensure that both methods of
@@ -0,0 +1,163 @@
+/*
+ * file:       RelationIndexTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       02/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationIndex;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Unit tests for the RelationIndex class.
+ */
+public class RelationIndexTest
+{
+   /**
+    * Validate adjacency, ordering and reachability for a small network.
+    */
+   @Test public void testRelationIndex()
+   {
+      ProjectFile file = new ProjectFile();
+      Task a = file.addTask();
+      Task b = file.addTask();
+      Task c = file.addTask();
+      Task d = file.addTask();
+      Task e = file.addTask();
+
+      d.addPredecessor(b, RelationType.FINISH_START, null);
+      d.addPredecessor(c, RelationType.START_START, Duration.getInstance(2, TimeUnit.HOURS));
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      c.addPredecessor(a, RelationType.FINISH_FINISH, null);
+
+      RelationIndex index = file.getRelationIndex();
+      assertSame(index, file.getRelationIndex());
+      assertEquals(5, index.getTaskCount());
+      assertEquals(4, index.getRelationCount());
+
+      int ordinalA = index.getOrdinal(a);
+      int ordinalD = index.getOrdinal(d);
+      int ordinalE = index.getOrdinal(e);
+      assertSame(d, index.getTask(ordinalD));
+      assertEquals(2, index.getSuccessorCount(ordinalA));
+      assertEquals(0, index.getPredecessorCount(ordinalA));
+      assertEquals(2, index.getPredecessorCount(ordinalD));
+      assertEquals(0, index.getSuccessorCount(ordinalE));
+
+      int relation = index.getPredecessorRelation(ordinalD, 1);
+      assertSame(c, index.getTask(index.getPredecessor(ordinalD, 1)));
+      assertEquals(index.getOrdinal(c), index.getRelationPredecessor(relation));
+      assertEquals(ordinalD, index.getRelationSuccessor(relation));
+      assertEquals(RelationType.START_START, index.getRelationType(relation));
+      assertEquals(2.0, index.getRelationLag(relation), 0.0);
+      assertEquals(TimeUnit.HOURS, index.getRelationLagUnits(relation));
+      assertSame(d.getPredecessors().get(1), index.getRelation(relation));
+
+      assertFalse(index.hasCycle());
+      assertTrue(index.getCycle().isEmpty());
+      int[] order = index.getTopologicalOrder();
+      int[] rank = new int[order.length];
+      for (int position = 0; position < order.length; position++)
+      {
+         rank[order[position]] = position;
+      }
+      for (relation = 0; relation < index.getRelationCount(); relation++)
+      {
+         assertTrue(rank[index.getRelationPredecessor(relation)] < rank[index.getRelationSuccessor(relation)]);
+      }
+
+      assertTrue(index.isReachable(a, d));
+      assertTrue(index.isReachable(a, a));
+      assertFalse(index.isReachable(d, a));
+      assertFalse(index.isReachable(a, e));
+      assertEquals(3, index.getReachable(ordinalA).cardinality());
+
+      //
+      // Changes to the relations are reflected in a new index
+      //
+      e.addPredecessor(d, RelationType.FINISH_START, null);
+      index = file.getRelationIndex();
+      assertTrue(index.isReachable(a, e));
+
+      d.removePredecessor(b, RelationType.FINISH_START, null);
+      d.removePredecessor(c, RelationType.START_START, Duration.getInstance(2, TimeUnit.HOURS));
+      index = file.getRelationIndex();
+      assertEquals(3, index.getRelationCount());
+      assertFalse(index.isReachable(a, e));
+   }
+
+   /**
+    * Validate cycle detection.
+    */
+   @Test public void testCycle()
+   {
+      ProjectFile file = new ProjectFile();
+      Task a = file.addTask();
+      Task b = file.addTask();
+      Task c = file.addTask();
+      Task d = file.addTask();
+
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      c.addPredecessor(b, RelationType.FINISH_START, null);
+      d.addPredecessor(c, RelationType.FINISH_START, null);
+      b.addPredecessor(d, RelationType.FINISH_START, null);
+
+      RelationIndex index = file.getRelationIndex();
+      assertTrue(index.hasCycle());
+      assertNull(index.getTopologicalOrder());
+      assertTrue(index.isReachable(d, c));
+      assertTrue(index.getReachable(index.getOrdinal(b)).get(index.getOrdinal(b)));
+
+      List<Task> cycle = index.getCycle();
+      assertEquals(3, cycle.size());
+      assertTrue(cycle.containsAll(Arrays.asList(b, c, d)));
+      for (int position = 0; position < cycle.size(); position++)
+      {
+         Task next = cycle.get((position + 1) % cycle.size());
+         assertTrue(index.isReachable(index.getOrdinal(cycle.get(position)), index.getOrdinal(next)));
+         assertNotNull(findPredecessor(next, cycle.get(position)));
+      }
+   }
+
+   /**
+    * Find the relation linking a task to one of its predecessors.
+    *
+    * @param task successor task
+    * @param predecessor predecessor task
+    * @return relation, or null if not found
+    */
+   private Relation findPredecessor(Task task, Task predecessor)
+   {
+      return task.getPredecessors().stream().filter(r -> r.getTargetTask() == predecessor).findFirst().orElse(null);
+   }
+}
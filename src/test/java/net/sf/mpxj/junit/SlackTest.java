@@ -24,9 +24,14 @@
 package net.sf.mpxj.junit;
 
 import static org.junit.Assert.*;
+
+import java.util.List;
+
+import net.sf.mpxj.DerivedFieldCalculator;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.mpp.MPPReader;
 
@@ -166,4 +171,59 @@ public class SlackTest
       assertEquals(Duration.getInstance(0, TimeUnit.DAYS), task.getTotalSlack());
 
    }
+
+   /**
+    * Validate that calculating derived fields for all tasks in parallel
+    * gives the same results as calculating them for each task in turn.
+    *
+    * @throws Exception
+    */
+   @Test public void testComputeDerivedFields() throws Exception
+   {
+      ProjectFile expected = new MPPReader().read(MpxjTestData.filePath("slack9.mpp"));
+      for (Task task : expected.getTasks())
+      {
+         task.getCostVariance();
+         task.getDurationVariance();
+         task.getWorkVariance();
+         task.getCV();
+         task.getSV();
+         task.getStartVariance();
+         task.getFinishVariance();
+         task.getCritical();
+         task.getCompleteThrough();
+      }
+
+      ProjectFile actual = new MPPReader().read(MpxjTestData.filePath("slack9.mpp"));
+      new DerivedFieldCalculator().computeDerivedFields(actual);
+
+      List<Task> expectedTasks = expected.getTasks();
+      List<Task> actualTasks = actual.getTasks();
+      assertEquals(expectedTasks.size(), actualTasks.size());
+      for (int index = 0; index < expectedTasks.size(); index++)
+      {
+         for (TaskField field : DERIVED_FIELDS)
+         {
+            assertEquals(expectedTasks.get(index).getCachedValue(field), actualTasks.get(index).getCachedValue(field));
+         }
+      }
+
+      assertNotNull(actual.getTaskByID(Integer.valueOf(1)).getCachedValue(TaskField.START_VARIANCE));
+   }
+
+   private static final TaskField[] DERIVED_FIELDS =
+   {
+      TaskField.COST_VARIANCE,
+      TaskField.DURATION_VARIANCE,
+      TaskField.WORK_VARIANCE,
+      TaskField.CV,
+      TaskField.SV,
+      TaskField.START_VARIANCE,
+      TaskField.FINISH_VARIANCE,
+      TaskField.START_SLACK,
+      TaskField.FINISH_SLACK,
+      TaskField.TOTAL_SLACK,
+      TaskField.CRITICAL,
+      TaskField.COMPLETE_THROUGH
+   };
 }
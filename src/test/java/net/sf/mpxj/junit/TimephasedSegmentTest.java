@@ -27,8 +27,10 @@ import static org.junit.Assert.*;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 import net.sf.mpxj.DateRange;
 import net.sf.mpxj.Duration;
@@ -39,6 +41,8 @@ import net.sf.mpxj.Task;
 import net.sf.mpxj.TimephasedWork;
 import net.sf.mpxj.mpp.MPPReader;
 import net.sf.mpxj.mpp.TimescaleUnits;
+import net.sf.mpxj.utility.TimephasedAggregator;
+import net.sf.mpxj.utility.TimephasedSeries;
 import net.sf.mpxj.utility.TimephasedUtility;
 import net.sf.mpxj.utility.TimescaleUtility;
 
@@ -1099,6 +1103,23 @@ public class TimephasedSegmentTest
          1160,
          0
       }, false);
+
+      //
+      // Project level roll up matches the sum of the individual assignments
+      //
+      ArrayList<DateRange> dateList = m_timescale.createTimescale(startDate, TimescaleUnits.WEEKS, 4);
+      double[] expected = new double[dateList.size()];
+      for (ResourceAssignment projectAssignment : file.getResourceAssignments())
+      {
+         ArrayList<Duration> durationList = m_timephased.segmentWork(projectAssignment.getCalendar(), projectAssignment.getTimephasedWork(), TimescaleUnits.WEEKS, dateList);
+         for (int loop = 0; loop < expected.length; loop++)
+         {
+            expected[loop] += durationList.get(loop).getDuration();
+         }
+      }
+
+      double[] totals = new TimephasedAggregator(file).getProjectWork(ResourceAssignment::getTimephasedWork).getTotals(dateList);
+      assertArrayEquals(expected, totals, 0.009);
    }
 
    /**
@@ -1123,6 +1144,17 @@ public class TimephasedSegmentTest
       {
          assertEquals("Failed at index " + loop, expected[loop], durationList.get(loop).getDuration(), 0.009);
       }
+
+      //
+      // Validate the aggregated data against the same expected values
+      //
+      Function<ResourceAssignment, List<TimephasedWork>> data = complete ? ResourceAssignment::getTimephasedActualWork : ResourceAssignment::getTimephasedWork;
+      TimephasedSeries series = new TimephasedAggregator(assignment.getParentFile()).getWork(Collections.singletonList(assignment), data);
+      double[] totals = series.getTotals(dateList);
+      for (int loop = 0; loop < expected.length; loop++)
+      {
+         assertEquals("Aggregation failed at index " + loop, expected[loop], totals[loop], 0.009);
+      }
    }
 
    /*
@@ -27,6 +27,7 @@ import static org.junit.Assert.*;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -39,6 +40,8 @@ import net.sf.mpxj.TimephasedCost;
 import net.sf.mpxj.TimephasedWork;
 import net.sf.mpxj.mpp.MPPReader;
 import net.sf.mpxj.mpp.TimescaleUnits;
+import net.sf.mpxj.utility.TimephasedAggregator;
+import net.sf.mpxj.utility.TimephasedSeries;
 import net.sf.mpxj.utility.TimephasedUtility;
 import net.sf.mpxj.utility.TimescaleUtility;
 
@@ -826,6 +829,16 @@ public class TimephasedSegmentTest2
       {
          assertEquals("Failed at index " + loop, expected[loop], costList.get(loop).doubleValue(), 0.02);
       }
+
+      //
+      // Validate the aggregated data against the same expected values
+      //
+      TimephasedSeries series = new TimephasedAggregator(assignment.getParentFile()).getCost(Collections.singletonList(assignment), a -> assignments);
+      double[] totals = series.getTotals(dateList);
+      for (int loop = 0; loop < expected.length; loop++)
+      {
+         assertEquals("Aggregation failed at index " + loop, expected[loop], totals[loop], 0.02);
+      }
    }
 
    /*
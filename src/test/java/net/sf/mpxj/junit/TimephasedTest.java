@@ -122,6 +122,42 @@ public class TimephasedTest
       testTimephased(file);
    }
 
+   /**
+    * Ensure that timephased data decoded on first use matches
+    * the data decoded when the file is read.
+    *
+    * @throws Exception
+    */
+   @Test public void testLazyTimephasedData() throws Exception
+   {
+      MppReaderComparison.compare(new String[]
+      {
+         "mpp9timephased2.mpp",
+         "mpp12timephased2.mpp",
+         "mpp14timephased2.mpp",
+         "mpp9baseline.mpp",
+         "mpp12baseline.mpp",
+         "mpp14baseline.mpp",
+         "mpp14assignmentfields.mpp"
+      }, reader -> reader.setLazyTimephasedData(true), (name, expectedFile, actualFile) -> {
+         List<ResourceAssignment> expectedAssignments = expectedFile.getResourceAssignments();
+         List<ResourceAssignment> actualAssignments = actualFile.getResourceAssignments();
+         assertEquals(name, expectedAssignments.size(), actualAssignments.size());
+
+         for (int index = 0; index < expectedAssignments.size(); index++)
+         {
+            ResourceAssignment expected = expectedAssignments.get(index);
+            ResourceAssignment actual = actualAssignments.get(index);
+            assertEquals(name, expected.getTimephasedActualOvertimeWork(), actual.getTimephasedActualOvertimeWork());
+            for (int baseline = 0; baseline <= 10; baseline++)
+            {
+               assertEquals(name, expected.getTimephasedBaselineWork(baseline), actual.getTimephasedBaselineWork(baseline));
+               assertEquals(name, expected.getTimephasedBaselineCost(baseline), actual.getTimephasedBaselineCost(baseline));
+            }
+         }
+      });
+   }
+
    /**
     * Common timephased resource assignment tests.
     *
@@ -0,0 +1,280 @@
+/*
+ * file:       TokenizerTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.mpxj.common.ReaderTokenizer;
+import net.sf.mpxj.common.Tokenizer;
+
+/**
+ * Unit tests for the Tokenizer class.
+ */
+public class TokenizerTest
+{
+   /**
+    * Validate tokens returned as a slice of the current block.
+    */
+   @Test public void testSlice() throws IOException
+   {
+      Tokenizer tk = new ReaderTokenizer(new StringReader("abc,,de\r\nf\n"));
+
+      assertEquals(Tokenizer.TT_WORD, tk.nextToken());
+      CharSequence token = tk.getTokenSequence();
+      assertEquals(3, token.length());
+      assertEquals('a', token.charAt(0));
+      assertEquals('c', token.charAt(2));
+      assertEquals("bc", token.subSequence(1, 3).toString());
+      assertEquals("abc", token.toString());
+      assertEquals("abc", tk.getToken());
+
+      try
+      {
+         token.charAt(3);
+         fail("Expected IndexOutOfBoundsException");
+      }
+
+      catch (IndexOutOfBoundsException ex)
+      {
+         // Expected
+      }
+
+      try
+      {
+         token.subSequence(2, 4);
+         fail("Expected IndexOutOfBoundsException");
+      }
+
+      catch (IndexOutOfBoundsException ex)
+      {
+         // Expected
+      }
+
+      assertEquals(Tokenizer.TT_WORD, tk.nextToken());
+      assertEquals(0, tk.getTokenSequence().length());
+      assertEquals("", tk.getToken());
+
+      // Carriage return is removed from the end of the line
+      assertEquals(Tokenizer.TT_WORD, tk.nextToken());
+      assertEquals("de", tk.getTokenSequence().toString());
+      assertEquals(Tokenizer.TT_EOL, tk.nextToken());
+
+      assertEquals(Tokenizer.TT_WORD, tk.nextToken());
+      assertEquals("f", tk.getToken());
+      assertEquals(Tokenizer.TT_EOL, tk.nextToken());
+      assertEquals(Tokenizer.TT_EOF, tk.nextToken());
+   }
+
+   /**
+    * Validate quoted tokens, which are not returned as slices.
+    */
+   @Test public void testQuoted() throws IOException
+   {
+      Tokenizer tk = new ReaderTokenizer(new StringReader("\"a,b\",\"c\"\"d\",e\"f\n"));
+      assertEquals(Arrays.asList("a,b", "c\"d", "e\"f", "<EOL>"), readAll(tk));
+   }
+
+   /**
+    * Validate tokens which span block boundaries. The tokens read in
+    * blocks are compared with the tokens read one character at a time.
+    */
+   @Test public void testBlockBoundary() throws IOException
+   {
+      String text = generateText(new Random(1), 40000);
+      List<String> expected = readAll(new SingleCharacterTokenizer(text));
+
+      // The default block size, so tokens span the boundary between large blocks
+      assertEquals(expected, readAll(new ReaderTokenizer(new StringReader(text))));
+
+      // Short reads, so most tokens span several blocks
+      for (int chunk = 1; chunk < 12; chunk++)
+      {
+         assertEquals(expected, readAll(new ReaderTokenizer(new ChunkedReader(text, chunk))));
+      }
+   }
+
+   /**
+    * Validate that a token which spans a block boundary is
+    * available as a CharSequence.
+    */
+   @Test public void testSequenceAcrossBoundary() throws IOException
+   {
+      Tokenizer tk = new ReaderTokenizer(new ChunkedReader("abcdef,ghi\n", 4));
+      assertEquals(Tokenizer.TT_WORD, tk.nextToken());
+      CharSequence token = tk.getTokenSequence();
+      assertEquals(6, token.length());
+      assertEquals("abcdef", token.toString());
+      assertEquals(Tokenizer.TT_WORD, tk.nextToken());
+      assertEquals("ghi", tk.getTokenSequence().toString());
+      assertEquals(Tokenizer.TT_EOL, tk.nextToken());
+      assertEquals(Tokenizer.TT_EOF, tk.nextToken());
+   }
+
+   /**
+    * Read all tokens, representing line ends as a marker.
+    *
+    * @param tk tokenizer
+    * @return list of tokens
+    */
+   private List<String> readAll(Tokenizer tk) throws IOException
+   {
+      List<String> result = new ArrayList<>();
+      int type;
+      while ((type = tk.nextToken()) != Tokenizer.TT_EOF)
+      {
+         if (type == Tokenizer.TT_EOL)
+         {
+            result.add("<EOL>");
+         }
+         else
+         {
+            String token = tk.getToken();
+            assertEquals(token, tk.getTokenSequence().toString());
+            result.add(token);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Generate records containing plain, empty and quoted fields.
+    *
+    * @param random random number generator
+    * @param length approximate length of text
+    * @return generated text
+    */
+   private String generateText(Random random, int length)
+   {
+      StringBuilder sb = new StringBuilder();
+      while (sb.length() < length)
+      {
+         int fields = 1 + random.nextInt(8);
+         for (int field = 0; field < fields; field++)
+         {
+            if (field != 0)
+            {
+               sb.append(',');
+            }
+
+            switch (random.nextInt(4))
+            {
+               case 0:
+               {
+                  break;
+               }
+
+               case 1:
+               {
+                  sb.append("\"x,").append(random.nextInt(1000)).append("\"\"y\"");
+                  break;
+               }
+
+               default:
+               {
+                  int size = random.nextInt(30);
+                  for (int index = 0; index < size; index++)
+                  {
+                     sb.append((char) ('a' + random.nextInt(26)));
+                  }
+                  break;
+               }
+            }
+         }
+         sb.append(random.nextBoolean() ? "\n" : "\r\n");
+      }
+      return sb.toString();
+   }
+
+   /**
+    * Tokenizer which only reads one character at a time.
+    */
+   private static final class SingleCharacterTokenizer extends Tokenizer
+   {
+      /**
+       * Constructor.
+       *
+       * @param text text to tokenize
+       */
+      public SingleCharacterTokenizer(String text)
+      {
+         m_reader = new StringReader(text);
+      }
+
+      @Override protected int read() throws IOException
+      {
+         return m_reader.read();
+      }
+
+      private final Reader m_reader;
+   }
+
+   /**
+    * Reader which returns at most a fixed number of characters from each read.
+    */
+   private static final class ChunkedReader extends Reader
+   {
+      /**
+       * Constructor.
+       *
+       * @param text text to read
+       * @param chunk maximum number of characters returned by each read
+       */
+      public ChunkedReader(String text, int chunk)
+      {
+         m_text = text;
+         m_chunk = chunk;
+      }
+
+      @Override public int read(char[] buffer, int offset, int length)
+      {
+         if (m_position == m_text.length())
+         {
+            return -1;
+         }
+         int count = Math.min(Math.min(length, m_chunk), m_text.length() - m_position);
+         m_text.getChars(m_position, m_position + count, buffer, offset);
+         m_position += count;
+         return count;
+      }
+
+      @Override public void close()
+      {
+         // Nothing to close
+      }
+
+      private final String m_text;
+      private final int m_chunk;
+      private int m_position;
+   }
+}
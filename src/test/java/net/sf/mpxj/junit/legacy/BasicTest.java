@@ -1687,14 +1687,15 @@ public class BasicTest
       assertEquals(8, mpp.getResourceAssignments().size());
 
       //
-      // Remove a task with no assignments
+      // Remove a task with no resources assigned. The task still has an
+      // assignment without a resource, which is removed with the task.
       //
       Task task = mpp.getTaskByUniqueID(Integer.valueOf(1));
       assertEquals("Task One", task.getName());
       task.remove();
       assertEquals(9, mpp.getTasks().size());
       assertEquals(8, mpp.getResources().size());
-      assertEquals(8, mpp.getResourceAssignments().size());
+      assertEquals(7, mpp.getResourceAssignments().size());
 
       //
       // Remove a resource with no assignments
@@ -1704,7 +1705,7 @@ public class BasicTest
       resource.remove();
       assertEquals(9, mpp.getTasks().size());
       assertEquals(7, mpp.getResources().size());
-      assertEquals(8, mpp.getResourceAssignments().size());
+      assertEquals(7, mpp.getResourceAssignments().size());
 
       //
       // Remove a task with a single assignment
@@ -1714,7 +1715,7 @@ public class BasicTest
       task.remove();
       assertEquals(8, mpp.getTasks().size());
       assertEquals(7, mpp.getResources().size());
-      assertEquals(7, mpp.getResourceAssignments().size());
+      assertEquals(6, mpp.getResourceAssignments().size());
 
       //
       // Remove a resource with a single assignment
@@ -1724,7 +1725,7 @@ public class BasicTest
       resource.remove();
       assertEquals(8, mpp.getTasks().size());
       assertEquals(6, mpp.getResources().size());
-      assertEquals(6, mpp.getResourceAssignments().size());
+      assertEquals(5, mpp.getResourceAssignments().size());
 
       //
       // Remove an assignment
@@ -1745,7 +1746,7 @@ public class BasicTest
       assertEquals(0, assignments.size());
       assertEquals(8, mpp.getTasks().size());
       assertEquals(6, mpp.getResources().size());
-      assertEquals(5, mpp.getResourceAssignments().size());
+      assertEquals(4, mpp.getResourceAssignments().size());
 
       //
       // Remove a task with child tasks - the child tasks will also be removed
@@ -1755,7 +1756,7 @@ public class BasicTest
       task.remove();
       assertEquals(6, mpp.getTasks().size());
       assertEquals(6, mpp.getResources().size());
-      assertEquals(4, mpp.getResourceAssignments().size());
+      assertEquals(3, mpp.getResourceAssignments().size());
 
       //
       // As we have removed tasks and resources, call the synchronize methods
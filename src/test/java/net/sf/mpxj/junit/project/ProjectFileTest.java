@@ -0,0 +1,155 @@
+/*
+ * file:       ProjectFileTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2020
+ * date:       14/07/2020
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.project;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Unit tests for the ProjectFile class.
+ */
+public class ProjectFileTest
+{
+   /**
+    * Validate that field change events are combined during a batch of updates.
+    */
+   @Test public void testBatchUpdate()
+   {
+      ProjectFile file = new ProjectFile();
+      Task task = file.addTask();
+      task.setUniqueID(Integer.valueOf(1));
+      task.setDuration(Duration.getInstance(5, TimeUnit.DAYS));
+      task.setBaselineDuration(Duration.getInstance(4, TimeUnit.DAYS));
+      assertEquals(1.0, task.getDurationVariance().getDuration(), 0.0);
+
+      List<String> events = new ArrayList<>();
+      task.addFieldListener((container, type, oldValue, newValue) -> events.add(type + ":" + oldValue + ":" + newValue));
+
+      file.beginBatchUpdate();
+      try
+      {
+         task.setPercentageComplete(Integer.valueOf(10));
+         task.setPercentageComplete(Integer.valueOf(50));
+         task.setName("Task 1");
+         task.setName(null);
+         task.setUniqueID(Integer.valueOf(2));
+         task.setDuration(Duration.getInstance(6, TimeUnit.DAYS));
+
+         //
+         // Listeners are not notified during the batch, but calculated
+         // values and the unique ID mapping are kept up to date
+         //
+         assertTrue(events.isEmpty());
+         assertEquals(2.0, task.getDurationVariance().getDuration(), 0.0);
+         assertSame(task, file.getTaskByUniqueID(Integer.valueOf(2)));
+         assertNull(file.getTaskByUniqueID(Integer.valueOf(1)));
+      }
+
+      finally
+      {
+         file.endBatchUpdate();
+      }
+
+      //
+      // One event per changed field, fields restored to their original value are not reported.
+      // The duration variance was recalculated when it was read during the batch.
+      //
+      assertEquals(Arrays.asList(TaskField.PERCENT_COMPLETE + ":null:50", TaskField.UNIQUE_ID + ":1:2", TaskField.DURATION + ":5.0d:6.0d", TaskField.DURATION_VARIANCE + ":null:2.0d"), events);
+
+      events.clear();
+      task.setPercentageComplete(Integer.valueOf(60));
+      assertEquals(Arrays.asList(TaskField.PERCENT_COMPLETE + ":50:60"), events);
+   }
+
+   /**
+    * Validate that a listener throwing an exception when a batch ends
+    * does not prevent events being sent once the batch has ended,
+    * or during the next batch.
+    */
+   @Test public void testBatchUpdateListenerException()
+   {
+      ProjectFile file = new ProjectFile();
+      Task task = file.addTask();
+      Resource resource = file.addResource();
+
+      List<String> events = new ArrayList<>();
+      task.addFieldListener((container, type, oldValue, newValue) -> {
+         throw new IllegalStateException();
+      });
+      resource.addFieldListener((container, type, oldValue, newValue) -> events.add(type + ":" + oldValue + ":" + newValue));
+
+      file.beginBatchUpdate();
+      try
+      {
+         task.setName("Task 1");
+         resource.setName("Resource 1");
+      }
+
+      finally
+      {
+         try
+         {
+            file.endBatchUpdate();
+            fail("Expected IllegalStateException");
+         }
+
+         catch (IllegalStateException ex)
+         {
+            // Expected
+         }
+      }
+
+      assertFalse(file.isBatchUpdate());
+      assertTrue(events.isEmpty());
+
+      resource.setName("Resource 2");
+      assertEquals(Arrays.asList(ResourceField.NAME + ":Resource 1:Resource 2"), events);
+
+      events.clear();
+      file.beginBatchUpdate();
+      try
+      {
+         resource.setName("Resource 3");
+      }
+
+      finally
+      {
+         file.endBatchUpdate();
+      }
+      assertEquals(Arrays.asList(ResourceField.NAME + ":Resource 2:Resource 3"), events);
+   }
+}
@@ -25,10 +25,14 @@ package net.sf.mpxj.junit.project;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Resource;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskContainer;
 
 /**
  * Test to exercise TaskContainer functionality.
@@ -69,4 +73,64 @@ public class TaskContainerTest
       assertEquals(task3, task2.getChildTasks().get(0));
       assertEquals(task4, task3.getChildTasks().get(0));
    }
+
+   /**
+    * Validate removal of groups of tasks.
+    */
+   @Test public void testRemoveAll()
+   {
+      ProjectFile file = new ProjectFile();
+      Resource resource = file.addResource();
+
+      Task summary1 = file.addTask();
+      Task task1 = summary1.addTask();
+      Task summary2 = summary1.addTask();
+      Task task2 = summary2.addTask();
+      Task task3 = summary2.addTask();
+      Task task4 = summary1.addTask();
+      Task task5 = file.addTask();
+      Task task6 = file.addTask();
+
+      int id = 1;
+      for (Task task : file.getTasks())
+      {
+         task.setID(Integer.valueOf(id));
+         task.setUniqueID(Integer.valueOf(id));
+         ++id;
+      }
+
+      task1.addResourceAssignment(resource);
+      task2.addResourceAssignment(resource);
+      task3.addResourceAssignment(resource);
+      task5.addResourceAssignment(resource);
+      assertEquals(4, resource.getTaskAssignments().size());
+
+      TaskContainer tasks = file.getTasks();
+      assertTrue(tasks.removeAll(Arrays.asList(summary2, task4, task6)));
+
+      //
+      // Child tasks are removed along with their parent
+      //
+      assertEquals(Arrays.asList(summary1, task1, task5), tasks);
+      assertEquals(Arrays.asList(summary1, task5), file.getChildTasks());
+      assertEquals(Arrays.asList(task1), summary1.getChildTasks());
+      assertTrue(summary1.getSummary());
+      assertNull(summary2.getParentTask());
+      assertNull(task2.getParentTask());
+
+      assertNull(tasks.getByID(summary2.getID()));
+      assertNull(tasks.getByUniqueID(task3.getUniqueID()));
+      assertSame(task5, tasks.getByUniqueID(task5.getUniqueID()));
+
+      assertEquals(2, file.getResourceAssignments().size());
+      assertEquals(2, resource.getTaskAssignments().size());
+      assertTrue(task2.getResourceAssignments().isEmpty());
+      assertEquals(1, task1.getResourceAssignments().size());
+
+      assertFalse(tasks.removeAll(Arrays.asList(task2)));
+
+      tasks.removeAll(Arrays.asList(task1));
+      assertFalse(summary1.getSummary());
+      assertEquals(1, resource.getTaskAssignments().size());
+   }
 }